@@ -29,20 +29,34 @@ public class CommunityApiClient {
     }
 
     public boolean isReferredForMappa(final OffenderNumber offenderNumber) {
+        return requireNonNull(checkMappaReferral(offenderNumber)
+            .block(dataComplianceProperties.getCommunityApiTimeout()));
+    }
+
+    /**
+     * Non-blocking variant of {@link #isReferredForMappa(OffenderNumber)},
+     * bounded by the configured Community API timeout.
+     */
+    public Mono<Boolean> isReferredForMappaAsync(final OffenderNumber offenderNumber) {
+        return checkMappaReferral(offenderNumber)
+            .timeout(dataComplianceProperties.getCommunityApiTimeout());
+    }
+
+    private Mono<Boolean> checkMappaReferral(final OffenderNumber offenderNumber) {
         final var url = dataComplianceProperties.getCommunityApiBaseUrl() +
             format(MAPPA_RISK_PATH, offenderNumber.getOffenderNumber());
 
         log.debug("Executing a MAPPA (Multi-Agency Public Protection Arrangements) check to {} for offender '{}'", url, offenderNumber.getOffenderNumber());
 
-        final var response = webClient.get()
+        return webClient.get()
             .uri(url)
             .retrieve()
             .onStatus(NOT_FOUND::equals, ignored -> Mono.empty())
             .toBodilessEntity()
-            .block(dataComplianceProperties.getCommunityApiTimeout());
-
-        final HttpStatus statusCode = requireNonNull(response).getStatusCode();
-        log.debug("Received response for request to {} for offender '{}'. Status code: '{}'", url, offenderNumber.getOffenderNumber(), statusCode.value());
-        return statusCode.is2xxSuccessful();
+            .map(response -> {
+                final HttpStatus statusCode = response.getStatusCode();
+                log.debug("Received response for request to {} for offender '{}'. Status code: '{}'", url, offenderNumber.getOffenderNumber(), statusCode.value());
+                return statusCode.is2xxSuccessful();
+            });
     }
 }
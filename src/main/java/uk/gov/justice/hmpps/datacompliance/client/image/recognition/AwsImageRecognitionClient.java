@@ -38,6 +38,9 @@ import static uk.gov.justice.hmpps.datacompliance.utils.Result.success;
 @ConditionalOnProperty(name = "image.recognition.provider")
 public class AwsImageRecognitionClient implements ImageRecognitionClient {
 
+    // The maximum number of matches Rekognition will return from a face search:
+    static final int MAX_SEARCH_FACES = 4096;
+
     private final String collectionId;
     private final double faceSimilarityThreshold;
     private final RekognitionClient client;
@@ -74,6 +77,34 @@ public class AwsImageRecognitionClient implements ImageRecognitionClient {
         return result.hasFaceMatches() ? transformFaceMatches(result.faceMatches()) : emptySet();
     }
 
+    @Override
+    public Optional<Set<FaceMatch>> findMatchesAmong(final FaceId faceId,
+                                                     final Set<FaceId> candidateFaceIds,
+                                                     final double similarityThreshold) {
+
+        log.trace("Finding face matches for faceId: '{}' among: {}", faceId.getFaceId(), candidateFaceIds);
+
+        final var result = client.searchFaces(SearchFacesRequest.builder()
+            .collectionId(collectionId)
+            .faceId(faceId.getFaceId())
+            .faceMatchThreshold((float) similarityThreshold)
+            .maxFaces(MAX_SEARCH_FACES)
+            .build());
+
+        final var faceMatches = result.hasFaceMatches() ? result.faceMatches() : List.<software.amazon.awssdk.services.rekognition.model.FaceMatch>of();
+
+        // The search cannot be restricted to the candidates, so if the results were
+        // truncated a similar candidate may have been left out:
+        if (faceMatches.size() >= MAX_SEARCH_FACES) {
+            log.debug("Too many face matches for faceId: '{}' to search among candidates", faceId.getFaceId());
+            return Optional.empty();
+        }
+
+        return Optional.of(transformFaceMatches(faceMatches).stream()
+            .filter(match -> candidateFaceIds.contains(new FaceId(match.getFaceId())))
+            .collect(toSet()));
+    }
+
     @Override
     public Optional<Double> getSimilarity(final OffenderImage image1, final OffenderImage image2) {
 
@@ -20,6 +20,14 @@ public interface ImageRecognitionClient {
      */
     Set<FaceMatch> findMatchesFor(FaceId faceId);
 
+    /**
+     * Find the faces among the candidates that match the provided faceId with
+     * at least the given similarity (value 0.0 - 100.0), without needing the
+     * image data. Empty if the collection cannot be searched exhaustively,
+     * in which case candidates missing from the matches may still be similar.
+     */
+    Optional<Set<FaceMatch>> findMatchesAmong(FaceId faceId, Set<FaceId> candidateFaceIds, double similarityThreshold);
+
     /**
      * Compare two images and return the strongest similarity between faces
      * in those images (value 0.0 - 100.0).
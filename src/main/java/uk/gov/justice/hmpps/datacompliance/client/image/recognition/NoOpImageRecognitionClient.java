@@ -34,6 +34,14 @@ public class NoOpImageRecognitionClient implements ImageRecognitionClient {
         return emptySet();
     }
 
+    @Override
+    public Optional<Set<FaceMatch>> findMatchesAmong(final FaceId faceId,
+                                                     final Set<FaceId> candidateFaceIds,
+                                                     final double similarityThreshold) {
+        log.warn("Pretending to search faces matching faceId: '{}'", faceId.getFaceId());
+        return Optional.empty();
+    }
+
     @Override
     public Optional<Double> getSimilarity(final OffenderImage image1, final OffenderImage image2) {
         log.warn("Pretending to compare images: '{}' and '{}'", image1.getImageId(), image2.getImageId());
@@ -29,12 +29,26 @@ public class PathfinderApiClient {
     }
 
     public boolean isReferredToPathfinder(final OffenderNumber offenderNumber) {
+        return requireNonNull(checkReferral(offenderNumber)
+            .block(dataComplianceProperties.getPathfinderApiTimeout()));
+    }
+
+    /**
+     * Non-blocking variant of {@link #isReferredToPathfinder(OffenderNumber)},
+     * bounded by the configured Pathfinder API timeout.
+     */
+    public Mono<Boolean> isReferredToPathfinderAsync(final OffenderNumber offenderNumber) {
+        return checkReferral(offenderNumber)
+            .timeout(dataComplianceProperties.getPathfinderApiTimeout());
+    }
+
+    private Mono<Boolean> checkReferral(final OffenderNumber offenderNumber) {
         final var url = dataComplianceProperties.getPathfinderApiBaseUrl() +
             format(PATHFINDER_PATH, offenderNumber.getOffenderNumber());
 
         log.debug("Executing a path finder check to {} for offender '{}'", url, offenderNumber.getOffenderNumber());
 
-        final var response = webClient.get()
+        return webClient.get()
             .uri(url)
             .retrieve()
 
@@ -42,10 +56,10 @@ public class PathfinderApiClient {
             .onStatus(NOT_FOUND::equals, ignored -> Mono.empty())
 
             .toBodilessEntity()
-            .block(dataComplianceProperties.getPathfinderApiTimeout());
-
-        final HttpStatus statusCode = requireNonNull(response).getStatusCode();
-        log.debug("Received response for request to {} for offender '{}'. Status code: '{}'", url, offenderNumber.getOffenderNumber(), statusCode.value());
-        return statusCode.is2xxSuccessful();
+            .map(response -> {
+                final HttpStatus statusCode = response.getStatusCode();
+                log.debug("Received response for request to {} for offender '{}'. Status code: '{}'", url, offenderNumber.getOffenderNumber(), statusCode.value());
+                return statusCode.is2xxSuccessful();
+            });
     }
 }
@@ -0,0 +1,20 @@
+package uk.gov.justice.hmpps.datacompliance.client.prisonapi;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Holds the image data downloaded from the Prison API, keyed by image id,
+ * so that an image compared more than once (e.g. once per duplicate pair)
+ * or uploaded again is only downloaded once.
+ */
+public interface ImageDataCache {
+
+    /**
+     * Returns the cached image data, performing the lookup and
+     * caching its data if absent. Missing image data is not cached.
+     */
+    Optional<byte[]> get(long imageId, Supplier<Optional<byte[]>> lookup);
+
+    void invalidateAll();
+}
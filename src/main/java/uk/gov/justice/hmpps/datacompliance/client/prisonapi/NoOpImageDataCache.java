@@ -0,0 +1,28 @@
+package uk.gov.justice.hmpps.datacompliance.client.prisonapi;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "prison.api.image.cache.maximum.bytes", matchIfMissing = true, havingValue = "no value set")
+public class NoOpImageDataCache implements ImageDataCache {
+
+    public NoOpImageDataCache() {
+        log.info("Configured to download image data without caching");
+    }
+
+    @Override
+    public Optional<byte[]> get(final long imageId, final Supplier<Optional<byte[]>> lookup) {
+        return lookup.get();
+    }
+
+    @Override
+    public void invalidateAll() {
+        // Nothing cached
+    }
+}
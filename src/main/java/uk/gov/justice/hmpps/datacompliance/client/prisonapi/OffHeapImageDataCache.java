@@ -0,0 +1,143 @@
+package uk.gov.justice.hmpps.datacompliance.client.prisonapi;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+
+/**
+ * A cache of image data bounded by the total number of bytes held,
+ * evicting the least recently used images first.
+ *
+ * The image data is held in direct buffers, outside of the heap, so the
+ * budget must fit within the JVM's maximum direct memory (which defaults
+ * to the maximum heap size). Evicted buffers are only freed once they are
+ * garbage collected, so -XX:MaxDirectMemorySize should allow headroom
+ * above the budget.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "prison.api.image.cache.maximum.bytes")
+public class OffHeapImageDataCache implements ImageDataCache {
+
+    private static final String METRIC_NAME = "data_compliance.image.data.cache";
+
+    private final Cache<Long, ByteBuffer> cache;
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final Counter bytesSaved;
+
+    public OffHeapImageDataCache(@Value("${prison.api.image.cache.maximum.bytes}") final long maximumBytes,
+                                 final MeterRegistry meterRegistry) {
+
+        log.info("Caching image data off heap, up to {} bytes", maximumBytes);
+
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((Long imageId, ByteBuffer data) -> data.capacity())
+            .removalListener((RemovalNotification<Long, ByteBuffer> removed) -> cachedBytes.addAndGet(-removed.getValue().capacity()))
+            .recordStats()
+            .build();
+
+        GuavaCacheMetrics.monitor(meterRegistry, cache, METRIC_NAME);
+
+        this.bytesSaved = Counter.builder(METRIC_NAME + ".bytes.saved")
+            .description("The number of bytes of image data served from the cache rather than downloaded")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+
+        Gauge.builder(METRIC_NAME + ".bytes", cachedBytes, AtomicLong::get)
+            .description("The number of bytes of image data held in the cache")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Concurrent misses for the same image wait for the one lookup, rather than
+     * each downloading the image and allocating a buffer for it.
+     */
+    @Override
+    public Optional<byte[]> get(final long imageId, final Supplier<Optional<byte[]>> lookup) {
+
+        final var downloaded = new AtomicReference<byte[]>();
+
+        try {
+
+            final var cached = cache.get(imageId, () -> {
+                final var data = lookup.get().orElseThrow(NoImageData::new);
+                downloaded.set(data);
+                cachedBytes.addAndGet(data.length);
+                return toDirectBuffer(data);
+            });
+
+            if (downloaded.get() != null) {
+                return Optional.of(downloaded.get());
+            }
+
+            log.debug("Using cached image data for image: '{}'", imageId);
+            bytesSaved.increment(cached.capacity());
+            return Optional.of(toBytes(cached));
+
+        } catch (final UncheckedExecutionException e) {
+
+            if (e.getCause() instanceof NoImageData) {
+                return Optional.empty();
+            }
+
+            throwIfUnchecked(e.getCause());
+            throw e;
+
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Failed to look up image data for image: " + imageId, e.getCause());
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    CacheStats getStatistics() {
+        return cache.stats();
+    }
+
+    long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    private static ByteBuffer toDirectBuffer(final byte[] data) {
+        return ByteBuffer.allocateDirect(data.length).put(data).flip().asReadOnlyBuffer();
+    }
+
+    private static byte[] toBytes(final ByteBuffer buffer) {
+        final var data = new byte[buffer.capacity()];
+        buffer.duplicate().rewind().get(data);
+        return data;
+    }
+
+    /**
+     * Signals that there is no image data to cache, as the loader cannot return null.
+     */
+    private static class NoImageData extends RuntimeException {
+        private NoImageData() {
+            super(null, null, false, false);
+        }
+    }
+}
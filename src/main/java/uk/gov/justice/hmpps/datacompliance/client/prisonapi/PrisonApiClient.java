@@ -38,11 +38,14 @@ public class PrisonApiClient {
 
     private final WebClient webClient;
     private final DataComplianceProperties dataComplianceProperties;
+    private final ImageDataCache imageDataCache;
 
     public PrisonApiClient(@Qualifier("authorizedWebClient") final WebClient webClient,
-                           final DataComplianceProperties dataComplianceProperties) {
+                           final DataComplianceProperties dataComplianceProperties,
+                           final ImageDataCache imageDataCache) {
         this.webClient = webClient;
         this.dataComplianceProperties = dataComplianceProperties;
+        this.imageDataCache = imageDataCache;
     }
 
     public OffenderNumbersResponse getOffenderNumbers(final long offset, final long limit) {
@@ -98,16 +101,21 @@ public class PrisonApiClient {
 
     public Optional<OffenderImage> getImageData(final OffenderNumber offenderNumber, final long imageId) {
 
+        return imageDataCache.get(imageId, () -> downloadImageData(imageId))
+            .map(data -> OffenderImage.builder()
+                .offenderNumber(offenderNumber)
+                .imageId(imageId)
+                .imageData(data)
+                .build());
+    }
+
+    private Optional<byte[]> downloadImageData(final long imageId) {
+
         return webClient.get()
             .uri(dataComplianceProperties.getPrisonApiBaseUrl() + format(IMAGE_DATA_PATH, imageId))
             .accept(IMAGE_JPEG)
             .retrieve()
             .bodyToMono(byte[].class)
-            .map(data -> OffenderImage.builder()
-                .offenderNumber(offenderNumber)
-                .imageId(imageId)
-                .imageData(data)
-                .build())
 
             // Handling edge case where image had no image data and a 404 response was returned
             .onErrorResume(WebClientResponseException.class,
@@ -27,6 +27,7 @@ public class DataComplianceProperties {
     private final long prisonApiOffenderIdsLimit;
     private final long prisonApiOffenderIdsInitialOffset;
     private final Long prisonApiOffenderIdsTotalPages;
+    private final int prisonApiOffenderIdsPrefetchPages; // Pages of offender numbers fetched ahead of those being processed
     private final String pathfinderApiBaseUrl;
     private final Duration pathfinderApiTimeout;
     private final String communityApiBaseUrl;
@@ -44,12 +45,29 @@ public class DataComplianceProperties {
     private final boolean mappaCheckEnabled; // Check Delius (via community api) for MAPPA
     private final double falsePositiveDuplicateImageSimilarityThreshold;
     private final int falsePositiveDuplicateRequiredImageCount;
+    private final int falsePositiveDuplicateCheckThreads;
+    private final Duration falsePositiveDuplicateCheckTimeout; // Requested checks still outstanding after this are requested again
+    private final int falsePositiveDuplicateComparisonThreads; // Image fetches and comparisons are made on the calling thread if not set
+    private final double falsePositiveDuplicateComparisonsPerSecond; // Shared limit on Rekognition compareFaces calls, no limit if not set
+    private final boolean falsePositiveDuplicateFaceSearchEnabled; // Compare images already indexed in the collection by face ID rather than image data
+    private final boolean concurrentRetentionChecksEnabled; // Run the synchronous remote retention checks in parallel
+    private final int retentionCheckThreads;
+    private final Duration retentionCheckTimeout;
+    private final boolean shortCircuitRetentionChecksEnabled; // Skip remote retention checks once a cheaper check requires retention
+    private final boolean requestQueueBatchingEnabled; // Send request queue messages in batches with SendMessageBatch
+    private final Duration requestQueueBatchLinger; // How long a message may wait for its batch to fill
+    private final boolean requestQueueAsyncEnabled; // Send request queue messages on background threads rather than the caller's
+    private final int requestQueueMaxInFlight; // Callers wait once this many asynchronous sends are in flight
+    private final boolean requestQueueOutboxEnabled; // Write request queue messages to the outbox in the caller's transaction, for the relay to send
+    private final int responseQueuePartitions; // Lanes by offender number in which responses are handled in turn, not partitioned if not set
+    private final int deletionResultChunkSize; // Offenders from a deletion result saved in each transaction
 
     public DataComplianceProperties(@Value("${prison.api.base.url}") @URL final String prisonApiBaseUrl,
                                     @Value("${prison.api.offender.ids.iteration.threads:1}") final int prisonApiOffenderIdsIterationThreads,
                                     @Value("${prison.api.offender.ids.page.limit:100}") final long prisonApiOffenderIdsLimit,
                                     @Value("${prison.api.offender.ids.initial.offset:0}") final long prisonApiOffenderIdsInitialOffset,
                                     @Value("${prison.api.offender.ids.total.pages:#{null}}") final Long prisonApiOffenderIdsTotalPages,
+                                    @Value("${prison.api.offender.ids.prefetch.pages:2}") final int prisonApiOffenderIdsPrefetchPages,
                                     @Value("${pathfinder.api.base.url}") @URL final String pathfinderApiBaseUrl,
                                     @Value("${pathfinder.api.timeout:5s}") final Duration pathfinderApiTimeout,
                                     @Value("${community.api.base.url}") @URL final String communityApiBaseUrl,
@@ -66,12 +84,29 @@ public class DataComplianceProperties {
                                     @Value("${offender.retention.false.positive.duplicate.check.enabled}") final boolean falsePositiveDuplicateCheckEnabled,
                                     @Value("${offender.retention.mappa.check.enabled}") final boolean mappaCheckEnabled,
                                     @Value("${offender.retention.false.positive.duplicate.image.similarity.threshold:80}") final double falsePositiveDuplicateImageSimilarityThreshold,
-                                    @Value("${offender.retention.false.positive.duplicate.required.image.count:1}") final int falsePositiveDuplicateRequiredImageCount) {
+                                    @Value("${offender.retention.false.positive.duplicate.required.image.count:1}") final int falsePositiveDuplicateRequiredImageCount,
+                                    @Value("${offender.retention.false.positive.duplicate.check.threads:2}") final int falsePositiveDuplicateCheckThreads,
+                                    @Value("${offender.retention.false.positive.duplicate.check.timeout:1h}") final Duration falsePositiveDuplicateCheckTimeout,
+                                    @Value("${offender.retention.false.positive.duplicate.comparison.threads:4}") final int falsePositiveDuplicateComparisonThreads,
+                                    @Value("${offender.retention.false.positive.duplicate.comparisons.per.second:5}") final double falsePositiveDuplicateComparisonsPerSecond,
+                                    @Value("${offender.retention.false.positive.duplicate.face.search.enabled:false}") final boolean falsePositiveDuplicateFaceSearchEnabled,
+                                    @Value("${offender.retention.concurrent.checks.enabled:false}") final boolean concurrentRetentionChecksEnabled,
+                                    @Value("${offender.retention.check.threads:4}") final int retentionCheckThreads,
+                                    @Value("${offender.retention.check.timeout:30s}") final Duration retentionCheckTimeout,
+                                    @Value("${offender.retention.short.circuit.checks.enabled:false}") final boolean shortCircuitRetentionChecksEnabled,
+                                    @Value("${request.queue.batching.enabled:false}") final boolean requestQueueBatchingEnabled,
+                                    @Value("${request.queue.batch.linger:100ms}") final Duration requestQueueBatchLinger,
+                                    @Value("${request.queue.async.enabled:false}") final boolean requestQueueAsyncEnabled,
+                                    @Value("${request.queue.max.in.flight:10}") final int requestQueueMaxInFlight,
+                                    @Value("${request.queue.outbox.enabled:false}") final boolean requestQueueOutboxEnabled,
+                                    @Value("${response.queue.partitions:0}") final int responseQueuePartitions,
+                                    @Value("${deletion.result.chunk.size:100}") final int deletionResultChunkSize) {
 
         log.info("Image upload - number of threads: {}", prisonApiOffenderIdsIterationThreads);
         log.info("Image upload - page limit: {}", prisonApiOffenderIdsLimit);
         log.info("Image upload - initial offset: {}", prisonApiOffenderIdsInitialOffset);
         log.info("Image upload - total pages: {}", prisonApiOffenderIdsTotalPages);
+        log.info("Image upload - prefetch pages: {}", prisonApiOffenderIdsPrefetchPages);
         log.info("Deletion grant enabled: {}", deletionGrantEnabled);
         log.info("Deletion review required: {}", reviewRequired);
         log.info("Image Recognition deletion enabled: {}", imageRecognitionDeletionEnabled);
@@ -80,13 +115,30 @@ public class DataComplianceProperties {
         log.info("Data Duplicate - SQL query check enabled: {}", databaseDataDuplicateCheckEnabled);
         log.info("Data Duplicate - Analytical Platform check enabled: {}", analyticalPlatformDataDuplicateCheckEnabled);
         log.info("Data Duplicate - False positive check enabled: {}", falsePositiveDuplicateCheckEnabled);
+        log.info("Data Duplicate - False positive check number of threads: {}", falsePositiveDuplicateCheckThreads);
+        log.info("Data Duplicate - False positive check timeout: {}", falsePositiveDuplicateCheckTimeout);
+        log.info("Data Duplicate - False positive image comparison threads: {}", falsePositiveDuplicateComparisonThreads);
+        log.info("Data Duplicate - False positive image comparisons per second: {}", falsePositiveDuplicateComparisonsPerSecond);
+        log.info("Data Duplicate - False positive face search enabled: {}", falsePositiveDuplicateFaceSearchEnabled);
         log.info("MAPPA check enabled: {}", mappaCheckEnabled);
+        log.info("Concurrent retention checks enabled: {}", concurrentRetentionChecksEnabled);
+        log.info("Retention checks - number of threads: {}", retentionCheckThreads);
+        log.info("Retention checks - timeout: {}", retentionCheckTimeout);
+        log.info("Short circuit retention checks enabled: {}", shortCircuitRetentionChecksEnabled);
+        log.info("Request queue batching enabled: {}", requestQueueBatchingEnabled);
+        log.info("Request queue batch linger: {}", requestQueueBatchLinger);
+        log.info("Request queue asynchronous sends enabled: {}", requestQueueAsyncEnabled);
+        log.info("Request queue maximum sends in flight: {}", requestQueueMaxInFlight);
+        log.info("Request queue outbox enabled: {}", requestQueueOutboxEnabled);
+        log.info("Response queue partitions: {}", responseQueuePartitions);
+        log.info("Deletion result chunk size: {}", deletionResultChunkSize);
 
         this.prisonApiBaseUrl = prisonApiBaseUrl;
         this.prisonApiOffenderIdsIterationThreads = prisonApiOffenderIdsIterationThreads;
         this.prisonApiOffenderIdsLimit = prisonApiOffenderIdsLimit;
         this.prisonApiOffenderIdsInitialOffset = prisonApiOffenderIdsInitialOffset;
         this.prisonApiOffenderIdsTotalPages = prisonApiOffenderIdsTotalPages;
+        this.prisonApiOffenderIdsPrefetchPages = prisonApiOffenderIdsPrefetchPages;
         this.pathfinderApiBaseUrl = pathfinderApiBaseUrl;
         this.pathfinderApiTimeout = pathfinderApiTimeout;
         this.communityApiBaseUrl = communityApiBaseUrl;
@@ -104,6 +156,22 @@ public class DataComplianceProperties {
         this.mappaCheckEnabled = mappaCheckEnabled;
         this.falsePositiveDuplicateImageSimilarityThreshold = falsePositiveDuplicateImageSimilarityThreshold;
         this.falsePositiveDuplicateRequiredImageCount = falsePositiveDuplicateRequiredImageCount;
+        this.falsePositiveDuplicateCheckThreads = falsePositiveDuplicateCheckThreads;
+        this.falsePositiveDuplicateCheckTimeout = falsePositiveDuplicateCheckTimeout;
+        this.falsePositiveDuplicateComparisonThreads = falsePositiveDuplicateComparisonThreads;
+        this.falsePositiveDuplicateComparisonsPerSecond = falsePositiveDuplicateComparisonsPerSecond;
+        this.falsePositiveDuplicateFaceSearchEnabled = falsePositiveDuplicateFaceSearchEnabled;
+        this.concurrentRetentionChecksEnabled = concurrentRetentionChecksEnabled;
+        this.retentionCheckThreads = retentionCheckThreads;
+        this.retentionCheckTimeout = retentionCheckTimeout;
+        this.shortCircuitRetentionChecksEnabled = shortCircuitRetentionChecksEnabled;
+        this.requestQueueBatchingEnabled = requestQueueBatchingEnabled;
+        this.requestQueueBatchLinger = requestQueueBatchLinger;
+        this.requestQueueAsyncEnabled = requestQueueAsyncEnabled;
+        this.requestQueueMaxInFlight = requestQueueMaxInFlight;
+        this.requestQueueOutboxEnabled = requestQueueOutboxEnabled;
+        this.responseQueuePartitions = responseQueuePartitions;
+        this.deletionResultChunkSize = deletionResultChunkSize;
     }
 
     public Optional<Long> getOffenderIdsTotalPages() {
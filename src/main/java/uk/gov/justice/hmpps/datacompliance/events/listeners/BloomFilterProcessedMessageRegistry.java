@@ -0,0 +1,157 @@
+package uk.gov.justice.hmpps.datacompliance.events.listeners;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.message.ProcessedMessageRepository;
+import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Records processed messages in the database, fronted by an in-memory Bloom
+ * filter of their IDs so that the usual case, a message that has not been
+ * seen before, needs no database lookup. Only IDs the filter might contain
+ * (a redelivery or the occasional false positive) are looked up.
+ *
+ * Messages may be handled by any instance, so the filter is topped up
+ * periodically with the IDs recorded by the other instances. This happens
+ * well within the queue's visibility timeout, before SQS would redeliver.
+ * Records older than the retention period are purged and the filter rebuilt,
+ * as entries cannot be removed from a Bloom filter.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "response.queue.processed.message.retention")
+public class BloomFilterProcessedMessageRegistry implements ProcessedMessageRegistry {
+
+    // Allows for clock differences between instances recording messages:
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final ProcessedMessageRepository repository;
+    private final TimeSource timeSource;
+    private final Duration retention;
+    private final long expectedMessages;
+    private final double falsePositiveProbability;
+
+    private final AtomicReference<BloomFilter<CharSequence>> filter = new AtomicReference<>();
+    private LocalDateTime refreshedAt;
+
+    public BloomFilterProcessedMessageRegistry(final ProcessedMessageRepository repository,
+                                               final TimeSource timeSource,
+                                               @Value("${response.queue.processed.message.retention}") final Duration retention,
+                                               @Value("${response.queue.processed.message.expected.count:1000000}") final long expectedMessages,
+                                               @Value("${response.queue.processed.message.false.positive.probability:0.01}") final double falsePositiveProbability) {
+
+        log.info("Ignoring redelivered response queue messages, recording processed messages for {}, expecting up to {}",
+            retention, expectedMessages);
+
+        this.repository = repository;
+        this.timeSource = timeSource;
+        this.retention = retention;
+        this.expectedMessages = expectedMessages;
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    @Override
+    public boolean isProcessed(final String messageId) {
+
+        final var current = filter.get();
+
+        // Until the filter has been loaded, every message is looked up:
+        if (current != null && !current.mightContain(messageId)) {
+            return false;
+        }
+
+        return repository.existsById(messageId);
+    }
+
+    /**
+     * The message ID's primary key is the guard against the message being
+     * handled twice. If the caller's transaction is rolled back, the ID is
+     * left in the filter as a false positive.
+     */
+    @Override
+    public boolean recordProcessed(final String messageId, final String eventType) {
+
+        try {
+            repository.insert(messageId, eventType, timeSource.nowAsLocalDateTime());
+        } catch (final DataIntegrityViolationException e) {
+            log.debug("Message: '{}' has already been recorded as processed", messageId);
+            return false;
+        }
+
+        final var current = filter.get();
+
+        if (current != null) {
+            current.put(messageId);
+        }
+
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${response.queue.processed.message.refresh.interval:PT10S}")
+    public synchronized void refresh() {
+
+        final var current = filter.get();
+
+        if (current == null) {
+            rebuild();
+            return;
+        }
+
+        final var now = timeSource.nowAsLocalDateTime();
+
+        try (final var messageIds = repository.findMessageIdsProcessedSince(refreshedAt.minus(REFRESH_OVERLAP))) {
+            messageIds.forEach(current::put);
+        }
+        refreshedAt = now;
+
+        if (current.approximateElementCount() > expectedMessages) {
+            log.warn("Processed message filter holds more than the {} messages expected, " +
+                "so will increasingly need to look up messages that have not been processed", expectedMessages);
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${response.queue.processed.message.purge.interval:PT1H}")
+    public synchronized void purge() {
+
+        final var purged = repository.deleteProcessedBefore(timeSource.nowAsLocalDateTime().minus(retention));
+
+        log.debug("Purged {} processed message records", purged);
+
+        rebuild();
+    }
+
+    /**
+     * IDs recorded by this instance while the filter is rebuilt may miss the
+     * new filter, but will be picked up by the next refresh. The IDs are
+     * streamed into the filter rather than loaded into memory all at once.
+     */
+    private void rebuild() {
+
+        final var now = timeSource.nowAsLocalDateTime();
+        final var rebuilt = BloomFilter.create(Funnels.stringFunnel(UTF_8), expectedMessages, falsePositiveProbability);
+
+        try (final var messageIds = repository.findMessageIdsProcessedSince(now.minus(retention))) {
+            messageIds.forEach(rebuilt::put);
+        }
+
+        filter.set(rebuilt);
+        refreshedAt = now;
+
+        log.debug("Loaded processed message filter with approximately {} messages", rebuilt.approximateElementCount());
+    }
+}
@@ -1,18 +1,26 @@
 package uk.gov.justice.hmpps.datacompliance.events.listeners;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.support.JmsHeaders;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.AdHocOffenderDeletion;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DataDuplicateResult;
-import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DeceasedOffenderDeletionResult;
+import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DeceasedOffenderDeletionResult.DeceasedOffender;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.FreeTextSearchResult;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderDeletionComplete;
-import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderNoBookingDeletionResult;
+import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderNoBookingDeletionResult.Offender;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderPendingDeletion;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderPendingDeletionReferralComplete;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderRestrictionResult;
@@ -20,14 +28,18 @@ import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.ProvisionalDelet
 import uk.gov.justice.hmpps.datacompliance.services.deletion.DeceasedDeletionService;
 import uk.gov.justice.hmpps.datacompliance.services.deletion.DeletionService;
 import uk.gov.justice.hmpps.datacompliance.services.deletion.OffenderNoBookingDeletionService;
+import uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics;
 import uk.gov.justice.hmpps.datacompliance.services.referral.ReferralService;
 import uk.gov.justice.hmpps.datacompliance.services.retention.RetentionService;
 
+import javax.persistence.OptimisticLockException;
 import java.io.IOException;
 import java.util.Map;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static io.github.resilience4j.core.IntervalFunction.ofExponentialRandomBackoff;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.DATABASE;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.ID;
 
@@ -48,12 +60,48 @@ public class DataComplianceEventListener {
     private static final String DECEASED_OFFENDER_DELETION_RESULT = "DATA_COMPLIANCE_DECEASED-OFFENDER-DELETION-RESULT";
     private static final String OFFENDER_NO_BOOKING_DELETION_RESULT = "DATA_COMPLIANCE_OFFENDER-NO-BOOKING-DELETION-RESULT";
 
+    private static final int CONFLICT_RETRY_MAX_ATTEMPTS = 5;
+    private static final long CONFLICT_RETRY_INITIAL_INTERVAL = 50;
+    private static final double CONFLICT_RETRY_MULTIPLIER = 2;
+
+    /**
+     * Retention check results for the same referral can conflict when they are
+     * applied at the same time, in which case the losing result is re-applied
+     * in a new transaction.
+     */
+    private static final Set<String> CONFLICTING_EVENTS = Set.of(
+        DATA_DUPLICATE_ID_RESULT,
+        DATA_DUPLICATE_DB_RESULT,
+        FREE_TEXT_MORATORIUM_RESULT,
+        OFFENDER_RESTRICTION_RESULT);
+
+    /**
+     * Deletion results are saved a chunk at a time, each chunk in its own
+     * transaction, so cannot be handled in the transaction that records the
+     * message. They are recorded once handled, and resume from the last chunk
+     * saved if handled again.
+     */
+    private static final Set<String> CHUNKED_EVENTS = Set.of(
+        DECEASED_OFFENDER_DELETION_RESULT,
+        OFFENDER_NO_BOOKING_DELETION_RESULT);
+
+    private static final RetryConfig CONFLICT_RETRY_CONFIG = RetryConfig.custom()
+        .maxAttempts(CONFLICT_RETRY_MAX_ATTEMPTS)
+        .intervalFunction(ofExponentialRandomBackoff(CONFLICT_RETRY_INITIAL_INTERVAL, CONFLICT_RETRY_MULTIPLIER))
+        .retryExceptions(OptimisticLockingFailureException.class, OptimisticLockException.class)
+        .build();
+
     private final ObjectMapper objectMapper;
     private final ReferralService referralService;
     private final RetentionService retentionService;
     private final DeletionService deletionService;
     private final DeceasedDeletionService deceasedDeletionService;
     private final OffenderNoBookingDeletionService offenderNoBookingDeletionService;
+    private final DataComplianceMetrics metrics;
+    private final ProcessedMessageRegistry processedMessages;
+    private final TransactionTemplate transactionTemplate;
+    private final DeletionResultReader deletionResultReader;
+    private final MessageLanes lanes;
 
     private final Map<String, MessageHandler> messageHandlers = Map.ofEntries(
         Map.entry(ADHOC_OFFENDER_DELETION_EVENT, this::handleAdHocDeletion),
@@ -76,7 +124,12 @@ public class DataComplianceEventListener {
                                        final RetentionService retentionService,
                                        final DeletionService deletionService,
                                        final DeceasedDeletionService deceasedDeletionService,
-                                       final OffenderNoBookingDeletionService offenderNoBookingDeletionService) {
+                                       final OffenderNoBookingDeletionService offenderNoBookingDeletionService,
+                                       final DataComplianceMetrics metrics,
+                                       final ProcessedMessageRegistry processedMessages,
+                                       final PlatformTransactionManager transactionManager,
+                                       final DeletionResultReader deletionResultReader,
+                                       final DataComplianceProperties properties) {
 
         log.info("Configured to listen to Offender Deletion events");
 
@@ -86,16 +139,108 @@ public class DataComplianceEventListener {
         this.deletionService = deletionService;
         this.deceasedDeletionService = deceasedDeletionService;
         this.offenderNoBookingDeletionService = offenderNoBookingDeletionService;
+        this.metrics = metrics;
+        this.processedMessages = processedMessages;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deletionResultReader = deletionResultReader;
+        this.lanes = properties.getResponseQueuePartitions() > 0 ? new MessageLanes(properties.getResponseQueuePartitions()) : null;
     }
 
-    @JmsListener(destination = "datacomplianceresponse", containerFactory = "hmppsQueueContainerFactoryProxy")
+    @JmsListener(destination = "datacomplianceresponse",
+        containerFactory = "hmppsQueueContainerFactoryProxy",
+        concurrency = "${response.queue.listener.concurrency:#{${response.queue.partitions:0} > 0 ? '1-8' : '1'}}")
     public void handleEvent(final Message<String> message) {
 
         final var eventType = getEventType(message.getHeaders());
 
+        final var payload = new Payload(message.getPayload());
+
         log.debug("Handling incoming data compliance event of type: {}", eventType);
 
-        messageHandlers.get(eventType).handle(message);
+        if (lanes == null) {
+            handleOnce(eventType, message, payload);
+            return;
+        }
+
+        // Messages for the same offender are handled in turn, so that concurrent
+        // consumers do not race to update the same referral:
+        lanes.handle(getPartitionKey(eventType, payload), () -> handleOnce(eventType, message, payload));
+    }
+
+    /**
+     * SQS may deliver a message more than once, so messages already handled
+     * are ignored. A message is recorded in the same transaction that handles
+     * it, before it is handled, so a concurrent redelivery waits on the record
+     * and is then ignored, while one that failed is rolled back along with its
+     * record and will be handled again when it is redelivered.
+     */
+    private void handleOnce(final String eventType, final Message<String> message, final Payload payload) {
+
+        final var messageId = message.getHeaders().get(JmsHeaders.MESSAGE_ID, String.class);
+
+        if (messageId != null && processedMessages.isProcessed(messageId)) {
+            ignoreRedelivery(messageId, eventType);
+            return;
+        }
+
+        metrics.recordEvent(eventType, () -> retryOnConflict(eventType, message, () -> {
+
+            if (messageId == null) {
+                messageHandlers.get(eventType).handle(payload);
+                return;
+            }
+
+            if (CHUNKED_EVENTS.contains(eventType)) {
+                messageHandlers.get(eventType).handle(payload);
+                transactionTemplate.executeWithoutResult(status -> processedMessages.recordProcessed(messageId, eventType));
+                return;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+
+                if (!processedMessages.recordProcessed(messageId, eventType)) {
+                    status.setRollbackOnly();
+                    ignoreRedelivery(messageId, eventType);
+                    return;
+                }
+
+                messageHandlers.get(eventType).handle(payload);
+            });
+        }));
+    }
+
+    private void ignoreRedelivery(final String messageId, final String eventType) {
+        log.info("Ignoring redelivered message: '{}' of type: {}", messageId, eventType);
+        metrics.recordDuplicateEvent(eventType);
+    }
+
+    /**
+     * The offender number if the message has one, otherwise the batch it relates
+     * to. Messages that cannot be parsed are left for their handler to reject.
+     * Deletion results are streamed by their handler rather than parsed whole,
+     * so are partitioned by event type.
+     */
+    private String getPartitionKey(final String eventType, final Payload payload) {
+
+        if (payload.json == null || CHUNKED_EVENTS.contains(eventType)) {
+            return eventType;
+        }
+
+        try {
+            final var event = payload.tree();
+
+            if (event.hasNonNull("offenderIdDisplay")) {
+                return event.get("offenderIdDisplay").asText();
+            }
+
+            if (event.hasNonNull("batchId")) {
+                return "batch-" + event.get("batchId").asText();
+            }
+        } catch (final RuntimeException e) {
+            log.debug("Unable to read partition key from message of type: {}", eventType);
+        }
+
+        return eventType;
     }
 
     private String getEventType(final MessageHeaders messageHeaders) {
@@ -109,71 +254,117 @@ public class DataComplianceEventListener {
         return eventType;
     }
 
-    private void handleDeletionComplete(final Message<String> message) {
+    private void handleDeletionComplete(final Payload payload) {
         deletionService.handleDeletionComplete(
-            parseEvent(message.getPayload(), OffenderDeletionComplete.class));
+            payload.as(OffenderDeletionComplete.class));
     }
 
-    private void handleReferralComplete(final Message<String> message) {
+    private void handleReferralComplete(final Payload payload) {
         referralService.handleReferralComplete(
-            parseEvent(message.getPayload(), OffenderPendingDeletionReferralComplete.class));
+            payload.as(OffenderPendingDeletionReferralComplete.class));
     }
 
-    private void handlePendingDeletionReferral(final Message<String> message) {
+    private void handlePendingDeletionReferral(final Payload payload) {
         referralService.handlePendingDeletionReferral(
-            parseEvent(message.getPayload(), OffenderPendingDeletion.class));
+            payload.as(OffenderPendingDeletion.class));
     }
 
-    private void handleProvisionalDeletionReferralResult(final Message<String> message) {
+    private void handleProvisionalDeletionReferralResult(final Payload payload) {
         referralService.handleProvisionalDeletionReferralResult(
-            parseEvent(message.getPayload(), ProvisionalDeletionReferralResult.class));
+            payload.as(ProvisionalDeletionReferralResult.class));
     }
 
-    private void handleAdHocDeletion(final Message<String> message) {
+    private void handleAdHocDeletion(final Payload payload) {
         referralService.handleAdHocDeletion(
-            parseEvent(message.getPayload(), AdHocOffenderDeletion.class));
+            payload.as(AdHocOffenderDeletion.class));
     }
 
-    private void handleDataDuplicateIdResult(final Message<String> message) {
+    private void handleDataDuplicateIdResult(final Payload payload) {
         retentionService.handleDataDuplicateResult(
-            parseEvent(message.getPayload(), DataDuplicateResult.class), ID);
+            payload.as(DataDuplicateResult.class), ID);
     }
 
-    private void handleDataDuplicateDbResult(final Message<String> message) {
+    private void handleDataDuplicateDbResult(final Payload payload) {
         retentionService.handleDataDuplicateResult(
-            parseEvent(message.getPayload(), DataDuplicateResult.class), DATABASE);
+            payload.as(DataDuplicateResult.class), DATABASE);
     }
 
-    private void handleFreeTextSearchResult(final Message<String> message) {
+    private void handleFreeTextSearchResult(final Payload payload) {
         retentionService.handleFreeTextSearchResult(
-            parseEvent(message.getPayload(), FreeTextSearchResult.class));
+            payload.as(FreeTextSearchResult.class));
     }
 
-    private void handleOffenderRestrictionResult(final Message<String> message) {
+    private void handleOffenderRestrictionResult(final Payload payload) {
         retentionService.handleOffenderRestrictionResult(
-            parseEvent(message.getPayload(), OffenderRestrictionResult.class));
+            payload.as(OffenderRestrictionResult.class));
     }
 
-    private void handleDeceasedOffenderDeletionResult(final Message<String> message) {
-        deceasedDeletionService.handleDeceasedOffenderDeletionResult(
-            parseEvent(message.getPayload(), DeceasedOffenderDeletionResult.class));
+    /**
+     * A conflict is only detected when the transaction commits, so the retry
+     * wraps the whole transaction rather than the handler within it.
+     */
+    private void retryOnConflict(final String eventType, final Message<String> message, final Runnable handling) {
+
+        if (!CONFLICTING_EVENTS.contains(eventType)) {
+            handling.run();
+            return;
+        }
+
+        Retry.of(String.valueOf(message.getHeaders().getId()), CONFLICT_RETRY_CONFIG).executeRunnable(handling);
     }
 
-    private void handleOffenderNoBookingDeletionResult(final Message<String> message) {
-        offenderNoBookingDeletionService.handleOffenderNoBookingDeletionResult(
-            parseEvent(message.getPayload(), OffenderNoBookingDeletionResult.class));
+    private void handleDeceasedOffenderDeletionResult(final Payload payload) {
+        deletionResultReader.read(payload.json, "deceasedOffenders", DeceasedOffender.class,
+            deceasedDeletionService::handleDeceasedOffenderDeletionResult);
     }
 
-    private <T> T parseEvent(final String requestJson, final Class<T> eventType) {
-        try {
-            return objectMapper.readValue(requestJson, eventType);
-        } catch (final IOException e) {
-            throw new RuntimeException("Failed to parse request: " + requestJson, e);
-        }
+    private void handleOffenderNoBookingDeletionResult(final Payload payload) {
+        deletionResultReader.read(payload.json, "offenders", Offender.class,
+            offenderNoBookingDeletionService::handleOffenderNoBookingDeletionResult);
     }
 
     @FunctionalInterface
     private interface MessageHandler {
-        void handle(Message<String> message);
+        void handle(Payload payload);
+    }
+
+    /**
+     * A message's payload, parsed at most once whether it is read for its
+     * partition key, by its handler, or both.
+     */
+    private class Payload {
+
+        private final String json;
+        private JsonNode tree;
+
+        private Payload(final String json) {
+            this.json = json;
+        }
+
+        private JsonNode tree() {
+            if (tree == null) {
+                tree = parse(() -> objectMapper.readTree(json));
+            }
+            return tree;
+        }
+
+        private <T> T as(final Class<T> eventType) {
+            return tree != null ?
+                parse(() -> objectMapper.treeToValue(tree, eventType)) :
+                parse(() -> objectMapper.readValue(json, eventType));
+        }
+
+        private <T> T parse(final Parser<T> parser) {
+            try {
+                return parser.parse();
+            } catch (final IOException e) {
+                throw new RuntimeException("Failed to parse request: " + json, e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Parser<T> {
+        T parse() throws IOException;
     }
 }
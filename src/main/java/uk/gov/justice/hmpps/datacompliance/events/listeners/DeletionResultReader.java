@@ -0,0 +1,126 @@
+package uk.gov.justice.hmpps.datacompliance.events.listeners;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Streams;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NULL;
+
+/**
+ * Reads the offenders in a deletion result one at a time with Jackson's
+ * streaming parser, rather than binding the whole result up front, so
+ * that the handler can save them as they are read.
+ */
+@Component
+class DeletionResultReader {
+
+    private static final String BATCH_ID = "batchId";
+
+    private final ObjectMapper objectMapper;
+
+    DeletionResultReader(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Passes the batch ID and a stream of the elements of the given array
+     * field to the handler, reading the result in a single pass. The stream
+     * can only be read within the handler.
+     *
+     * The batch ID normally precedes the array, in which case the elements are
+     * streamed straight from the parser. If the array comes first, its tokens
+     * are buffered until the batch ID has been read.
+     */
+    <T> void read(final String json,
+                  final String arrayField,
+                  final Class<T> elementType,
+                  final BiConsumer<Long, Stream<T>> handler) {
+
+        try (final var parser = objectMapper.getFactory().createParser(json)) {
+
+            if (parser.nextToken() != START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an object");
+            }
+
+            Long batchId = null;
+            boolean batchIdRead = false;
+            TokenBuffer bufferedArray = null;
+
+            while (parser.nextToken() == FIELD_NAME) {
+
+                final var name = parser.getCurrentName();
+
+                parser.nextToken();
+
+                if (BATCH_ID.equals(name)) {
+                    batchId = parser.currentToken() != VALUE_NULL ? parser.getValueAsLong() : null;
+                    batchIdRead = true;
+
+                } else if (arrayField.equals(name) && batchIdRead) {
+                    handler.accept(batchId, readArray(parser, arrayField, elementType));
+                    return;
+
+                } else if (arrayField.equals(name)) {
+                    bufferedArray = new TokenBuffer(parser);
+                    bufferedArray.copyCurrentStructure(parser);
+
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (bufferedArray == null) {
+                handler.accept(batchId, Stream.empty());
+                return;
+            }
+
+            try (final var bufferedParser = bufferedArray.asParser(objectMapper)) {
+                bufferedParser.nextToken();
+                handler.accept(batchId, readArray(bufferedParser, arrayField, elementType));
+            }
+
+        } catch (final IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to parse request: " + json, e);
+        }
+    }
+
+    /**
+     * Streams the elements of the array that the parser is positioned on.
+     */
+    private <T> Stream<T> readArray(final JsonParser parser,
+                                    final String arrayField,
+                                    final Class<T> elementType) throws IOException {
+
+        if (parser.currentToken() == VALUE_NULL) {
+            return Stream.empty();
+        }
+
+        if (parser.currentToken() != START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array for field: " + arrayField);
+        }
+
+        return Streams.stream(new AbstractIterator<T>() {
+            @Override
+            protected T computeNext() {
+                try {
+                    return parser.nextToken() == END_ARRAY ? endOfData() : objectMapper.readValue(parser, elementType);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+}
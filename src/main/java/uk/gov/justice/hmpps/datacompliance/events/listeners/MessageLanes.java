@@ -0,0 +1,63 @@
+package uk.gov.justice.hmpps.datacompliance.events.listeners;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Thread.currentThread;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Partitions message handling into a fixed number of lanes by key (e.g. the
+ * offender number). Messages in the same lane are handled one at a time, in
+ * the order in which they arrived, while messages in different lanes may be
+ * handled in parallel by the listener's consumers.
+ *
+ * A message waits for its lane for as long as it takes rather than being
+ * rejected, as a redelivery would be handled after later messages with the
+ * same key. The lanes only order the messages consumed by this instance.
+ */
+class MessageLanes {
+
+    private final List<Lock> lanes;
+
+    MessageLanes(final int laneCount) {
+
+        checkArgument(laneCount > 0, "Number of lanes must be positive: %s", laneCount);
+
+        // Fair, so that waiting messages are handled in order of arrival:
+        this.lanes = IntStream.range(0, laneCount)
+            .mapToObj(i -> new ReentrantLock(true))
+            .collect(toList());
+    }
+
+    void handle(final String key, final Runnable handler) {
+
+        final var lane = laneFor(key);
+
+        lock(lane);
+
+        try {
+            handler.run();
+        } finally {
+            lane.unlock();
+        }
+    }
+
+    private void lock(final Lock lane) {
+        try {
+            lane.lockInterruptibly();
+        } catch (final InterruptedException e) {
+
+            currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted waiting for message lane", e);
+        }
+    }
+
+    private Lock laneFor(final String key) {
+        return lanes.get(Math.floorMod(key.hashCode(), lanes.size()));
+    }
+}
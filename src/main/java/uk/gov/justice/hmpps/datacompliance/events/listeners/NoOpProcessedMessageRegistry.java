@@ -0,0 +1,26 @@
+package uk.gov.justice.hmpps.datacompliance.events.listeners;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "response.queue.processed.message.retention", matchIfMissing = true, havingValue = "no value set")
+public class NoOpProcessedMessageRegistry implements ProcessedMessageRegistry {
+
+    public NoOpProcessedMessageRegistry() {
+        log.info("Configured to handle every response queue message delivered, including redeliveries");
+    }
+
+    @Override
+    public boolean isProcessed(final String messageId) {
+        return false;
+    }
+
+    @Override
+    public boolean recordProcessed(final String messageId, final String eventType) {
+        // Nothing recorded
+        return true;
+    }
+}
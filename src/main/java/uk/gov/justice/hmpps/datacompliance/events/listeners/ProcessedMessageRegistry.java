@@ -0,0 +1,25 @@
+package uk.gov.justice.hmpps.datacompliance.events.listeners;
+
+/**
+ * Records which response queue messages have been handled, so that a message
+ * redelivered by SQS (which delivers at least once) can be ignored rather
+ * than creating a second referral and repeating its retention checks.
+ */
+public interface ProcessedMessageRegistry {
+
+    /**
+     * A quick check, ahead of handling the message, that may be answered
+     * without a database lookup. A message that is not yet processed may
+     * still lose the race to record itself against a concurrent delivery.
+     */
+    boolean isProcessed(String messageId);
+
+    /**
+     * Records the message as processed within the caller's transaction,
+     * returning false if it has already been recorded. A concurrent
+     * delivery of the same message waits until the caller's transaction
+     * completes, so the message is recorded before it is handled, in the
+     * same transaction, and the record is rolled back if handling fails.
+     */
+    boolean recordProcessed(String messageId, String eventType);
+}
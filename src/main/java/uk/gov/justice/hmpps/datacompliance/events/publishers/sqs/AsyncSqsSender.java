@@ -0,0 +1,72 @@
+package uk.gov.justice.hmpps.datacompliance.events.publishers.sqs;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.CompletableFuture.failedFuture;
+
+/**
+ * Sends messages on background threads so that the caller does not wait for
+ * each round trip to SQS. Up to the given number of sends are kept in flight,
+ * after which callers wait for one to complete before their message is sent.
+ */
+@Slf4j
+class AsyncSqsSender {
+
+    private final AmazonSQS client;
+    private final Semaphore inFlight;
+    private final ExecutorService executor;
+
+    AsyncSqsSender(final AmazonSQS client, final int maxInFlight) {
+        this.client = client;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.executor = Executors.newFixedThreadPool(maxInFlight,
+            new ThreadFactoryBuilder().setNameFormat("sqs-async-sender-%d").setDaemon(true).build());
+    }
+
+    CompletableFuture<Void> send(final SendMessageRequest request) {
+
+        try {
+            inFlight.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failedFuture(e);
+        }
+
+        try {
+            return CompletableFuture.runAsync(() -> client.sendMessage(request), executor)
+                .whenComplete((result, error) -> {
+                    inFlight.release();
+                    if (error != null) {
+                        log.error("Unable to send message: '{}'", request.getMessageBody(), error);
+                    }
+                });
+        } catch (final RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the sends still in flight to complete.
+     */
+    void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.error("Timed out waiting for SQS messages to be sent");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
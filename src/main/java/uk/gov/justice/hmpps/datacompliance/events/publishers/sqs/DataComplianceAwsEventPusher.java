@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Service;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
 import uk.gov.justice.hmpps.datacompliance.dto.DeceasedOffenderDeletionRequest;
 import uk.gov.justice.hmpps.datacompliance.dto.OffenderDeletionGrant;
 import uk.gov.justice.hmpps.datacompliance.dto.OffenderDeletionReferralRequest;
@@ -23,12 +24,20 @@ import uk.gov.justice.hmpps.datacompliance.events.publishers.dto.OffenderRestric
 import uk.gov.justice.hmpps.datacompliance.events.publishers.dto.OffenderRestrictionRequest;
 import uk.gov.justice.hmpps.datacompliance.events.publishers.dto.ProvisionalDeletionReferralRequest;
 import uk.gov.justice.hmpps.datacompliance.events.publishers.dto.ReferralRequest;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.outbox.OutboxMessageRepository;
+import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 import uk.gov.justice.hmpps.sqs.HmppsQueueService;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage.Status.PENDING;
 
 @Slf4j
 @Service
@@ -49,8 +58,13 @@ public class DataComplianceAwsEventPusher implements DataComplianceEventPusher {
 
     private final HmppsQueueService hmppsQueueService;
     private final ObjectMapper objectMapper;
+    private final DataComplianceProperties properties;
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final TimeSource timeSource;
     private AmazonSQS client;
     private String queueUrl;
+    private SqsMessageBatcher batcher;
+    private AsyncSqsSender asyncSender;
 
     @PostConstruct
     private void initialise() {
@@ -58,130 +72,182 @@ public class DataComplianceAwsEventPusher implements DataComplianceEventPusher {
         client = requestQueue.getSqsClient();
         queueUrl = requestQueue.getQueueUrl();
 
+        if (properties.isRequestQueueOutboxEnabled()) {
+            log.info("Writing request queue messages to the outbox");
+        } else if (properties.isRequestQueueBatchingEnabled()) {
+            batcher = new SqsMessageBatcher(client, queueUrl, properties.getRequestQueueBatchLinger());
+        } else if (properties.isRequestQueueAsyncEnabled()) {
+            asyncSender = new AsyncSqsSender(client, properties.getRequestQueueMaxInFlight());
+        }
+
         log.info("Configured to push events to SQS request queue: {}", queueUrl);
     }
 
+    @PreDestroy
+    private void shutdown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        if (asyncSender != null) {
+            asyncSender.close();
+        }
+    }
+
     @Override
-    public void requestReferral(final OffenderDeletionReferralRequest request) {
+    public CompletableFuture<Void> requestReferral(final OffenderDeletionReferralRequest request) {
 
         log.debug("Requesting deletion referral: {}", request);
 
-        client.sendMessage(generateRequest(REFERRAL_REQUEST,
+        return send(REFERRAL_REQUEST,
             ReferralRequest.builder()
                 .batchId(request.getBatchId())
                 .dueForDeletionWindowStart(request.getDueForDeletionWindowStart())
                 .dueForDeletionWindowEnd(request.getDueForDeletionWindowEnd())
                 .limit(request.getLimit())
-                .build()));
+                .build());
     }
 
     @Override
-    public void requestDeceasedOffenderDeletion(DeceasedOffenderDeletionRequest request) {
+    public CompletableFuture<Void> requestDeceasedOffenderDeletion(DeceasedOffenderDeletionRequest request) {
 
         log.debug("Requesting deceased offender deletion: {}", request);
 
-        client.sendMessage(generateRequest(DECEASED_OFFENDER_DELETION_REQUEST,
+        return send(DECEASED_OFFENDER_DELETION_REQUEST,
             DeceasedDeletionRequest.builder()
                 .batchId(request.getBatchId())
                 .excludedOffenders(request.getExcludedOffenders())
                 .limit(request.getLimit())
-                .build()));
+                .build());
 
     }
 
     @Override
-    public void requestOffenderNoBookingDeletion(final OffenderNoBookingDeletionRequest request) {
+    public CompletableFuture<Void> requestOffenderNoBookingDeletion(final OffenderNoBookingDeletionRequest request) {
         log.debug("Requesting offender no booking deletion: {}", request);
 
-        client.sendMessage(generateRequest(OFFENDER_NO_BOOKING_DELETION_REQUEST,
+        return send(OFFENDER_NO_BOOKING_DELETION_REQUEST,
             NoBookingDeletionRequest.builder()
                 .batchId(request.getBatchId())
                 .excludedOffenders(request.getExcludedOffenders())
                 .limit(request.getLimit())
-                .build()));
+                .build());
     }
 
     @Override
-    public void requestAdHocReferral(final OffenderNumber offenderNo, final Long batchId) {
+    public CompletableFuture<Void> requestAdHocReferral(final OffenderNumber offenderNo, final Long batchId) {
 
         log.debug("Requesting ad hoc deletion referral for offender: '{}' and batch: '{}'",
             offenderNo.getOffenderNumber(), batchId);
 
-        client.sendMessage(generateRequest(AD_HOC_REFERRAL_REQUEST,
-            new AdHocReferralRequest(offenderNo.getOffenderNumber(), batchId)));
+        return send(AD_HOC_REFERRAL_REQUEST,
+            new AdHocReferralRequest(offenderNo.getOffenderNumber(), batchId));
     }
 
     @Override
-    public void requestProvisionalDeletionReferral(final OffenderNumber offenderNo, final Long referralId) {
+    public CompletableFuture<Void> requestProvisionalDeletionReferral(final OffenderNumber offenderNo, final Long referralId) {
 
         log.debug("Requesting provisional deletion for referral: '{}' for offender: '{}'", referralId, offenderNo.getOffenderNumber());
 
-        client.sendMessage(generateRequest(PROVISIONAL_DELETION_REFERRAL_REQUEST, new ProvisionalDeletionReferralRequest(offenderNo.getOffenderNumber(), referralId)));
+        return send(PROVISIONAL_DELETION_REFERRAL_REQUEST, new ProvisionalDeletionReferralRequest(offenderNo.getOffenderNumber(), referralId));
     }
 
     @Override
-    public void requestIdDataDuplicateCheck(final OffenderNumber offenderNo, final Long retentionCheckId) {
+    public CompletableFuture<Void> requestIdDataDuplicateCheck(final OffenderNumber offenderNo, final Long retentionCheckId) {
 
         log.debug("Requesting ID data duplicate check for: '{}/{}'", offenderNo.getOffenderNumber(), retentionCheckId);
 
-        client.sendMessage(generateRequest(DATA_DUPLICATE_ID_CHECK,
-            new DataDuplicateCheck(offenderNo.getOffenderNumber(), retentionCheckId)));
+        return send(DATA_DUPLICATE_ID_CHECK,
+            new DataDuplicateCheck(offenderNo.getOffenderNumber(), retentionCheckId));
     }
 
     @Override
-    public void requestDatabaseDataDuplicateCheck(final OffenderNumber offenderNo, Long retentionCheckId) {
+    public CompletableFuture<Void> requestDatabaseDataDuplicateCheck(final OffenderNumber offenderNo, Long retentionCheckId) {
 
         log.debug("Requesting data duplicate database check for: '{}/{}'", offenderNo.getOffenderNumber(), retentionCheckId);
 
-        client.sendMessage(generateRequest(DATA_DUPLICATE_DB_CHECK,
-            new DataDuplicateCheck(offenderNo.getOffenderNumber(), retentionCheckId)));
+        return send(DATA_DUPLICATE_DB_CHECK,
+            new DataDuplicateCheck(offenderNo.getOffenderNumber(), retentionCheckId));
     }
 
     @Override
-    public void requestFreeTextMoratoriumCheck(final OffenderNumber offenderNo,
+    public CompletableFuture<Void> requestFreeTextMoratoriumCheck(final OffenderNumber offenderNo,
                                                final Long retentionCheckId,
                                                final List<String> regex) {
 
         log.debug("Requesting free text moratorium check for: '{}/{}'", offenderNo.getOffenderNumber(), retentionCheckId);
 
-        client.sendMessage(generateRequest(FREE_TEXT_MORATORIUM_CHECK,
-            new FreeTextSearchRequest(offenderNo.getOffenderNumber(), retentionCheckId, regex)));
+        return send(FREE_TEXT_MORATORIUM_CHECK,
+            new FreeTextSearchRequest(offenderNo.getOffenderNumber(), retentionCheckId, regex));
     }
 
 
     @Override
-    public void requestOffenderRestrictionCheck(final OffenderNumber offenderNumber, final Long retentionCheckId, final Set<OffenderRestrictionCode> offenderRestrictionCodes, final String regex) {
+    public CompletableFuture<Void> requestOffenderRestrictionCheck(final OffenderNumber offenderNumber, final Long retentionCheckId, final Set<OffenderRestrictionCode> offenderRestrictionCodes, final String regex) {
 
         log.debug("Requesting offender restriction check for: '{}/{}'", offenderNumber.getOffenderNumber(), retentionCheckId);
 
-        client.sendMessage(generateRequest(OFFENDER_RESTRICTION_CHECK,
-            new OffenderRestrictionRequest(offenderNumber.getOffenderNumber(), retentionCheckId, offenderRestrictionCodes, regex)));
+        return send(OFFENDER_RESTRICTION_CHECK,
+            new OffenderRestrictionRequest(offenderNumber.getOffenderNumber(), retentionCheckId, offenderRestrictionCodes, regex));
     }
 
     @Override
-    public void grantDeletion(final OffenderDeletionGrant offenderDeletionGrant) {
+    public CompletableFuture<Void> grantDeletion(final OffenderDeletionGrant offenderDeletionGrant) {
 
         log.debug("Sending grant deletion event for: '{}/{}'",
             offenderDeletionGrant.getOffenderNumber().getOffenderNumber(), offenderDeletionGrant.getReferralId());
 
-        client.sendMessage(generateRequest(OFFENDER_DELETION_GRANTED, OffenderDeletionGranted.builder()
+        return send(OFFENDER_DELETION_GRANTED, OffenderDeletionGranted.builder()
             .offenderIdDisplay(offenderDeletionGrant.getOffenderNumber().getOffenderNumber())
             .referralId(offenderDeletionGrant.getReferralId())
             .offenderIds(offenderDeletionGrant.getOffenderIds())
             .offenderBookIds(offenderDeletionGrant.getOffenderBookIds())
-            .build()));
+            .build());
+    }
+
+    /**
+     * With the outbox enabled, the message is written to the outbox in the caller's
+     * transaction, so is only sent (by the relay) if that transaction commits.
+     */
+    private CompletableFuture<Void> send(final String eventType, final Object messageBody) {
+
+        if (properties.isRequestQueueOutboxEnabled()) {
+            outboxMessageRepository.save(OutboxMessage.builder()
+                .eventType(eventType)
+                .messageBody(toJson(messageBody))
+                .status(PENDING)
+                .createdDateTime(timeSource.nowAsLocalDateTime())
+                .build());
+            return completedFuture(null);
+        }
+
+        final var request = generateRequest(eventType, messageBody);
+
+        if (batcher != null) {
+            return batcher.send(request);
+        }
+
+        if (asyncSender != null) {
+            return asyncSender.send(request);
+        }
+
+        client.sendMessage(request);
+        return completedFuture(null);
     }
 
     private SendMessageRequest generateRequest(final String eventType, final Object messageBody) {
         return new SendMessageRequest()
             .withQueueUrl(queueUrl)
-            .withMessageAttributes(Map.of(
-                "eventType", stringAttribute(eventType),
-                "contentType", stringAttribute("application/json;charset=UTF-8")))
+            .withMessageAttributes(messageAttributes(eventType))
             .withMessageBody(toJson(messageBody));
     }
 
-    private MessageAttributeValue stringAttribute(final String value) {
+    static Map<String, MessageAttributeValue> messageAttributes(final String eventType) {
+        return Map.of(
+            "eventType", stringAttribute(eventType),
+            "contentType", stringAttribute("application/json;charset=UTF-8"));
+    }
+
+    private static MessageAttributeValue stringAttribute(final String value) {
         return new MessageAttributeValue()
             .withDataType("String")
             .withStringValue(value);
@@ -9,25 +9,32 @@ import uk.gov.justice.hmpps.datacompliance.events.publishers.dto.OffenderRestric
 
 import java.util.List;
 import java.util.Set;
-
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Each request returns a future that completes once the message has been
+ * accepted by the queue. Callers must wait on it before their transaction
+ * commits, so that a message that could not be sent fails (and rolls back)
+ * the work that requested it. Several requests may be sent before waiting.
+ */
 public interface DataComplianceEventPusher {
-    void requestReferral(OffenderDeletionReferralRequest request);
+    CompletableFuture<Void> requestReferral(OffenderDeletionReferralRequest request);
 
-    void requestAdHocReferral(OffenderNumber offenderNumber, Long batchId);
+    CompletableFuture<Void> requestAdHocReferral(OffenderNumber offenderNumber, Long batchId);
 
-    void requestProvisionalDeletionReferral(OffenderNumber offenderNumber, Long referralId);
+    CompletableFuture<Void> requestProvisionalDeletionReferral(OffenderNumber offenderNumber, Long referralId);
 
-    void requestIdDataDuplicateCheck(OffenderNumber offenderNumber, Long retentionCheckId);
+    CompletableFuture<Void> requestIdDataDuplicateCheck(OffenderNumber offenderNumber, Long retentionCheckId);
 
-    void requestDatabaseDataDuplicateCheck(OffenderNumber offenderNumber, Long retentionCheckId);
+    CompletableFuture<Void> requestDatabaseDataDuplicateCheck(OffenderNumber offenderNumber, Long retentionCheckId);
 
-    void requestFreeTextMoratoriumCheck(OffenderNumber offenderNumber, Long retentionCheckId, List<String> regex);
+    CompletableFuture<Void> requestFreeTextMoratoriumCheck(OffenderNumber offenderNumber, Long retentionCheckId, List<String> regex);
 
-    void requestOffenderRestrictionCheck(OffenderNumber offenderNumber, Long retentionCheckId, Set<OffenderRestrictionCode> offenderRestrictionCodes, String regex);
+    CompletableFuture<Void> requestOffenderRestrictionCheck(OffenderNumber offenderNumber, Long retentionCheckId, Set<OffenderRestrictionCode> offenderRestrictionCodes, String regex);
 
-    void grantDeletion(OffenderDeletionGrant offenderDeletionGrant);
+    CompletableFuture<Void> grantDeletion(OffenderDeletionGrant offenderDeletionGrant);
 
-    void requestDeceasedOffenderDeletion(DeceasedOffenderDeletionRequest request);
+    CompletableFuture<Void> requestDeceasedOffenderDeletion(DeceasedOffenderDeletionRequest request);
 
-    void requestOffenderNoBookingDeletion(OffenderNoBookingDeletionRequest request);
+    CompletableFuture<Void> requestOffenderNoBookingDeletion(OffenderNoBookingDeletionRequest request);
 }
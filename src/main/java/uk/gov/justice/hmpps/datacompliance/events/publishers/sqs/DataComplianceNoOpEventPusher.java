@@ -12,6 +12,9 @@ import uk.gov.justice.hmpps.datacompliance.events.publishers.dto.OffenderRestric
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 @Slf4j
 @Component
@@ -23,61 +26,71 @@ public class DataComplianceNoOpEventPusher implements DataComplianceEventPusher
     }
 
     @Override
-    public void requestReferral(final OffenderDeletionReferralRequest request) {
+    public CompletableFuture<Void> requestReferral(final OffenderDeletionReferralRequest request) {
         log.warn("Pretending to request referral: {}", request);
+        return completedFuture(null);
     }
 
     @Override
-    public void requestAdHocReferral(OffenderNumber offenderNo, Long batchId) {
+    public CompletableFuture<Void> requestAdHocReferral(OffenderNumber offenderNo, Long batchId) {
         log.warn("Pretending to request ad hoc referral for offender: '{}' and batch: '{}'",
             offenderNo.getOffenderNumber(), batchId);
+        return completedFuture(null);
     }
 
     @Override
-    public void requestProvisionalDeletionReferral(OffenderNumber offenderNo, Long referralId) {
+    public CompletableFuture<Void> requestProvisionalDeletionReferral(OffenderNumber offenderNo, Long referralId) {
         log.debug("Pretending to request provisional deletion for referral: '{}' for offender:" +
             " '{}'", referralId, offenderNo.getOffenderNumber());
+        return completedFuture(null);
     }
 
     @Override
-    public void requestIdDataDuplicateCheck(final OffenderNumber offenderNo, final Long retentionCheckId) {
+    public CompletableFuture<Void> requestIdDataDuplicateCheck(final OffenderNumber offenderNo, final Long retentionCheckId) {
         log.warn("Pretending to push ID data duplicate check '{}/{}' to queue",
             offenderNo.getOffenderNumber(), retentionCheckId);
+        return completedFuture(null);
     }
 
     @Override
-    public void requestDatabaseDataDuplicateCheck(final OffenderNumber offenderNo, final Long retentionCheckId) {
+    public CompletableFuture<Void> requestDatabaseDataDuplicateCheck(final OffenderNumber offenderNo, final Long retentionCheckId) {
         log.warn("Pretending to push data duplicate database check '{}/{}' to queue",
             offenderNo.getOffenderNumber(), retentionCheckId);
+        return completedFuture(null);
     }
 
     @Override
-    public void requestFreeTextMoratoriumCheck(final OffenderNumber offenderNo,
+    public CompletableFuture<Void> requestFreeTextMoratoriumCheck(final OffenderNumber offenderNo,
                                                final Long retentionCheckId,
                                                final List<String> regex) {
         log.warn("Pretending to push free text moratorium check '{}/{}' to queue",
             offenderNo.getOffenderNumber(), retentionCheckId);
+        return completedFuture(null);
     }
 
     @Override
-    public void requestOffenderRestrictionCheck(final OffenderNumber offenderNumber, final Long retentionCheckId, final Set<OffenderRestrictionCode> offenderRestrictionCode, final String regex) {
+    public CompletableFuture<Void> requestOffenderRestrictionCheck(final OffenderNumber offenderNumber, final Long retentionCheckId, final Set<OffenderRestrictionCode> offenderRestrictionCode, final String regex) {
 
         log.debug("Pretending to push restriction check for: '{}/{}'", offenderNumber.getOffenderNumber(), retentionCheckId);
+        return completedFuture(null);
     }
 
     @Override
-    public void grantDeletion(final OffenderDeletionGrant offenderDeletionGrant) {
+    public CompletableFuture<Void> grantDeletion(final OffenderDeletionGrant offenderDeletionGrant) {
         log.warn("Pretending to push offender deletion granted events for '{}/{}' to queue",
             offenderDeletionGrant.getOffenderNumber().getOffenderNumber(), offenderDeletionGrant.getReferralId());
+        return completedFuture(null);
     }
 
     @Override
-    public void requestDeceasedOffenderDeletion(DeceasedOffenderDeletionRequest request) {
+    public CompletableFuture<Void> requestDeceasedOffenderDeletion(DeceasedOffenderDeletionRequest request) {
         log.warn("Pretending to request deceased deletion referral: {}", request);
+        return completedFuture(null);
     }
 
     @Override
-    public void requestOffenderNoBookingDeletion(final OffenderNoBookingDeletionRequest request) {
+    public CompletableFuture<Void> requestOffenderNoBookingDeletion(final OffenderNoBookingDeletionRequest request) {
         log.warn("Pretending to request offender no booking deletion referral: {}", request);
+        return completedFuture(null);
     }
 }
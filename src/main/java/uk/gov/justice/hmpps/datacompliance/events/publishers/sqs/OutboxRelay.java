@@ -0,0 +1,171 @@
+package uk.gov.justice.hmpps.datacompliance.events.publishers.sqs;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.outbox.OutboxMessageRepository;
+import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
+import uk.gov.justice.hmpps.sqs.HmppsQueueService;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static uk.gov.justice.hmpps.datacompliance.events.publishers.sqs.DataComplianceAwsEventPusher.messageAttributes;
+import static uk.gov.justice.hmpps.datacompliance.events.publishers.sqs.SqsMessageBatcher.MAX_BATCH_SIZE;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage.Status.PENDING;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage.Status.SENT;
+
+/**
+ * Sends the messages written to the outbox, in the order in which they were
+ * written, a batch at a time with SendMessageBatch. Each batch is locked,
+ * sent and marked as sent in its own transaction. Instances skip batches
+ * locked by another instance's relay, so messages may be sent out of order
+ * across instances (as they may be by SQS itself).
+ *
+ * Messages that fail for reasons other than their content remain pending,
+ * to be sent again by the next relay. A message is only marked as sent once
+ * SQS has accepted it, so may be sent more than once if marking it fails.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "request.queue.outbox.enabled", havingValue = "true")
+@ConditionalOnExpression("{'aws', 'localstack'}.contains('${hmpps.sqs.provider}')")
+public class OutboxRelay {
+
+    private final HmppsQueueService hmppsQueueService;
+    private final OutboxMessageRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final TimeSource timeSource;
+    private final Duration retention;
+    private AmazonSQS client;
+    private String queueUrl;
+
+    public OutboxRelay(final HmppsQueueService hmppsQueueService,
+                       final OutboxMessageRepository repository,
+                       final PlatformTransactionManager transactionManager,
+                       final TimeSource timeSource,
+                       @Value("${request.queue.outbox.retention:P7D}") final Duration retention) {
+        this.hmppsQueueService = hmppsQueueService;
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.timeSource = timeSource;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    void initialise() {
+        final var requestQueue = hmppsQueueService.findByQueueId("datacompliancerequest");
+        client = requestQueue.getSqsClient();
+        queueUrl = requestQueue.getQueueUrl();
+
+        log.info("Configured to relay outbox messages to SQS request queue: {}", queueUrl);
+    }
+
+    /**
+     * Drains the outbox, stopping early if a batch could not be sent in full.
+     */
+    @Scheduled(fixedDelayString = "${request.queue.outbox.relay.interval:PT1S}")
+    public void relay() {
+
+        Integer completed;
+
+        do {
+            completed = transactionTemplate.execute(status -> relayBatch());
+        } while (Objects.equals(completed, MAX_BATCH_SIZE));
+    }
+
+    @Scheduled(fixedDelayString = "${request.queue.outbox.purge.interval:PT1H}")
+    public void purge() {
+
+        final var purged = transactionTemplate.execute(status ->
+            repository.deleteByStatusSentBefore(SENT, timeSource.nowAsLocalDateTime().minus(retention)));
+
+        log.debug("Purged {} sent outbox messages", purged);
+    }
+
+    private int relayBatch() {
+
+        final var messages = repository.findByStatusOrderByOutboxMessageId(PENDING, PageRequest.of(0, MAX_BATCH_SIZE));
+
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        log.debug("Relaying batch of {} outbox messages", messages.size());
+
+        try {
+            final var result = client.sendMessageBatch(new SendMessageBatchRequest(queueUrl,
+                messages.stream().map(this::toEntry).collect(toList())));
+            return handleResult(messages, result.getFailed());
+        } catch (final RuntimeException e) {
+            log.warn("Failed to relay batch of {} outbox messages, sending individually", messages.size(), e);
+            return (int) messages.stream().filter(this::sendIndividually).count();
+        }
+    }
+
+    private int handleResult(final List<OutboxMessage> messages, final List<BatchResultErrorEntry> failures) {
+
+        final Map<String, BatchResultErrorEntry> failuresById = failures.stream()
+            .collect(toMap(BatchResultErrorEntry::getId, identity()));
+
+        var completed = 0;
+
+        for (final var message : messages) {
+
+            final var failure = failuresById.get(String.valueOf(message.getOutboxMessageId()));
+
+            if (failure == null) {
+                message.sent(timeSource.nowAsLocalDateTime());
+                completed++;
+
+            // A sender fault is caused by the message itself, so would fail again:
+            } else if (failure.isSenderFault()) {
+                log.error("Unable to relay outbox message: '{}', code: '{}', reason: '{}'",
+                    message.getOutboxMessageId(), failure.getCode(), failure.getMessage());
+                message.failed();
+                completed++;
+
+            } else {
+                log.warn("Failed to relay outbox message: '{}', code: '{}', will retry",
+                    message.getOutboxMessageId(), failure.getCode());
+            }
+        }
+
+        return completed;
+    }
+
+    private boolean sendIndividually(final OutboxMessage message) {
+        try {
+            client.sendMessage(new SendMessageRequest(queueUrl, message.getMessageBody())
+                .withMessageAttributes(messageAttributes(message.getEventType())));
+            message.sent(timeSource.nowAsLocalDateTime());
+            return true;
+        } catch (final RuntimeException e) {
+            log.warn("Failed to relay outbox message: '{}', will retry", message.getOutboxMessageId(), e);
+            return false;
+        }
+    }
+
+    private SendMessageBatchRequestEntry toEntry(final OutboxMessage message) {
+        return new SendMessageBatchRequestEntry(String.valueOf(message.getOutboxMessageId()), message.getMessageBody())
+            .withMessageAttributes(messageAttributes(message.getEventType()));
+    }
+}
@@ -0,0 +1,244 @@
+package uk.gov.justice.hmpps.datacompliance.events.publishers.sqs;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static uk.gov.justice.hmpps.datacompliance.utils.Exceptions.illegalState;
+
+/**
+ * Buffers messages bound for a queue and sends them with SendMessageBatch,
+ * once a batch is full or the first message in it has waited for the linger
+ * time. A message sent while no other batch is being sent goes straight away,
+ * as callers usually wait on their one message, so only messages sent while
+ * another batch is in flight linger for others to join them. Entries that fail for reasons other than the content of the message
+ * are sent again individually. The future returned for each message completes
+ * once it has been sent, or completes exceptionally if it could not be, so
+ * callers must wait on it before committing the work that requested it. A
+ * message still buffered if the process stops is then lost along with that
+ * work, rather than separately from it.
+ */
+@Slf4j
+class SqsMessageBatcher {
+
+    // Limits imposed by SQS on a single SendMessageBatch call:
+    static final int MAX_BATCH_SIZE = 10;
+    static final int MAX_BATCH_BYTES = 256 * 1024;
+
+    private final AmazonSQS client;
+    private final String queueUrl;
+    private final Duration linger;
+    private final ScheduledExecutorService executor;
+
+    private List<PendingMessage> batch = new ArrayList<>();
+    private int batchBytes;
+    private long nextEntryId;
+    private int batchesInFlight;
+    private ScheduledFuture<?> scheduledSend;
+    private boolean closed;
+
+    SqsMessageBatcher(final AmazonSQS client, final String queueUrl, final Duration linger) {
+        this.client = client;
+        this.queueUrl = queueUrl;
+        this.linger = linger;
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("sqs-message-batcher-%d").setDaemon(true).build());
+    }
+
+    synchronized CompletableFuture<Void> send(final SendMessageRequest request) {
+
+        if (closed) {
+            return failedFuture(illegalState("Unable to send message, the batcher has been closed").get());
+        }
+
+        final var messageBytes = sizeOf(request);
+
+        if (!batch.isEmpty() && batchBytes + messageBytes > MAX_BATCH_BYTES) {
+            executor.execute(sendBatch(takeBatch()));
+        }
+
+        final var message = new PendingMessage(
+            new SendMessageBatchRequestEntry(String.valueOf(nextEntryId++), request.getMessageBody())
+                .withMessageAttributes(request.getMessageAttributes()));
+
+        batch.add(message);
+        batchBytes += messageBytes;
+
+        if (batch.size() >= MAX_BATCH_SIZE || batchesInFlight == 0) {
+            executor.execute(sendBatch(takeBatch()));
+        } else if (scheduledSend == null) {
+            scheduledSend = executor.schedule(this::sendLingeringBatch, linger.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        return message.getSent();
+    }
+
+    /**
+     * Sends any buffered messages on the calling thread, then stops accepting
+     * messages. Used on shutdown so that no buffered message is lost.
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.error("Timed out waiting for SQS message batches to be sent");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @VisibleForTesting
+    void flush() {
+        final List<PendingMessage> messages;
+        synchronized (this) {
+            messages = takeBatch();
+        }
+        sendBatch(messages).run();
+    }
+
+    private void sendLingeringBatch() {
+        final List<PendingMessage> messages;
+        synchronized (this) {
+            scheduledSend = null;
+            messages = takeBatch();
+        }
+        sendBatch(messages).run();
+    }
+
+    private List<PendingMessage> takeBatch() {
+
+        final var messages = batch;
+
+        batch = new ArrayList<>();
+        batchBytes = 0;
+
+        if (!messages.isEmpty()) {
+            batchesInFlight++;
+        }
+
+        if (scheduledSend != null) {
+            scheduledSend.cancel(false);
+            scheduledSend = null;
+        }
+
+        return messages;
+    }
+
+    private Runnable sendBatch(final List<PendingMessage> messages) {
+        return () -> {
+
+            if (messages.isEmpty()) {
+                return;
+            }
+
+            log.debug("Sending batch of {} messages to: {}", messages.size(), queueUrl);
+
+            try {
+                sendMessageBatch(messages).ifPresentOrElse(
+                    result -> handleResult(messages, result.getFailed()),
+                    () -> messages.forEach(this::sendIndividually));
+            } finally {
+                // A caller waiting on a message must never be left waiting:
+                messages.forEach(message -> message.getSent().completeExceptionally(
+                    illegalState("Unable to send message, no result was received").get()));
+                synchronized (this) {
+                    batchesInFlight--;
+                }
+            }
+        };
+    }
+
+    private Optional<SendMessageBatchResult> sendMessageBatch(final List<PendingMessage> messages) {
+        try {
+            return Optional.of(client.sendMessageBatch(new SendMessageBatchRequest(queueUrl,
+                messages.stream().map(PendingMessage::getEntry).collect(toList()))));
+        } catch (final RuntimeException e) {
+            log.warn("Failed to send batch of {} messages, sending individually", messages.size(), e);
+            return Optional.empty();
+        }
+    }
+
+    private void handleResult(final List<PendingMessage> messages, final List<BatchResultErrorEntry> failures) {
+
+        final Map<String, BatchResultErrorEntry> failuresById = failures.stream()
+            .collect(toMap(BatchResultErrorEntry::getId, identity()));
+
+        messages.forEach(message -> {
+
+            final var failure = failuresById.get(message.getEntry().getId());
+
+            if (failure == null) {
+                message.getSent().complete(null);
+                return;
+            }
+
+            // A sender fault is caused by the message itself, so would fail again:
+            if (failure.isSenderFault()) {
+                log.error("Unable to send message: '{}', code: '{}', reason: '{}'",
+                    message.getEntry().getMessageBody(), failure.getCode(), failure.getMessage());
+                message.getSent().completeExceptionally(illegalState("Unable to send message, code: '%s', reason: '%s'",
+                    failure.getCode(), failure.getMessage()).get());
+                return;
+            }
+
+            log.warn("Failed to send message in batch, code: '{}', sending individually", failure.getCode());
+            sendIndividually(message);
+        });
+    }
+
+    private void sendIndividually(final PendingMessage message) {
+        try {
+            client.sendMessage(new SendMessageRequest(queueUrl, message.getEntry().getMessageBody())
+                .withMessageAttributes(message.getEntry().getMessageAttributes()));
+            message.getSent().complete(null);
+        } catch (final RuntimeException e) {
+            log.error("Unable to send message: '{}'", message.getEntry().getMessageBody(), e);
+            message.getSent().completeExceptionally(e);
+        }
+    }
+
+    private static int sizeOf(final SendMessageRequest request) {
+        return request.getMessageBody().getBytes(UTF_8).length +
+            request.getMessageAttributes().entrySet().stream()
+                .mapToInt(attribute -> attribute.getKey().getBytes(UTF_8).length +
+                    attribute.getValue().getDataType().getBytes(UTF_8).length +
+                    attribute.getValue().getStringValue().getBytes(UTF_8).length)
+                .sum();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class PendingMessage {
+        private final SendMessageBatchRequestEntry entry;
+        private final CompletableFuture<Void> sent = new CompletableFuture<>();
+    }
+}
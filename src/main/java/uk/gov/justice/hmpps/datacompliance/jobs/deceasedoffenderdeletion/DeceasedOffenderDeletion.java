@@ -37,7 +37,7 @@ public class DeceasedOffenderDeletion {
         final var newBatch = persistNewBatch();
         final var request = buildRequest(newBatch);
 
-        eventPusher.requestDeceasedOffenderDeletion(request);
+        eventPusher.requestDeceasedOffenderDeletion(request).join();
 
         log.info("Deceased offender deletion request complete");
 
@@ -0,0 +1,51 @@
+package uk.gov.justice.hmpps.datacompliance.jobs.imageupload;
+
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import static java.lang.Thread.currentThread;
+
+/**
+ * Limits the number of calls to a downstream service that are in progress
+ * at once, independently of the number of threads making those calls.
+ * A limit of zero (or less) leaves the calls unlimited.
+ */
+class ConcurrencyLimit {
+
+    private final Optional<Semaphore> permits;
+
+    private ConcurrencyLimit(final Optional<Semaphore> permits) {
+        this.permits = permits;
+    }
+
+    static ConcurrencyLimit of(final int maxConcurrentCalls) {
+        return new ConcurrencyLimit(maxConcurrentCalls > 0 ?
+            Optional.of(new Semaphore(maxConcurrentCalls, true)) : Optional.empty());
+    }
+
+    <T> T call(final Supplier<T> call) {
+
+        if (permits.isEmpty()) {
+            return call.get();
+        }
+
+        acquire(permits.get());
+        try {
+            return call.get();
+        } finally {
+            permits.get().release();
+        }
+    }
+
+    private static void acquire(final Semaphore semaphore) {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+
+            currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted waiting for a downstream call to complete", e);
+        }
+    }
+}
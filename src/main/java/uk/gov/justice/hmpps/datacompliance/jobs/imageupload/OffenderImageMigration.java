@@ -8,6 +8,8 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.Imag
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication.ImageUploadBatchRepository;
 import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
+import java.util.Optional;
+
 @Slf4j
 @Service
 @AllArgsConstructor
@@ -23,16 +25,54 @@ class OffenderImageMigration {
 
         log.info("Running offender image migration");
 
-        final var batch = repository.save(newUploadBatch());
+        final var batch = interruptedBatch().orElseGet(() -> repository.save(newUploadBatch()));
+        final var previousUploadCount = Optional.ofNullable(batch.getUploadCount()).orElse(0L);
         final var imageUploader = uploaderFactory.generateUploaderFor(batch);
 
-        offenderIterator.applyForAll(batch, imageUploader);
+        RuntimeException failure = null;
 
-        batch.setUploadEndDateTime(timeSource.nowAsLocalDateTime());
-        batch.setUploadCount(imageUploader.getUploadCount());
-        repository.save(batch);
+        try {
+            offenderIterator.applyForAll(batch, imageUploader,
+                nextOffset -> checkpoint(batch, nextOffset, previousUploadCount + imageUploader.flush()));
+            batch.setUploadEndDateTime(timeSource.nowAsLocalDateTime());
+        } catch (final RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            try {
+                imageUploader.close();
+            } catch (final RuntimeException e) {
+                // Must not hide the failure that stopped the migration:
+                if (failure == null) {
+                    throw e;
+                }
+                failure.addSuppressed(e);
+            } finally {
+                // Also recorded on failure, so that the count is carried over when the batch resumes:
+                batch.setUploadCount(previousUploadCount + imageUploader.getUploadCount());
+                repository.save(batch);
+            }
+        }
 
-        log.info("Offender image migration complete, {} faces have been indexed", imageUploader.getUploadCount());
+        log.info("Offender image migration complete, {} faces have been indexed", batch.getUploadCount());
+    }
+
+    private Optional<ImageUploadBatch> interruptedBatch() {
+        return repository.findFirstByOrderByUploadStartDateTimeDesc()
+            .filter(batch -> !batch.isComplete() && batch.getCheckpointOffset().isPresent())
+            .map(batch -> {
+                log.info("Resuming interrupted batch: {} from offset: {}", batch.getBatchId(), batch.getCheckpointOffset().get());
+                return batch;
+            });
+    }
+
+    private void checkpoint(final ImageUploadBatch batch, final long nextOffset, final long uploadCount) {
+
+        log.debug("Recording checkpoint for batch: {} at offset: {}", batch.getBatchId(), nextOffset);
+
+        batch.setCheckpointOffset(nextOffset);
+        batch.setUploadCount(uploadCount);
+        repository.save(batch);
     }
 
     private ImageUploadBatch newUploadBatch() {
@@ -1,6 +1,6 @@
 package uk.gov.justice.hmpps.datacompliance.jobs.imageupload;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import uk.gov.justice.hmpps.datacompliance.client.image.recognition.FaceId;
 import uk.gov.justice.hmpps.datacompliance.client.image.recognition.OffenderImage;
@@ -10,19 +10,54 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.Offe
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication.OffenderImageUploadRepository;
 import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.OffenderImageUpload.ImageUploadStatus.ERROR;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.OffenderImageUpload.ImageUploadStatus.SUCCESS;
 
+/**
+ * Logs the outcome of each image upload. Logged uploads are buffered and
+ * written in JDBC batches once the batch size is reached, when flushed
+ * periodically, and when closed at the end of the upload batch, so that
+ * the upload count only includes uploads that have been written.
+ *
+ * Uploads are taken from the buffer and then written without holding it,
+ * so that other workers can carry on logging uploads during the write.
+ * Writes are made one at a time, so a flush only returns once every upload
+ * buffered before it has been written. An upload that cannot be written is
+ * returned to the buffer to be retried and the flush fails, so that the
+ * upload batch is never checkpointed beyond an upload that was not logged.
+ */
 @Slf4j
-@AllArgsConstructor
+@RequiredArgsConstructor
 class OffenderImageUploadLogger {
 
     private final OffenderImageUploadRepository repository;
     private final ImageUploadBatch uploadBatch;
     private final TimeSource timeSource;
+    private final int logBatchSize;
     private final AtomicLong uploadCount = new AtomicLong();
+    private final List<OffenderImageUpload> pendingUploads = new ArrayList<>();
+    private List<OffenderImageUpload> writingUploads = List.of();
+    private final Object writeLock = new Object();
+    private volatile ScheduledFuture<?> scheduledFlush;
+    private volatile boolean closed;
+
+    // Images already logged for offenders whose uploads have been preloaded, keyed by offender number:
+    private final Map<String, Set<Long>> uploadedImageIds = new ConcurrentHashMap<>();
 
     void log(final OffenderImage image, final FaceId faceId) {
 
@@ -46,24 +81,194 @@ class OffenderImageUploadLogger {
     }
 
     boolean isAlreadyUploaded(final OffenderNumber offenderNumber, final long imageId) {
-        return repository.findByOffenderNoAndImageId(offenderNumber.getOffenderNumber(), imageId).isPresent();
+
+        final var preloaded = uploadedImageIds.get(offenderNumber.getOffenderNumber());
+
+        if (preloaded != null) {
+            return preloaded.contains(imageId);
+        }
+
+        return isPending(offenderNumber, imageId) ||
+            repository.findByOffenderNoAndImageId(offenderNumber.getOffenderNumber(), imageId).isPresent();
+    }
+
+    /**
+     * Loads the images already logged for the given offenders in a single query,
+     * so that checking whether each of their images has been uploaded does not
+     * need a query of its own. Kept until released once the offender is done.
+     */
+    void preloadUploadedImages(final Set<OffenderNumber> offenderNumbers) {
+
+        if (offenderNumbers.isEmpty()) {
+            return;
+        }
+
+        final Map<String, Set<Long>> preloaded = offenderNumbers.stream()
+            .collect(toMap(OffenderNumber::getOffenderNumber, offenderNumber -> ConcurrentHashMap.newKeySet()));
+
+        repository.findUploadedImagesByOffenderNoIn(preloaded.keySet())
+            .forEach(image -> preloaded.get(image.getOffenderNo()).add(image.getImageId()));
+
+        uploadedImageIds.putAll(preloaded);
+    }
+
+    void releaseUploadedImages(final OffenderNumber offenderNumber) {
+        uploadedImageIds.remove(offenderNumber.getOffenderNumber());
+    }
+
+    void flushEvery(final Duration interval, final ScheduledExecutorService scheduler) {
+        scheduledFlush = scheduler.scheduleWithFixedDelay(
+            this::flushPeriodically, interval.toMillis(), interval.toMillis(), MILLISECONDS);
+    }
+
+    /**
+     * Writes the uploads buffered so far, throwing if any could not be written.
+     */
+    void flush() {
+
+        synchronized (writeLock) {
+
+            final var uploads = takePendingUploads();
+
+            if (uploads.isEmpty()) {
+                return;
+            }
+
+            log.debug("Writing batch of {} offender image uploads", uploads.size());
+
+            try {
+
+                final var unwritten = write(uploads);
+
+                if (!unwritten.isEmpty()) {
+                    returnToPendingUploads(unwritten);
+                    throw new IllegalStateException(format("Unable to write %d of %d offender image uploads",
+                        unwritten.size(), uploads.size()));
+                }
+
+            } finally {
+                finishedWriting();
+            }
+        }
+    }
+
+    /**
+     * Writes any buffered uploads and stops the periodic flush.
+     */
+    void close() {
+
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+
+        try {
+            flush();
+        } finally {
+            closed = true;
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private void flushPeriodically() {
+        try {
+            flush();
+        } catch (final RuntimeException e) {
+            // Thrown on, this would stop the periodic flushes that follow:
+            log.warn("Periodic write of offender image uploads failed, will retry", e);
+        }
+    }
+
+    private synchronized List<OffenderImageUpload> takePendingUploads() {
+        writingUploads = List.copyOf(pendingUploads);
+        pendingUploads.clear();
+        return writingUploads;
+    }
+
+    private synchronized void returnToPendingUploads(final List<OffenderImageUpload> uploads) {
+        pendingUploads.addAll(0, uploads);
+    }
+
+    private synchronized void finishedWriting() {
+        writingUploads = List.of();
+    }
+
+    /**
+     * @return The uploads that could not be written.
+     */
+    private List<OffenderImageUpload> write(final List<OffenderImageUpload> uploads) {
+        try {
+            repository.insertAll(uploads);
+            uploads.forEach(this::countUpload);
+            return List.of();
+        } catch (final RuntimeException e) {
+            log.warn("Failed to write batch of {} offender image uploads, writing individually", uploads.size(), e);
+            return uploads.stream()
+                .filter(upload -> !saveIndividually(upload))
+                .collect(toList());
+        }
     }
 
     private void saveUploadError(final OffenderNumber offenderNumber, final long imageId, final String reason) {
-        repository.save(offenderImageUploadBuilder(offenderNumber, imageId)
+        buffer(offenderImageUploadBuilder(offenderNumber, imageId)
             .uploadStatus(ERROR)
             .uploadErrorReason(reason)
             .build());
     }
 
     private void save(final OffenderImage image, final FaceId faceId) {
-
-        repository.save(offenderImageUploadBuilder(image.getOffenderNumber(), image.getImageId())
+        buffer(offenderImageUploadBuilder(image.getOffenderNumber(), image.getImageId())
             .uploadStatus(SUCCESS)
             .faceId(faceId.getFaceId())
             .build());
+    }
+
+    private void buffer(final OffenderImageUpload upload) {
+        if (addPendingUpload(upload)) {
+            flush();
+        }
+    }
+
+    /**
+     * @return Whether the batch size has been reached.
+     */
+    private synchronized boolean addPendingUpload(final OffenderImageUpload upload) {
+
+        pendingUploads.add(upload);
+        recordUploaded(upload.getOffenderNo(), upload.getImageId());
+
+        return pendingUploads.size() >= logBatchSize;
+    }
+
+    private synchronized boolean isPending(final OffenderNumber offenderNumber, final long imageId) {
+        return Stream.concat(pendingUploads.stream(), writingUploads.stream()).anyMatch(upload ->
+            upload.getOffenderNo().equals(offenderNumber.getOffenderNumber()) && upload.getImageId() == imageId);
+    }
+
+    private boolean saveIndividually(final OffenderImageUpload upload) {
+        try {
+            repository.save(upload);
+            countUpload(upload);
+            return true;
+        } catch (final RuntimeException e) {
+            log.error("Unable to write upload of image: '{}' for offender: '{}'", upload.getImageId(), upload.getOffenderNo(), e);
+            return false;
+        }
+    }
+
+    private void countUpload(final OffenderImageUpload upload) {
+        if (upload.isSuccess()) {
+            uploadCount.incrementAndGet();
+        }
+    }
 
-        uploadCount.incrementAndGet();
+    private void recordUploaded(final String offenderNo, final long imageId) {
+        final var preloaded = uploadedImageIds.get(offenderNo);
+        if (preloaded != null) {
+            preloaded.add(imageId);
+        }
     }
 
     private OffenderImageUpload.OffenderImageUploadBuilder offenderImageUploadBuilder(final OffenderNumber offenderNumber,
@@ -10,6 +10,8 @@ import uk.gov.justice.hmpps.datacompliance.client.prisonapi.dto.OffenderImageMet
 import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
 import uk.gov.justice.hmpps.datacompliance.jobs.imageupload.OffenderIterator.OffenderAction;
 
+import java.util.Set;
+
 @Slf4j
 @AllArgsConstructor
 class OffenderImageUploader implements OffenderAction {
@@ -20,13 +22,15 @@ class OffenderImageUploader implements OffenderAction {
     private final ImageRecognitionClient imageRecognitionClient;
     private final OffenderImageUploadLogger uploadLogger;
     private final RateLimiter rateLimiter;
+    private final ConcurrencyLimit prisonApiLimit;
+    private final ConcurrencyLimit imageRecognitionLimit;
 
     @Override
     public void accept(final OffenderNumber offenderNumber) {
 
         log.trace("Uploading image data for offender: '{}'", offenderNumber.getOffenderNumber());
 
-        final var faceImages = prisonApiClient.getOffenderFaceImagesFor(offenderNumber);
+        final var faceImages = prisonApiLimit.call(() -> prisonApiClient.getOffenderFaceImagesFor(offenderNumber));
 
         if (faceImages.isEmpty()) {
             log.trace("Offender: '{}' has no face images to upload", offenderNumber.getOffenderNumber());
@@ -38,6 +42,31 @@ class OffenderImageUploader implements OffenderAction {
             .forEach(image -> getAndUploadImageData(offenderNumber, image));
     }
 
+    @Override
+    public void prepare(final Set<OffenderNumber> offenderNumbers) {
+        uploadLogger.preloadUploadedImages(offenderNumbers);
+    }
+
+    @Override
+    public void release(final OffenderNumber offenderNumber) {
+        uploadLogger.releaseUploadedImages(offenderNumber);
+    }
+
+    /**
+     * Writes any upload log entries buffered so far, returning the resulting upload count.
+     */
+    long flush() {
+        uploadLogger.flush();
+        return uploadLogger.getUploadCount();
+    }
+
+    /**
+     * Writes any upload log entries still buffered, after which the upload count is final.
+     */
+    void close() {
+        uploadLogger.close();
+    }
+
     long getUploadCount() {
         return uploadLogger.getUploadCount();
     }
@@ -46,7 +75,7 @@ class OffenderImageUploader implements OffenderAction {
 
         log.trace("Uploading image: '{}' for offender: '{}'", imageMetadata.getImageId(), offenderNumber.getOffenderNumber());
 
-        final var image = prisonApiClient.getImageData(offenderNumber, imageMetadata.getImageId());
+        final var image = prisonApiLimit.call(() -> prisonApiClient.getImageData(offenderNumber, imageMetadata.getImageId()));
 
         image.ifPresentOrElse(
 
@@ -59,7 +88,7 @@ class OffenderImageUploader implements OffenderAction {
 
         rateLimiter.acquire();
 
-        imageRecognitionClient.uploadImageToCollection(image)
+        imageRecognitionLimit.call(() -> imageRecognitionClient.uploadImageToCollection(image))
             .handle(faceId -> uploadLogger.log(image, faceId),
                 error -> uploadLogger.logUploadError(image.getOffenderNumber(), image.getImageId(), error.getReason()));
     }
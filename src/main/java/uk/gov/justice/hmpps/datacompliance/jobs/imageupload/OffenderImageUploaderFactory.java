@@ -1,6 +1,7 @@
 package uk.gov.justice.hmpps.datacompliance.jobs.imageupload;
 
 import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -10,6 +11,14 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.Imag
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication.OffenderImageUploadRepository;
 import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+
 @Slf4j
 @Service
 class OffenderImageUploaderFactory {
@@ -18,26 +27,60 @@ class OffenderImageUploaderFactory {
     private final ImageRecognitionClient imageRecognitionClient;
     private final OffenderImageUploadRepository repository;
     private final double uploadsPerSecond;
+    private final int prisonApiMaxConcurrentRequests;
+    private final int imageRecognitionMaxConcurrentRequests;
+    private final int logBatchSize;
+    private final Duration logFlushInterval;
     private final TimeSource timeSource;
+    private final ScheduledExecutorService logFlushScheduler = newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("image-upload-log-flush-%d").setDaemon(true).build());
+    private final Set<OffenderImageUploadLogger> openLoggers = ConcurrentHashMap.newKeySet();
 
     OffenderImageUploaderFactory(@Value("${image.recognition.upload.permits.per.second:5.0}") final double uploadsPerSecond,
+                                 @Value("${image.recognition.upload.prison.api.max.concurrent.requests:0}") final int prisonApiMaxConcurrentRequests,
+                                 @Value("${image.recognition.upload.max.concurrent.requests:0}") final int imageRecognitionMaxConcurrentRequests,
+                                 @Value("${image.recognition.upload.log.batch.size:50}") final int logBatchSize,
+                                 @Value("${image.recognition.upload.log.flush.interval:5s}") final Duration logFlushInterval,
                                  final PrisonApiClient prisonApiClient,
                                  final ImageRecognitionClient imageRecognitionClient,
                                  final OffenderImageUploadRepository repository,
                                  final TimeSource timeSource) {
 
         log.info("Image upload - rate limited to {} per second", uploadsPerSecond);
+        log.info("Image upload - maximum concurrent Prison API requests: {}", prisonApiMaxConcurrentRequests);
+        log.info("Image upload - maximum concurrent image recognition requests: {}", imageRecognitionMaxConcurrentRequests);
+        log.info("Image upload - log batch size: {}", logBatchSize);
+        log.info("Image upload - log flush interval: {}", logFlushInterval);
 
         this.prisonApiClient = prisonApiClient;
         this.imageRecognitionClient = imageRecognitionClient;
         this.repository = repository;
         this.timeSource = timeSource;
         this.uploadsPerSecond = uploadsPerSecond;
+        this.prisonApiMaxConcurrentRequests = prisonApiMaxConcurrentRequests;
+        this.imageRecognitionMaxConcurrentRequests = imageRecognitionMaxConcurrentRequests;
+        this.logBatchSize = logBatchSize;
+        this.logFlushInterval = logFlushInterval;
     }
 
     OffenderImageUploader generateUploaderFor(final ImageUploadBatch batch) {
+
+        final var uploadLogger = new OffenderImageUploadLogger(repository, batch, timeSource, logBatchSize);
+        uploadLogger.flushEvery(logFlushInterval, logFlushScheduler);
+
+        openLoggers.removeIf(OffenderImageUploadLogger::isClosed);
+        openLoggers.add(uploadLogger);
+
         return new OffenderImageUploader(prisonApiClient, imageRecognitionClient,
-            new OffenderImageUploadLogger(repository, batch, timeSource),
-            RateLimiter.create(uploadsPerSecond));
+            uploadLogger,
+            RateLimiter.create(uploadsPerSecond),
+            ConcurrencyLimit.of(prisonApiMaxConcurrentRequests),
+            ConcurrencyLimit.of(imageRecognitionMaxConcurrentRequests));
+    }
+
+    @PreDestroy
+    void close() {
+        openLoggers.forEach(OffenderImageUploadLogger::close);
+        logFlushScheduler.shutdown();
     }
 }
@@ -3,6 +3,7 @@ package uk.gov.justice.hmpps.datacompliance.jobs.imageupload;
 import com.google.common.annotations.VisibleForTesting;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,20 +15,31 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.Imag
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication.ImageUploadBatchRepository;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
-import java.util.stream.LongStream;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
 
 import static io.github.resilience4j.core.IntervalFunction.ofExponentialBackoff;
 import static io.github.resilience4j.retry.RetryConfig.custom;
 import static java.lang.Long.MAX_VALUE;
 import static java.lang.Math.ceil;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Thread.currentThread;
-import static java.util.concurrent.Executors.callable;
 import static java.util.concurrent.Executors.newFixedThreadPool;
-import static java.util.stream.Collectors.toList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static uk.gov.justice.hmpps.datacompliance.utils.Exceptions.propagateAnyError;
 
 @Slf4j
@@ -60,39 +72,47 @@ class OffenderIterator {
                      final DataComplianceProperties properties,
                      final RetryConfig retryConfig) {
         this.repository = repository;
-        this.executorService = newFixedThreadPool(properties.getPrisonApiOffenderIdsIterationThreads());
+        // One thread for each worker, plus one to prefetch pages:
+        this.executorService = newFixedThreadPool(properties.getPrisonApiOffenderIdsIterationThreads() + 1);
         this.prisonApiClient = prisonApiClient;
         this.properties = properties;
         this.retryConfig = retryConfig;
     }
 
     void applyForAll(final ImageUploadBatch batch, final OffenderAction action) {
+        applyForAll(batch, action, nextOffset -> {
+        });
+    }
+
+    /**
+     * Applies the action to every offender, with the workers taking offenders from a
+     * bounded queue that is kept filled by prefetching the following pages, so that
+     * no worker waits at a page boundary for the page fetch or the slowest offender
+     * in the page. The first failure stops the iteration once the offenders already
+     * being processed are complete, and is then rethrown.
+     *
+     * Iteration starts from the batch's checkpoint offset, if it has one. The given
+     * checkpoint is called with the offset of the first offender not yet processed
+     * each time all the offenders in the earliest outstanding page are processed.
+     */
+    void applyForAll(final ImageUploadBatch batch, final OffenderAction action, final LongConsumer checkpoint) {
+
+        final var firstPageNumber = batch.getCheckpointOffset().map(this::pageNumberOf).orElse(0L);
 
-        log.info("Applying offender action to first page of up to {} offenders, offset: {}",
-            pageLimit(), properties.getPrisonApiOffenderIdsInitialOffset());
-        final var firstPageResponse = applyForPage(0, action, batch);
+        log.info("Fetching first page of up to {} offenders, offset: {}", pageLimit(), offsetOf(firstPageNumber));
+        final var firstPageResponse = getOffenderNumbers(firstPageNumber, batch);
 
         log.info("Total number of {} offenders", firstPageResponse.getTotalCount());
         properties.getOffenderIdsTotalPages()
             .ifPresent(total -> log.info("Limiting iteration to {} pages of data", total));
 
-        LongStream.rangeClosed(1, indexOfFinalPage(firstPageResponse))
-            .forEach(pageNumber -> applyForPage(pageNumber, action, batch));
-
-        log.info("Offender action applied");
-    }
-
-    private OffenderNumbersResponse applyForPage(final long pageNumber,
-                                                 final OffenderAction action,
-                                                 final ImageUploadBatch batch) {
-
-        log.info("Applying offender action to page {}", pageNumber);
+        final var queue = new OffenderQueue(queueCapacity());
+        final var progress = new PageProgress(firstPageNumber, pageNumber -> checkpoint.accept(offsetOf(pageNumber)));
+        final var tasks = new ArrayList<Callable<Object>>();
 
-        final var offset = properties.getPrisonApiOffenderIdsInitialOffset() + (pageNumber * pageLimit());
-        final var response = getOffenderNumbers(offset, pageLimit(), batch);
-        final var tasks = response.getOffenderNumbers().stream()
-            .map(offenderNumber -> applyWithRetry(action, offenderNumber))
-            .collect(toList());
+        tasks.add(stoppingOnError(queue, () -> prefetch(firstPageNumber, firstPageResponse, queue, progress, action, batch)));
+        IntStream.range(0, properties.getPrisonApiOffenderIdsIterationThreads())
+            .forEach(i -> tasks.add(stoppingOnError(queue, () -> applyFromQueue(queue, progress, action))));
 
         try {
 
@@ -101,12 +121,70 @@ class OffenderIterator {
 
         } catch (InterruptedException e) {
 
+            queue.stop();
             currentThread().interrupt();
 
             throw new IllegalStateException("Execution interrupted", e);
         }
 
-        return response;
+        log.info("Offender action applied");
+    }
+
+    private void prefetch(final long firstPageNumber,
+                          final OffenderNumbersResponse firstPageResponse,
+                          final OffenderQueue queue,
+                          final PageProgress progress,
+                          final OffenderAction action,
+                          final ImageUploadBatch batch) throws InterruptedException {
+
+        prepareAndQueue(firstPageNumber, firstPageResponse.getOffenderNumbers(), queue, progress, action);
+
+        for (long pageNumber = firstPageNumber + 1; pageNumber <= indexOfFinalPage(firstPageResponse) && !queue.isStopped(); pageNumber++) {
+            log.info("Fetching page {}", pageNumber);
+            prepareAndQueue(pageNumber, getOffenderNumbers(pageNumber, batch).getOffenderNumbers(), queue, progress, action);
+        }
+
+        queue.finish();
+    }
+
+    private void prepareAndQueue(final long pageNumber,
+                                 final Set<OffenderNumber> page,
+                                 final OffenderQueue queue,
+                                 final PageProgress progress,
+                                 final OffenderAction action) throws InterruptedException {
+        action.prepare(page);
+        progress.started(pageNumber, page.size());
+        queue.putAll(pageNumber, page);
+    }
+
+    private void applyFromQueue(final OffenderQueue queue,
+                                final PageProgress progress,
+                                final OffenderAction action) throws InterruptedException {
+
+        for (var queued = queue.take(); queued.isPresent(); queued = queue.take()) {
+
+            final var offenderNumber = queued.get().getOffenderNumber();
+
+            try {
+                applyWithRetry(action, offenderNumber);
+            } finally {
+                action.release(offenderNumber);
+            }
+
+            progress.completed(queued.get().getPageNumber());
+        }
+    }
+
+    private OffenderNumbersResponse getOffenderNumbers(final long pageNumber, final ImageUploadBatch batch) {
+        return getOffenderNumbers(offsetOf(pageNumber), pageLimit(), batch);
+    }
+
+    private long offsetOf(final long pageNumber) {
+        return properties.getPrisonApiOffenderIdsInitialOffset() + (pageNumber * pageLimit());
+    }
+
+    private long pageNumberOf(final long offset) {
+        return max(offset - properties.getPrisonApiOffenderIdsInitialOffset(), 0) / pageLimit();
     }
 
     private OffenderNumbersResponse getOffenderNumbers(final long offset,
@@ -130,11 +208,179 @@ class OffenderIterator {
         return properties.getPrisonApiOffenderIdsLimit();
     }
 
-    private Callable<Object> applyWithRetry(final OffenderAction offenderAction, final OffenderNumber offenderNumber) {
-        return callable(() -> Retry.of(offenderNumber.getOffenderNumber(), retryConfig)
-            .executeRunnable(() -> offenderAction.accept(offenderNumber)));
+    private int queueCapacity() {
+        return (int) (max(properties.getPrisonApiOffenderIdsPrefetchPages(), 1) * pageLimit());
+    }
+
+    private void applyWithRetry(final OffenderAction offenderAction, final OffenderNumber offenderNumber) {
+        Retry.of(offenderNumber.getOffenderNumber(), retryConfig)
+            .executeRunnable(() -> offenderAction.accept(offenderNumber));
+    }
+
+    private static Callable<Object> stoppingOnError(final OffenderQueue queue, final QueueTask task) {
+        return () -> {
+            try {
+                task.run();
+                return null;
+            } catch (final Exception e) {
+                queue.stop();
+                throw e;
+            }
+        };
     }
 
     interface OffenderAction extends Consumer<OffenderNumber> {
+
+        /**
+         * Called with each page of offenders before they are queued, so that
+         * any state needed for the page can be loaded in one go.
+         */
+        default void prepare(final Set<OffenderNumber> offenderNumbers) {
+        }
+
+        /**
+         * Called once the action has been applied to the offender (or has failed).
+         */
+        default void release(final OffenderNumber offenderNumber) {
+        }
+    }
+
+    private interface QueueTask {
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * A bounded queue of offenders between the prefetching of pages and the
+     * workers. Waits are timed so that both sides notice promptly when the
+     * iteration has been stopped by a failure elsewhere.
+     */
+    private static class OffenderQueue {
+
+        private static final long POLL_INTERVAL_MILLIS = 100;
+
+        private final BlockingQueue<QueuedOffender> offenderNumbers;
+        private volatile boolean finished;
+        private volatile boolean stopped;
+
+        private OffenderQueue(final int capacity) {
+            this.offenderNumbers = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void putAll(final long pageNumber, final Collection<OffenderNumber> page) throws InterruptedException {
+            for (final var offenderNumber : page) {
+                final var queued = new QueuedOffender(offenderNumber, pageNumber);
+                while (!stopped && !offenderNumbers.offer(queued, POLL_INTERVAL_MILLIS, MILLISECONDS)) {
+                    // Wait for the workers to make space in the queue
+                }
+            }
+        }
+
+        private Optional<QueuedOffender> take() throws InterruptedException {
+
+            while (!stopped) {
+
+                // Checked before polling as all offenders have been queued once finished:
+                final var lastOffenderQueued = finished;
+                final var offenderNumber = offenderNumbers.poll(POLL_INTERVAL_MILLIS, MILLISECONDS);
+
+                if (offenderNumber != null) {
+                    return Optional.of(offenderNumber);
+                }
+                if (lastOffenderQueued) {
+                    return Optional.empty();
+                }
+            }
+
+            return Optional.empty();
+        }
+
+        private void finish() {
+            finished = true;
+        }
+
+        private void stop() {
+            stopped = true;
+        }
+
+        private boolean isStopped() {
+            return stopped;
+        }
+    }
+
+    @Value
+    private static class QueuedOffender {
+        OffenderNumber offenderNumber;
+        long pageNumber;
+    }
+
+    /**
+     * Tracks the number of offenders outstanding in each page, so that a checkpoint
+     * is only ever recorded once every offender before it has been processed, even
+     * though the pages are processed concurrently and may complete out of order.
+     *
+     * The checkpoint is recorded outside the lock on the page counts, so that the
+     * other threads are not held up while it is saved. Only one thread records a
+     * checkpoint at a time; any thread that finds it busy leaves it to record the
+     * latest page once it is done, so checkpoints only ever move forward.
+     */
+    private static class PageProgress {
+
+        private final Map<Long, Integer> outstanding = new HashMap<>();
+        private final Lock checkpointing = new ReentrantLock();
+        private final LongConsumer checkpoint;
+        private long nextPageNumber;
+        private volatile long checkpointPageNumber;
+
+        private PageProgress(final long firstPageNumber, final LongConsumer checkpoint) {
+            this.nextPageNumber = firstPageNumber;
+            this.checkpointPageNumber = firstPageNumber;
+            this.checkpoint = checkpoint;
+        }
+
+        private void started(final long pageNumber, final int offenderCount) {
+            synchronized (this) {
+                outstanding.put(pageNumber, offenderCount);
+                advance();
+            }
+            recordCheckpoint();
+        }
+
+        private void completed(final long pageNumber) {
+            synchronized (this) {
+                outstanding.merge(pageNumber, -1, Integer::sum);
+                advance();
+            }
+            recordCheckpoint();
+        }
+
+        private void advance() {
+            while (outstanding.getOrDefault(nextPageNumber, -1) == 0) {
+                outstanding.remove(nextPageNumber++);
+            }
+        }
+
+        private void recordCheckpoint() {
+
+            // Checked again once the lock is released, in case the pages advanced while it was held:
+            while (isCheckpointDue() && checkpointing.tryLock()) {
+                try {
+                    final var pageNumber = nextPageNumber();
+                    if (pageNumber != checkpointPageNumber) {
+                        checkpoint.accept(pageNumber);
+                        checkpointPageNumber = pageNumber;
+                    }
+                } finally {
+                    checkpointing.unlock();
+                }
+            }
+        }
+
+        private synchronized boolean isCheckpointDue() {
+            return nextPageNumber != checkpointPageNumber;
+        }
+
+        private synchronized long nextPageNumber() {
+            return nextPageNumber;
+        }
     }
 }
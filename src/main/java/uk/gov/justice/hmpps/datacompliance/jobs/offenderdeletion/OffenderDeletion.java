@@ -17,6 +17,7 @@ import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -53,7 +54,7 @@ public class OffenderDeletion {
 
         config.getReferralLimit().ifPresent(request::limit);
 
-        eventPusher.requestReferral(request.build());
+        eventPusher.requestReferral(request.build()).join();
 
         log.info("Offender deletion request complete");
     }
@@ -67,7 +68,12 @@ public class OffenderDeletion {
             final var deleteAfter = timeSource.nowAsLocalDateTime().minus(deletionReviewDelay);
             final var prospectiveDeletionReferrals = offenderDeletionReferralRepository.findByReferralResolutionStatus(ResolutionStatus.PROVISIONAL_DELETION_GRANTED.name(), true, deleteAfter, config.getDeletionLimit());
 
-            prospectiveDeletionReferrals.forEach(referral -> eventPusher.requestProvisionalDeletionReferral(referral.getOffenderNumber(), referral.getReferralId()));
+            final var requests = prospectiveDeletionReferrals.stream()
+                .map(referral -> eventPusher.requestProvisionalDeletionReferral(referral.getOffenderNumber(), referral.getReferralId()))
+                .toArray(CompletableFuture[]::new);
+
+            // The requests may be sent concurrently, but the review fails if any cannot be sent:
+            CompletableFuture.allOf(requests).join();
         }
     }
 
@@ -33,7 +33,7 @@ public class OffenderNoBookingDeletion {
         final var newBatch = persistNewBatch();
         final var request = buildRequest(newBatch);
 
-        eventPusher.requestOffenderNoBookingDeletion(request);
+        eventPusher.requestOffenderNoBookingDeletion(request).join();
 
         log.info("Offender no booking deletion deletion request complete");
 
@@ -14,6 +14,7 @@ import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Data
 @Entity
@@ -38,4 +39,15 @@ public class ImageUploadBatch {
 
     @Column(name = "UPLOAD_COUNT")
     private Long uploadCount;
+
+    @Column(name = "CHECKPOINT_OFFSET")
+    private Long checkpointOffset;
+
+    public boolean isComplete() {
+        return uploadEndDateTime != null;
+    }
+
+    public Optional<Long> getCheckpointOffset() {
+        return Optional.ofNullable(checkpointOffset);
+    }
 }
@@ -0,0 +1,40 @@
+package uk.gov.justice.hmpps.datacompliance.repository.jpa.model.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.Length;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"messageId"})
+@Table(name = "PROCESSED_MESSAGE")
+public class ProcessedMessage {
+
+    @Id
+    @NotNull
+    @Length(max = 100)
+    @Column(name = "MESSAGE_ID", nullable = false)
+    private String messageId;
+
+    @NotNull
+    @Length(max = 255)
+    @Column(name = "EVENT_TYPE", nullable = false)
+    private String eventType;
+
+    @NotNull
+    @Column(name = "PROCESSED_DATE_TIME", nullable = false)
+    private LocalDateTime processedDateTime;
+}
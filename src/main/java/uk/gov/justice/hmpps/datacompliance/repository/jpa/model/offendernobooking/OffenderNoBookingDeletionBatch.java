@@ -31,6 +31,8 @@ public class OffenderNoBookingDeletionBatch {
     private BatchType batchType;
     @Column(name = "COMMENT_TEXT")
     private String commentText;
+    @Column(name = "REFERRALS_RECORDED", nullable = false)
+    private int referralsRecorded;
 
     public enum BatchType {
         SCHEDULED,
@@ -0,0 +1,70 @@
+package uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.Length;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"outboxMessageId"})
+@Table(name = "OUTBOX_MESSAGE")
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "OUTBOX_MESSAGE_ID", nullable = false)
+    private Long outboxMessageId;
+
+    @NotNull
+    @Length(max = 255)
+    @Column(name = "EVENT_TYPE", nullable = false)
+    private String eventType;
+
+    @NotNull
+    @Column(name = "MESSAGE_BODY", nullable = false)
+    private String messageBody;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false)
+    private Status status;
+
+    @NotNull
+    @Column(name = "CREATED_DATE_TIME", nullable = false)
+    private LocalDateTime createdDateTime;
+
+    @Column(name = "SENT_DATE_TIME")
+    private LocalDateTime sentDateTime;
+
+    public void sent(final LocalDateTime sentDateTime) {
+        this.status = Status.SENT;
+        this.sentDateTime = sentDateTime;
+    }
+
+    public void failed() {
+        this.status = Status.FAILED;
+    }
+
+    public enum Status {
+        PENDING,
+        SENT,
+        FAILED
+    }
+}
@@ -11,6 +11,7 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.OffenderEntity;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck;
 
 import javax.persistence.Column;
+import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
@@ -21,6 +22,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -42,6 +44,8 @@ public class ReferralResolution implements OffenderEntity {
 
     @OneToMany(mappedBy = "referralResolution", cascade = ALL, fetch = LAZY)
     private final List<RetentionCheck> retentionChecks = new ArrayList<>();
+    @Embedded
+    private final RetentionCheckCounts retentionCheckCounts = new RetentionCheckCounts();
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "RESOLUTION_ID", nullable = false)
@@ -65,8 +69,13 @@ public class ReferralResolution implements OffenderEntity {
     @Column(name = "PROVISIONAL_DELETION_PREVIOUSLY_GRANTED", nullable = false)
     private boolean provisionalDeletionPreviouslyGranted;
 
+    @Version
+    @Column(name = "VERSION")
+    private Long version;
+
     public ReferralResolution addRetentionCheck(final RetentionCheck reason) {
         this.retentionChecks.add(reason);
+        this.retentionCheckCounts.add(reason.getCheckStatus());
         reason.setReferralResolution(this);
         return this;
     }
@@ -0,0 +1,91 @@
+package uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * The number of retention checks against a referral resolution in each status,
+ * kept up to date as checks are added and their statuses change, so that the
+ * resolution can be decided without loading the checks themselves.
+ */
+@ToString
+@Embeddable
+@EqualsAndHashCode
+public class RetentionCheckCounts {
+
+    @Column(name = "PENDING_CHECKS", nullable = false)
+    private int pending;
+
+    @Column(name = "RETENTION_REQUIRED_CHECKS", nullable = false)
+    private int retentionRequired;
+
+    @Column(name = "RETENTION_NOT_REQUIRED_CHECKS", nullable = false)
+    private int retentionNotRequired;
+
+    @Column(name = "FALSE_POSITIVE_CHECKS", nullable = false)
+    private int falsePositive;
+
+    @Column(name = "DISABLED_CHECKS", nullable = false)
+    private int disabled;
+
+    @Column(name = "SKIPPED_CHECKS", nullable = false)
+    private int skipped;
+
+    public int count(final Status status) {
+        if (status == null) return 0;
+        switch (status) {
+            case PENDING: return pending;
+            case RETENTION_REQUIRED: return retentionRequired;
+            case RETENTION_NOT_REQUIRED: return retentionNotRequired;
+            case FALSE_POSITIVE: return falsePositive;
+            case DISABLED: return disabled;
+            case SKIPPED: return skipped;
+            default: throw new IllegalArgumentException("Unexpected retention check status: " + status);
+        }
+    }
+
+    public void add(final Status status) {
+        adjust(status, 1);
+    }
+
+    public void change(final Status from, final Status to) {
+        if (from == to) return;
+        adjust(from, -1);
+        adjust(to, 1);
+    }
+
+    public boolean anyPending() {
+        return pending > 0;
+    }
+
+    /**
+     * True if no check requires the offender to be retained, or has
+     * been skipped because another check already requires retention.
+     */
+    public boolean allCompleted() {
+        return pending == 0 && retentionRequired == 0 && skipped == 0;
+    }
+
+    private void adjust(final Status status, final int delta) {
+
+        if (status == null) return;
+
+        checkState(count(status) + delta >= 0, "Retention check count for status '%s' cannot be negative", status);
+
+        switch (status) {
+            case PENDING: pending += delta; break;
+            case RETENTION_REQUIRED: retentionRequired += delta; break;
+            case RETENTION_NOT_REQUIRED: retentionNotRequired += delta; break;
+            case FALSE_POSITIVE: falsePositive += delta; break;
+            case DISABLED: disabled += delta; break;
+            case SKIPPED: skipped += delta; break;
+            default: throw new IllegalArgumentException("Unexpected retention check status: " + status);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "MORATORIUM_CODE")
+public class MoratoriumCode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "MORATORIUM_CODE_ID", nullable = false)
+    private Long moratoriumCodeId;
+
+    @NotNull
+    @Column(name = "CODE", nullable = false)
+    private String code;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "CODE_TYPE", nullable = false)
+    private CodeType codeType;
+
+    public enum CodeType {
+        OFFENCE,
+        ALERT
+    }
+}
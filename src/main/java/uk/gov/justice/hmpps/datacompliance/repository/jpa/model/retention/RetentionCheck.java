@@ -53,6 +53,13 @@ public abstract class RetentionCheck implements OffenderEntity {
     @Column(name = "CHECK_STATUS", nullable = false)
     private RetentionCheck.Status checkStatus;
 
+    public void setCheckStatus(final Status checkStatus) {
+        if (referralResolution != null) {
+            referralResolution.getRetentionCheckCounts().change(this.checkStatus, checkStatus);
+        }
+        this.checkStatus = checkStatus;
+    }
+
     @Override
     public OffenderNumber getOffenderNumber() {
         return getReferralResolution().getOffenderNumber();
@@ -75,6 +82,7 @@ public abstract class RetentionCheck implements OffenderEntity {
         RETENTION_REQUIRED,
         RETENTION_NOT_REQUIRED,
         FALSE_POSITIVE,
-        DISABLED
+        DISABLED,
+        SKIPPED // Not conducted because a cheaper check already requires retention
     }
 }
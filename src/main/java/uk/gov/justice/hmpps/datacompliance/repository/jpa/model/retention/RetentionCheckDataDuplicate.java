@@ -10,6 +10,8 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.Data
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -17,13 +19,20 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.google.common.base.Preconditions.checkState;
 import static java.util.stream.Collectors.toList;
 import static javax.persistence.CascadeType.MERGE;
 import static javax.persistence.CascadeType.PERSIST;
 import static javax.persistence.FetchType.LAZY;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.FALSE_POSITIVE;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.PENDING;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_REQUIRED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate.FalsePositiveCheckStatus.COMPLETED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate.FalsePositiveCheckStatus.REQUESTED;
 
 @Entity
 public abstract class RetentionCheckDataDuplicate extends RetentionCheck {
@@ -31,6 +40,13 @@ public abstract class RetentionCheckDataDuplicate extends RetentionCheck {
     @OneToMany(mappedBy = "retentionCheck", cascade = {PERSIST, MERGE}, fetch = LAZY)
     private final List<RetentionReasonDataDuplicate> dataDuplicates = new ArrayList<>();
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "FALSE_POSITIVE_CHECK_STATUS")
+    private FalsePositiveCheckStatus falsePositiveCheckStatus;
+
+    @Column(name = "FALSE_POSITIVE_CHECK_DATE_TIME")
+    private LocalDateTime falsePositiveCheckDateTime;
+
     RetentionCheckDataDuplicate() {
         this(null, null);
     }
@@ -50,6 +66,42 @@ public abstract class RetentionCheckDataDuplicate extends RetentionCheck {
             .collect(toList());
     }
 
+    public FalsePositiveCheckStatus getFalsePositiveCheckStatus() {
+        return falsePositiveCheckStatus;
+    }
+
+    public LocalDateTime getFalsePositiveCheckDateTime() {
+        return falsePositiveCheckDateTime;
+    }
+
+    public boolean isFalsePositiveCheckRequested() {
+        return falsePositiveCheckStatus == REQUESTED;
+    }
+
+    /**
+     * The check is pending again until the false positive check
+     * has decided whether retention is really required.
+     */
+    public void requestFalsePositiveCheck(final LocalDateTime requestDateTime) {
+
+        checkState(falsePositiveCheckStatus == null,
+            "False positive check for '%s' has already been %s", getRetentionCheckId(), falsePositiveCheckStatus);
+
+        setCheckStatus(PENDING);
+        this.falsePositiveCheckStatus = REQUESTED;
+        this.falsePositiveCheckDateTime = requestDateTime;
+    }
+
+    public void completeFalsePositiveCheck(final boolean falsePositive, final LocalDateTime completionDateTime) {
+
+        checkState(isFalsePositiveCheckRequested(),
+            "False positive check for '%s' has not been requested", getRetentionCheckId());
+
+        setCheckStatus(falsePositive ? FALSE_POSITIVE : RETENTION_REQUIRED);
+        this.falsePositiveCheckStatus = COMPLETED;
+        this.falsePositiveCheckDateTime = completionDateTime;
+    }
+
     private void addDataDuplicate(final DataDuplicate dataDuplicate) {
         dataDuplicates.add(RetentionReasonDataDuplicate.builder()
             .retentionCheck(this)
@@ -57,6 +109,11 @@ public abstract class RetentionCheckDataDuplicate extends RetentionCheck {
             .build());
     }
 
+    public enum FalsePositiveCheckStatus {
+        REQUESTED,
+        COMPLETED
+    }
+
     @Data
     @Entity
     @Builder
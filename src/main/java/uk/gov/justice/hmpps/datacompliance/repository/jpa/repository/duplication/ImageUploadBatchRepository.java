@@ -9,4 +9,6 @@ import java.util.Optional;
 @Repository
 public interface ImageUploadBatchRepository extends CrudRepository<ImageUploadBatch, Long> {
     Optional<ImageUploadBatch> findFirstByBatchIdNotOrderByUploadStartDateTimeDesc(final long batchId);
+
+    Optional<ImageUploadBatch> findFirstByOrderByUploadStartDateTimeDesc();
 }
@@ -0,0 +1,14 @@
+package uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication;
+
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.OffenderImageUpload;
+
+import java.util.List;
+
+public interface OffenderImageUploadBatchInsert {
+
+    /**
+     * Inserts the uploads in a single JDBC batch, which Hibernate cannot do
+     * for entities with identity generated keys.
+     */
+    void insertAll(List<OffenderImageUpload> uploads);
+}
@@ -0,0 +1,39 @@
+package uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.OffenderImageUpload;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OffenderImageUploadBatchInsertImpl implements OffenderImageUploadBatchInsert {
+
+    private static final String INSERT_UPLOAD = """
+        INSERT INTO OFFENDER_IMAGE_UPLOAD
+        (BATCH_ID, OFFENDER_NO, OFFENDER_IMAGE_ID, FACE_ID, UPLOAD_DATE_TIME, UPLOAD_STATUS, UPLOAD_ERROR_REASON)
+        VALUES (?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertAll(final List<OffenderImageUpload> uploads) {
+
+        if (uploads.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_UPLOAD, uploads, uploads.size(), (statement, upload) -> {
+            statement.setLong(1, upload.getImageUploadBatch().getBatchId());
+            statement.setString(2, upload.getOffenderNo());
+            statement.setLong(3, upload.getImageId());
+            statement.setString(4, upload.getFaceId());
+            statement.setTimestamp(5, Timestamp.valueOf(upload.getUploadDateTime()));
+            statement.setString(6, upload.getUploadStatus().name());
+            statement.setString(7, upload.getUploadErrorReason());
+        });
+    }
+}
@@ -1,17 +1,27 @@
 package uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.OffenderImageUpload;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OffenderImageUploadRepository extends CrudRepository<OffenderImageUpload, Long> {
+public interface OffenderImageUploadRepository extends CrudRepository<OffenderImageUpload, Long>, OffenderImageUploadBatchInsert {
     List<OffenderImageUpload> findByOffenderNo(String offenderNo);
 
     Optional<OffenderImageUpload> findByOffenderNoAndImageId(String offenderNo, Long imageId);
 
     Optional<OffenderImageUpload> findByFaceId(String faceId);
+
+    @Query("select u.offenderNo as offenderNo, u.imageId as imageId from OffenderImageUpload u where u.offenderNo in :offenderNos")
+    List<UploadedImage> findUploadedImagesByOffenderNoIn(Collection<String> offenderNos);
+
+    interface UploadedImage {
+        String getOffenderNo();
+        Long getImageId();
+    }
 }
@@ -0,0 +1,37 @@
+package uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.message;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.message.ProcessedMessage;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface ProcessedMessageRepository extends CrudRepository<ProcessedMessage, String> {
+
+    /**
+     * Inserts the record straight away, rather than on flush, so that a
+     * concurrent insert of the same message ID waits on (and then fails on)
+     * the primary key until this transaction completes.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO PROCESSED_MESSAGE (MESSAGE_ID, EVENT_TYPE, PROCESSED_DATE_TIME)
+        VALUES (:messageId, :eventType, :processedDateTime)""", nativeQuery = true)
+    int insert(final String messageId, final String eventType, final LocalDateTime processedDateTime);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT pm.messageId FROM ProcessedMessage pm WHERE pm.processedDateTime >= :since")
+    Stream<String> findMessageIdsProcessedSince(final LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM ProcessedMessage pm WHERE pm.processedDateTime < :before")
+    int deleteProcessedBefore(final LocalDateTime before);
+}
@@ -0,0 +1,32 @@
+package uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage.Status;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends CrudRepository<OutboxMessage, Long> {
+
+    /**
+     * Locks the messages returned, skipping any locked by another
+     * instance's relay (a lock timeout of -2 is Hibernate's SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    List<OutboxMessage> findByStatusOrderByOutboxMessageId(final Status status, final Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage om WHERE om.status = :status AND om.sentDateTime < :before")
+    int deleteByStatusSentBefore(final Status status, final LocalDateTime before);
+}
@@ -3,7 +3,10 @@ package uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.referral;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution.ResolutionStatus;
 
 @Repository
 public interface ReferralResolutionRepository extends CrudRepository<ReferralResolution, Long>, ReferralResolutionRepositoryCustom {
+
+    long countByResolutionStatus(ResolutionStatus resolutionStatus);
 }
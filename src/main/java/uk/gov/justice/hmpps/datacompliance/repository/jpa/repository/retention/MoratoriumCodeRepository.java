@@ -0,0 +1,13 @@
+package uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode;
+
+import java.util.List;
+
+@Repository
+public interface MoratoriumCodeRepository extends CrudRepository<MoratoriumCode, Long> {
+
+    List<MoratoriumCode> findAll();
+}
@@ -1,9 +1,23 @@
 package uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate.FalsePositiveCheckStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface RetentionCheckRepository extends CrudRepository<RetentionCheck, Long> {
+
+    List<RetentionCheck> findByReferralResolutionAndCheckStatus(ReferralResolution referralResolution, Status checkStatus);
+
+    @Query("select c.retentionCheckId from RetentionCheckDataDuplicate c where c.falsePositiveCheckStatus = :status and c.falsePositiveCheckDateTime < :before")
+    List<Long> findIdsByFalsePositiveCheckStatusBefore(@Param("status") FalsePositiveCheckStatus status,
+                                                       @Param("before") LocalDateTime before);
 }
@@ -1,10 +1,11 @@
 package uk.gov.justice.hmpps.datacompliance.services.deletion;
 
-import lombok.AllArgsConstructor;
+import com.google.common.collect.Iterators;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DeceasedOffenderDeletionResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DeceasedOffenderDeletionResult.DeceasedOffender;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DeceasedOffenderDeletionResult.OffenderAlias;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.deceasedoffender.DeceasedOffenderDeletionBatch;
@@ -15,40 +16,74 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.deceasedoff
 import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
-import static org.springframework.util.CollectionUtils.isEmpty;
 import static uk.gov.justice.hmpps.datacompliance.utils.Exceptions.illegalState;
 
 @Slf4j
 @Service
-@Transactional
-@AllArgsConstructor
 public class DeceasedDeletionService {
 
     private final TimeSource timeSource;
     private final DeceasedOffenderDeletionBatchRepository batchRepository;
     private final DeceasedOffenderDeletionReferralRepository referralRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public DeceasedDeletionService(final TimeSource timeSource,
+                                   final DeceasedOffenderDeletionBatchRepository batchRepository,
+                                   final DeceasedOffenderDeletionReferralRepository referralRepository,
+                                   final PlatformTransactionManager transactionManager,
+                                   final DataComplianceProperties properties) {
+        this.timeSource = timeSource;
+        this.batchRepository = batchRepository;
+        this.referralRepository = referralRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = properties.getDeletionResultChunkSize();
+    }
 
-    public void handleDeceasedOffenderDeletionResult(final DeceasedOffenderDeletionResult result) {
+    /**
+     * The referrals are saved a chunk at a time, each chunk in its own transaction
+     * along with the number of offenders recorded so far, rather than in one long
+     * transaction. A result that fails part way through is resumed from the last
+     * chunk saved when it is redelivered.
+     */
+    public void handleDeceasedOffenderDeletionResult(final Long batchId, final Stream<DeceasedOffender> deceasedOffenders) {
 
         log.info("Handling deceased offender deletion result");
 
-        final var batch = batchRepository.findById(result.getBatchId())
-            .orElseThrow(illegalState("Cannot find batch with id: '%s'", result.getBatchId()));
+        final var batch = batchRepository.findById(batchId)
+            .orElseThrow(illegalState("Cannot find batch with id: '%s'", batchId));
 
-        batch.setReferralCompletionDateTime(timeSource.nowAsLocalDateTime());
+        if (batch.getReferralCompletionDateTime() != null) {
+            log.warn("Deceased offender deletion result for batch {} has already been recorded", batchId);
+            return;
+        }
+
+        if (batch.getReferralsRecorded() > 0) {
+            log.info("Resuming deceased offender deletion result for batch {} after {} offenders",
+                batchId, batch.getReferralsRecorded());
+        }
+
+        Iterators.partition(deceasedOffenders.skip(batch.getReferralsRecorded()).iterator(), chunkSize)
+            .forEachRemaining(chunk -> transactionTemplate.executeWithoutResult(status -> saveReferrals(batch, chunk)));
 
-        final var updatedBatch = batchRepository.save(batch);
+        if (batch.getReferralsRecorded() == 0)
+            log.info("There are no deceased offenders that met the deletion criteria  {}", batchId);
 
-        if (isEmpty(result.getDeceasedOffenders()))
-            log.info("There are no deceased offenders that met the deletion criteria  {}", batch.getBatchId());
+        batch.setReferralCompletionDateTime(timeSource.nowAsLocalDateTime());
+        transactionTemplate.executeWithoutResult(status -> batchRepository.save(batch));
+    }
 
-        else result.getDeceasedOffenders().stream()
-            .map(referral -> toReferralEntity(referral, updatedBatch))
-            .forEach(referralRepository::save);
+    private void saveReferrals(final DeceasedOffenderDeletionBatch batch, final List<DeceasedOffender> deceasedOffenders) {
 
+        referralRepository.saveAll(deceasedOffenders.stream()
+            .map(deceasedOffender -> toReferralEntity(deceasedOffender, batch))
+            .collect(toList()));
 
+        batch.setReferralsRecorded(batch.getReferralsRecorded() + deceasedOffenders.size());
+        batchRepository.save(batch);
     }
 
     private DeceasedOffenderDeletionReferral toReferralEntity(DeceasedOffender deceasedOffender, DeceasedOffenderDeletionBatch updatedBatch) {
@@ -56,7 +56,8 @@ public class DeletionService {
                 .map(ReferredOffenderAlias::getOffenderBookId)
                 .filter(Objects::nonNull)
                 .collect(toSet()))
-            .build());
+            .build())
+            .join();
     }
 
     public void handleDeletionComplete(final OffenderDeletionComplete event) {
@@ -1,10 +1,11 @@
 package uk.gov.justice.hmpps.datacompliance.services.deletion;
 
-import lombok.AllArgsConstructor;
+import com.google.common.collect.Iterators;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderNoBookingDeletionResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderNoBookingDeletionResult.Offender;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderNoBookingDeletionResult.OffenderAlias;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.offendernobooking.OffenderNoBookingDeletionBatch;
@@ -15,39 +16,71 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.offendernob
 import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
 import java.util.List;
+import java.util.stream.Stream;
 
-import static org.springframework.util.CollectionUtils.isEmpty;
+import static java.util.stream.Collectors.toList;
 import static uk.gov.justice.hmpps.datacompliance.utils.Exceptions.illegalState;
 
 @Slf4j
 @Service
-@Transactional
-@AllArgsConstructor
 public class OffenderNoBookingDeletionService {
 
     private final TimeSource timeSource;
     private final OffenderNoBookingDeletionBatchRepository batchRepository;
     private final OffenderNoBookingDeletionReferralRepository referralRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public OffenderNoBookingDeletionService(final TimeSource timeSource,
+                                            final OffenderNoBookingDeletionBatchRepository batchRepository,
+                                            final OffenderNoBookingDeletionReferralRepository referralRepository,
+                                            final PlatformTransactionManager transactionManager,
+                                            final DataComplianceProperties properties) {
+        this.timeSource = timeSource;
+        this.batchRepository = batchRepository;
+        this.referralRepository = referralRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = properties.getDeletionResultChunkSize();
+    }
 
-    public void handleOffenderNoBookingDeletionResult(final OffenderNoBookingDeletionResult result) {
+    /**
+     * Saved a chunk at a time, in the same way as deceased offender deletion results.
+     */
+    public void handleOffenderNoBookingDeletionResult(final Long batchId, final Stream<Offender> offenders) {
 
         log.info("Handling offender no booking deletion result");
 
-        final var batch = batchRepository.findById(result.getBatchId())
-            .orElseThrow(illegalState("Cannot find batch with id: '%s'", result.getBatchId()));
+        final var batch = batchRepository.findById(batchId)
+            .orElseThrow(illegalState("Cannot find batch with id: '%s'", batchId));
 
-        batch.setReferralCompletionDateTime(timeSource.nowAsLocalDateTime());
+        if (batch.getReferralCompletionDateTime() != null) {
+            log.warn("Offender no booking deletion result for batch {} has already been recorded", batchId);
+            return;
+        }
+
+        if (batch.getReferralsRecorded() > 0) {
+            log.info("Resuming offender no booking deletion result for batch {} after {} offenders",
+                batchId, batch.getReferralsRecorded());
+        }
 
-        final var updatedBatch = batchRepository.save(batch);
+        Iterators.partition(offenders.skip(batch.getReferralsRecorded()).iterator(), chunkSize)
+            .forEachRemaining(chunk -> transactionTemplate.executeWithoutResult(status -> saveReferrals(batch, chunk)));
 
-        if (isEmpty(result.getOffenders()))
-            log.info("There are no offenders with no booking that met the deletion criteria  {}", batch.getBatchId());
+        if (batch.getReferralsRecorded() == 0)
+            log.info("There are no offenders with no booking that met the deletion criteria  {}", batchId);
+
+        batch.setReferralCompletionDateTime(timeSource.nowAsLocalDateTime());
+        transactionTemplate.executeWithoutResult(status -> batchRepository.save(batch));
+    }
 
-        else result.getOffenders().stream()
-            .map(referral -> toReferralEntity(referral, updatedBatch))
-            .forEach(referralRepository::save);
+    private void saveReferrals(final OffenderNoBookingDeletionBatch batch, final List<Offender> offenders) {
 
+        referralRepository.saveAll(offenders.stream()
+            .map(offender -> toReferralEntity(offender, batch))
+            .collect(toList()));
 
+        batch.setReferralsRecorded(batch.getReferralsRecorded() + offenders.size());
+        batchRepository.save(batch);
     }
 
     private OffenderNoBookingDeletionReferral toReferralEntity(Offender offender, OffenderNoBookingDeletionBatch updatedBatch) {
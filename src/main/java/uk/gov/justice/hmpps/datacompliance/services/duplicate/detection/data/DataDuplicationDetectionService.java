@@ -15,9 +15,10 @@ import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 import javax.transaction.Transactional;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static java.util.stream.Collectors.toList;
-import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.ANALYTICAL_PLATFORM;
 
 @Slf4j
 @Service
@@ -30,30 +31,31 @@ public class DataDuplicationDetectionService {
     private final DataDuplicateRepository dataDuplicateRepository;
     private final DuplicateDetectionClient duplicateDetectionClient;
 
-    public void searchForIdDuplicates(final OffenderNumber offenderNumber, final Long retentionCheckId) {
+    public CompletableFuture<Void> searchForIdDuplicates(final OffenderNumber offenderNumber, final Long retentionCheckId) {
 
         log.debug("Submitting a request to search for data duplicates by ID: '{}/{}'",
             offenderNumber.getOffenderNumber(), retentionCheckId);
 
-        eventPusher.requestIdDataDuplicateCheck(offenderNumber, retentionCheckId);
+        return eventPusher.requestIdDataDuplicateCheck(offenderNumber, retentionCheckId);
     }
 
-    public void searchForDatabaseDuplicates(final OffenderNumber offenderNumber, final Long retentionCheckId) {
+    public CompletableFuture<Void> searchForDatabaseDuplicates(final OffenderNumber offenderNumber, final Long retentionCheckId) {
 
         log.debug("Submitting a request to search for data duplicates (using similarity query on NOMIS DB): '{}/{}'",
             offenderNumber.getOffenderNumber(), retentionCheckId);
 
-        eventPusher.requestDatabaseDataDuplicateCheck(offenderNumber, retentionCheckId);
+        return eventPusher.requestDatabaseDataDuplicateCheck(offenderNumber, retentionCheckId);
     }
 
-    public List<DataDuplicate> searchForAnalyticalPlatformDuplicates(final OffenderNumber offenderNumber) {
+    /**
+     * Nothing is persisted, see {@link #persistDataDuplicates(OffenderNumber, Collection, Method)}.
+     */
+    public Set<DuplicateResult> searchForAnalyticalPlatformDuplicates(final OffenderNumber offenderNumber) {
 
         log.debug("Performing Analytical Platform duplicate search for offender : '{}'",
             offenderNumber.getOffenderNumber());
 
-        final var duplicates = duplicateDetectionClient.findDuplicatesFor(offenderNumber);
-
-        return persistDataDuplicates(offenderNumber, duplicates, ANALYTICAL_PLATFORM);
+        return Set.copyOf(duplicateDetectionClient.findDuplicatesFor(offenderNumber));
     }
 
     public List<DataDuplicate> persistDataDuplicates(final OffenderNumber referenceOffenderNo,
@@ -16,12 +16,17 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication
 import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
 import javax.transaction.Transactional;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Set;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableMap;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.OffenderImageUpload.ImageUploadStatus.DELETED;
 import static uk.gov.justice.hmpps.datacompliance.utils.Exceptions.illegalState;
 
@@ -36,15 +41,45 @@ public class ImageDuplicationDetectionService {
     private final ImageDuplicateRepository imageDuplicateRepository;
     private final TimeSource timeSource;
 
-    public List<ImageDuplicate> findDuplicatesFor(final OffenderNumber offenderNumber) {
+    /**
+     * The faces matched by image recognition for each of the offender's
+     * uploaded images, keyed by the face ID of the uploaded image. Nothing
+     * is persisted, see {@link #persistDuplicatesFor(OffenderNumber, Map)}.
+     */
+    public Map<FaceId, Set<FaceMatch>> findFaceMatchesFor(final OffenderNumber offenderNumber) {
 
         log.info("Finding image duplicates for offender: '{}'", offenderNumber.getOffenderNumber());
 
-        final var imageUploads = imageUploadRepository.findByOffenderNo(offenderNumber.getOffenderNumber());
+        final var faceMatches = new LinkedHashMap<FaceId, Set<FaceMatch>>();
 
-        return imageUploads.stream()
-            .filter(OffenderImageUpload::isSuccess)
-            .flatMap(this::findDuplicates)
+        findSuccessfulUploads(offenderNumber).forEach(referenceImage -> {
+
+            log.debug("Finding image duplicates for offender: '{}' and image: '{}'",
+                referenceImage.getOffenderNo(), referenceImage.getImageId());
+
+            final var referenceFaceId = new FaceId(referenceImage.getFaceId());
+            faceMatches.put(referenceFaceId, Set.copyOf(imageRecognitionClient.findMatchesFor(referenceFaceId)));
+        });
+
+        return unmodifiableMap(faceMatches);
+    }
+
+    /**
+     * Resolves the face matches found for the offender to the uploaded images
+     * of other offenders, persisting any duplicates not already recorded.
+     */
+    public List<ImageDuplicate> persistDuplicatesFor(final OffenderNumber offenderNumber,
+                                                     final Map<FaceId, Set<FaceMatch>> faceMatches) {
+
+        if (faceMatches.isEmpty()) {
+            return emptyList();
+        }
+
+        return findSuccessfulUploads(offenderNumber).stream()
+            .flatMap(referenceImage -> faceMatches.getOrDefault(new FaceId(referenceImage.getFaceId()), Set.of()).stream()
+                .map(matchingFace -> getImageMatch(referenceImage, matchingFace)))
+            .filter(ImageMatch::haveDifferentOffenderNumbers)
+            .map(this::findOrPersistDuplicate)
             .collect(toList());
     }
 
@@ -52,6 +87,23 @@ public class ImageDuplicationDetectionService {
         return imageRecognitionClient.getSimilarity(image1, image2);
     }
 
+    /**
+     * The face IDs of the offender's images that have been indexed in
+     * the image recognition collection, keyed by image ID.
+     */
+    public Map<Long, FaceId> getIndexedFaceIds(final OffenderNumber offenderNumber) {
+        return imageUploadRepository.findByOffenderNo(offenderNumber.getOffenderNumber()).stream()
+            .filter(OffenderImageUpload::isSuccess)
+            .filter(upload -> upload.getFaceId() != null)
+            .collect(toMap(OffenderImageUpload::getImageId, upload -> new FaceId(upload.getFaceId()), (face1, face2) -> face1));
+    }
+
+    public Optional<Set<FaceMatch>> findMatchesAmong(final FaceId faceId,
+                                                     final Set<FaceId> candidateFaceIds,
+                                                     final double similarityThreshold) {
+        return imageRecognitionClient.findMatchesAmong(faceId, candidateFaceIds, similarityThreshold);
+    }
+
     public void deleteOffenderImages(final OffenderNumber offenderNumber) {
 
         log.info("Deleting offender's image recognition uploads for: '{}'", offenderNumber.getOffenderNumber());
@@ -64,17 +116,10 @@ public class ImageDuplicationDetectionService {
             });
     }
 
-    private Stream<ImageDuplicate> findDuplicates(final OffenderImageUpload referenceImage) {
-
-        log.debug("Finding image duplicates for offender: '{}' and image: '{}'",
-            referenceImage.getOffenderNo(), referenceImage.getImageId());
-
-        final var matchingFaceIds = imageRecognitionClient.findMatchesFor(new FaceId(referenceImage.getFaceId()));
-
-        return matchingFaceIds.stream()
-            .map(matchingFaceId -> getImageMatch(referenceImage, matchingFaceId))
-            .filter(ImageMatch::haveDifferentOffenderNumbers)
-            .map(this::findOrPersistDuplicate);
+    private List<OffenderImageUpload> findSuccessfulUploads(final OffenderNumber offenderNumber) {
+        return imageUploadRepository.findByOffenderNo(offenderNumber.getOffenderNumber()).stream()
+            .filter(OffenderImageUpload::isSuccess)
+            .collect(toList());
     }
 
     private ImageMatch getImageMatch(final OffenderImageUpload referenceImage, final FaceMatch matchingFace) {
@@ -0,0 +1,143 @@
+package uk.gov.justice.hmpps.datacompliance.services.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution.ResolutionStatus;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status;
+import uk.gov.justice.hmpps.datacompliance.services.retention.ActionableRetentionCheck;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.FALSE_POSITIVE;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.PENDING;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_REQUIRED;
+
+/**
+ * Records how long each stage of the retention pipeline takes
+ * and what it decided, so that slow downstream services can be
+ * identified from the actuator metrics.
+ */
+@Component
+public class DataComplianceMetrics {
+
+    static final String RETENTION_CHECK_TIMER = "data_compliance.retention.check";
+    static final String RETENTION_CHECK_OUTCOME_COUNTER = "data_compliance.retention.check.outcome";
+    static final String REFERRAL_RESOLUTION_TIMER = "data_compliance.referral.resolution";
+    static final String EVENT_HANDLER_TIMER = "data_compliance.event.handler";
+    static final String DUPLICATE_EVENT_COUNTER = "data_compliance.event.duplicate";
+
+    private static final String ERROR = "ERROR";
+    private static final String SUCCESS = "SUCCESS";
+    private static final Set<Status> COUNTED_OUTCOMES = Set.of(PENDING, RETENTION_REQUIRED, FALSE_POSITIVE);
+
+    private final MeterRegistry meterRegistry;
+
+    public DataComplianceMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ActionableRetentionCheck recordCheck(final String checkType,
+                                                final Supplier<ActionableRetentionCheck> check) {
+        return recordCheck(checkType, startCheck(), check);
+    }
+
+    /**
+     * Starts timing a check whose remote lookup is made before (and possibly
+     * on a different thread to) the rest of the check.
+     */
+    public Timer.Sample startCheck() {
+        return Timer.start(meterRegistry);
+    }
+
+    public ActionableRetentionCheck recordCheck(final String checkType,
+                                                final Timer.Sample sample,
+                                                final Supplier<ActionableRetentionCheck> check) {
+        try {
+
+            final var result = check.get();
+            recordCheckOutcome(sample, checkType, result);
+            return result;
+
+        } catch (final RuntimeException e) {
+            sample.stop(checkTimer(checkType, ERROR));
+            throw e;
+        }
+    }
+
+    public void recordFalsePositive(final String checkType) {
+        outcomeCounter(checkType, FALSE_POSITIVE).increment();
+    }
+
+    public ResolutionStatus recordResolution(final Supplier<ResolutionStatus> resolution) {
+
+        final var sample = Timer.start(meterRegistry);
+
+        try {
+
+            final var status = resolution.get();
+            sample.stop(Timer.builder(REFERRAL_RESOLUTION_TIMER)
+                .tag("resolution", status.name())
+                .register(meterRegistry));
+            return status;
+
+        } catch (final RuntimeException e) {
+            sample.stop(Timer.builder(REFERRAL_RESOLUTION_TIMER)
+                .tag("resolution", ERROR)
+                .register(meterRegistry));
+            throw e;
+        }
+    }
+
+    public void recordEvent(final String eventType, final Runnable handler) {
+
+        final var sample = Timer.start(meterRegistry);
+        var outcome = ERROR;
+
+        try {
+            handler.run();
+            outcome = SUCCESS;
+        } finally {
+            sample.stop(Timer.builder(EVENT_HANDLER_TIMER)
+                .tag("eventType", eventType)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+    }
+
+    public void recordDuplicateEvent(final String eventType) {
+        Counter.builder(DUPLICATE_EVENT_COUNTER)
+            .tag("eventType", eventType)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private void recordCheckOutcome(final Timer.Sample sample,
+                                    final String checkType,
+                                    final ActionableRetentionCheck result) {
+
+        final var status = result.getRetentionCheck().getCheckStatus();
+
+        sample.stop(checkTimer(checkType, status.name()));
+
+        if (COUNTED_OUTCOMES.contains(status)) {
+            outcomeCounter(checkType, status).increment();
+        }
+    }
+
+    private Timer checkTimer(final String checkType, final String outcome) {
+        return Timer.builder(RETENTION_CHECK_TIMER)
+            .tag("checkType", checkType)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private Counter outcomeCounter(final String checkType, final Status status) {
+        return Counter.builder(RETENTION_CHECK_OUTCOME_COUNTER)
+            .tag("checkType", checkType)
+            .tag("outcome", status.name())
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package uk.gov.justice.hmpps.datacompliance.services.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.referral.ReferralResolutionRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution.ResolutionStatus.PENDING;
+
+/**
+ * Referrals still waiting on the results of pending retention checks.
+ *
+ * The count is refreshed from the database periodically rather than
+ * on every scrape, so that scrapes do not each cost a query.
+ */
+@Slf4j
+@Component
+public class UnresolvedReferralsGauge implements MeterBinder {
+
+    private final ReferralResolutionRepository referralResolutionRepository;
+    private final AtomicLong unresolvedReferrals = new AtomicLong();
+
+    public UnresolvedReferralsGauge(final ReferralResolutionRepository referralResolutionRepository) {
+        this.referralResolutionRepository = referralResolutionRepository;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("data_compliance.referrals.unresolved", unresolvedReferrals, AtomicLong::get)
+            .description("The number of referrals awaiting the result of a pending retention check")
+            .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${data.compliance.metrics.unresolved.referrals.refresh.interval:PT1M}")
+    public void refresh() {
+        try {
+            unresolvedReferrals.set(referralResolutionRepository.countByResolutionStatus(PENDING));
+        } catch (final RuntimeException e) {
+            log.warn("Unable to count unresolved referrals, retaining the previous count", e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package uk.gov.justice.hmpps.datacompliance.services.referral;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
@@ -13,18 +14,21 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.Retent
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.referral.OffenderDeletionReferralRepository;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.referral.ReferralResolutionRepository;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.RetentionCheckRepository;
 import uk.gov.justice.hmpps.datacompliance.services.deletion.DeletionService;
+import uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics;
 import uk.gov.justice.hmpps.datacompliance.services.retention.ActionableRetentionCheck;
-import uk.gov.justice.hmpps.datacompliance.services.retention.FalsePositiveCheckService;
+import uk.gov.justice.hmpps.datacompliance.services.retention.FalsePositiveCheckRequested;
 import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.stream.Collectors.toList;
-import static javax.persistence.LockModeType.PESSIMISTIC_WRITE;
+import static javax.persistence.LockModeType.OPTIMISTIC_FORCE_INCREMENT;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution.ResolutionStatus.CHANGES_OCCURRED_IN_REVIEW_PERIOD;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution.ResolutionStatus.DELETION_GRANTED;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution.ResolutionStatus.PENDING;
@@ -48,12 +52,24 @@ public class ReferralResolutionService {
     private final DeletionService deletionService;
     private final OffenderDeletionReferralRepository referralRepository;
     private final ReferralResolutionRepository referralResolutionRepository;
-    private final FalsePositiveCheckService falsePositiveCheckService;
+    private final ApplicationEventPublisher eventPublisher;
     private final DataComplianceProperties properties;
+    private final DataComplianceMetrics metrics;
+    private final RetentionCheckRepository retentionCheckRepository;
 
     public void processReferral(final OffenderDeletionReferral referral,
                                 final List<ActionableRetentionCheck> actionableRetentionChecks) {
 
+        final var resolution = resolveReferral(referral, actionableRetentionChecks);
+
+        referralRepository.save(referral);
+
+        actOnResolution(referral, actionableRetentionChecks, resolution);
+    }
+
+    private ResolutionStatus resolveReferral(final OffenderDeletionReferral referral,
+                                             final List<ActionableRetentionCheck> actionableRetentionChecks) {
+
         final var retentionChecks = actionableRetentionChecks.stream()
             .map(ActionableRetentionCheck::getRetentionCheck)
             .collect(toList());
@@ -64,10 +80,21 @@ public class ReferralResolutionService {
         final var provisionalDeletionPreviouslyGranted = false;
         final var resolution = findResolution(retentionChecks, provisionalDeletionPreviouslyGranted);
 
-        persistRetentionChecks(referral, retentionChecks, resolution, provisionalDeletionPreviouslyGranted);
+        addResolution(referral, retentionChecks, resolution, provisionalDeletionPreviouslyGranted);
 
+        return resolution;
+    }
+
+    private void actOnResolution(final OffenderDeletionReferral referral,
+                                 final List<ActionableRetentionCheck> actionableRetentionChecks,
+                                 final ResolutionStatus resolution) {
         if (resolution == PENDING) {
-            actionableRetentionChecks.forEach(ActionableRetentionCheck::triggerPendingCheck);
+            final var requests = actionableRetentionChecks.stream()
+                .map(ActionableRetentionCheck::triggerPendingCheck)
+                .toArray(CompletableFuture[]::new);
+
+            // The checks may be requested concurrently, but the referral fails if any cannot be requested:
+            CompletableFuture.allOf(requests).join();
         } else if (resolution == DELETION_GRANTED) {
             deletionService.grantDeletion(referral);
         }
@@ -95,11 +122,7 @@ public class ReferralResolutionService {
         final var updatedReferral = persistUpdatedReferral(referral, subsequentRetentionChecks, resolution);
         updatePendingRetentionChecks(updatedReferral, subsequentRetentionChecks);
 
-        if (resolution == PENDING) {
-            subsequentActionableChecks.forEach(ActionableRetentionCheck::triggerPendingCheck);
-        } else if (resolution == DELETION_GRANTED) {
-            deletionService.grantDeletion(referral);
-        }
+        actOnResolution(referral, subsequentActionableChecks, resolution);
     }
 
     public void processUpdatedRetentionCheck(final RetentionCheck retentionCheck) {
@@ -108,10 +131,13 @@ public class ReferralResolutionService {
             referralResolutionRepository.findById(retentionCheck.getReferralResolution().getResolutionId())
                 .orElseThrow();
 
-        // Ensure no race condition when we check other retention check statuses:
-        referralResolutionRepository.lock(referralResolution, PESSIMISTIC_WRITE);
+        // Results for the same referral may be processed concurrently, each seeing the other's check as pending.
+        // Bumping the version means only one of them can commit, and the other is retried (see
+        // DataComplianceEventListener) against the up to date checks, without holding a row lock:
+        referralResolutionRepository.lock(referralResolution, OPTIMISTIC_FORCE_INCREMENT);
 
-        final var resolutionStatus = findResolution(referralResolution.getRetentionChecks(), referralResolution.isProvisionalDeletionPreviouslyGranted());
+        final var previousResolutionStatus = referralResolution.getResolutionStatus();
+        final var resolutionStatus = findResolution(referralResolution);
 
         log.info("Updating offender referral '{}' to resolution status : '{}'",
             referralResolution.getOffenderNumber(), resolutionStatus);
@@ -123,11 +149,39 @@ public class ReferralResolutionService {
         referralResolution.setResolutionDateTime(timeSource.nowAsLocalDateTime());
         referralResolutionRepository.save(referralResolution);
 
-        if (DELETION_GRANTED == resolutionStatus) {
+        // A retried result must not grant the deletion a second time:
+        if (DELETION_GRANTED == resolutionStatus && DELETION_GRANTED != previousResolutionStatus) {
             deletionService.grantDeletion(referralResolution.getOffenderDeletionReferral());
         }
     }
 
+    /**
+     * Applies the result of a false positive check requested while resolving
+     * the referral (see FalsePositiveCheckQueue), then resolves it again.
+     */
+    public void processFalsePositiveCheckResult(final long retentionCheckId, final boolean falsePositive) {
+
+        final var retentionCheck = retentionCheckRepository.findById(retentionCheckId)
+            .map(RetentionCheckDataDuplicate.class::cast)
+            .orElseThrow(illegalState("Cannot retrieve retention check record for id: '%s'", retentionCheckId));
+
+        // The same request may have been conducted more than once:
+        if (!retentionCheck.isFalsePositiveCheckRequested()) {
+            log.debug("False positive check result for '{}' has already been applied", retentionCheckId);
+            return;
+        }
+
+        log.debug("Check causing retention: '{}' is a false positive: {}", retentionCheckId, falsePositive);
+
+        retentionCheck.completeFalsePositiveCheck(falsePositive, timeSource.nowAsLocalDateTime());
+        if (falsePositive) {
+            metrics.recordFalsePositive(retentionCheck.getCheckType());
+        }
+
+        retentionCheckRepository.save(retentionCheck);
+        processUpdatedRetentionCheck(retentionCheck);
+    }
+
     public void updateReferralChangesIdentified(OffenderDeletionReferral referral) {
 
         log.info("Updating offender referral '{}' to resolution status : '{}'",
@@ -138,14 +192,57 @@ public class ReferralResolutionService {
 
     @VisibleForTesting
     ResolutionStatus findResolution(final List<RetentionCheck> retentionChecks, boolean provisionalDeletionPreviouslyGranted) {
+        return metrics.recordResolution(() -> resolve(retentionChecks, provisionalDeletionPreviouslyGranted));
+    }
+
+    /**
+     * Decides the resolution from the check counts held against it, so that
+     * the retention checks only need to be loaded when a single check causing
+     * retention may be a false positive.
+     */
+    @VisibleForTesting
+    ResolutionStatus findResolution(final ReferralResolution referralResolution) {
+        return metrics.recordResolution(() -> resolve(referralResolution));
+    }
+
+    private ResolutionStatus resolve(final ReferralResolution referralResolution) {
+
+        final var counts = referralResolution.getRetentionCheckCounts();
+
+        if (counts.anyPending()) {
+            return PENDING;
+        }
+
+        if (counts.count(RETENTION_REQUIRED) == 1) {
+
+            final var falsePositiveCheck = findPotentialFalsePositiveRetention(
+                retentionCheckRepository.findByReferralResolutionAndCheckStatus(referralResolution, RETENTION_REQUIRED));
+
+            if (falsePositiveCheck.isPresent()) {
+                requestFalsePositiveCheck(falsePositiveCheck.get());
+                return PENDING;
+            }
+        }
+
+        if (counts.allCompleted()) {
+            return properties.isReviewRequired() && !referralResolution.isProvisionalDeletionPreviouslyGranted() ? PROVISIONAL_DELETION_GRANTED : DELETION_GRANTED;
+        }
+
+        return RETAINED;
+    }
+
+    private ResolutionStatus resolve(final List<RetentionCheck> retentionChecks, boolean provisionalDeletionPreviouslyGranted) {
 
         if (anyPending(retentionChecks)) {
             return PENDING;
         }
 
-        findPotentialFalsePositiveRetention(retentionChecks)
-            .filter(falsePositiveCheckService::isFalsePositive)
-            .ifPresent(this::markAsFalsePositive);
+        final var falsePositiveCheck = findPotentialFalsePositiveRetention(retentionChecks);
+
+        if (falsePositiveCheck.isPresent()) {
+            requestFalsePositiveCheck(falsePositiveCheck.get());
+            return PENDING;
+        }
 
         if (allChecksCompleted(retentionChecks)) {
             return properties.isReviewRequired() && !provisionalDeletionPreviouslyGranted ? PROVISIONAL_DELETION_GRANTED : DELETION_GRANTED;
@@ -169,12 +266,22 @@ public class ReferralResolutionService {
             .map(RetentionCheckDataDuplicate.class::cast)
             .collect(toList());
 
-        return checksCausingRetention.size() == 1 ? dataDuplicateRetentions.stream().findFirst() : Optional.empty();
+        return checksCausingRetention.size() == 1 ?
+            dataDuplicateRetentions.stream()
+                .filter(check -> check.getFalsePositiveCheckStatus() == null)
+                .filter(check -> properties.isFalsePositiveDuplicateCheckEnabled())
+                .findFirst() :
+            Optional.empty();
     }
 
-    private void markAsFalsePositive(final RetentionCheck check) {
-        log.debug("Check causing retention: '{}' has been found to be a false positive", check.getRetentionCheckId());
-        check.setCheckStatus(FALSE_POSITIVE);
+    /**
+     * The referral remains pending while the false positive check is
+     * conducted, as it can take minutes to compare all of the images.
+     */
+    private void requestFalsePositiveCheck(final RetentionCheckDataDuplicate check) {
+        log.debug("Check causing retention: '{}' may be a false positive", check.getRetentionCheckId());
+        check.requestFalsePositiveCheck(timeSource.nowAsLocalDateTime());
+        eventPublisher.publishEvent(new FalsePositiveCheckRequested(check));
     }
 
     private boolean allChecksCompleted(final List<RetentionCheck> retentionChecks) {
@@ -184,10 +291,10 @@ public class ReferralResolutionService {
                 || check.isStatus(DISABLED));
     }
 
-    private void persistRetentionChecks(final OffenderDeletionReferral referral,
-                                        final List<RetentionCheck> retentionChecks,
-                                        final ResolutionStatus resolutionStatus,
-                                        final boolean provisionalDeletionPreviouslyGranted) {
+    private void addResolution(final OffenderDeletionReferral referral,
+                               final List<RetentionCheck> retentionChecks,
+                               final ResolutionStatus resolutionStatus,
+                               final boolean provisionalDeletionPreviouslyGranted) {
 
         log.info("Offender referral '{}' has resolution status : '{}'", referral.getOffenderNo(), resolutionStatus);
 
@@ -200,7 +307,6 @@ public class ReferralResolutionService {
         retentionChecks.forEach(resolution::addRetentionCheck);
 
         referral.setReferralResolution(resolution);
-        referralRepository.save(referral);
     }
 
 
@@ -50,8 +50,12 @@ public class ReferralService {
             .batchType(AD_HOC)
             .build());
 
-        deletionGrantedEventPusher.requestAdHocReferral(
-            new OffenderNumber(event.getOffenderIdDisplay()), batch.getBatchId());
+        final var offenderNumber = new OffenderNumber(event.getOffenderIdDisplay());
+
+        // An ad-hoc deletion request should be checked against up to date answers:
+        retentionService.invalidateCachedChecks(offenderNumber);
+
+        deletionGrantedEventPusher.requestAdHocReferral(offenderNumber, batch.getBatchId()).join();
     }
 
     public void handlePendingDeletionReferral(final OffenderPendingDeletion event) {
@@ -85,6 +89,7 @@ public class ReferralService {
             .orElseThrow(illegalState("Referral '%s' does not exist", referralId));
 
         if (event.haveSubsequentChangesOccurred(referral.getAgencyLocationId())) {
+            retentionService.invalidateCachedChecks(offenderNumber);
             referralResolutionService.updateReferralChangesIdentified(referral);
         } else {
             final var retentionChecks = retentionService.conductRetentionChecks(OffenderToCheck.builder()
@@ -4,11 +4,17 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck;
 
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
 /**
  * A wrapper class for the RetentionCheck,
  * allowing a process to be triggered once
  * database entities have been persisted and
  * generated ids are made available.
+ * The process returns a future that completes
+ * once the check has been requested.
  */
 @RequiredArgsConstructor
 public class ActionableRetentionCheck {
@@ -23,14 +29,12 @@ public class ActionableRetentionCheck {
         return this;
     }
 
-    public void triggerPendingCheck() {
-        if (pendingCheck != null) {
-            pendingCheck.triggerCheck(retentionCheck);
-        }
+    public CompletableFuture<Void> triggerPendingCheck() {
+        return pendingCheck != null ? pendingCheck.triggerCheck(retentionCheck) : completedFuture(null);
     }
 
     @FunctionalInterface
     public interface PendingCheck {
-        void triggerCheck(RetentionCheck retentionCheck);
+        CompletableFuture<Void> triggerCheck(RetentionCheck retentionCheck);
     }
 }
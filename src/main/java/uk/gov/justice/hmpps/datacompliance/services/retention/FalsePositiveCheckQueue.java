@@ -0,0 +1,165 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.RetentionCheckRepository;
+import uk.gov.justice.hmpps.datacompliance.services.referral.ReferralResolutionService;
+import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static io.github.resilience4j.core.IntervalFunction.ofExponentialRandomBackoff;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate.FalsePositiveCheckStatus.REQUESTED;
+
+/**
+ * Conducts false positive checks of data duplicates on their own threads,
+ * once the transaction requesting them has committed. Each check downloads
+ * the images of both offenders and compares them with Rekognition, so is
+ * kept out of the transaction resolving the referral, which is left pending
+ * until the result is applied.
+ *
+ * The request is persisted against the retention check, so requests lost
+ * on a restart (or when the queue is full) are submitted again once they
+ * have been outstanding for longer than the configured timeout.
+ */
+@Slf4j
+@Component
+public class FalsePositiveCheckQueue {
+
+    private static final int QUEUED_CHECKS_PER_THREAD = 100;
+
+    private static final int CONFLICT_RETRY_MAX_ATTEMPTS = 5;
+    private static final long CONFLICT_RETRY_INITIAL_INTERVAL = 50;
+    private static final double CONFLICT_RETRY_MULTIPLIER = 2;
+
+    private static final RetryConfig CONFLICT_RETRY_CONFIG = RetryConfig.custom()
+        .maxAttempts(CONFLICT_RETRY_MAX_ATTEMPTS)
+        .intervalFunction(ofExponentialRandomBackoff(CONFLICT_RETRY_INITIAL_INTERVAL, CONFLICT_RETRY_MULTIPLIER))
+        .retryExceptions(OptimisticLockingFailureException.class, OptimisticLockException.class)
+        .build();
+
+    private final FalsePositiveCheckService falsePositiveCheckService;
+    private final ReferralResolutionService referralResolutionService;
+    private final RetentionCheckRepository retentionCheckRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TimeSource timeSource;
+    private final Duration timeout;
+    private final ExecutorService executorService;
+
+    private final Set<Long> submittedChecks = ConcurrentHashMap.newKeySet();
+
+    public FalsePositiveCheckQueue(final FalsePositiveCheckService falsePositiveCheckService,
+                                   final ReferralResolutionService referralResolutionService,
+                                   final RetentionCheckRepository retentionCheckRepository,
+                                   final PlatformTransactionManager transactionManager,
+                                   final TimeSource timeSource,
+                                   final DataComplianceProperties properties) {
+        this.falsePositiveCheckService = falsePositiveCheckService;
+        this.referralResolutionService = referralResolutionService;
+        this.retentionCheckRepository = retentionCheckRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.timeSource = timeSource;
+        this.timeout = properties.getFalsePositiveDuplicateCheckTimeout();
+        this.executorService = boundedExecutor(properties.getFalsePositiveDuplicateCheckThreads());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFalsePositiveCheckRequested(final FalsePositiveCheckRequested event) {
+        submit(event.getRetentionCheck().getRetentionCheckId());
+    }
+
+    @Scheduled(fixedDelayString = "${offender.retention.false.positive.duplicate.check.resubmit.interval:PT10M}")
+    public void resubmitOutstandingChecks() {
+
+        final var outstandingChecks = retentionCheckRepository.findIdsByFalsePositiveCheckStatusBefore(
+            REQUESTED, timeSource.nowAsLocalDateTime().minus(timeout));
+
+        if (!outstandingChecks.isEmpty()) {
+            log.info("Resubmitting {} outstanding false positive checks", outstandingChecks.size());
+        }
+
+        outstandingChecks.forEach(this::submit);
+    }
+
+    void submit(final long retentionCheckId) {
+
+        // Already queued or in progress:
+        if (!submittedChecks.add(retentionCheckId)) {
+            return;
+        }
+
+        try {
+            executorService.execute(() -> conduct(retentionCheckId));
+        } catch (final RejectedExecutionException e) {
+            submittedChecks.remove(retentionCheckId);
+            log.warn("False positive check queue is full, check '{}' will be resubmitted after {}", retentionCheckId, timeout);
+        }
+    }
+
+    void conduct(final long retentionCheckId) {
+        try {
+
+            findRequestedCheck(retentionCheckId).ifPresent(check -> {
+
+                final var falsePositive = falsePositiveCheckService.isFalsePositive(check);
+
+                Retry.of("false-positive-check-" + retentionCheckId, CONFLICT_RETRY_CONFIG).executeRunnable(() ->
+                    referralResolutionService.processFalsePositiveCheckResult(retentionCheckId, falsePositive));
+            });
+
+        } catch (final RuntimeException e) {
+            log.error("False positive check '{}' failed, it will be resubmitted after {}", retentionCheckId, timeout, e);
+        } finally {
+            submittedChecks.remove(retentionCheckId);
+        }
+    }
+
+    /**
+     * Loads the check and its duplicates in a short lived transaction,
+     * so that no connection is held while the images are compared.
+     */
+    private Optional<RetentionCheckDataDuplicate> findRequestedCheck(final long retentionCheckId) {
+        return transactionTemplate.execute(status -> retentionCheckRepository.findById(retentionCheckId)
+            .map(RetentionCheckDataDuplicate.class::cast)
+            .filter(RetentionCheckDataDuplicate::isFalsePositiveCheckRequested)
+            .map(check -> {
+                check.getDataDuplicates().forEach(Hibernate::initialize);
+                return check;
+            }));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    private ExecutorService boundedExecutor(final int threads) {
+
+        log.info("Conducting false positive checks on {} threads", threads);
+
+        return new ThreadPoolExecutor(threads, threads, 0L, MILLISECONDS,
+            new LinkedBlockingQueue<>(threads * QUEUED_CHECKS_PER_THREAD),
+            new ThreadFactoryBuilder().setNameFormat("false-positive-check-%d").setDaemon(true).build());
+    }
+}
@@ -0,0 +1,13 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import lombok.Value;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate;
+
+/**
+ * Published when a referral is waiting on a false positive check of the
+ * data duplicate retention check, which may not have been persisted yet.
+ */
+@Value
+public class FalsePositiveCheckRequested {
+    RetentionCheckDataDuplicate retentionCheck;
+}
@@ -1,20 +1,42 @@
 package uk.gov.justice.hmpps.datacompliance.services.retention;
 
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import uk.gov.justice.hmpps.datacompliance.client.image.recognition.FaceId;
 import uk.gov.justice.hmpps.datacompliance.client.image.recognition.OffenderImage;
 import uk.gov.justice.hmpps.datacompliance.client.prisonapi.PrisonApiClient;
+import uk.gov.justice.hmpps.datacompliance.client.prisonapi.dto.OffenderImageMetadata;
 import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
 import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate;
 import uk.gov.justice.hmpps.datacompliance.services.duplicate.detection.image.ImageDuplicationDetectionService;
 
-import java.util.Collection;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Slf4j
 @Service
@@ -23,6 +45,8 @@ public class FalsePositiveCheckService {
     private final PrisonApiClient prisonApiClient;
     private final ImageDuplicationDetectionService imageDuplicationDetectionService;
     private final DataComplianceProperties properties;
+    private final ExecutorService executorService;
+    private final RateLimiter comparisonRateLimiter;
 
     public FalsePositiveCheckService(final PrisonApiClient prisonApiClient,
                                      final ImageDuplicationDetectionService imageDuplicationDetectionService,
@@ -30,6 +54,12 @@ public class FalsePositiveCheckService {
         this.prisonApiClient = prisonApiClient;
         this.imageDuplicationDetectionService = imageDuplicationDetectionService;
         this.properties = properties;
+        this.executorService = properties.getFalsePositiveDuplicateComparisonThreads() > 0 ?
+            Executors.newFixedThreadPool(properties.getFalsePositiveDuplicateComparisonThreads(),
+                new ThreadFactoryBuilder().setNameFormat("image-comparison-%d").setDaemon(true).build()) :
+            MoreExecutors.newDirectExecutorService();
+        this.comparisonRateLimiter = properties.getFalsePositiveDuplicateComparisonsPerSecond() > 0 ?
+            RateLimiter.create(properties.getFalsePositiveDuplicateComparisonsPerSecond()) : null;
     }
 
     public boolean isFalsePositive(final RetentionCheckDataDuplicate check) {
@@ -44,41 +74,263 @@ public class FalsePositiveCheckService {
         return check.getDataDuplicates().stream().allMatch(this::sufficientImagesAndAllDissimilar);
     }
 
+    @PreDestroy
+    void shutdown() {
+        executorService.shutdownNow();
+    }
+
     private boolean sufficientImagesAndAllDissimilar(final DataDuplicate duplicate) {
 
         final var requiredImageCount = properties.getFalsePositiveDuplicateRequiredImageCount();
-        final var referenceOffenderImages = getImagesFor(new OffenderNumber(duplicate.getReferenceOffenderNo()));
-        final var duplicateOffenderImages = getImagesFor(new OffenderNumber(duplicate.getDuplicateOffenderNo()));
+        final var referenceOffenderNumber = new OffenderNumber(duplicate.getReferenceOffenderNo());
+        final var duplicateOffenderNumber = new OffenderNumber(duplicate.getDuplicateOffenderNo());
+        final var referenceOffenderImages = prisonApiClient.getOffenderFaceImagesFor(referenceOffenderNumber);
+        final var duplicateOffenderImages = prisonApiClient.getOffenderFaceImagesFor(duplicateOffenderNumber);
 
+        // Not all images may have image data, but there can be no more than this:
         if (referenceOffenderImages.size() < requiredImageCount || duplicateOffenderImages.size() < requiredImageCount) {
             log.debug("Number of images ({}/{}) is not sufficient to check duplicate: '{}'",
                 referenceOffenderImages.size(), duplicateOffenderImages.size(), duplicate.getDataDuplicateId());
             return false;
         }
 
-        return referenceOffenderImages.stream()
-            .allMatch(referenceImage -> noSimilarity(referenceImage, duplicateOffenderImages));
+        final var faceSearch = properties.isFalsePositiveDuplicateFaceSearchEnabled() ?
+            searchIndexedFaces(duplicate, referenceOffenderNumber, referenceOffenderImages, duplicateOffenderNumber, duplicateOffenderImages) :
+            FaceSearch.NONE;
+
+        if (faceSearch.isSimilarFaceFound()) {
+            return false;
+        }
+
+        return new ImageComparison(duplicate, faceSearch.getSearchedImageIds())
+            .compare(referenceOffenderNumber, referenceOffenderImages, duplicateOffenderNumber, duplicateOffenderImages);
+    }
+
+    /**
+     * Compares the images that have already been indexed in the image recognition
+     * collection by face ID, so that their image data need not be fetched and
+     * uploaded again. Images that were never indexed (or whose face could not be
+     * searched) are left to be compared by image data.
+     */
+    private FaceSearch searchIndexedFaces(final DataDuplicate duplicate,
+                                          final OffenderNumber referenceOffenderNumber,
+                                          final List<OffenderImageMetadata> referenceImageMetadata,
+                                          final OffenderNumber duplicateOffenderNumber,
+                                          final List<OffenderImageMetadata> duplicateImageMetadata) {
+
+        final var referenceFaceIds = getIndexedFaceIds(referenceOffenderNumber, referenceImageMetadata);
+        final var duplicateFaceIds = getIndexedFaceIds(duplicateOffenderNumber, duplicateImageMetadata);
+
+        if (referenceFaceIds.isEmpty() || duplicateFaceIds.isEmpty()) {
+            return FaceSearch.NONE;
+        }
+
+        final var candidateFaceIds = Set.copyOf(duplicateFaceIds.values());
+        final var searchedImageIds = new HashSet<>(duplicateFaceIds.keySet());
+
+        for (final var referenceFace : referenceFaceIds.entrySet()) {
+
+            if (comparisonRateLimiter != null) {
+                comparisonRateLimiter.acquire();
+            }
+
+            final var matches = imageDuplicationDetectionService.findMatchesAmong(
+                referenceFace.getValue(), candidateFaceIds, properties.getFalsePositiveDuplicateImageSimilarityThreshold());
+
+            if (matches.isEmpty()) {
+                log.debug("Unable to search faces for image: '{}', comparing image data instead", referenceFace.getKey());
+                continue;
+            }
+
+            if (!matches.get().isEmpty()) {
+                log.debug("Face search for offender: '{}' and image: '{}' found similar faces: {}",
+                    referenceOffenderNumber.getOffenderNumber(), referenceFace.getKey(), matches.get());
+                return FaceSearch.SIMILAR_FACE_FOUND;
+            }
+
+            searchedImageIds.add(referenceFace.getKey());
+        }
+
+        log.debug("Face search found no similar faces for duplicate: '{}'", duplicate.getDataDuplicateId());
+
+        return new FaceSearch(false, searchedImageIds);
+    }
+
+    private Map<Long, FaceId> getIndexedFaceIds(final OffenderNumber offenderNumber,
+                                                final List<OffenderImageMetadata> imageMetadata) {
+
+        final var imageIds = imageMetadata.stream().map(OffenderImageMetadata::getImageId).collect(toSet());
+
+        return imageDuplicationDetectionService.getIndexedFaceIds(offenderNumber).entrySet().stream()
+            .filter(face -> imageIds.contains(face.getKey()))
+            .collect(toMap(Entry::getKey, Entry::getValue));
     }
 
-    private boolean noSimilarity(final OffenderImage referenceImage, final Collection<OffenderImage> comparisonImages) {
+    @Getter
+    @AllArgsConstructor
+    private static class FaceSearch {
 
-        final var successfulComparisons = comparisonImages.stream()
-            .map(comparisonImage -> imageDuplicationDetectionService.getSimilarity(referenceImage, comparisonImage))
-            .flatMap(Optional::stream)
-            .collect(toList());
+        private static final FaceSearch NONE = new FaceSearch(false, emptySet());
+        private static final FaceSearch SIMILAR_FACE_FOUND = new FaceSearch(true, emptySet());
 
-        log.debug("Image comparisons for offender: '{}' had similarities: {}",
-            referenceImage.getOffenderNumberString(), successfulComparisons);
+        private final boolean similarFaceFound;
 
-        return successfulComparisons.size() == comparisonImages.size() &&
-            successfulComparisons.stream().allMatch(similarity ->
-                similarity < properties.getFalsePositiveDuplicateImageSimilarityThreshold());
+        // Every pair of these images has already been compared:
+        private final Set<Long> searchedImageIds;
     }
 
-    private List<OffenderImage> getImagesFor(final OffenderNumber offenderNumber) {
-        return prisonApiClient.getOffenderFaceImagesFor(offenderNumber).stream()
-            .map(metadata -> prisonApiClient.getImageData(offenderNumber, metadata.getImageId()))
-            .flatMap(Optional::stream)
-            .collect(toList());
+    /**
+     * Fetches the images of both offenders concurrently, comparing each pair
+     * of reference and duplicate images as soon as both have been fetched.
+     * A single pair that is similar (or cannot be compared) decides the
+     * outcome, so any outstanding fetches and comparisons are then cancelled.
+     * Images already compared by face search are only fetched if they must
+     * still be compared with an image that was not.
+     */
+    private class ImageComparison {
+
+        private final DataDuplicate duplicate;
+        private final Set<Long> searchedImageIds;
+        private final List<OffenderImage> referenceImages = new ArrayList<>();
+        private final List<OffenderImage> duplicateImages = new ArrayList<>();
+        private final CompletableFuture<Boolean> allDissimilar = new CompletableFuture<>();
+        private final Queue<Future<?>> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger outstandingTasks = new AtomicInteger();
+        private int unfetchedReferenceImageCount;
+        private int unfetchedDuplicateImageCount;
+
+        private ImageComparison(final DataDuplicate duplicate, final Set<Long> searchedImageIds) {
+            this.duplicate = duplicate;
+            this.searchedImageIds = searchedImageIds;
+        }
+
+        private boolean compare(final OffenderNumber referenceOffenderNumber,
+                                final List<OffenderImageMetadata> referenceImageMetadata,
+                                final OffenderNumber duplicateOffenderNumber,
+                                final List<OffenderImageMetadata> duplicateImageMetadata) {
+
+            final var referenceImagesToFetch = imagesToFetch(referenceImageMetadata, duplicateImageMetadata);
+            final var duplicateImagesToFetch = imagesToFetch(duplicateImageMetadata, referenceImageMetadata);
+
+            synchronized (this) {
+                unfetchedReferenceImageCount = referenceImageMetadata.size() - referenceImagesToFetch.size();
+                unfetchedDuplicateImageCount = duplicateImageMetadata.size() - duplicateImagesToFetch.size();
+            }
+
+            outstandingTasks.set(referenceImagesToFetch.size() + duplicateImagesToFetch.size());
+
+            if (outstandingTasks.get() == 0) {
+                return sufficientImages();
+            }
+
+            referenceImagesToFetch.forEach(metadata ->
+                submit(() -> fetch(referenceOffenderNumber, metadata.getImageId(), referenceImages, duplicateImages, true)));
+            duplicateImagesToFetch.forEach(metadata ->
+                submit(() -> fetch(duplicateOffenderNumber, metadata.getImageId(), duplicateImages, referenceImages, false)));
+
+            try {
+                return allDissimilar.join();
+            } catch (final CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            } finally {
+                tasks.forEach(task -> task.cancel(true));
+            }
+        }
+
+        private void fetch(final OffenderNumber offenderNumber,
+                           final long imageId,
+                           final List<OffenderImage> fetchedImages,
+                           final List<OffenderImage> otherImages,
+                           final boolean reference) {
+
+            prisonApiClient.getImageData(offenderNumber, imageId).ifPresent(image -> {
+
+                final List<OffenderImage> comparisonImages;
+
+                // Each pair is compared once, by whichever of its images is fetched last:
+                synchronized (this) {
+                    fetchedImages.add(image);
+                    comparisonImages = otherImages.stream()
+                        .filter(otherImage -> !(isSearched(image) && isSearched(otherImage)))
+                        .collect(toList());
+                }
+
+                outstandingTasks.addAndGet(comparisonImages.size());
+                comparisonImages.forEach(otherImage -> {
+                    final var referenceImage = reference ? image : otherImage;
+                    final var duplicateImage = reference ? otherImage : image;
+                    submit(() -> comparePair(referenceImage, duplicateImage));
+                });
+            });
+        }
+
+        private List<OffenderImageMetadata> imagesToFetch(final List<OffenderImageMetadata> imageMetadata,
+                                                          final List<OffenderImageMetadata> otherImageMetadata) {
+
+            final var allOtherImagesSearched = otherImageMetadata.stream()
+                .allMatch(metadata -> searchedImageIds.contains(metadata.getImageId()));
+
+            return imageMetadata.stream()
+                .filter(metadata -> !allOtherImagesSearched || !searchedImageIds.contains(metadata.getImageId()))
+                .collect(toList());
+        }
+
+        private boolean isSearched(final OffenderImage image) {
+            return searchedImageIds.contains(image.getImageId());
+        }
+
+        private void comparePair(final OffenderImage referenceImage, final OffenderImage duplicateImage) {
+
+            if (comparisonRateLimiter != null) {
+                comparisonRateLimiter.acquire();
+            }
+
+            // Another pair may have decided the outcome while waiting:
+            if (allDissimilar.isDone()) {
+                return;
+            }
+
+            final var similarity = imageDuplicationDetectionService.getSimilarity(referenceImage, duplicateImage);
+
+            log.debug("Image comparison for offender: '{}' and image: '{}' had similarity: {}",
+                referenceImage.getOffenderNumberString(), referenceImage.getImageId(), similarity);
+
+            if (similarity.isEmpty() || similarity.get() >= properties.getFalsePositiveDuplicateImageSimilarityThreshold()) {
+                allDissimilar.complete(false);
+            }
+        }
+
+        private void submit(final Runnable task) {
+            tasks.add(executorService.submit(() -> {
+                try {
+                    if (!allDissimilar.isDone()) {
+                        task.run();
+                    }
+                } catch (final RuntimeException e) {
+                    allDissimilar.completeExceptionally(e);
+                } finally {
+                    if (outstandingTasks.decrementAndGet() == 0) {
+                        allDissimilar.complete(sufficientImages());
+                    }
+                }
+            }));
+        }
+
+        private synchronized boolean sufficientImages() {
+
+            final var requiredImageCount = properties.getFalsePositiveDuplicateRequiredImageCount();
+
+            // Images compared by face search had image data when they were indexed:
+            final var referenceImageCount = referenceImages.size() + unfetchedReferenceImageCount;
+            final var duplicateImageCount = duplicateImages.size() + unfetchedDuplicateImageCount;
+
+            if (referenceImageCount < requiredImageCount || duplicateImageCount < requiredImageCount) {
+                log.debug("Number of images ({}/{}) is not sufficient to check duplicate: '{}'",
+                    referenceImageCount, duplicateImageCount, duplicate.getDataDuplicateId());
+                return false;
+            }
+
+            return true;
+        }
     }
 }
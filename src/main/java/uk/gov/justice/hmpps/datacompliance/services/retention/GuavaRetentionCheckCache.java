@@ -0,0 +1,143 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * A size and time bounded, in-memory cache of remote retention check answers.
+ *
+ * Check types configured as 'must be fresh' are never served from the cache.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "offender.retention.cache.ttl")
+public class GuavaRetentionCheckCache implements RetentionCheckCache {
+
+    private final Cache<CacheKey, Object> cache;
+    private final Set<String> mustBeFreshCheckTypes;
+
+    public GuavaRetentionCheckCache(@Value("${offender.retention.cache.ttl}") final Duration ttl,
+                                    @Value("${offender.retention.cache.maximum.size:10000}") final long maximumSize,
+                                    @Value("${offender.retention.cache.must.be.fresh:}") final Set<String> mustBeFreshCheckTypes,
+                                    final MeterRegistry meterRegistry) {
+
+        log.info("Caching remote retention check answers for {}, up to {} entries, except for: {}",
+            ttl, maximumSize, mustBeFreshCheckTypes);
+
+        this.mustBeFreshCheckTypes = Set.copyOf(mustBeFreshCheckTypes);
+        this.cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "data_compliance.retention.check.cache");
+    }
+
+    @Override
+    public <T> T get(final OffenderNumber offenderNumber, final String checkType, final Supplier<T> lookup) {
+
+        if (mustBeFresh(checkType)) {
+            return lookup.get();
+        }
+
+        final var key = new CacheKey(offenderNumber, checkType);
+        final var cached = cache.getIfPresent(key);
+
+        if (cached != null) {
+            log.debug("Using cached '{}' answer for offender: '{}'", checkType, offenderNumber.getOffenderNumber());
+            return cast(cached);
+        }
+
+        final var answer = lookup.get();
+
+        if (answer != null) {
+            cache.put(key, answer);
+        }
+
+        return answer;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(final OffenderNumber offenderNumber,
+                                             final String checkType,
+                                             final Supplier<CompletableFuture<T>> lookup) {
+
+        if (mustBeFresh(checkType)) {
+            return lookup.get();
+        }
+
+        final var key = new CacheKey(offenderNumber, checkType);
+        final var cached = cache.getIfPresent(key);
+
+        if (cached != null) {
+            log.debug("Using cached '{}' answer for offender: '{}'", checkType, offenderNumber.getOffenderNumber());
+            return completedFuture(cast(cached));
+        }
+
+        return lookup.get().thenApply(answer -> {
+
+            if (answer != null) {
+                cache.put(key, answer);
+            }
+
+            return answer;
+        });
+    }
+
+    @Override
+    public void invalidate(final OffenderNumber offenderNumber, final String checkType) {
+        cache.invalidate(new CacheKey(offenderNumber, checkType));
+    }
+
+    @Override
+    public void invalidate(final OffenderNumber offenderNumber) {
+        log.debug("Invalidating cached retention check answers for offender: '{}'", offenderNumber.getOffenderNumber());
+        cache.asMap().keySet().removeIf(key -> key.getOffenderNumber().equals(offenderNumber));
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public CacheStats getStatistics() {
+        return cache.stats();
+    }
+
+    private boolean mustBeFresh(final String checkType) {
+        return mustBeFreshCheckTypes.contains(checkType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cast(final Object cached) {
+        return (T) cached;
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class CacheKey {
+        private final OffenderNumber offenderNumber;
+        private final String checkType;
+    }
+}
@@ -0,0 +1,160 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import com.google.common.collect.ImmutableSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode.CodeType;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.MoratoriumCodeRepository;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.lang.Integer.parseInt;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode.CodeType.ALERT;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode.CodeType.OFFENCE;
+
+/**
+ * In-memory index of the offence and alert codes that require an
+ * offender record to be retained.
+ *
+ * The codes are held in the database, where offence codes may use
+ * range notation (e.g. 'SX03001-004N' covers 'SX03001N' to 'SX03004N').
+ * Ranges are expanded when the codes are loaded, so that each lookup
+ * is a single hash set lookup. The index is rebuilt periodically and
+ * swapped in atomically, so lookups never see a partially loaded index.
+ */
+@Slf4j
+@Component
+public class MoratoriumCodeIndex {
+
+    private static final Pattern RANGE = Pattern.compile("^([A-Z]+)(\\d+)-(\\d+)([A-Z]*)$");
+
+    private final MoratoriumCodeRepository repository;
+    private final AtomicReference<Codes> codes = new AtomicReference<>();
+
+    public MoratoriumCodeIndex(final MoratoriumCodeRepository repository) {
+        this.repository = repository;
+    }
+
+    @Scheduled(fixedDelayString = "${offender.retention.moratorium.codes.refresh.interval:PT10M}")
+    public void refresh() {
+
+        final var loaded = Codes.of(repository.findAll());
+
+        if (loaded.isEmpty()) {
+            log.warn("No moratorium codes found, retaining the previously loaded codes");
+            return;
+        }
+
+        codes.set(loaded);
+
+        log.debug("Loaded {} offence codes and {} alert codes causing retention",
+            loaded.offenceCodes.size(), loaded.alertCodes.size());
+    }
+
+    public boolean containsAnyOffenceCode(final Collection<String> offenceCodes) {
+        return containsAny(current().offenceCodes, offenceCodes);
+    }
+
+    public boolean containsAnyAlertCode(final Collection<String> alertCodes) {
+        return containsAny(current().alertCodes, alertCodes);
+    }
+
+    /**
+     * Fails rather than returning an empty index, otherwise offenders
+     * would be cleared for deletion without their codes being checked.
+     */
+    private Codes current() {
+
+        if (codes.get() == null) {
+            refresh();
+        }
+
+        final var current = codes.get();
+        checkState(current != null, "Moratorium codes have not been loaded");
+        return current;
+    }
+
+    private static boolean containsAny(final Set<String> index, final Collection<String> codes) {
+        for (final var code : codes) {
+            if (index.contains(code)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the code itself plus, where it uses range notation,
+     * every code in the range. The literal code is kept so that
+     * a code recorded in range notation still matches.
+     */
+    static Set<String> expand(final String code) {
+
+        final var expanded = ImmutableSet.<String>builder().add(code);
+        final var range = RANGE.matcher(code);
+
+        if (!range.matches()) {
+            return expanded.build();
+        }
+
+        final var prefix = range.group(1);
+        final var start = range.group(2);
+        final var end = range.group(3);
+        final var suffix = range.group(4);
+
+        if (end.length() > start.length()) {
+            log.warn("Unable to expand moratorium code range: '{}'", code);
+            return expanded.build();
+        }
+
+        final var head = prefix + start.substring(0, start.length() - end.length());
+        final var from = parseInt(start.substring(start.length() - end.length()));
+        final var to = parseInt(end);
+
+        if (to < from) {
+            log.warn("Unable to expand moratorium code range: '{}'", code);
+            return expanded.build();
+        }
+
+        for (int i = from; i <= to; i++) {
+            expanded.add(head + String.format("%0" + end.length() + "d", i) + suffix);
+        }
+
+        return expanded.build();
+    }
+
+    private static class Codes {
+
+        private final Set<String> offenceCodes;
+        private final Set<String> alertCodes;
+
+        private Codes(final Set<String> offenceCodes, final Set<String> alertCodes) {
+            this.offenceCodes = offenceCodes;
+            this.alertCodes = alertCodes;
+        }
+
+        private static Codes of(final Collection<MoratoriumCode> moratoriumCodes) {
+            return new Codes(codesOfType(moratoriumCodes, OFFENCE), codesOfType(moratoriumCodes, ALERT));
+        }
+
+        private static Set<String> codesOfType(final Collection<MoratoriumCode> moratoriumCodes,
+                                               final CodeType codeType) {
+            final var codes = ImmutableSet.<String>builder();
+            moratoriumCodes.stream()
+                .filter(moratoriumCode -> moratoriumCode.getCodeType() == codeType)
+                .map(moratoriumCode -> expand(moratoriumCode.getCode().trim().toUpperCase()))
+                .forEach(codes::addAll);
+            return codes.build();
+        }
+
+        private boolean isEmpty() {
+            return offenceCodes.isEmpty() && alertCodes.isEmpty();
+        }
+    }
+}
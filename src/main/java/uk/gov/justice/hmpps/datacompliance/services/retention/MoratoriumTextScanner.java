@@ -0,0 +1,335 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.After.ANY;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.After.NON_WORD;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.After.NOT_F;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.After.NOT_I_OR_E;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.Before.NONE;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.Before.NOT_AFTER_IN;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.Before.WORD_START;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.Group.ABUSE_OR_RISK;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.Group.CHILDREN;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.Group.PUBLIC_ROLES;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.Group.RED_FLAGS;
+
+/**
+ * In-process equivalent of the free text moratorium patterns in {@link MoratoriumCheckService}.
+ *
+ * The keywords behind the patterns are compiled into a single Aho-Corasick automaton,
+ * so a text is scanned in one linear pass however many keywords there are, and without
+ * the backtracking that the '.*A.*B.*' patterns suffer from on long case notes.
+ *
+ * Matching is equivalent to the patterns compiled with CASE_INSENSITIVE and DOTALL.
+ *
+ * The free text itself is searched by the Prison API, which only returns the matching
+ * tables, so this service has no text to scan. The scanner is therefore not a bean:
+ * it is kept (with its equivalence tests and benchmark) as a drop-in replacement for
+ * the patterns wherever the text is searched.
+ */
+public class MoratoriumTextScanner {
+
+    private static final int ALPHABET_SIZE = 28;
+    private static final int SPACE = 26;
+    private static final int OTHER = 27;
+
+    private static final List<Keyword> KEYWORDS = List.of(
+
+        keyword(RED_FLAGS, "groom"), keyword(RED_FLAGS, "nonce"), keyword(RED_FLAGS, "paedo"),
+        keyword(RED_FLAGS, "pedo"), keyword(RED_FLAGS, "peedo"), keyword(RED_FLAGS, "paeda"),
+        keyword(RED_FLAGS, "peeda"), keyword(RED_FLAGS, "pedaph"), keyword(RED_FLAGS, "pedaf"),
+
+        keyword(CHILDREN, "adopt"), keyword(CHILDREN, "baby"), keyword(CHILDREN, "boy", NONE, NOT_F),
+        keyword(CHILDREN, "child"), keyword(CHILDREN, "chidl"), keyword(CHILDREN, "chlid"),
+        keyword(CHILDREN, "chid"), keyword(CHILDREN, "cild"), keyword(CHILDREN, "hild"),
+        keyword(CHILDREN, "daughter"), keyword(CHILDREN, "early age"), keyword(CHILDREN, "girl", NONE, NOT_F),
+        keyword(CHILDREN, "infant"), keyword(CHILDREN, "juven"), keyword(CHILDREN, "kid"),
+        keyword(CHILDREN, "minor", NONE, NON_WORD), keyword(CHILDREN, "niece"), keyword(CHILDREN, "nephew"),
+        keyword(CHILDREN, "son", WORD_START, NON_WORD), keyword(CHILDREN, "grandson", WORD_START, NON_WORD),
+        keyword(CHILDREN, "teen", WORD_START, ANY), keyword(CHILDREN, "toddler"),
+        keyword(CHILDREN, "underage"), keyword(CHILDREN, "under age"), keyword(CHILDREN, "under the age"),
+        keyword(CHILDREN, "youth"), keyword(CHILDREN, "young"),
+
+        keyword(PUBLIC_ROLES, "borstal"), keyword(PUBLIC_ROLES, "college"), keyword(PUBLIC_ROLES, "faith"),
+        keyword(PUBLIC_ROLES, "foster"), keyword(PUBLIC_ROLES, "nurser"), keyword(PUBLIC_ROLES, "public app"),
+        keyword(PUBLIC_ROLES, "religi"), keyword(PUBLIC_ROLES, "school", NONE, NOT_I_OR_E),
+        keyword(PUBLIC_ROLES, "teach"), keyword(PUBLIC_ROLES, "uniformed"), keyword(PUBLIC_ROLES, "voluntary"),
+        keyword(PUBLIC_ROLES, "yoi"),
+
+        keyword(ABUSE_OR_RISK, "abduct"), keyword(ABUSE_OR_RISK, "abuse"), keyword(ABUSE_OR_RISK, "bugger"),
+        keyword(ABUSE_OR_RISK, "danger"), keyword(ABUSE_OR_RISK, "expose"), keyword(ABUSE_OR_RISK, "exploit"),
+        keyword(ABUSE_OR_RISK, "explicit"), keyword(ABUSE_OR_RISK, "inappropriate"),
+        keyword(ABUSE_OR_RISK, "indecent"), keyword(ABUSE_OR_RISK, "internet"),
+        keyword(ABUSE_OR_RISK, "intercourse"), keyword(ABUSE_OR_RISK, "kidnap"), keyword(ABUSE_OR_RISK, "molest"),
+        keyword(ABUSE_OR_RISK, "neglect"), keyword(ABUSE_OR_RISK, "online"), keyword(ABUSE_OR_RISK, "penatrat"),
+        keyword(ABUSE_OR_RISK, "porn"), keyword(ABUSE_OR_RISK, "predator"), keyword(ABUSE_OR_RISK, "prostitut"),
+        keyword(ABUSE_OR_RISK, "protect"), keyword(ABUSE_OR_RISK, "rape"), keyword(ABUSE_OR_RISK, "risk"),
+        keyword(ABUSE_OR_RISK, "safe"), keyword(ABUSE_OR_RISK, "sex"), keyword(ABUSE_OR_RISK, "sodom"),
+        keyword(ABUSE_OR_RISK, "spo"), keyword(ABUSE_OR_RISK, "shpo"), keyword(ABUSE_OR_RISK, "sopo"),
+        keyword(ABUSE_OR_RISK, "shopo"), keyword(ABUSE_OR_RISK, "touch", NOT_AFTER_IN, ANY));
+
+    private final int[][] transitions;
+    private final Keyword[][] outputs;
+
+    public MoratoriumTextScanner() {
+
+        final var goTo = new ArrayList<int[]>();
+        final var keywordsAt = new ArrayList<List<Keyword>>();
+
+        goTo.add(newState());
+        keywordsAt.add(new ArrayList<>());
+
+        for (final var keyword : KEYWORDS) {
+            var state = 0;
+            for (final char c : keyword.getText().toCharArray()) {
+                final var symbol = symbol(c);
+                if (goTo.get(state)[symbol] < 0) {
+                    goTo.get(state)[symbol] = goTo.size();
+                    goTo.add(newState());
+                    keywordsAt.add(new ArrayList<>());
+                }
+                state = goTo.get(state)[symbol];
+            }
+            keywordsAt.get(state).add(keyword);
+        }
+
+        transitions = goTo.toArray(new int[0][]);
+        final var failure = new int[transitions.length];
+        final var queue = new ArrayDeque<Integer>();
+
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            if (transitions[0][symbol] < 0) {
+                transitions[0][symbol] = 0;
+            } else {
+                queue.add(transitions[0][symbol]);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            keywordsAt.get(state).addAll(keywordsAt.get(failure[state]));
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                final var next = transitions[state][symbol];
+                if (next < 0) {
+                    transitions[state][symbol] = transitions[failure[state]][symbol];
+                } else {
+                    failure[next] = transitions[failure[state]][symbol];
+                    queue.add(next);
+                }
+            }
+        }
+
+        outputs = keywordsAt.stream().map(keywords -> keywords.toArray(new Keyword[0])).toArray(Keyword[][]::new);
+    }
+
+    public ScanResult scan(final String text) {
+
+        final var matches = new GroupMatches();
+        var state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state][symbol(text.charAt(i))];
+            for (final var keyword : outputs[state]) {
+                keyword.match(text, i - keyword.getText().length() + 1, matches);
+            }
+        }
+
+        return matches.toResult();
+    }
+
+    public List<ScanResult> scanAll(final Collection<String> texts) {
+        return texts.stream().map(this::scan).collect(toList());
+    }
+
+    private static int[] newState() {
+        final var state = new int[ALPHABET_SIZE];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static int symbol(final char c) {
+        final var lower = lowerCase(c);
+        if (lower >= 'a' && lower <= 'z') return lower - 'a';
+        if (lower == ' ') return SPACE;
+        return OTHER;
+    }
+
+    private static char lowerCase(final char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static boolean isWordCharacter(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static Keyword keyword(final Group group, final String text) {
+        return keyword(group, text, NONE, ANY);
+    }
+
+    private static Keyword keyword(final Group group, final String text, final Before before, final After after) {
+        return new Keyword(group, text, before, after);
+    }
+
+    enum Group {
+        RED_FLAGS,
+        CHILDREN,
+        PUBLIC_ROLES,
+        ABUSE_OR_RISK
+    }
+
+    /**
+     * What must precede a keyword, mirroring the guards in the patterns.
+     */
+    enum Before {
+
+        NONE,
+
+        /**
+         * '(^|\W)keyword'
+         */
+        WORD_START,
+
+        /**
+         * '(^.{0,3}|([^i][^n].)|[^i]n.)keyword', i.e. not 'in touch'
+         */
+        NOT_AFTER_IN
+    }
+
+    /**
+     * What must follow a keyword, mirroring the guards in the patterns.
+     */
+    enum After {
+
+        ANY,
+
+        /**
+         * 'keyword([^f]|$)'
+         */
+        NOT_F,
+
+        /**
+         * 'keyword([^ie]|$)'
+         */
+        NOT_I_OR_E,
+
+        /**
+         * 'keyword(\W|$)'
+         */
+        NON_WORD
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Keyword {
+
+        private final Group group;
+        private final String text;
+        private final Before before;
+        private final After after;
+
+        /**
+         * Records the span of the match, widened to include any
+         * characters that the equivalent pattern would consume.
+         */
+        private void match(final String input, final int start, final GroupMatches matches) {
+
+            var spanStart = start;
+            var spanEnd = start + text.length();
+
+            switch (before) {
+                case WORD_START:
+                    if (start > 0) {
+                        if (isWordCharacter(input.charAt(start - 1))) return;
+                        spanStart = start - 1;
+                    }
+                    break;
+                case NOT_AFTER_IN:
+                    if (start > 3) {
+                        if (lowerCase(input.charAt(start - 3)) == 'i') return;
+                        spanStart = start - 3;
+                    } else {
+                        spanStart = 0;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            if (after != ANY && spanEnd < input.length()) {
+                final var next = lowerCase(input.charAt(spanEnd));
+                if (after == NOT_F && next == 'f') return;
+                if (after == NOT_I_OR_E && (next == 'i' || next == 'e')) return;
+                if (after == NON_WORD && isWordCharacter(next)) return;
+                spanEnd++;
+            }
+
+            matches.add(group, spanStart, spanEnd);
+        }
+    }
+
+    /**
+     * Tracks the earliest end and latest start of the matches in each group, which
+     * is all that is needed to tell whether one group occurs before another.
+     */
+    private static class GroupMatches {
+
+        private final int[] earliestEnd = new int[Group.values().length];
+        private final int[] latestStart = new int[Group.values().length];
+
+        private GroupMatches() {
+            Arrays.fill(earliestEnd, Integer.MAX_VALUE);
+            Arrays.fill(latestStart, -1);
+        }
+
+        private void add(final Group group, final int start, final int end) {
+            earliestEnd[group.ordinal()] = Math.min(earliestEnd[group.ordinal()], end);
+            latestStart[group.ordinal()] = Math.max(latestStart[group.ordinal()], start);
+        }
+
+        private boolean found(final Group group) {
+            return latestStart[group.ordinal()] >= 0;
+        }
+
+        private boolean foundBefore(final Group first, final Group second) {
+            return found(first) && found(second) && earliestEnd[first.ordinal()] <= latestStart[second.ordinal()];
+        }
+
+        private ScanResult toResult() {
+            return new ScanResult(
+                found(RED_FLAGS),
+                foundBefore(CHILDREN, ABUSE_OR_RISK),
+                foundBefore(ABUSE_OR_RISK, CHILDREN),
+                foundBefore(PUBLIC_ROLES, ABUSE_OR_RISK),
+                foundBefore(ABUSE_OR_RISK, PUBLIC_ROLES));
+        }
+    }
+
+    /**
+     * Which of the free text patterns the text would have matched.
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class ScanResult {
+
+        private final boolean redFlags;
+        private final boolean childAbuse;
+        private final boolean childAbuseReversed;
+        private final boolean publicRoleAbuse;
+        private final boolean publicRoleAbuseReversed;
+
+        public boolean isMatch() {
+            return redFlags || childAbuse || childAbuseReversed || publicRoleAbuse || publicRoleAbuseReversed;
+        }
+    }
+}
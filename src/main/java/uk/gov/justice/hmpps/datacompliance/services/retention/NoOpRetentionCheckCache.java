@@ -0,0 +1,54 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import com.google.common.cache.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "offender.retention.cache.ttl", matchIfMissing = true, havingValue = "no value set")
+public class NoOpRetentionCheckCache implements RetentionCheckCache {
+
+    private static final CacheStats NO_STATISTICS = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    public NoOpRetentionCheckCache() {
+        log.info("Configured to conduct remote retention check lookups without caching");
+    }
+
+    @Override
+    public <T> T get(final OffenderNumber offenderNumber, final String checkType, final Supplier<T> lookup) {
+        return lookup.get();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(final OffenderNumber offenderNumber,
+                                             final String checkType,
+                                             final Supplier<CompletableFuture<T>> lookup) {
+        return lookup.get();
+    }
+
+    @Override
+    public void invalidate(final OffenderNumber offenderNumber, final String checkType) {
+        // Nothing cached
+    }
+
+    @Override
+    public void invalidate(final OffenderNumber offenderNumber) {
+        // Nothing cached
+    }
+
+    @Override
+    public void invalidateAll() {
+        // Nothing cached
+    }
+
+    @Override
+    public CacheStats getStatistics() {
+        return NO_STATISTICS;
+    }
+}
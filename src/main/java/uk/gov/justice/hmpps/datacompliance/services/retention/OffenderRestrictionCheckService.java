@@ -9,6 +9,7 @@ import uk.gov.justice.hmpps.datacompliance.events.publishers.sqs.DataComplianceE
 
 import javax.transaction.Transactional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -21,12 +22,12 @@ public class OffenderRestrictionCheckService {
 
     private final DataComplianceEventPusher eventPusher;
 
-    public void requestOffenderRestrictionCheck(final OffenderNumber offenderNumber, final Long retentionCheckId) {
+    public CompletableFuture<Void> requestOffenderRestrictionCheck(final OffenderNumber offenderNumber, final Long retentionCheckId) {
 
         log.debug("Submitting a request to perform an offender Restriction check: '{}/{}'",
             offenderNumber.getOffenderNumber(), retentionCheckId);
 
-        eventPusher.requestOffenderRestrictionCheck(
+        return eventPusher.requestOffenderRestrictionCheck(
             offenderNumber,
             retentionCheckId, Set.of(OffenderRestrictionCode.CHILD),
             CHILD_RESTRICTION_COMMENT_REGEX);
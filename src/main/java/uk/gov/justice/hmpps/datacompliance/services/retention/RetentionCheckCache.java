@@ -0,0 +1,36 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import com.google.common.cache.CacheStats;
+import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Holds the answers to remote retention check lookups (Pathfinder,
+ * MAPPA, image and data duplicates) so that they are not repeated
+ * when the same offender is checked again shortly afterwards,
+ * e.g. at the end of the review period.
+ */
+public interface RetentionCheckCache {
+
+    /**
+     * Returns the cached answer for the offender and check type,
+     * performing the lookup and caching its answer if absent.
+     */
+    <T> T get(OffenderNumber offenderNumber, String checkType, Supplier<T> lookup);
+
+    /**
+     * As {@link #get(OffenderNumber, String, Supplier)}, for lookups that do
+     * not block, caching the answer once the lookup has completed.
+     */
+    <T> CompletableFuture<T> getAsync(OffenderNumber offenderNumber, String checkType, Supplier<CompletableFuture<T>> lookup);
+
+    void invalidate(OffenderNumber offenderNumber, String checkType);
+
+    void invalidate(OffenderNumber offenderNumber);
+
+    void invalidateAll();
+
+    CacheStats getStatistics();
+}
@@ -0,0 +1,181 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Fans out the remote lookups made by retention checks
+ * (Pathfinder, Community API, Rekognition, Athena etc.)
+ * so that a referral takes as long as the slowest lookup
+ * rather than the sum of all of them.
+ *
+ * Only the lookups are made on the executor's threads.
+ * The checks built from their answers, and anything they
+ * persist, are left to the calling thread's transaction.
+ *
+ * Each lookup is given its own timeout, so a slow lookup
+ * fails only its own check. The others are left to complete,
+ * and their answers cached for when the referral is retried.
+ *
+ * When concurrent checks are disabled, lookups are
+ * made on the calling thread at the point of submission.
+ */
+@Slf4j
+@Component
+public class RetentionCheckExecutor {
+
+    private static final int QUEUED_CHECKS_PER_THREAD = 10;
+
+    private final ExecutorService executorService;
+    private final Duration timeout;
+
+    public RetentionCheckExecutor(final DataComplianceProperties properties) {
+        this.timeout = properties.getRetentionCheckTimeout();
+        this.executorService = properties.isConcurrentRetentionChecksEnabled() ?
+            boundedExecutor(properties.getRetentionCheckThreads()) : null;
+    }
+
+    /**
+     * Each lookup has its own timeout, from the point at which it is submitted.
+     * A lookup that times out is cancelled (interrupting its thread) and fails
+     * on its own, leaving the other lookups to complete.
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<T> lookup) {
+
+        if (executorService == null) {
+            try {
+                return completedFuture(lookup.get());
+            } catch (final RuntimeException e) {
+                return failedFuture(e);
+            }
+        }
+
+        final var answer = new CompletableFuture<T>();
+
+        final var task = executorService.submit(() -> {
+            try {
+                answer.complete(lookup.get());
+            } catch (final RuntimeException e) {
+                answer.completeExceptionally(e);
+            }
+        });
+
+        answer.orTimeout(timeout.toMillis(), MILLISECONDS).whenComplete((ignored, e) -> {
+            if (e instanceof TimeoutException) {
+                log.warn("Retention check lookup did not complete within {}", timeout);
+                task.cancel(true);
+            }
+        });
+
+        return answer;
+    }
+
+    /**
+     * For lookups that do not block, e.g. those made with a reactive client.
+     * The lookup is started on the calling thread and holds no thread while
+     * it waits, but is given the same timeout as those made on the executor.
+     */
+    public <T> CompletableFuture<T> submitAsync(final Supplier<CompletableFuture<T>> lookup) {
+
+        if (executorService == null) {
+            try {
+                return completedFuture(lookup.get().join());
+            } catch (final CompletionException e) {
+                return failedFuture(e.getCause());
+            } catch (final RuntimeException e) {
+                return failedFuture(e);
+            }
+        }
+
+        final CompletableFuture<T> pending;
+
+        try {
+            pending = lookup.get();
+        } catch (final RuntimeException e) {
+            return failedFuture(e);
+        }
+
+        final var answer = pending.copy();
+
+        answer.orTimeout(timeout.toMillis(), MILLISECONDS).whenComplete((ignored, e) -> {
+            if (e instanceof TimeoutException) {
+                log.warn("Retention check lookup did not complete within {}", timeout);
+                pending.cancel(true);
+            }
+        });
+
+        return answer;
+    }
+
+    /**
+     * Waits for the answer to a lookup, or throws its failure.
+     */
+    public <T> T getAnswer(final Future<T> lookup) {
+
+        try {
+
+            return lookup.get();
+
+        } catch (final ExecutionException e) {
+
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Retention check did not complete within " + timeout, e.getCause());
+            }
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException("Retention check failed", e.getCause());
+
+        } catch (final CancellationException e) {
+
+            throw new IllegalStateException("Retention check was cancelled", e);
+
+        } catch (final InterruptedException e) {
+
+            currentThread().interrupt();
+
+            throw new IllegalStateException("Execution interrupted", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private ExecutorService boundedExecutor(final int threads) {
+
+        log.info("Conducting retention check lookups concurrently on {} threads with timeout: {}", threads, timeout);
+
+        // Once the queue is full, the submitting thread makes the lookup itself:
+        return new ThreadPoolExecutor(threads, threads, 0L, MILLISECONDS,
+            new LinkedBlockingQueue<>(threads * QUEUED_CHECKS_PER_THREAD),
+            new ThreadFactoryBuilder().setNameFormat("retention-check-%d").setDaemon(true).build(),
+            new CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,129 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import uk.gov.justice.hmpps.datacompliance.dto.OffenderToCheck;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toList;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.DISABLED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.SKIPPED;
+
+/**
+ * An ordered registry of the retention checks conducted
+ * for each referral, where each check declares the cost
+ * of conducting it so that cheaper checks can be run first.
+ */
+public class RetentionCheckRegistry {
+
+    private final List<RegisteredCheck> checks = new ArrayList<>();
+
+    public RetentionCheckRegistry register(final RegisteredCheck check) {
+        checks.add(check);
+        return this;
+    }
+
+    /**
+     * All registered checks, in the order in which they are recorded against the referral.
+     */
+    public List<RegisteredCheck> getChecks() {
+        return unmodifiableList(checks);
+    }
+
+    public List<RegisteredCheck> getChecks(final CostTier costTier) {
+        return checks.stream()
+            .filter(check -> check.getCostTier() == costTier)
+            .collect(toList());
+    }
+
+    /**
+     * Ordered from cheapest to most expensive.
+     */
+    @Getter
+    @AllArgsConstructor
+    public enum CostTier {
+
+        IN_MEMORY(false),
+        DATABASE(false),
+        REMOTE(true),
+        EXPENSIVE(true);
+
+        /**
+         * Whether checks in this tier may be skipped once a cheaper check has
+         * found that the offender must be retained. Whether a check may be
+         * conducted on another thread is instead down to it having a lookup.
+         */
+        private final boolean skippable;
+    }
+
+    @Getter
+    @Builder
+    public static class RegisteredCheck {
+
+        private final String checkType;
+        private final CostTier costTier;
+
+        /**
+         * Creates the check record when it is not conducted.
+         */
+        private final Function<Status, RetentionCheck> checkFactory;
+
+        private final Function<OffenderToCheck, ActionableRetentionCheck> check;
+
+        /**
+         * Alternatively, for checks that wait on other services or the database,
+         * makes the lookups (which may be made on another thread) and returns the
+         * rest of the check, to be conducted on the calling thread so that
+         * anything it persists joins the caller's transaction.
+         */
+        private final Function<OffenderToCheck, Supplier<ActionableRetentionCheck>> lookup;
+
+        /**
+         * Or, for lookups that do not block (e.g. reactive clients), starts the
+         * lookup and completes with the rest of the check once it has answered.
+         */
+        private final Function<OffenderToCheck, CompletableFuture<Supplier<ActionableRetentionCheck>>> asyncLookup;
+
+        @Builder.Default
+        private final BooleanSupplier enabled = () -> true;
+
+        public ActionableRetentionCheck conduct(final OffenderToCheck offenderToCheck) {
+
+            if (hasAsyncLookup()) {
+                return lookUpAsync(offenderToCheck).join().get();
+            }
+
+            return hasLookup() ? lookUp(offenderToCheck).get() : check.apply(offenderToCheck);
+        }
+
+        public boolean hasLookup() {
+            return lookup != null;
+        }
+
+        public boolean hasAsyncLookup() {
+            return asyncLookup != null;
+        }
+
+        public Supplier<ActionableRetentionCheck> lookUp(final OffenderToCheck offenderToCheck) {
+            return lookup.apply(offenderToCheck);
+        }
+
+        public CompletableFuture<Supplier<ActionableRetentionCheck>> lookUpAsync(final OffenderToCheck offenderToCheck) {
+            return asyncLookup.apply(offenderToCheck);
+        }
+
+        public ActionableRetentionCheck skip() {
+            return new ActionableRetentionCheck(checkFactory.apply(enabled.getAsBoolean() ? SKIPPED : DISABLED));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.justice.hmpps.datacompliance.services.retention;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,7 +13,9 @@ import uk.gov.justice.hmpps.datacompliance.dto.OffenderToCheck;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DataDuplicateResult;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.FreeTextSearchResult;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderRestrictionResult;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.ImageDuplicate;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckAlert;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckAnalyticalPlatformDataDuplicate;
@@ -30,20 +33,50 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.Retent
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.RetentionCheckRepository;
 import uk.gov.justice.hmpps.datacompliance.services.duplicate.detection.data.DataDuplicationDetectionService;
 import uk.gov.justice.hmpps.datacompliance.services.duplicate.detection.image.ImageDuplicationDetectionService;
+import uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics;
 import uk.gov.justice.hmpps.datacompliance.services.referral.ReferralResolutionService;
+import uk.gov.justice.hmpps.datacompliance.services.retention.RetentionCheckRegistry.CostTier;
+import uk.gov.justice.hmpps.datacompliance.services.retention.RetentionCheckRegistry.RegisteredCheck;
 import uk.gov.justice.hmpps.datacompliance.services.ual.UalService;
 
 import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkState;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.ANALYTICAL_PLATFORM;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.ID;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.DISABLED;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.PENDING;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_NOT_REQUIRED;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_REQUIRED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckAlert.ALERT;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckAnalyticalPlatformDataDuplicate.DATA_DUPLICATE_AP;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDatabaseDataDuplicate.DATA_DUPLICATE_DB;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckFreeTextSearch.FREE_TEXT_SEARCH;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckIdDataDuplicate.DATA_DUPLICATE_ID;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckImageDuplicate.IMAGE_DUPLICATE;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckManual.MANUAL_RETENTION;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckMappa.MAPPA_REFERRAL;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckOffence.OFFENCE;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckOffenderRestriction.OFFENDER_RESTRICTION;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckPathfinder.PATHFINDER_REFERRAL;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckUal.UAL;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.RetentionCheckRegistry.CostTier.DATABASE;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.RetentionCheckRegistry.CostTier.EXPENSIVE;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.RetentionCheckRegistry.CostTier.IN_MEMORY;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.RetentionCheckRegistry.CostTier.REMOTE;
 import static uk.gov.justice.hmpps.datacompliance.utils.Exceptions.illegalState;
 
 @Slf4j
@@ -65,24 +98,113 @@ public class RetentionService {
     private final OffenderRestrictionCheckService offenderRestrictionCheckService;
     private final UalService ualService;
     private final DataComplianceProperties dataComplianceProperties;
+    private final RetentionCheckExecutor retentionCheckExecutor;
+    private final DataComplianceMetrics metrics;
+    private final RetentionCheckCache retentionCheckCache;
+
+    private final RetentionCheckRegistry retentionCheckRegistry = new RetentionCheckRegistry()
+        .register(RegisteredCheck.builder()
+            .checkType(PATHFINDER_REFERRAL)
+            .costTier(REMOTE)
+            .checkFactory(RetentionCheckPathfinder::new)
+            .asyncLookup(offender -> pathfinderReferralLookup(offender.getOffenderNumber()))
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(MANUAL_RETENTION)
+            .costTier(DATABASE)
+            .checkFactory(RetentionCheckManual::new)
+            .check(offender -> manualRetentionCheck(offender.getOffenderNumber()))
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(IMAGE_DUPLICATE)
+            .costTier(EXPENSIVE)
+            .checkFactory(RetentionCheckImageDuplicate::new)
+            .lookup(offender -> imageDuplicateLookup(offender.getOffenderNumber()))
+            .enabled(() -> dataComplianceProperties.isImageDuplicateCheckEnabled())
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(DATA_DUPLICATE_ID)
+            .costTier(EXPENSIVE)
+            .checkFactory(RetentionCheckIdDataDuplicate::new)
+            .check(offender -> idDataDuplicateCheck(offender.getOffenderNumber()))
+            .enabled(() -> dataComplianceProperties.isIdDataDuplicateCheckEnabled())
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(DATA_DUPLICATE_DB)
+            .costTier(EXPENSIVE)
+            .checkFactory(RetentionCheckDatabaseDataDuplicate::new)
+            .check(offender -> databaseDataDuplicateCheck(offender.getOffenderNumber()))
+            .enabled(() -> dataComplianceProperties.isDatabaseDataDuplicateCheckEnabled())
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(DATA_DUPLICATE_AP)
+            .costTier(EXPENSIVE)
+            .checkFactory(RetentionCheckAnalyticalPlatformDataDuplicate::new)
+            .lookup(offender -> analyticalPlatformDataDuplicateLookup(offender.getOffenderNumber()))
+            .enabled(() -> dataComplianceProperties.isAnalyticalPlatformDataDuplicateCheckEnabled())
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(FREE_TEXT_SEARCH)
+            .costTier(EXPENSIVE)
+            .checkFactory(RetentionCheckFreeTextSearch::new)
+            .check(offender -> freeTextSearch(offender.getOffenderNumber()))
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(OFFENDER_RESTRICTION)
+            .costTier(EXPENSIVE)
+            .checkFactory(RetentionCheckOffenderRestriction::new)
+            .check(offender -> offenderRestrictionCheck(offender.getOffenderNumber()))
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(OFFENCE)
+            .costTier(IN_MEMORY)
+            .checkFactory(RetentionCheckOffence::new)
+            .check(this::offenceCodeCheck)
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(ALERT)
+            .costTier(IN_MEMORY)
+            .checkFactory(RetentionCheckAlert::new)
+            .check(this::alertCheck)
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(UAL)
+            .costTier(DATABASE)
+            .checkFactory(RetentionCheckUal::new)
+            .lookup(this::ualLookup)
+            .build())
+        .register(RegisteredCheck.builder()
+            .checkType(MAPPA_REFERRAL)
+            .costTier(REMOTE)
+            .checkFactory(RetentionCheckMappa::new)
+            .asyncLookup(offender -> mappaReferralLookup(offender.getOffenderNumber()))
+            .enabled(() -> dataComplianceProperties.isMappaCheckEnabled())
+            .build());
 
     public List<ActionableRetentionCheck> conductRetentionChecks(final OffenderToCheck offenderToCheck) {
 
-        final var offenderNumber = offenderToCheck.getOffenderNumber();
-
-        return List.of(
-            pathfinderReferralCheck(offenderNumber),
-            manualRetentionCheck(offenderNumber),
-            imageDuplicateCheck(offenderNumber),
-            idDataDuplicateCheck(offenderNumber),
-            databaseDataDuplicateCheck(offenderNumber),
-            analyticalPlatformDataDuplicateCheck(offenderNumber),
-            freeTextSearch(offenderNumber),
-            offenderRestrictionCheck(offenderNumber),
-            offenceCodeCheck(offenderToCheck),
-            alertCheck(offenderToCheck),
-            ualOffenderCheck(offenderToCheck),
-            mappaReferralCheck(offenderNumber));
+        final var conductedChecks = new HashMap<RegisteredCheck, ActionableRetentionCheck>();
+
+        if (dataComplianceProperties.isShortCircuitRetentionChecksEnabled()) {
+            for (final var costTier : CostTier.values()) {
+                final var checks = retentionCheckRegistry.getChecks(costTier);
+                conductedChecks.putAll(shouldSkip(costTier, conductedChecks.values()) ?
+                    skip(offenderToCheck, checks) :
+                    conduct(offenderToCheck, checks));
+            }
+        } else {
+            conductedChecks.putAll(conduct(offenderToCheck, retentionCheckRegistry.getChecks()));
+        }
+
+        return inRegisteredOrder(conductedChecks);
+    }
+
+    /**
+     * Discards any cached remote check answers for the offender,
+     * e.g. when their record is known to have changed.
+     */
+    public void invalidateCachedChecks(final OffenderNumber offenderNumber) {
+        retentionCheckCache.invalidate(offenderNumber);
     }
 
     public void handleDataDuplicateResult(final DataDuplicateResult result, final Method method) {
@@ -146,6 +268,63 @@ public class RetentionService {
         referralResolutionService.processUpdatedRetentionCheck(retentionCheck);
     }
 
+    private Map<RegisteredCheck, ActionableRetentionCheck> conduct(final OffenderToCheck offenderToCheck,
+                                                                   final List<RegisteredCheck> checks) {
+
+        // Lookups (of other services and the UAL database) are submitted first so that
+        // they run alongside each other (and the local checks) when concurrency is
+        // enabled. Pathfinder and MAPPA are called with non-blocking clients, so hold
+        // no thread while they wait. The rest of each check, including anything it
+        // persists, is conducted here within the transaction:
+        final var lookups = new LinkedHashMap<RegisteredCheck, Future<Supplier<ActionableRetentionCheck>>>();
+        final var lookupsStarted = new HashMap<RegisteredCheck, Timer.Sample>();
+        checks.stream()
+            .filter(check -> check.hasLookup() || check.hasAsyncLookup())
+            .forEach(check -> {
+                lookupsStarted.put(check, metrics.startCheck());
+                lookups.put(check, check.hasAsyncLookup() ?
+                    retentionCheckExecutor.submitAsync(() -> check.lookUpAsync(offenderToCheck)) :
+                    retentionCheckExecutor.submit(() -> check.lookUp(offenderToCheck)));
+            });
+
+        final var conductedChecks = new HashMap<RegisteredCheck, ActionableRetentionCheck>();
+        checks.stream()
+            .filter(check -> !lookups.containsKey(check))
+            .forEach(check -> conductedChecks.put(check, conduct(offenderToCheck, check)));
+
+        // Each lookup is waited on within its own timeout. One that fails or times
+        // out fails the referral, to be retried on redelivery, but leaves the others
+        // to complete so that their answers are cached for the retry:
+        lookups.forEach((check, lookup) -> conductedChecks.put(check, metrics.recordCheck(check.getCheckType(),
+            lookupsStarted.get(check), () -> retentionCheckExecutor.getAnswer(lookup).get())));
+
+        return conductedChecks;
+    }
+
+    private ActionableRetentionCheck conduct(final OffenderToCheck offenderToCheck, final RegisteredCheck check) {
+        return metrics.recordCheck(check.getCheckType(), () -> check.conduct(offenderToCheck));
+    }
+
+    private Map<RegisteredCheck, ActionableRetentionCheck> skip(final OffenderToCheck offenderToCheck,
+                                                                final List<RegisteredCheck> checks) {
+
+        log.debug("Skipping {} retention checks for offender: '{}', retention is already required",
+            checks.size(), offenderToCheck.getOffenderNumber().getOffenderNumber());
+
+        return checks.stream().collect(toMap(identity(), RegisteredCheck::skip));
+    }
+
+    private boolean shouldSkip(final CostTier costTier, final Collection<ActionableRetentionCheck> conductedChecks) {
+        return costTier.isSkippable() && conductedChecks.stream()
+            .anyMatch(check -> check.getRetentionCheck().isStatus(RETENTION_REQUIRED));
+    }
+
+    private List<ActionableRetentionCheck> inRegisteredOrder(final Map<RegisteredCheck, ActionableRetentionCheck> conductedChecks) {
+        return retentionCheckRegistry.getChecks().stream()
+            .map(conductedChecks::get)
+            .collect(toList());
+    }
+
     private <T extends RetentionCheck> T findRetentionCheck(final long retentionCheckId,
                                                             final Class<T> retentionCheckClass) {
         return retentionCheckRepository.findById(retentionCheckId)
@@ -153,12 +332,15 @@ public class RetentionService {
             .orElseThrow(illegalState("Cannot retrieve retention check record for id: '%s'", retentionCheckId));
     }
 
-    private ActionableRetentionCheck pathfinderReferralCheck(final OffenderNumber offenderNumber) {
-
-        final var check = new RetentionCheckPathfinder(pathfinderApiClient.isReferredToPathfinder(offenderNumber) ?
-            RETENTION_REQUIRED : RETENTION_NOT_REQUIRED);
+    private CompletableFuture<Supplier<ActionableRetentionCheck>> pathfinderReferralLookup(final OffenderNumber offenderNumber) {
+        return retentionCheckCache.getAsync(offenderNumber, PATHFINDER_REFERRAL,
+                () -> pathfinderApiClient.isReferredToPathfinderAsync(offenderNumber).toFuture())
+            .thenApply(referredToPathfinder -> () -> pathfinderReferralCheck(referredToPathfinder));
+    }
 
-        return new ActionableRetentionCheck(check);
+    private ActionableRetentionCheck pathfinderReferralCheck(final boolean referredToPathfinder) {
+        return new ActionableRetentionCheck(new RetentionCheckPathfinder(referredToPathfinder ?
+            RETENTION_REQUIRED : RETENTION_NOT_REQUIRED));
     }
 
     private ActionableRetentionCheck manualRetentionCheck(final OffenderNumber offenderNumber) {
@@ -170,13 +352,20 @@ public class RetentionService {
         return new ActionableRetentionCheck(check);
     }
 
-    private ActionableRetentionCheck imageDuplicateCheck(final OffenderNumber offenderNumber) {
+    private Supplier<ActionableRetentionCheck> imageDuplicateLookup(final OffenderNumber offenderNumber) {
 
         if (!dataComplianceProperties.isImageDuplicateCheckEnabled()) {
-            return new ActionableRetentionCheck(new RetentionCheckImageDuplicate(DISABLED));
+            return () -> new ActionableRetentionCheck(new RetentionCheckImageDuplicate(DISABLED));
         }
 
-        final var imageDuplicates = imageDuplicationDetectionService.findDuplicatesFor(offenderNumber);
+        // Only the image recognition answer is looked up (and cached), the duplicates are persisted per referral:
+        final var faceMatches = retentionCheckCache.get(offenderNumber, IMAGE_DUPLICATE,
+            () -> imageDuplicationDetectionService.findFaceMatchesFor(offenderNumber));
+
+        return () -> imageDuplicateCheck(imageDuplicationDetectionService.persistDuplicatesFor(offenderNumber, faceMatches));
+    }
+
+    private ActionableRetentionCheck imageDuplicateCheck(final List<ImageDuplicate> imageDuplicates) {
 
         final var check = imageDuplicates.isEmpty() ?
             new RetentionCheckImageDuplicate(RETENTION_NOT_REQUIRED) :
@@ -207,13 +396,20 @@ public class RetentionService {
                 offenderNumber, retentionCheck.getRetentionCheckId()));
     }
 
-    private ActionableRetentionCheck analyticalPlatformDataDuplicateCheck(final OffenderNumber offenderNumber) {
+    private Supplier<ActionableRetentionCheck> analyticalPlatformDataDuplicateLookup(final OffenderNumber offenderNumber) {
 
         if (!dataComplianceProperties.isAnalyticalPlatformDataDuplicateCheckEnabled()) {
-            return new ActionableRetentionCheck(new RetentionCheckAnalyticalPlatformDataDuplicate(DISABLED));
+            return () -> new ActionableRetentionCheck(new RetentionCheckAnalyticalPlatformDataDuplicate(DISABLED));
         }
 
-        final var duplicates = dataDuplicationDetectionService.searchForAnalyticalPlatformDuplicates(offenderNumber);
+        final var duplicateResults = retentionCheckCache.get(offenderNumber, DATA_DUPLICATE_AP,
+            () -> dataDuplicationDetectionService.searchForAnalyticalPlatformDuplicates(offenderNumber));
+
+        return () -> analyticalPlatformDataDuplicateCheck(dataDuplicationDetectionService.persistDataDuplicates(
+            offenderNumber, duplicateResults, ANALYTICAL_PLATFORM));
+    }
+
+    private ActionableRetentionCheck analyticalPlatformDataDuplicateCheck(final List<DataDuplicate> duplicates) {
 
         final var check = duplicates.isEmpty() ?
             new RetentionCheckAnalyticalPlatformDataDuplicate(RETENTION_NOT_REQUIRED) :
@@ -247,19 +443,31 @@ public class RetentionService {
             moratoriumCheckService.retainDueToAlert(offenderToCheck) ? RETENTION_REQUIRED : RETENTION_NOT_REQUIRED));
     }
 
-    private ActionableRetentionCheck ualOffenderCheck(final OffenderToCheck offenderToCheck) {
-        return new ActionableRetentionCheck(new RetentionCheckUal(ualService.isUnlawfullyAtLarge(offenderToCheck) ?
+    private Supplier<ActionableRetentionCheck> ualLookup(final OffenderToCheck offenderToCheck) {
+
+        final var unlawfullyAtLarge = ualService.isUnlawfullyAtLarge(offenderToCheck);
+
+        return () -> ualOffenderCheck(unlawfullyAtLarge);
+    }
+
+    private ActionableRetentionCheck ualOffenderCheck(final boolean unlawfullyAtLarge) {
+        return new ActionableRetentionCheck(new RetentionCheckUal(unlawfullyAtLarge ?
             RETENTION_REQUIRED : RETENTION_NOT_REQUIRED));
     }
 
-    private ActionableRetentionCheck mappaReferralCheck(final OffenderNumber offenderNumber) {
+    private CompletableFuture<Supplier<ActionableRetentionCheck>> mappaReferralLookup(final OffenderNumber offenderNumber) {
 
         if (!dataComplianceProperties.isMappaCheckEnabled()) {
-            return new ActionableRetentionCheck(new RetentionCheckMappa(DISABLED));
+            return completedFuture(() -> new ActionableRetentionCheck(new RetentionCheckMappa(DISABLED)));
         }
 
-        final var check = new RetentionCheckMappa(communityApiClient.isReferredForMappa(offenderNumber) ?
-            RETENTION_REQUIRED : RETENTION_NOT_REQUIRED);
-        return new ActionableRetentionCheck(check);
+        return retentionCheckCache.getAsync(offenderNumber, MAPPA_REFERRAL,
+                () -> communityApiClient.isReferredForMappaAsync(offenderNumber).toFuture())
+            .thenApply(referredForMappa -> () -> mappaReferralCheck(referredForMappa));
+    }
+
+    private ActionableRetentionCheck mappaReferralCheck(final boolean referredForMappa) {
+        return new ActionableRetentionCheck(new RetentionCheckMappa(referredForMappa ?
+            RETENTION_REQUIRED : RETENTION_NOT_REQUIRED));
     }
 }
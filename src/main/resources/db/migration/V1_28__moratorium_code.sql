@@ -0,0 +1,460 @@
+DROP TABLE IF EXISTS MORATORIUM_CODE;
+
+CREATE TABLE MORATORIUM_CODE
+(
+  MORATORIUM_CODE_ID               BIGSERIAL       NOT NULL,
+  CODE                             VARCHAR(40)     NOT NULL,
+  CODE_TYPE                        VARCHAR(40)     NOT NULL,
+
+  CONSTRAINT MORATORIUM_CODE_PK PRIMARY KEY (MORATORIUM_CODE_ID),
+  CONSTRAINT MORATORIUM_CODE_UK UNIQUE (CODE, CODE_TYPE)
+);
+
+COMMENT ON TABLE MORATORIUM_CODE IS 'Offence and alert codes that require an offender record to be retained';
+
+COMMENT ON COLUMN MORATORIUM_CODE.MORATORIUM_CODE_ID IS 'Primary key id';
+COMMENT ON COLUMN MORATORIUM_CODE.CODE IS 'The NOMIS offence or alert code. Offence codes may use range notation, e.g. SX03001-004N';
+COMMENT ON COLUMN MORATORIUM_CODE.CODE_TYPE IS 'Either OFFENCE or ALERT';
+
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03001-004N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03035-038N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03017-018N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03007-008N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03070-077N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03114-115N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03054-057N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03062-175N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03116-117N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03102-111N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03058-059N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03112-113N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03060-200N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03050-192N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03048-049N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03031-044N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03019-022N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('MH59008-010N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03045-046N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03027-042N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56051-052NA', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56014-074N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03015-016N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PK78001-008NA', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03013-014N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56087-088N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56025-029N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56070-072N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56047-050N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56004N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56007N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56008N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56031N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56032N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56037N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56038N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56042N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56043N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56046N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56053N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX67001N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX67002N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('TH68031N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('XX0109', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03164-188N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SA00001', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SA00002', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56005-006N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56017', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56070', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56111', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56076', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56101', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56026', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56112', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56072', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56121', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56005', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56006', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56079', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56119', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56081', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56085', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56014', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56088', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56044', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56083', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56120', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56075', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56099', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56104', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56035', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56102', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56017A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56118', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56078', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56122', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56049', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56018', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56042', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56106', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56077', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56018A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56089', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56025', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56010', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56115', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56028', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56084', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56014A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56087', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56045', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56047', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56074', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56015', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56113', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56116', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56048', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56030', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56114', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56082', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56029', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56103', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56036', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56015A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56027', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56100', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56050', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56105', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56026A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56026B', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56029A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56109', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56110', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56070A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56071A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56072A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56073A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56073', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('FL96001', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('FL96001A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('FL96002', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PK78001', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PK78002', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PK78003', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PK78004', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PK78005', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PK78006', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PK78007', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PK78008', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PK78003A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('IC60003', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('IC60004', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('IC60005', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('IC60006', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('IC60007', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('IC60008', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SO96009', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SO96010', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SO96012', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SO96013', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SO96014', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03230', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03113A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03232', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03230A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03031', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03032', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03033', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03034', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03035', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03036', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03037', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03038', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03039', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03040', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03041', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03042', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03043', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03044', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03045', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03046', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03047', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03048', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03049', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03050', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03051', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03052', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03053', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03054', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03055', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03056', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03057', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03058', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03059', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03060', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03061', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03062', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03063', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03064', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03065', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03066', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03067', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03068', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03069', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03070', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03071', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03072', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03073', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03074', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03075', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03076', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03077', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03102', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03103', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03104', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03105', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03106', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03107', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03108', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03109', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03110', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03111', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03112', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03113', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03114', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03115', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03116', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03117', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03126', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03127', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03156', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03157', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03158', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03159', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03160', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03161', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03162', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03163', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03164', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03165', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03166', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03167', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03168', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03169', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03170', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03171', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03172', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03173', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03174', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03175', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03176', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03177', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03178', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03179', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03181', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03182', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03183', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03184', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03185', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03186', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03187', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03188', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03189', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03190', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03191', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03192', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03193', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03194', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03195', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03196', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03197', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03198', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03199', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03200', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03001', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03001A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03002', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03002A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03003', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03003A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03004', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03004A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03005', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03006', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03009', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03010', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03011', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03012', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03013', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03013A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03014', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03014A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03015', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03016', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03017', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03018', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03019', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03020', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03021', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03022', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03023', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03024', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03025', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03026', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03027', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03028', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03029', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03030', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03210', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03211', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03001B', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03001C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03002C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03006B', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03013B', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03014B', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03015A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03017B', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03018B', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03019C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03020C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03021A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03023B', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03025C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03027A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03028A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03029A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03030A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03031B', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03032A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03033A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03034A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03047A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03062C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03063C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03064C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03065C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03066C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03067C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03068C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03069C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03106A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03116C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03117C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03157B', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03158A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03162A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03170A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03172C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03173C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03174C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03175C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03181C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03182C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03183C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03184C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03210A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03211A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03229', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03010A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03009A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03008C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03007C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03224A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03003C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03004C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03005A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03005C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03006A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03006C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03009C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03010C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03011C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03012A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03012C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03013C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03014C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03015C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03016A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03016C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03017A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03017C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03018A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03018C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03019A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03020A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03021C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03022A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03022C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03023A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03023C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03024A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03024C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03025A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03026A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03026C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03027C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03028C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03029C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03030C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03031A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03035A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03036A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03037A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03038A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03039A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03040A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03041A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03042A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03043A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03044A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03161A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03224', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03225', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03225A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03226', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03226A', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03227', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03227C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03228', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03228C', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03231', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('CJ09001', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SC15003', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PH17001', 'OFFENCE');
+
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PC00000-001N', 'OFFENCE');
+
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('C1', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('C2', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('C3', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('C4', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('CC1', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('CC2', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('CC3', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('CC4', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('CPC', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('CPRC', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('HPI', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('OCYP', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('P0', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('P1', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('P2', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('P3', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PC1', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PC2', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PC3', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PL1', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PL2', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PL3', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('PVN', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('RCC', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('RCP', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('RCS', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('RDO', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('RVR', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('RYP', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SC', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('XCC', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('XCSEA', 'ALERT');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('XTACT', 'ALERT');
@@ -0,0 +1,4 @@
+ALTER TABLE REFERRAL_RESOLUTION
+  ADD COLUMN VERSION BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN REFERRAL_RESOLUTION.VERSION IS 'Optimistic lock version, incremented each time a retention check result is applied';
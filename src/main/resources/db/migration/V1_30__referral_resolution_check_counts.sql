@@ -0,0 +1,32 @@
+ALTER TABLE REFERRAL_RESOLUTION
+  ADD COLUMN PENDING_CHECKS INTEGER DEFAULT 0 NOT NULL;
+
+ALTER TABLE REFERRAL_RESOLUTION
+  ADD COLUMN RETENTION_REQUIRED_CHECKS INTEGER DEFAULT 0 NOT NULL;
+
+ALTER TABLE REFERRAL_RESOLUTION
+  ADD COLUMN RETENTION_NOT_REQUIRED_CHECKS INTEGER DEFAULT 0 NOT NULL;
+
+ALTER TABLE REFERRAL_RESOLUTION
+  ADD COLUMN FALSE_POSITIVE_CHECKS INTEGER DEFAULT 0 NOT NULL;
+
+ALTER TABLE REFERRAL_RESOLUTION
+  ADD COLUMN DISABLED_CHECKS INTEGER DEFAULT 0 NOT NULL;
+
+ALTER TABLE REFERRAL_RESOLUTION
+  ADD COLUMN SKIPPED_CHECKS INTEGER DEFAULT 0 NOT NULL;
+
+COMMENT ON COLUMN REFERRAL_RESOLUTION.PENDING_CHECKS IS 'The number of retention checks against the resolution with status PENDING';
+COMMENT ON COLUMN REFERRAL_RESOLUTION.RETENTION_REQUIRED_CHECKS IS 'The number of retention checks against the resolution with status RETENTION_REQUIRED';
+COMMENT ON COLUMN REFERRAL_RESOLUTION.RETENTION_NOT_REQUIRED_CHECKS IS 'The number of retention checks against the resolution with status RETENTION_NOT_REQUIRED';
+COMMENT ON COLUMN REFERRAL_RESOLUTION.FALSE_POSITIVE_CHECKS IS 'The number of retention checks against the resolution with status FALSE_POSITIVE';
+COMMENT ON COLUMN REFERRAL_RESOLUTION.DISABLED_CHECKS IS 'The number of retention checks against the resolution with status DISABLED';
+COMMENT ON COLUMN REFERRAL_RESOLUTION.SKIPPED_CHECKS IS 'The number of retention checks against the resolution with status SKIPPED';
+
+UPDATE REFERRAL_RESOLUTION R
+SET PENDING_CHECKS                = (SELECT COUNT(*) FROM RETENTION_CHECK C WHERE C.RESOLUTION_ID = R.RESOLUTION_ID AND C.CHECK_STATUS = 'PENDING'),
+    RETENTION_REQUIRED_CHECKS     = (SELECT COUNT(*) FROM RETENTION_CHECK C WHERE C.RESOLUTION_ID = R.RESOLUTION_ID AND C.CHECK_STATUS = 'RETENTION_REQUIRED'),
+    RETENTION_NOT_REQUIRED_CHECKS = (SELECT COUNT(*) FROM RETENTION_CHECK C WHERE C.RESOLUTION_ID = R.RESOLUTION_ID AND C.CHECK_STATUS = 'RETENTION_NOT_REQUIRED'),
+    FALSE_POSITIVE_CHECKS         = (SELECT COUNT(*) FROM RETENTION_CHECK C WHERE C.RESOLUTION_ID = R.RESOLUTION_ID AND C.CHECK_STATUS = 'FALSE_POSITIVE'),
+    DISABLED_CHECKS               = (SELECT COUNT(*) FROM RETENTION_CHECK C WHERE C.RESOLUTION_ID = R.RESOLUTION_ID AND C.CHECK_STATUS = 'DISABLED'),
+    SKIPPED_CHECKS                = (SELECT COUNT(*) FROM RETENTION_CHECK C WHERE C.RESOLUTION_ID = R.RESOLUTION_ID AND C.CHECK_STATUS = 'SKIPPED');
@@ -0,0 +1,10 @@
+ALTER TABLE RETENTION_CHECK
+  ADD COLUMN FALSE_POSITIVE_CHECK_STATUS VARCHAR(40);
+
+ALTER TABLE RETENTION_CHECK
+  ADD COLUMN FALSE_POSITIVE_CHECK_DATE_TIME TIMESTAMP;
+
+COMMENT ON COLUMN RETENTION_CHECK.FALSE_POSITIVE_CHECK_STATUS IS 'The status (REQUESTED, COMPLETED) of the false positive check of a data duplicate retention check, if one was needed';
+COMMENT ON COLUMN RETENTION_CHECK.FALSE_POSITIVE_CHECK_DATE_TIME IS 'The timestamp of when the false positive check was requested or completed';
+
+CREATE INDEX RET_CHECK_FPCS_IDX ON RETENTION_CHECK(FALSE_POSITIVE_CHECK_STATUS, FALSE_POSITIVE_CHECK_DATE_TIME);
@@ -0,0 +1,18 @@
+DROP TABLE IF EXISTS PROCESSED_MESSAGE;
+
+CREATE TABLE PROCESSED_MESSAGE
+(
+  MESSAGE_ID                      VARCHAR(100)    NOT NULL,
+  EVENT_TYPE                      VARCHAR(255)    NOT NULL,
+  PROCESSED_DATE_TIME             TIMESTAMP       NOT NULL,
+
+  CONSTRAINT PROCESSED_MESSAGE_PK PRIMARY KEY (MESSAGE_ID)
+);
+
+COMMENT ON TABLE PROCESSED_MESSAGE IS 'Records the response queue messages that have been handled, so that redelivered messages can be ignored';
+
+COMMENT ON COLUMN PROCESSED_MESSAGE.MESSAGE_ID IS 'The SQS message ID';
+COMMENT ON COLUMN PROCESSED_MESSAGE.EVENT_TYPE IS 'The event type of the message';
+COMMENT ON COLUMN PROCESSED_MESSAGE.PROCESSED_DATE_TIME IS 'The timestamp of when the message was handled';
+
+CREATE INDEX PROCESSED_MESSAGE_PDT_IDX ON PROCESSED_MESSAGE(PROCESSED_DATE_TIME);
@@ -0,0 +1,8 @@
+ALTER TABLE DECEASED_OFFENDER_DELETION_BATCH
+  ADD COLUMN REFERRALS_RECORDED INTEGER DEFAULT 0 NOT NULL;
+
+ALTER TABLE OFFENDER_NO_BOOKING_DELETION_BATCH
+  ADD COLUMN REFERRALS_RECORDED INTEGER DEFAULT 0 NOT NULL;
+
+COMMENT ON COLUMN DECEASED_OFFENDER_DELETION_BATCH.REFERRALS_RECORDED IS 'The number of offenders in the deletion result recorded so far, from which a failed result resumes';
+COMMENT ON COLUMN OFFENDER_NO_BOOKING_DELETION_BATCH.REFERRALS_RECORDED IS 'The number of offenders in the deletion result recorded so far, from which a failed result resumes';
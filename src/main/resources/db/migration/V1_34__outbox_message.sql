@@ -0,0 +1,25 @@
+DROP TABLE IF EXISTS OUTBOX_MESSAGE;
+
+CREATE TABLE OUTBOX_MESSAGE
+(
+  OUTBOX_MESSAGE_ID               BIGSERIAL       NOT NULL,
+  EVENT_TYPE                      VARCHAR(255)    NOT NULL,
+  MESSAGE_BODY                    VARCHAR(262144) NOT NULL,
+  STATUS                          VARCHAR(40)     NOT NULL,
+  CREATED_DATE_TIME               TIMESTAMP       NOT NULL,
+  SENT_DATE_TIME                  TIMESTAMP,
+
+  CONSTRAINT OUTBOX_MESSAGE_PK PRIMARY KEY (OUTBOX_MESSAGE_ID)
+);
+
+COMMENT ON TABLE OUTBOX_MESSAGE IS 'Request queue messages written in the same transaction as the changes that raised them, to be sent by the outbox relay';
+
+COMMENT ON COLUMN OUTBOX_MESSAGE.OUTBOX_MESSAGE_ID IS 'Primary key id, giving the order in which messages are sent';
+COMMENT ON COLUMN OUTBOX_MESSAGE.EVENT_TYPE IS 'The event type of the message';
+COMMENT ON COLUMN OUTBOX_MESSAGE.MESSAGE_BODY IS 'The JSON body of the message';
+COMMENT ON COLUMN OUTBOX_MESSAGE.STATUS IS 'The status (PENDING, SENT, FAILED) of the message';
+COMMENT ON COLUMN OUTBOX_MESSAGE.CREATED_DATE_TIME IS 'The timestamp of when the message was written';
+COMMENT ON COLUMN OUTBOX_MESSAGE.SENT_DATE_TIME IS 'The timestamp of when the message was sent';
+
+CREATE INDEX OUTBOX_MESSAGE_ST_IDX ON OUTBOX_MESSAGE(STATUS, OUTBOX_MESSAGE_ID);
+CREATE INDEX OUTBOX_MESSAGE_SDT_IDX ON OUTBOX_MESSAGE(SENT_DATE_TIME);
@@ -0,0 +1,4 @@
+ALTER TABLE IMAGE_UPLOAD_BATCH
+  ADD COLUMN CHECKPOINT_OFFSET BIGINT;
+
+COMMENT ON COLUMN IMAGE_UPLOAD_BATCH.CHECKPOINT_OFFSET IS 'Offset of the first offender not yet known to be processed, from which an interrupted batch resumes';
@@ -71,4 +71,26 @@ class CommunityApiClientTest {
             .isInstanceOf(WebClientResponseException.class)
             .hasMessageContaining("Payment Required");
     }
-}
\ No newline at end of file
+
+    @Test
+    void isReferredForMappaAsyncTrueWhenSuccessResponse() {
+
+        mockCommunityApiWebServer.enqueue(new MockResponse()
+            .setResponseCode(HttpStatus.OK.value()));
+
+        assertThat(communityApiClient.isReferredForMappaAsync(new OffenderNumber("A1234AA")).toFuture())
+            .succeedsWithin(Duration.ofSeconds(5))
+            .isEqualTo(true);
+    }
+
+    @Test
+    void isReferredForMappaAsyncFalseWhenNotFound() {
+
+        mockCommunityApiWebServer.enqueue(new MockResponse()
+            .setResponseCode(HttpStatus.NOT_FOUND.value()));
+
+        assertThat(communityApiClient.isReferredForMappaAsync(new OffenderNumber("A1234AA")).toFuture())
+            .succeedsWithin(Duration.ofSeconds(5))
+            .isEqualTo(false);
+    }
+}
@@ -20,14 +20,19 @@ import software.amazon.awssdk.services.rekognition.model.SearchFacesResponse;
 import software.amazon.awssdk.services.rekognition.model.UnindexedFace;
 import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
 
+import java.util.Set;
+import java.util.stream.IntStream;
+
 import static java.lang.String.format;
 import static java.util.Arrays.stream;
+import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.awssdk.services.rekognition.model.QualityFilter.HIGH;
+import static uk.gov.justice.hmpps.datacompliance.client.image.recognition.AwsImageRecognitionClient.MAX_SEARCH_FACES;
 import static uk.gov.justice.hmpps.datacompliance.client.image.recognition.IndexFacesError.FACE_NOT_FOUND;
 import static uk.gov.justice.hmpps.datacompliance.client.image.recognition.IndexFacesError.FACE_POOR_QUALITY;
 import static uk.gov.justice.hmpps.datacompliance.client.image.recognition.IndexFacesError.MULTIPLE_FACES_FOUND;
@@ -141,6 +146,43 @@ class AwsImageRecognitionClientTest {
         assertThat(client.findMatchesFor(new FaceId("someFace"))).isEmpty();
     }
 
+    @Test
+    void findMatchesAmong() {
+
+        final var request = ArgumentCaptor.forClass(SearchFacesRequest.class);
+
+        when(awsClient.searchFaces(request.capture())).thenReturn(matchingFaces(EXPECTED_FACE_ID, "otherFace"));
+
+        final var matches = client.findMatchesAmong(new FaceId("someFace"), Set.of(new FaceId(EXPECTED_FACE_ID)), 80.0);
+
+        assertThat(matches).hasValueSatisfying(faceMatches ->
+            assertThat(faceMatches).extracting(FaceMatch::getFaceId).containsExactly(EXPECTED_FACE_ID));
+
+        assertThat(request.getValue().collectionId()).isEqualTo(COLLECTION_NAME);
+        assertThat(request.getValue().faceId()).isEqualTo("someFace");
+        assertThat(request.getValue().faceMatchThreshold()).isEqualTo(80.0f);
+        assertThat(request.getValue().maxFaces()).isEqualTo(MAX_SEARCH_FACES);
+    }
+
+    @Test
+    void findMatchesAmongReturnsNoMatches() {
+
+        when(awsClient.searchFaces(any(SearchFacesRequest.class))).thenReturn(noMatchingFace());
+
+        assertThat(client.findMatchesAmong(new FaceId("someFace"), Set.of(new FaceId(EXPECTED_FACE_ID)), 80.0))
+            .hasValue(emptySet());
+    }
+
+    @Test
+    void findMatchesAmongReturnsEmptyIfSearchTruncated() {
+
+        when(awsClient.searchFaces(any(SearchFacesRequest.class))).thenReturn(matchingFaces(
+            IntStream.range(0, MAX_SEARCH_FACES).mapToObj(i -> "face" + i).toArray(String[]::new)));
+
+        assertThat(client.findMatchesAmong(new FaceId("someFace"), Set.of(new FaceId(EXPECTED_FACE_ID)), 80.0))
+            .isEmpty();
+    }
+
     @Test
     void getSimilarity() {
 
@@ -204,6 +246,19 @@ class AwsImageRecognitionClientTest {
             .build();
     }
 
+    private SearchFacesResponse matchingFaces(final String... faceIds) {
+        return SearchFacesResponse.builder()
+            .faceMatches(stream(faceIds)
+                .map(faceId -> software.amazon.awssdk.services.rekognition.model.FaceMatch.builder()
+                    .similarity(97.89f)
+                    .face(Face.builder()
+                        .faceId(faceId)
+                        .build())
+                    .build())
+                .collect(toList()))
+            .build();
+    }
+
     private SearchFacesResponse noMatchingFace() {
         return SearchFacesResponse.builder().build();
     }
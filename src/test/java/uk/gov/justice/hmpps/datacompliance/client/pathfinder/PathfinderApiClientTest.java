@@ -70,4 +70,26 @@ class PathfinderApiClientTest {
             .isInstanceOf(WebClientResponseException.class)
             .hasMessageContaining("I'm a teapot");
     }
+
+    @Test
+    void isReferredToPathfinderAsyncTrueWhenSuccessResponse() {
+
+        pathfinderApiMock.enqueue(new MockResponse()
+            .setResponseCode(HttpStatus.OK.value()));
+
+        assertThat(pathfinderApiClient.isReferredToPathfinderAsync(new OffenderNumber("A1234AA")).toFuture())
+            .succeedsWithin(Duration.ofSeconds(5))
+            .isEqualTo(true);
+    }
+
+    @Test
+    void isReferredToPathfinderAsyncFalseWhenNotFound() {
+
+        pathfinderApiMock.enqueue(new MockResponse()
+            .setResponseCode(HttpStatus.NOT_FOUND.value()));
+
+        assertThat(pathfinderApiClient.isReferredToPathfinderAsync(new OffenderNumber("A1234AA")).toFuture())
+            .succeedsWithin(Duration.ofSeconds(5))
+            .isEqualTo(false);
+    }
 }
@@ -0,0 +1,141 @@
+package uk.gov.justice.hmpps.datacompliance.client.prisonapi;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapImageDataCacheTest {
+
+    private static final long IMAGE_ID = 1L;
+    private static final int MAXIMUM_BYTES = 100;
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OffHeapImageDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OffHeapImageDataCache(MAXIMUM_BYTES, meterRegistry);
+    }
+
+    @Test
+    void getCachesImageData() {
+
+        assertThat(cache.get(IMAGE_ID, () -> lookup(new byte[]{0x01, 0x02}))).contains(new byte[]{0x01, 0x02});
+        assertThat(cache.get(IMAGE_ID, () -> lookup(new byte[]{0x03}))).contains(new byte[]{0x01, 0x02});
+
+        assertThat(lookups).hasValue(1);
+        assertThat(cache.getStatistics().hitCount()).isEqualTo(1);
+        assertThat(cache.getStatistics().missCount()).isEqualTo(1);
+        assertThat(cache.getCachedBytes()).isEqualTo(2);
+    }
+
+    @Test
+    void getDoesNotCacheMissingImageData() {
+
+        assertThat(cache.get(IMAGE_ID, Optional::empty)).isEmpty();
+        assertThat(cache.get(IMAGE_ID, () -> lookup(new byte[]{0x01}))).contains(new byte[]{0x01});
+
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    void concurrentMissesLookUpImageDataOnce() throws Exception {
+
+        final var lookupStarted = new CountDownLatch(1);
+        final var releaseLookup = new CountDownLatch(1);
+
+        final var first = CompletableFuture.supplyAsync(() -> cache.get(IMAGE_ID, () -> {
+            lookupStarted.countDown();
+            await(releaseLookup);
+            return lookup(new byte[]{0x01});
+        }));
+
+        assertThat(lookupStarted.await(1, TimeUnit.SECONDS)).isTrue();
+
+        final var second = CompletableFuture.supplyAsync(() -> cache.get(IMAGE_ID, () -> lookup(new byte[]{0x02})));
+
+        Thread.sleep(100);
+        releaseLookup.countDown();
+
+        assertThat(first.get(1, TimeUnit.SECONDS)).contains(new byte[]{0x01});
+        assertThat(second.get(1, TimeUnit.SECONDS)).contains(new byte[]{0x01});
+        assertThat(lookups).hasValue(1);
+        assertThat(cache.getCachedBytes()).isEqualTo(1);
+    }
+
+    @Test
+    void getPropagatesLookupFailure() {
+
+        assertThatThrownBy(() -> cache.get(IMAGE_ID, () -> {
+            throw new IllegalStateException("Failed!");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("Failed!");
+
+        assertThat(cache.get(IMAGE_ID, () -> lookup(new byte[]{0x01}))).contains(new byte[]{0x01});
+    }
+
+    @Test
+    void getReturnsCopyOfCachedData() {
+
+        cache.get(IMAGE_ID, () -> lookup(new byte[]{0x01}));
+        cache.get(IMAGE_ID, () -> lookup(new byte[]{0x02})).orElseThrow()[0] = 0x09;
+
+        assertThat(cache.get(IMAGE_ID, () -> lookup(new byte[]{0x02}))).contains(new byte[]{0x01});
+    }
+
+    @Test
+    void evictsImagesOverBudget() {
+
+        for (long imageId = 0; imageId < 10; imageId++) {
+            cache.get(imageId, () -> lookup(new byte[40]));
+        }
+
+        assertThat(cache.getCachedBytes()).isLessThanOrEqualTo(MAXIMUM_BYTES);
+        assertThat(cache.getStatistics().evictionCount()).isGreaterThanOrEqualTo(7);
+    }
+
+    @Test
+    void invalidateAll() {
+
+        cache.get(IMAGE_ID, () -> lookup(new byte[10]));
+        cache.invalidateAll();
+        cache.get(IMAGE_ID, () -> lookup(new byte[10]));
+
+        assertThat(lookups).hasValue(2);
+        assertThat(cache.getCachedBytes()).isEqualTo(10);
+    }
+
+    @Test
+    void recordsBytesSaved() {
+
+        cache.get(IMAGE_ID, () -> lookup(new byte[10]));
+        cache.get(IMAGE_ID, () -> lookup(new byte[10]));
+        cache.get(IMAGE_ID, () -> lookup(new byte[10]));
+
+        assertThat(meterRegistry.get("data_compliance.image.data.cache.bytes.saved").counter().count()).isEqualTo(20);
+        assertThat(meterRegistry.get("data_compliance.image.data.cache.bytes").gauge().value()).isEqualTo(10);
+    }
+
+    private Optional<byte[]> lookup(final byte[] data) {
+        lookups.incrementAndGet();
+        return Optional.of(data);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        } catch (final InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -45,7 +45,8 @@ class PrisonApiClientTest {
                 .prisonApiOffenderIdsIterationThreads(1)
                 .prisonApiOffenderIdsLimit(PAGE_LIMIT)
                 .prisonApiOffenderIdsInitialOffset(0L)
-                .build());
+                .build(),
+            new NoOpImageDataCache());
     }
 
     @AfterEach
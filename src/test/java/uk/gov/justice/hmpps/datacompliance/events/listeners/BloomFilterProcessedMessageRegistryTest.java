@@ -0,0 +1,120 @@
+package uk.gov.justice.hmpps.datacompliance.events.listeners;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.message.ProcessedMessageRepository;
+import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BloomFilterProcessedMessageRegistryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    @Mock
+    private ProcessedMessageRepository repository;
+
+    private BloomFilterProcessedMessageRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new BloomFilterProcessedMessageRegistry(repository, TimeSource.of(NOW), RETENTION, 1000, 0.01);
+    }
+
+    @Test
+    void isProcessedLooksUpMessageBeforeFilterLoaded() {
+
+        when(repository.existsById("message1")).thenReturn(true);
+
+        assertThat(registry.isProcessed("message1")).isTrue();
+    }
+
+    @Test
+    void isProcessedDoesNotLookUpMessageNotInFilter() {
+
+        when(repository.findMessageIdsProcessedSince(NOW.minus(RETENTION))).thenReturn(Stream.of("message1"));
+
+        registry.refresh();
+
+        assertThat(registry.isProcessed("message2")).isFalse();
+        verify(repository, never()).existsById(any());
+    }
+
+    @Test
+    void isProcessedLooksUpMessageInFilter() {
+
+        when(repository.findMessageIdsProcessedSince(NOW.minus(RETENTION))).thenReturn(Stream.of("message1"));
+        when(repository.existsById("message1")).thenReturn(true);
+
+        registry.refresh();
+
+        assertThat(registry.isProcessed("message1")).isTrue();
+    }
+
+    @Test
+    void recordProcessed() {
+
+        when(repository.findMessageIdsProcessedSince(NOW.minus(RETENTION))).thenReturn(Stream.of());
+        when(repository.existsById("message1")).thenReturn(true);
+
+        registry.refresh();
+
+        assertThat(registry.recordProcessed("message1", "SOME_EVENT")).isTrue();
+        verify(repository).insert("message1", "SOME_EVENT", NOW);
+        assertThat(registry.isProcessed("message1")).isTrue();
+    }
+
+    @Test
+    void recordProcessedReturnsFalseIfAlreadyRecorded() {
+
+        doThrow(new DataIntegrityViolationException("Duplicate key"))
+            .when(repository).insert(eq("message1"), eq("SOME_EVENT"), any());
+
+        assertThat(registry.recordProcessed("message1", "SOME_EVENT")).isFalse();
+    }
+
+    @Test
+    void refreshAddsMessagesRecordedByOtherInstances() {
+
+        when(repository.findMessageIdsProcessedSince(NOW.minus(RETENTION))).thenReturn(Stream.of());
+        when(repository.findMessageIdsProcessedSince(NOW.minusMinutes(1))).thenReturn(Stream.of("message1"));
+        when(repository.existsById("message1")).thenReturn(true);
+
+        registry.refresh();
+        assertThat(registry.isProcessed("message1")).isFalse();
+
+        registry.refresh();
+        assertThat(registry.isProcessed("message1")).isTrue();
+    }
+
+    @Test
+    void purgeRemovesExpiredMessagesAndRebuildsFilter() {
+
+        when(repository.findMessageIdsProcessedSince(NOW.minus(RETENTION)))
+            .thenReturn(Stream.of("message1"))
+            .thenReturn(Stream.of());
+
+        registry.refresh();
+        registry.purge();
+
+        verify(repository).deleteProcessedBefore(NOW.minus(RETENTION));
+        assertThat(registry.isProcessed("message1")).isFalse();
+        verify(repository, never()).existsById(any());
+    }
+}
@@ -1,13 +1,19 @@
 package uk.gov.justice.hmpps.datacompliance.events.listeners;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jms.support.JmsHeaders;
 import org.springframework.messaging.Message;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.messaging.MessageHeaders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.AdHocOffenderDeletion;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DataDuplicateResult;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DeceasedOffenderDeletionResult;
@@ -22,21 +28,35 @@ import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderPendingD
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderPendingDeletionReferralComplete;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderRestrictionResult;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.ProvisionalDeletionReferralResult;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution;
 import uk.gov.justice.hmpps.datacompliance.services.deletion.DeceasedDeletionService;
 import uk.gov.justice.hmpps.datacompliance.services.deletion.DeletionService;
 import uk.gov.justice.hmpps.datacompliance.services.deletion.OffenderNoBookingDeletionService;
+import uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics;
 import uk.gov.justice.hmpps.datacompliance.services.referral.ReferralService;
 import uk.gov.justice.hmpps.datacompliance.services.retention.RetentionService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.DATABASE;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.ID;
@@ -59,11 +79,33 @@ class DataComplianceEventListenerTest {
     @Mock
     private RetentionService retentionService;
 
+    @Mock
+    private ProcessedMessageRegistry processedMessages;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private DataComplianceEventListener listener;
 
     @BeforeEach
     void setUp() {
-        listener = new DataComplianceEventListener(new ObjectMapper(), referralService, retentionService, deletionService, deceasedDeletionService, offenderNoBookingDeletionService);
+        listener = new DataComplianceEventListener(new ObjectMapper(), referralService, retentionService, deletionService, deceasedDeletionService, offenderNoBookingDeletionService, new DataComplianceMetrics(new SimpleMeterRegistry()), processedMessages, transactionManager, new DeletionResultReader(new ObjectMapper()), DataComplianceProperties.builder().build());
+    }
+
+    @Test
+    void handleEventInPartitionedLane() {
+
+        listener = new DataComplianceEventListener(new ObjectMapper(), referralService, retentionService, deletionService, deceasedDeletionService, offenderNoBookingDeletionService, new DataComplianceMetrics(new SimpleMeterRegistry()), processedMessages, transactionManager, new DeletionResultReader(new ObjectMapper()),
+            DataComplianceProperties.builder().responseQueuePartitions(4).build());
+
+        handleMessage("""
+                {
+                  "offenderIdDisplay": "A1234AA",
+                  "referralId": 123
+                }""",
+            Map.of("eventType", "DATA_COMPLIANCE_OFFENDER-DELETION-COMPLETE"));
+
+        verify(deletionService).handleDeletionComplete(new OffenderDeletionComplete("A1234AA", 123L));
     }
 
     @Test
@@ -229,6 +271,26 @@ class DataComplianceEventListenerTest {
         verify(retentionService).handleFreeTextSearchResult(new FreeTextSearchResult("A1234AA", 123L, List.of("TABLE1")));
     }
 
+    @Test
+    void handleFreeTextSearchResultRetriesOnConflict() {
+
+        final var result = new FreeTextSearchResult("A1234AA", 123L, List.of());
+
+        doThrow(new ObjectOptimisticLockingFailureException(ReferralResolution.class, 1L))
+            .doNothing()
+            .when(retentionService).handleFreeTextSearchResult(result);
+
+        handleMessage("""
+                {
+                  "offenderIdDisplay": "A1234AA",
+                  "retentionCheckId": 123,
+                  "matchingTables": []
+                }""",
+            Map.of("eventType", "DATA_COMPLIANCE_FREE-TEXT-MORATORIUM-RESULT"));
+
+        verify(retentionService, times(2)).handleFreeTextSearchResult(result);
+    }
+
     @Test
     void handleOffenderRestrictionResult() {
         handleMessage("""
@@ -245,6 +307,10 @@ class DataComplianceEventListenerTest {
     @Test
     void handleDeceasedOffenderDeletionResult() {
 
+        final var deceasedOffenders = new ArrayList<DeceasedOffender>();
+        doAnswer(invocation -> deceasedOffenders.addAll(invocation.<Stream<DeceasedOffender>>getArgument(1).collect(toList())))
+            .when(deceasedDeletionService).handleDeceasedOffenderDeletionResult(eq(12345L), any());
+
         handleMessage(
             """
                 {
@@ -272,7 +338,7 @@ class DataComplianceEventListenerTest {
                 }""",
             Map.of("eventType", "DATA_COMPLIANCE_DECEASED-OFFENDER-DELETION-RESULT"));
 
-        verify(deceasedDeletionService).handleDeceasedOffenderDeletionResult(new DeceasedOffenderDeletionResult(12345L, List.of(
+        assertThat(deceasedOffenders).containsExactly(
             DeceasedOffender.builder()
                 .offenderIdDisplay("A1234AA")
                 .firstName("Bob")
@@ -283,12 +349,16 @@ class DataComplianceEventListenerTest {
                 .deceasedDate(LocalDate.of(2020, 8, 18))
                 .deletionDateTime(LocalDateTime.of(2021, 8, 18, 12, 56, 31))
                 .offenderAlias(DeceasedOffenderDeletionResult.OffenderAlias.builder().offenderId(123L).offenderBookId(321L).build())
-                .build())));
+                .build());
     }
 
     @Test
     void handleOffenderNoBookingDeletionResult() {
 
+        final var offenders = new ArrayList<Offender>();
+        doAnswer(invocation -> offenders.addAll(invocation.<Stream<Offender>>getArgument(1).collect(toList())))
+            .when(offenderNoBookingDeletionService).handleOffenderNoBookingDeletionResult(eq(12345L), any());
+
         handleMessage(
             """
                 {
@@ -311,7 +381,7 @@ class DataComplianceEventListenerTest {
                 }""",
             Map.of("eventType", "DATA_COMPLIANCE_OFFENDER-NO-BOOKING-DELETION-RESULT"));
 
-        verify(offenderNoBookingDeletionService).handleOffenderNoBookingDeletionResult(new OffenderNoBookingDeletionResult(12345L, List.of(
+        assertThat(offenders).containsExactly(
             Offender.builder()
                 .offenderIdDisplay("A1234AA")
                 .firstName("Bob")
@@ -320,7 +390,7 @@ class DataComplianceEventListenerTest {
                 .birthDate(LocalDate.of(1990, 1, 2))
                 .deletionDateTime(LocalDateTime.of(2021, 8, 18, 12, 56, 31))
                 .offenderAlias(OffenderNoBookingDeletionResult.OffenderAlias.builder().offenderId(123L).build())
-                .build())));
+                .build());
     }
 
     @Test
@@ -350,6 +420,89 @@ class DataComplianceEventListenerTest {
             .hasMessage("argument \"content\" is null");
     }
 
+    @Test
+    void handleEventRecordsMessageAsProcessed() {
+
+        when(processedMessages.recordProcessed("ID:message1", "DATA_COMPLIANCE_OFFENDER-DELETION-COMPLETE")).thenReturn(true);
+
+        handleMessage("""
+                {
+                  "offenderIdDisplay": "A1234AA",
+                  "referralId": 123
+                }""",
+            Map.of("eventType", "DATA_COMPLIANCE_OFFENDER-DELETION-COMPLETE", JmsHeaders.MESSAGE_ID, "ID:message1"));
+
+        final var inOrder = inOrder(processedMessages, deletionService, transactionManager);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(processedMessages).recordProcessed("ID:message1", "DATA_COMPLIANCE_OFFENDER-DELETION-COMPLETE");
+        inOrder.verify(deletionService).handleDeletionComplete(new OffenderDeletionComplete("A1234AA", 123L));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void handleEventIgnoresMessageRecordedByConcurrentDelivery() {
+
+        final var status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(processedMessages.recordProcessed("ID:message1", "DATA_COMPLIANCE_OFFENDER-DELETION-COMPLETE")).thenReturn(false);
+
+        handleMessage("""
+                {
+                  "offenderIdDisplay": "A1234AA",
+                  "referralId": 123
+                }""",
+            Map.of("eventType", "DATA_COMPLIANCE_OFFENDER-DELETION-COMPLETE", JmsHeaders.MESSAGE_ID, "ID:message1"));
+
+        verifyNoInteractions(deletionService);
+        assertThat(status.isRollbackOnly()).isTrue();
+    }
+
+    @Test
+    void handleDeletionResultRecordsMessageOnceHandled() {
+
+        handleMessage("""
+                {
+                  "batchId": 12345,
+                  "deceasedOffenders": []
+                }""",
+            Map.of("eventType", "DATA_COMPLIANCE_DECEASED-OFFENDER-DELETION-RESULT", JmsHeaders.MESSAGE_ID, "ID:message1"));
+
+        final var inOrder = inOrder(processedMessages, deceasedDeletionService, transactionManager);
+        inOrder.verify(deceasedDeletionService).handleDeceasedOffenderDeletionResult(eq(12345L), any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(processedMessages).recordProcessed("ID:message1", "DATA_COMPLIANCE_DECEASED-OFFENDER-DELETION-RESULT");
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void handleEventIgnoresMessageAlreadyProcessed() {
+
+        when(processedMessages.isProcessed("ID:message1")).thenReturn(true);
+
+        handleMessage("""
+                {
+                  "offenderIdDisplay": "A1234AA",
+                  "referralId": 123
+                }""",
+            Map.of("eventType", "DATA_COMPLIANCE_OFFENDER-DELETION-COMPLETE", JmsHeaders.MESSAGE_ID, "ID:message1"));
+
+        verifyNoInteractions(deletionService);
+        verify(processedMessages, never()).recordProcessed(any(), any());
+    }
+
+    @Test
+    void handleEventRollsBackRecordOfMessageIfHandlingFails() {
+
+        when(processedMessages.recordProcessed("ID:message1", "DATA_COMPLIANCE_OFFENDER-PENDING-DELETION")).thenReturn(true);
+
+        assertThatThrownBy(() -> handleMessage("BAD MESSAGE!",
+            Map.of("eventType", "DATA_COMPLIANCE_OFFENDER-PENDING-DELETION", JmsHeaders.MESSAGE_ID, "ID:message1")))
+            .isInstanceOf(RuntimeException.class);
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
     @Test
     void handleEventThrowsIfMessageUnparsable() {
         assertThatThrownBy(() -> handleMessage("BAD MESSAGE!", Map.of("eventType", "DATA_COMPLIANCE_OFFENDER-PENDING-DELETION")))
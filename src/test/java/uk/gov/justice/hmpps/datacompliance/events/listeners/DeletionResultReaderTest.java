@@ -0,0 +1,115 @@
+package uk.gov.justice.hmpps.datacompliance.events.listeners;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderNoBookingDeletionResult.Offender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeletionResultReaderTest {
+
+    private final DeletionResultReader reader = new DeletionResultReader(new ObjectMapper());
+
+    @Test
+    void readSkipsOtherFields() {
+
+        final var offenders = read("""
+            {
+              "other": { "nested": [1, 2, 3] },
+              "batchId": 123,
+              "offenders": [
+                { "offenderIdDisplay": "A1234AA", "unknown": { "a": 1 } },
+                { "offenderIdDisplay": "B1234BB" }
+              ]
+            }""");
+
+        assertThat(offenders.batchId).isEqualTo(123L);
+        assertThat(offenders.offenderNumbers).containsExactly("A1234AA", "B1234BB");
+    }
+
+    @Test
+    void readBatchIdFollowingOffenders() {
+
+        final var offenders = read("""
+            {
+              "offenders": [
+                { "offenderIdDisplay": "A1234AA" }
+              ],
+              "batchId": 123
+            }""");
+
+        assertThat(offenders.batchId).isEqualTo(123L);
+        assertThat(offenders.offenderNumbers).containsExactly("A1234AA");
+    }
+
+    @Test
+    void readMissingOffenders() {
+
+        final var offenders = read("""
+            {
+              "batchId": 123
+            }""");
+
+        assertThat(offenders.batchId).isEqualTo(123L);
+        assertThat(offenders.offenderNumbers).isEmpty();
+    }
+
+    @Test
+    void readNullOffenders() {
+
+        final var offenders = read("""
+            {
+              "batchId": 123,
+              "offenders": null
+            }""");
+
+        assertThat(offenders.offenderNumbers).isEmpty();
+    }
+
+    @Test
+    void readThrowsIfUnparsable() {
+        assertThatThrownBy(() -> read("""
+            {
+              "batchId": 123,
+              "offenders": [
+                { "offenderIdDisplay": "A1234AA" },
+                BAD
+              ]
+            }"""))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Failed to parse request");
+    }
+
+    @Test
+    void readThrowsIfOffendersNotAnArray() {
+        assertThatThrownBy(() -> read("""
+            {
+              "batchId": 123,
+              "offenders": "A1234AA"
+            }"""))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Failed to parse request");
+    }
+
+    private ReadOffenders read(final String json) {
+
+        final var result = new ReadOffenders();
+
+        reader.read(json, "offenders", Offender.class, (batchId, offenders) -> {
+            result.batchId = batchId;
+            result.offenderNumbers.addAll(offenders.map(Offender::getOffenderIdDisplay).collect(toList()));
+        });
+
+        return result;
+    }
+
+    private static class ReadOffenders {
+        private Long batchId;
+        private final List<String> offenderNumbers = new ArrayList<>();
+    }
+}
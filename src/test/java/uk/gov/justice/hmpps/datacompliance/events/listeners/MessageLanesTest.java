@@ -0,0 +1,114 @@
+package uk.gov.justice.hmpps.datacompliance.events.listeners;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageLanesTest {
+
+    // Keys with hash codes that fall in different lanes of two:
+    private static final String KEY_1 = "A";
+    private static final String KEY_2 = "B";
+
+    private final MessageLanes lanes = new MessageLanes(2);
+
+    @Test
+    void handlesMessagesWithSameKeyInTurn() throws Exception {
+
+        final var firstStarted = new CountDownLatch(1);
+        final var releaseFirst = new CountDownLatch(1);
+        final var secondHandled = new AtomicBoolean();
+
+        final var first = CompletableFuture.runAsync(() -> lanes.handle(KEY_1, () -> {
+            firstStarted.countDown();
+            await(releaseFirst);
+        }));
+
+        assertThat(firstStarted.await(1, TimeUnit.SECONDS)).isTrue();
+
+        final var second = CompletableFuture.runAsync(() -> lanes.handle(KEY_1, () -> secondHandled.set(true)));
+
+        Thread.sleep(100);
+        assertThat(secondHandled).isFalse();
+
+        releaseFirst.countDown();
+        first.get(1, TimeUnit.SECONDS);
+        second.get(1, TimeUnit.SECONDS);
+
+        assertThat(secondHandled).isTrue();
+    }
+
+    @Test
+    void handlesMessagesWithDifferentKeysInParallel() throws Exception {
+
+        final var secondHandled = new CountDownLatch(1);
+
+        final var first = CompletableFuture.runAsync(() -> lanes.handle(KEY_1, () -> await(secondHandled)));
+        final var second = CompletableFuture.runAsync(() -> lanes.handle(KEY_2, secondHandled::countDown));
+
+        second.get(1, TimeUnit.SECONDS);
+        first.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void waitsForBusyLaneInOrderOfArrival() throws Exception {
+
+        final var firstStarted = new CountDownLatch(1);
+        final var releaseFirst = new CountDownLatch(1);
+        final var handled = new CopyOnWriteArrayList<String>();
+
+        final var first = CompletableFuture.runAsync(() -> lanes.handle(KEY_1, () -> {
+            firstStarted.countDown();
+            await(releaseFirst);
+            handled.add("first");
+        }));
+
+        assertThat(firstStarted.await(1, TimeUnit.SECONDS)).isTrue();
+
+        final var second = CompletableFuture.runAsync(() -> lanes.handle(KEY_1, () -> handled.add("second")));
+        Thread.sleep(100);
+        final var third = CompletableFuture.runAsync(() -> lanes.handle(KEY_1, () -> handled.add("third")));
+
+        Thread.sleep(100);
+        assertThat(handled).isEmpty();
+
+        releaseFirst.countDown();
+        CompletableFuture.allOf(first, second, third).get(1, TimeUnit.SECONDS);
+
+        assertThat(handled).containsExactly("first", "second", "third");
+    }
+
+    @Test
+    void releasesLaneIfHandlerFails() {
+
+        assertThatThrownBy(() -> lanes.handle(KEY_1, () -> {
+            throw new IllegalStateException("Failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        final var handled = new AtomicBoolean();
+        lanes.handle(KEY_1, () -> handled.set(true));
+
+        assertThat(handled).isTrue();
+    }
+
+    @Test
+    void laneCountMustBePositive() {
+        assertThatThrownBy(() -> new MessageLanes(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        } catch (final InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package uk.gov.justice.hmpps.datacompliance.events.publishers.deletion.sqs;
 
 import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
 import com.amazonaws.services.sqs.model.SendMessageRequest;
 import com.amazonaws.services.sqs.model.SendMessageResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
 import uk.gov.justice.hmpps.datacompliance.dto.DeceasedOffenderDeletionRequest;
 import uk.gov.justice.hmpps.datacompliance.dto.OffenderDeletionGrant;
 import uk.gov.justice.hmpps.datacompliance.dto.OffenderDeletionReferralRequest;
@@ -17,18 +20,30 @@ import uk.gov.justice.hmpps.datacompliance.dto.OffenderNoBookingDeletionRequest;
 import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
 import uk.gov.justice.hmpps.datacompliance.events.publishers.sqs.DataComplianceAwsEventPusher;
 import uk.gov.justice.hmpps.datacompliance.events.publishers.sqs.DataComplianceEventPusher;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.outbox.OutboxMessageRepository;
+import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 import uk.gov.justice.hmpps.sqs.HmppsQueue;
 import uk.gov.justice.hmpps.sqs.HmppsQueueService;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.hmpps.datacompliance.events.publishers.dto.OffenderRestrictionCode.CHILD;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage.Status.PENDING;
 
 @ExtendWith(MockitoExtension.class)
 class DataComplianceAwsEventPusherTest {
@@ -42,6 +57,8 @@ class DataComplianceAwsEventPusherTest {
     private final static LocalDate REFERRAL_WINDOW_START = LocalDate.of(2020, 1, 2);
     private final static LocalDate REFERRAL_WINDOW_END = LocalDate.of(2020, 3, 4);
     private final static int REFERRAL_LIMIT = 10;
+    private final static LocalDateTime NOW = LocalDateTime.now();
+    private final static TimeSource TIME_SOURCE = TimeSource.of(NOW);
 
     @Mock
     HmppsQueueService hmppsQueueService;
@@ -52,15 +69,92 @@ class DataComplianceAwsEventPusherTest {
     @Mock
     private AmazonSQS client;
 
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
     private DataComplianceEventPusher eventPusher;
 
     @BeforeEach
     void setUp() throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-        eventPusher = new DataComplianceAwsEventPusher(hmppsQueueService, OBJECT_MAPPER);
+        eventPusher = new DataComplianceAwsEventPusher(hmppsQueueService, OBJECT_MAPPER, DataComplianceProperties.builder().build(), outboxMessageRepository, TIME_SOURCE);
         mockHmppsService();
         invokePostConstruct();
     }
 
+    @Test
+    void requestsAreBatchedIfEnabled() throws Exception {
+
+        eventPusher = new DataComplianceAwsEventPusher(hmppsQueueService, OBJECT_MAPPER, DataComplianceProperties.builder()
+            .requestQueueBatchingEnabled(true)
+            .requestQueueBatchLinger(Duration.ofMillis(10))
+            .build(), outboxMessageRepository, TIME_SOURCE);
+        invokePostConstruct();
+
+        final var request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+
+        when(client.sendMessageBatch(request.capture())).thenReturn(new SendMessageBatchResult());
+
+        eventPusher.requestIdDataDuplicateCheck(OFFENDER_NUMBER, 1L);
+        eventPusher.requestDatabaseDataDuplicateCheck(OFFENDER_NUMBER, 2L);
+
+        verify(client, timeout(1000)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        verify(client, never()).sendMessage(any(SendMessageRequest.class));
+
+        assertThat(request.getValue().getQueueUrl()).isEqualTo("queue.url");
+        assertThat(request.getValue().getEntries())
+            .extracting(entry -> entry.getMessageAttributes().get("eventType").getStringValue())
+            .containsExactly("DATA_COMPLIANCE_DATA-DUPLICATE-ID-CHECK", "DATA_COMPLIANCE_DATA-DUPLICATE-DB-CHECK");
+        assertThat(request.getValue().getEntries())
+            .extracting(entry -> entry.getMessageAttributes().get("contentType").getStringValue())
+            .containsOnly("application/json;charset=UTF-8");
+    }
+
+    @Test
+    void requestsAreSentAsynchronouslyIfEnabled() throws Exception {
+
+        eventPusher = new DataComplianceAwsEventPusher(hmppsQueueService, OBJECT_MAPPER, DataComplianceProperties.builder()
+            .requestQueueAsyncEnabled(true)
+            .requestQueueMaxInFlight(2)
+            .build(), outboxMessageRepository, TIME_SOURCE);
+        invokePostConstruct();
+
+        final var request = ArgumentCaptor.forClass(SendMessageRequest.class);
+
+        when(client.sendMessage(request.capture()))
+            .thenReturn(new SendMessageResult().withMessageId("message1"));
+
+        eventPusher.requestIdDataDuplicateCheck(OFFENDER_NUMBER, 1L).get(1, TimeUnit.SECONDS);
+
+        assertThat(request.getValue().getQueueUrl()).isEqualTo("queue.url");
+        assertThat(request.getValue().getMessageAttributes().get("eventType").getStringValue())
+            .isEqualTo("DATA_COMPLIANCE_DATA-DUPLICATE-ID-CHECK");
+    }
+
+    @Test
+    void requestsAreWrittenToOutboxIfEnabled() throws Exception {
+
+        eventPusher = new DataComplianceAwsEventPusher(hmppsQueueService, OBJECT_MAPPER, DataComplianceProperties.builder()
+            .requestQueueOutboxEnabled(true)
+            .build(), outboxMessageRepository, TIME_SOURCE);
+        invokePostConstruct();
+
+        final var message = ArgumentCaptor.forClass(OutboxMessage.class);
+
+        assertThat(eventPusher.requestIdDataDuplicateCheck(OFFENDER_NUMBER, 1L)).isCompleted();
+
+        verify(outboxMessageRepository).save(message.capture());
+        verifyNoInteractions(client);
+
+        assertThat(message.getValue().getEventType()).isEqualTo("DATA_COMPLIANCE_DATA-DUPLICATE-ID-CHECK");
+        assertThat(message.getValue().getMessageBody()).isEqualToIgnoringWhitespace("""
+            {
+              "offenderIdDisplay": "A1234AA",
+              "retentionCheckId": 1
+            }""");
+        assertThat(message.getValue().getStatus()).isEqualTo(PENDING);
+        assertThat(message.getValue().getCreatedDateTime()).isEqualTo(NOW);
+    }
+
     @Test
     void requestReferral() {
 
@@ -0,0 +1,87 @@
+package uk.gov.justice.hmpps.datacompliance.events.publishers.sqs;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncSqsSenderTest {
+
+    private static final SendMessageRequest REQUEST = new SendMessageRequest("queue.url", "body");
+
+    @Mock
+    private AmazonSQS client;
+
+    private AsyncSqsSender sender;
+
+    @BeforeEach
+    void setUp() {
+        sender = new AsyncSqsSender(client, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.close();
+    }
+
+    @Test
+    void send() throws Exception {
+
+        when(client.sendMessage(REQUEST)).thenReturn(new SendMessageResult().withMessageId("message1"));
+
+        sender.send(REQUEST).get(1, TimeUnit.SECONDS);
+
+        verify(client).sendMessage(REQUEST);
+    }
+
+    @Test
+    void sendCompletesExceptionallyOnFailure() {
+
+        when(client.sendMessage(REQUEST)).thenThrow(new IllegalStateException("Unavailable"));
+
+        assertThatThrownBy(() -> sender.send(REQUEST).get(1, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void sendWaitsOnceMaximumInFlight() throws Exception {
+
+        final var firstSendStarted = new CountDownLatch(1);
+        final var releaseFirstSend = new CountDownLatch(1);
+
+        when(client.sendMessage(any(SendMessageRequest.class))).thenAnswer(invocation -> {
+            firstSendStarted.countDown();
+            releaseFirstSend.await(1, TimeUnit.SECONDS);
+            return new SendMessageResult();
+        });
+
+        final var firstSend = sender.send(REQUEST);
+        firstSendStarted.await(1, TimeUnit.SECONDS);
+
+        final var secondSend = CompletableFuture.supplyAsync(() -> sender.send(REQUEST));
+
+        Thread.sleep(100);
+        assertThat(secondSend).isNotDone();
+
+        releaseFirstSend.countDown();
+
+        firstSend.get(1, TimeUnit.SECONDS);
+        secondSend.get(1, TimeUnit.SECONDS).get(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,171 @@
+package uk.gov.justice.hmpps.datacompliance.events.publishers.sqs;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.AmazonSQSException;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.outbox.OutboxMessageRepository;
+import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
+import uk.gov.justice.hmpps.sqs.HmppsQueue;
+import uk.gov.justice.hmpps.sqs.HmppsQueueService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.hmpps.datacompliance.events.publishers.sqs.SqsMessageBatcher.MAX_BATCH_SIZE;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage.Status.FAILED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage.Status.PENDING;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.outbox.OutboxMessage.Status.SENT;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final PageRequest BATCH = PageRequest.of(0, MAX_BATCH_SIZE);
+
+    @Mock
+    private HmppsQueueService hmppsQueueService;
+
+    @Mock
+    private HmppsQueue hmppsQueue;
+
+    @Mock
+    private AmazonSQS client;
+
+    @Mock
+    private OutboxMessageRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(hmppsQueueService.findByQueueId("datacompliancerequest")).thenReturn(hmppsQueue);
+        when(hmppsQueue.getSqsClient()).thenReturn(client);
+        when(hmppsQueue.getQueueUrl()).thenReturn("queue.url");
+
+        relay = new OutboxRelay(hmppsQueueService, repository, transactionManager, TimeSource.of(NOW), Duration.ofDays(7));
+        relay.initialise();
+    }
+
+    @Test
+    void relaySendsPendingMessagesInOrder() {
+
+        final var messages = List.of(message(1), message(2));
+        final var request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+
+        when(repository.findByStatusOrderByOutboxMessageId(PENDING, BATCH)).thenReturn(messages);
+        when(client.sendMessageBatch(request.capture())).thenReturn(new SendMessageBatchResult());
+
+        relay.relay();
+
+        assertThat(request.getValue().getQueueUrl()).isEqualTo("queue.url");
+        assertThat(request.getValue().getEntries())
+            .extracting(entry -> entry.getId() + ":" + entry.getMessageBody())
+            .containsExactly("1:body1", "2:body2");
+        assertThat(request.getValue().getEntries())
+            .extracting(entry -> entry.getMessageAttributes().get("eventType").getStringValue())
+            .containsOnly("SOME_EVENT");
+
+        assertThat(messages).extracting(OutboxMessage::getStatus).containsOnly(SENT);
+        assertThat(messages).extracting(OutboxMessage::getSentDateTime).containsOnly(NOW);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void relayDrainsOutboxBatchByBatch() {
+
+        final var firstBatch = LongStream.rangeClosed(1, MAX_BATCH_SIZE).mapToObj(this::message).collect(Collectors.toList());
+        final var secondBatch = List.of(message(MAX_BATCH_SIZE + 1));
+
+        when(repository.findByStatusOrderByOutboxMessageId(PENDING, BATCH)).thenReturn(firstBatch, secondBatch);
+        when(client.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(new SendMessageBatchResult());
+
+        relay.relay();
+
+        verify(client, times(2)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        assertThat(secondBatch).extracting(OutboxMessage::getStatus).containsOnly(SENT);
+    }
+
+    @Test
+    void relayLeavesMessagesThatCanBeRetriedPending() {
+
+        final var messages = List.of(message(1), message(2), message(3));
+
+        when(repository.findByStatusOrderByOutboxMessageId(PENDING, BATCH)).thenReturn(messages);
+        when(client.sendMessageBatch(any(SendMessageBatchRequest.class))).thenReturn(new SendMessageBatchResult()
+            .withFailed(
+                new BatchResultErrorEntry().withId("2").withSenderFault(false).withCode("ServiceUnavailable"),
+                new BatchResultErrorEntry().withId("3").withSenderFault(true).withCode("InvalidMessageContents")));
+
+        relay.relay();
+
+        assertThat(messages).extracting(OutboxMessage::getStatus).containsExactly(SENT, PENDING, FAILED);
+    }
+
+    @Test
+    void relaySendsIndividuallyIfBatchFails() {
+
+        final var messages = List.of(message(1), message(2));
+
+        when(repository.findByStatusOrderByOutboxMessageId(PENDING, BATCH)).thenReturn(messages);
+        when(client.sendMessageBatch(any(SendMessageBatchRequest.class))).thenThrow(new AmazonSQSException("Batch failed"));
+        when(client.sendMessage(any(SendMessageRequest.class)))
+            .thenReturn(null)
+            .thenThrow(new AmazonSQSException("Send failed"));
+
+        relay.relay();
+
+        assertThat(messages).extracting(OutboxMessage::getStatus).containsExactly(SENT, PENDING);
+    }
+
+    @Test
+    void relayDoesNothingIfOutboxEmpty() {
+
+        when(repository.findByStatusOrderByOutboxMessageId(PENDING, BATCH)).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(client, never()).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void purgeDeletesSentMessagesPastRetention() {
+
+        relay.purge();
+
+        verify(repository).deleteByStatusSentBefore(SENT, NOW.minusDays(7));
+    }
+
+    private OutboxMessage message(final long id) {
+        return OutboxMessage.builder()
+            .outboxMessageId(id)
+            .eventType("SOME_EVENT")
+            .messageBody("body" + id)
+            .status(PENDING)
+            .createdDateTime(NOW.minusMinutes(1))
+            .build();
+    }
+}
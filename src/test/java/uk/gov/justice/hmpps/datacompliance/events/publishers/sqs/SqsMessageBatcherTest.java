@@ -0,0 +1,238 @@
+package uk.gov.justice.hmpps.datacompliance.events.publishers.sqs;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SqsMessageBatcherTest {
+
+    private static final String QUEUE_URL = "queue.url";
+
+    @Mock
+    private AmazonSQS client;
+
+    private SqsMessageBatcher batcher;
+
+    // Hold the first batch in flight, so that the messages that follow it are batched:
+    private final CountDownLatch held = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        batcher.close();
+    }
+
+    @Test
+    void sendsBatchOnceFull() throws Exception {
+
+        batcher = new SqsMessageBatcher(client, QUEUE_URL, Duration.ofMinutes(1));
+
+        final var request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        when(client.sendMessageBatch(request.capture())).then(holdUntilReleased()).thenReturn(new SendMessageBatchResult());
+
+        holdBatchInFlight();
+        IntStream.range(0, SqsMessageBatcher.MAX_BATCH_SIZE).forEach(i -> batcher.send(message("body" + i)));
+        release.countDown();
+
+        verify(client, timeout(1000).times(2)).sendMessageBatch(any(SendMessageBatchRequest.class));
+
+        final var batch = request.getAllValues().get(1);
+        assertThat(batch.getQueueUrl()).isEqualTo(QUEUE_URL);
+        assertThat(batch.getEntries()).hasSize(SqsMessageBatcher.MAX_BATCH_SIZE);
+        assertThat(batch.getEntries().get(0).getMessageBody()).isEqualTo("body0");
+        assertThat(batch.getEntries().get(0).getMessageAttributes().get("eventType").getStringValue())
+            .isEqualTo("SOME_EVENT");
+    }
+
+    @Test
+    void sendsMessageWithoutLingeringIfNoBatchIsInFlight() throws Exception {
+
+        batcher = new SqsMessageBatcher(client, QUEUE_URL, Duration.ofMinutes(1));
+
+        final var request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        when(client.sendMessageBatch(request.capture())).thenReturn(new SendMessageBatchResult());
+
+        batcher.send(message("body1")).get(1, TimeUnit.SECONDS);
+        batcher.send(message("body2")).get(1, TimeUnit.SECONDS);
+
+        assertThat(request.getAllValues()).extracting(batch -> batch.getEntries().size()).containsExactly(1, 1);
+    }
+
+    @Test
+    void sendsBatchAfterLingering() throws Exception {
+
+        batcher = new SqsMessageBatcher(client, QUEUE_URL, Duration.ofMillis(10));
+
+        final var request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        when(client.sendMessageBatch(request.capture())).then(holdUntilReleased()).thenReturn(new SendMessageBatchResult());
+
+        holdBatchInFlight();
+        final var sent = batcher.send(message("body1"));
+        batcher.send(message("body2"));
+        release.countDown();
+
+        sent.get(1, TimeUnit.SECONDS);
+
+        assertThat(request.getValue().getEntries())
+            .extracting(SendMessageBatchRequestEntry::getMessageBody)
+            .containsExactly("body1", "body2");
+    }
+
+    @Test
+    void sendsBatchBeforeExceedingMaximumSize() throws Exception {
+
+        batcher = new SqsMessageBatcher(client, QUEUE_URL, Duration.ofMinutes(1));
+
+        final var request = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        when(client.sendMessageBatch(request.capture())).then(holdUntilReleased()).thenReturn(new SendMessageBatchResult());
+
+        final var largeBody = "x".repeat(SqsMessageBatcher.MAX_BATCH_BYTES / 3);
+
+        holdBatchInFlight();
+        batcher.send(message(largeBody));
+        batcher.send(message(largeBody));
+        batcher.send(message(largeBody));
+        release.countDown();
+
+        verify(client, timeout(1000).times(2)).sendMessageBatch(any(SendMessageBatchRequest.class));
+
+        batcher.flush();
+
+        verify(client, times(3)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        assertThat(request.getAllValues()).extracting(batch -> batch.getEntries().size()).containsExactly(1, 2, 1);
+    }
+
+    @Test
+    void resendsFailedEntriesIndividually() throws Exception {
+
+        batcher = new SqsMessageBatcher(client, QUEUE_URL, Duration.ofMinutes(1));
+
+        when(client.sendMessageBatch(any(SendMessageBatchRequest.class))).then(holdUntilReleased()).thenReturn(new SendMessageBatchResult()
+            .withFailed(
+                new BatchResultErrorEntry().withId("1").withCode("ServiceUnavailable").withSenderFault(false),
+                new BatchResultErrorEntry().withId("2").withCode("InvalidMessageContents").withSenderFault(true)));
+
+        holdBatchInFlight();
+        final var resent = batcher.send(message("body1"));
+        final var rejected = batcher.send(message("body2"));
+        batcher.flush();
+        release.countDown();
+
+        final var request = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(client).sendMessage(request.capture());
+
+        assertThat(resent).isCompleted();
+        assertThat(rejected).isCompletedExceptionally();
+
+        assertThat(request.getValue().getQueueUrl()).isEqualTo(QUEUE_URL);
+        assertThat(request.getValue().getMessageBody()).isEqualTo("body1");
+        assertThat(request.getValue().getMessageAttributes().get("eventType").getStringValue()).isEqualTo("SOME_EVENT");
+    }
+
+    @Test
+    void sendsIndividuallyIfBatchCannotBeSent() throws Exception {
+
+        batcher = new SqsMessageBatcher(client, QUEUE_URL, Duration.ofMinutes(1));
+
+        when(client.sendMessageBatch(any(SendMessageBatchRequest.class))).then(holdUntilReleased()).thenThrow(new RuntimeException("Unavailable"));
+
+        holdBatchInFlight();
+        batcher.send(message("body1"));
+        batcher.send(message("body2"));
+        batcher.flush();
+        release.countDown();
+
+        final var request = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(client, times(2)).sendMessage(request.capture());
+
+        assertThat(request.getAllValues()).extracting(SendMessageRequest::getMessageBody).containsExactly("body1", "body2");
+    }
+
+    @Test
+    void failsMessageIfItCannotBeSentIndividually() {
+
+        batcher = new SqsMessageBatcher(client, QUEUE_URL, Duration.ofMinutes(1));
+
+        when(client.sendMessageBatch(any(SendMessageBatchRequest.class))).thenThrow(new RuntimeException("Unavailable"));
+        when(client.sendMessage(any(SendMessageRequest.class))).thenThrow(new RuntimeException("Still unavailable"));
+
+        final var sent = batcher.send(message("body1"));
+
+        assertThatThrownBy(() -> sent.get(1, TimeUnit.SECONDS)).hasRootCauseMessage("Still unavailable");
+    }
+
+    @Test
+    void closeSendsBufferedMessages() throws Exception {
+
+        batcher = new SqsMessageBatcher(client, QUEUE_URL, Duration.ofMinutes(1));
+
+        when(client.sendMessageBatch(any(SendMessageBatchRequest.class))).then(holdUntilReleased()).thenReturn(new SendMessageBatchResult());
+
+        holdBatchInFlight();
+        final var buffered = batcher.send(message("body1"));
+        release.countDown();
+        batcher.close();
+
+        assertThat(buffered).isCompleted();
+        verify(client, times(2)).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void failsMessagesSentOnceClosed() {
+
+        batcher = new SqsMessageBatcher(client, QUEUE_URL, Duration.ofMinutes(1));
+        batcher.close();
+
+        assertThat(batcher.send(message("body1"))).isCompletedExceptionally();
+        verifyNoInteractions(client);
+    }
+
+    private void holdBatchInFlight() throws InterruptedException {
+        batcher.send(message("in flight"));
+        assertThat(held.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private Answer<SendMessageBatchResult> holdUntilReleased() {
+        return invocation -> {
+            held.countDown();
+            assertThat(release.await(1, TimeUnit.SECONDS)).isTrue();
+            return new SendMessageBatchResult();
+        };
+    }
+
+    private SendMessageRequest message(final String body) {
+        return new SendMessageRequest()
+            .withQueueUrl(QUEUE_URL)
+            .withMessageAttributes(Map.of("eventType", new MessageAttributeValue()
+                .withDataType("String")
+                .withStringValue("SOME_EVENT")))
+            .withMessageBody(body);
+    }
+}
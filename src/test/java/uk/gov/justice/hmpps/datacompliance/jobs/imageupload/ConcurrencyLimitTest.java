@@ -0,0 +1,97 @@
+package uk.gov.justice.hmpps.datacompliance.jobs.imageupload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitTest {
+
+    @Test
+    void callsWaitForAPermitOnceTheLimitIsReached() throws Exception {
+
+        final var limit = ConcurrencyLimit.of(1);
+        final var firstStarted = new CountDownLatch(1);
+        final var releaseFirst = new CountDownLatch(1);
+        final var secondCalled = new AtomicBoolean();
+
+        final var first = CompletableFuture.runAsync(() -> limit.call(() -> {
+            firstStarted.countDown();
+            return await(releaseFirst);
+        }));
+
+        assertThat(firstStarted.await(1, TimeUnit.SECONDS)).isTrue();
+
+        final var second = CompletableFuture.runAsync(() -> limit.call(() -> {
+            secondCalled.set(true);
+            return null;
+        }));
+
+        Thread.sleep(100);
+        assertThat(secondCalled).isFalse();
+
+        releaseFirst.countDown();
+        first.get(1, TimeUnit.SECONDS);
+        second.get(1, TimeUnit.SECONDS);
+
+        assertThat(secondCalled).isTrue();
+    }
+
+    @Test
+    void callsInParallelUpToTheLimit() throws Exception {
+
+        final var limit = ConcurrencyLimit.of(2);
+        final var secondCalled = new CountDownLatch(1);
+
+        final var first = CompletableFuture.runAsync(() -> limit.call(() -> await(secondCalled)));
+        final var second = CompletableFuture.runAsync(() -> limit.call(() -> {
+            secondCalled.countDown();
+            return null;
+        }));
+
+        second.get(1, TimeUnit.SECONDS);
+        first.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void releasesPermitIfCallFails() {
+
+        final var limit = ConcurrencyLimit.of(1);
+
+        assertThatThrownBy(() -> limit.call(() -> {
+            throw new RuntimeException("Failed!");
+        })).hasMessage("Failed!");
+
+        assertThat(limit.call(() -> "called")).isEqualTo("called");
+    }
+
+    @Test
+    void zeroLimitLeavesCallsUnlimited() throws Exception {
+
+        final var limit = ConcurrencyLimit.of(0);
+        final var secondCalled = new CountDownLatch(1);
+
+        final var first = CompletableFuture.runAsync(() -> limit.call(() -> await(secondCalled)));
+        final var second = CompletableFuture.runAsync(() -> limit.call(() -> {
+            secondCalled.countDown();
+            return null;
+        }));
+
+        second.get(1, TimeUnit.SECONDS);
+        first.get(1, TimeUnit.SECONDS);
+    }
+
+    private static Object await(final CountDownLatch latch) {
+        try {
+            assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+            return null;
+        } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
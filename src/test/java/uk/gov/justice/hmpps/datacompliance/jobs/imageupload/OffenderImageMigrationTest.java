@@ -0,0 +1,201 @@
+package uk.gov.justice.hmpps.datacompliance.jobs.imageupload;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.ImageUploadBatch;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication.ImageUploadBatchRepository;
+import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OffenderImageMigrationTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(MILLIS);
+
+    @Mock
+    private OffenderIterator offenderIterator;
+
+    @Mock
+    private OffenderImageUploaderFactory uploaderFactory;
+
+    @Mock
+    private OffenderImageUploader imageUploader;
+
+    @Mock
+    private ImageUploadBatchRepository repository;
+
+    private OffenderImageMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new OffenderImageMigration(offenderIterator, uploaderFactory, repository, TimeSource.of(NOW));
+    }
+
+    @Test
+    void runStartsNewBatchIfLatestBatchIsComplete() {
+
+        final var newBatch = ImageUploadBatch.builder().batchId(2L).uploadStartDateTime(NOW).build();
+
+        when(repository.findFirstByOrderByUploadStartDateTimeDesc()).thenReturn(Optional.of(ImageUploadBatch.builder()
+            .batchId(1L)
+            .uploadEndDateTime(NOW.minusDays(1))
+            .checkpointOffset(100L)
+            .build()));
+        when(repository.save(any())).thenReturn(newBatch);
+        when(uploaderFactory.generateUploaderFor(newBatch)).thenReturn(imageUploader);
+        when(imageUploader.getUploadCount()).thenReturn(3L);
+
+        migration.run();
+
+        verify(offenderIterator).applyForAll(eq(newBatch), eq(imageUploader), any());
+        verify(imageUploader).close();
+        assertThat(newBatch.getUploadEndDateTime()).isEqualTo(NOW);
+        assertThat(newBatch.getUploadCount()).isEqualTo(3L);
+    }
+
+    @Test
+    void runResumesInterruptedBatch() {
+
+        final var interruptedBatch = ImageUploadBatch.builder()
+            .batchId(1L)
+            .uploadStartDateTime(NOW.minusHours(1))
+            .checkpointOffset(200L)
+            .uploadCount(5L)
+            .build();
+
+        when(repository.findFirstByOrderByUploadStartDateTimeDesc()).thenReturn(Optional.of(interruptedBatch));
+        when(uploaderFactory.generateUploaderFor(interruptedBatch)).thenReturn(imageUploader);
+        when(imageUploader.getUploadCount()).thenReturn(2L);
+
+        migration.run();
+
+        verify(offenderIterator).applyForAll(eq(interruptedBatch), eq(imageUploader), any());
+        verify(repository).save(interruptedBatch);
+        assertThat(interruptedBatch.getUploadStartDateTime()).isEqualTo(NOW.minusHours(1));
+        assertThat(interruptedBatch.getUploadEndDateTime()).isEqualTo(NOW);
+        assertThat(interruptedBatch.getUploadCount()).isEqualTo(7L);
+    }
+
+    @Test
+    void checkpointRecordsOffsetOnceUploadsAreWritten() {
+
+        final var batch = ImageUploadBatch.builder().batchId(1L).uploadStartDateTime(NOW).build();
+
+        when(repository.findFirstByOrderByUploadStartDateTimeDesc()).thenReturn(Optional.empty());
+        when(repository.save(any())).thenReturn(batch);
+        when(uploaderFactory.generateUploaderFor(batch)).thenReturn(imageUploader);
+        when(imageUploader.flush()).thenReturn(4L);
+
+        doAnswer(invocation -> {
+
+            invocation.<LongConsumer>getArgument(2).accept(100L);
+
+            verify(imageUploader).flush();
+            verify(repository).save(batch);
+            assertThat(batch.getCheckpointOffset()).contains(100L);
+            assertThat(batch.getUploadCount()).isEqualTo(4L);
+            assertThat(batch.isComplete()).isFalse();
+
+            return null;
+
+        }).when(offenderIterator).applyForAll(eq(batch), eq(imageUploader), any());
+
+        migration.run();
+
+        assertThat(batch.isComplete()).isTrue();
+    }
+
+    @Test
+    void checkpointIsNotRecordedIfUploadsCannotBeWritten() {
+
+        final var batch = ImageUploadBatch.builder().batchId(1L).uploadStartDateTime(NOW).build();
+
+        when(repository.findFirstByOrderByUploadStartDateTimeDesc()).thenReturn(Optional.empty());
+        when(repository.save(any())).thenReturn(batch);
+        when(uploaderFactory.generateUploaderFor(batch)).thenReturn(imageUploader);
+        when(imageUploader.flush()).thenThrow(new IllegalStateException("Unable to write 1 of 1 offender image uploads"));
+
+        doAnswer(invocation -> {
+            invocation.<LongConsumer>getArgument(2).accept(100L);
+            return null;
+        }).when(offenderIterator).applyForAll(eq(batch), eq(imageUploader), any());
+
+        assertThatThrownBy(() -> migration.run()).hasMessage("Unable to write 1 of 1 offender image uploads");
+
+        assertThat(batch.getCheckpointOffset()).isEmpty();
+        assertThat(batch.isComplete()).isFalse();
+    }
+
+    @Test
+    void failedCloseStillRecordsUploadCount() {
+
+        final var batch = ImageUploadBatch.builder().batchId(1L).uploadStartDateTime(NOW).build();
+
+        when(repository.findFirstByOrderByUploadStartDateTimeDesc()).thenReturn(Optional.empty());
+        when(repository.save(any())).thenReturn(batch);
+        when(uploaderFactory.generateUploaderFor(batch)).thenReturn(imageUploader);
+        when(imageUploader.getUploadCount()).thenReturn(3L);
+        doThrow(new IllegalStateException("Unable to write 1 of 4 offender image uploads")).when(imageUploader).close();
+
+        assertThatThrownBy(() -> migration.run()).hasMessage("Unable to write 1 of 4 offender image uploads");
+
+        verify(repository).save(batch);
+        assertThat(batch.getUploadCount()).isEqualTo(3L);
+    }
+
+    @Test
+    void failedRunRecordsUploadCountWithoutCompletingBatch() {
+
+        final var batch = ImageUploadBatch.builder().batchId(1L).uploadStartDateTime(NOW).build();
+
+        when(repository.findFirstByOrderByUploadStartDateTimeDesc()).thenReturn(Optional.empty());
+        when(repository.save(any())).thenReturn(batch);
+        when(uploaderFactory.generateUploaderFor(batch)).thenReturn(imageUploader);
+        when(imageUploader.getUploadCount()).thenReturn(3L);
+        doThrow(new RuntimeException("Failed!")).when(offenderIterator).applyForAll(eq(batch), eq(imageUploader), any());
+
+        assertThatThrownBy(() -> migration.run()).hasMessage("Failed!");
+
+        verify(imageUploader).close();
+        assertThat(batch.isComplete()).isFalse();
+        assertThat(batch.getUploadCount()).isEqualTo(3L);
+    }
+
+    @Test
+    void failedCloseDoesNotHideFailedRun() {
+
+        final var batch = ImageUploadBatch.builder().batchId(1L).uploadStartDateTime(NOW).build();
+        final var closeFailure = new IllegalStateException("Unable to write 1 of 4 offender image uploads");
+
+        when(repository.findFirstByOrderByUploadStartDateTimeDesc()).thenReturn(Optional.empty());
+        when(repository.save(any())).thenReturn(batch);
+        when(uploaderFactory.generateUploaderFor(batch)).thenReturn(imageUploader);
+        when(imageUploader.getUploadCount()).thenReturn(3L);
+        doThrow(new RuntimeException("Failed!")).when(offenderIterator).applyForAll(eq(batch), eq(imageUploader), any());
+        doThrow(closeFailure).when(imageUploader).close();
+
+        assertThatThrownBy(() -> migration.run())
+            .hasMessage("Failed!")
+            .hasSuppressedException(closeFailure);
+
+        verify(repository).save(batch);
+        assertThat(batch.isComplete()).isFalse();
+        assertThat(batch.getUploadCount()).isEqualTo(3L);
+    }
+}
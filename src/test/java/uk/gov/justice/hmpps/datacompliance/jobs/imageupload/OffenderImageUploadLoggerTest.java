@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.justice.hmpps.datacompliance.client.image.recognition.FaceId;
@@ -12,13 +13,31 @@ import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.ImageUploadBatch;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.OffenderImageUpload;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication.OffenderImageUploadRepository;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication.OffenderImageUploadRepository.UploadedImage;
 import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
 
 import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class OffenderImageUploadLoggerTest {
@@ -27,6 +46,8 @@ class OffenderImageUploadLoggerTest {
     private static final String OFFENDER_NUMBER = "A1234AA";
     private static final FaceId FACE_ID = new FaceId("face1");
     private static final long IMAGE_ID = 123L;
+    private static final String OTHER_OFFENDER_NUMBER = "B1234BB";
+    private static final long OTHER_IMAGE_ID = 456L;
 
     @Mock
     private OffenderImageUploadRepository repository;
@@ -34,11 +55,14 @@ class OffenderImageUploadLoggerTest {
     @Mock
     private ImageUploadBatch batch;
 
+    @Captor
+    private ArgumentCaptor<List<OffenderImageUpload>> uploads;
+
     private OffenderImageUploadLogger logger;
 
     @BeforeEach
     void setUp() {
-        logger = new OffenderImageUploadLogger(repository, batch, TimeSource.of(DATE_TIME));
+        logger = new OffenderImageUploadLogger(repository, batch, TimeSource.of(DATE_TIME), 1);
     }
 
     @Test
@@ -53,16 +77,15 @@ class OffenderImageUploadLoggerTest {
                 .build(),
             FACE_ID);
 
-        var offenderImageUpload = ArgumentCaptor.forClass(OffenderImageUpload.class);
-        verify(repository).save(offenderImageUpload.capture());
+        final var offenderImageUpload = writtenUpload();
 
-        assertThat(offenderImageUpload.getValue().getOffenderNo()).isEqualTo(OFFENDER_NUMBER);
-        assertThat(offenderImageUpload.getValue().getImageId()).isEqualTo(IMAGE_ID);
-        assertThat(offenderImageUpload.getValue().getFaceId()).isEqualTo(FACE_ID.getFaceId());
-        assertThat(offenderImageUpload.getValue().getUploadDateTime()).isEqualTo(DATE_TIME);
-        assertThat(offenderImageUpload.getValue().getImageUploadBatch()).isEqualTo(batch);
+        assertThat(offenderImageUpload.getOffenderNo()).isEqualTo(OFFENDER_NUMBER);
+        assertThat(offenderImageUpload.getImageId()).isEqualTo(IMAGE_ID);
+        assertThat(offenderImageUpload.getFaceId()).isEqualTo(FACE_ID.getFaceId());
+        assertThat(offenderImageUpload.getUploadDateTime()).isEqualTo(DATE_TIME);
+        assertThat(offenderImageUpload.getImageUploadBatch()).isEqualTo(batch);
 
-        assertThat(offenderImageUpload.getValue().getUploadErrorReason()).isNull();
+        assertThat(offenderImageUpload.getUploadErrorReason()).isNull();
 
         assertThat(logger.getUploadCount()).isEqualTo(1);
     }
@@ -74,17 +97,257 @@ class OffenderImageUploadLoggerTest {
 
         logger.logUploadError(new OffenderNumber(OFFENDER_NUMBER), IMAGE_ID, "some reason");
 
-        var offenderImageUpload = ArgumentCaptor.forClass(OffenderImageUpload.class);
-        verify(repository).save(offenderImageUpload.capture());
+        final var offenderImageUpload = writtenUpload();
 
-        assertThat(offenderImageUpload.getValue().getOffenderNo()).isEqualTo(OFFENDER_NUMBER);
-        assertThat(offenderImageUpload.getValue().getImageId()).isEqualTo(IMAGE_ID);
-        assertThat(offenderImageUpload.getValue().getUploadDateTime()).isEqualTo(DATE_TIME);
-        assertThat(offenderImageUpload.getValue().getImageUploadBatch()).isEqualTo(batch);
-        assertThat(offenderImageUpload.getValue().getUploadErrorReason()).isEqualTo("some reason");
+        assertThat(offenderImageUpload.getOffenderNo()).isEqualTo(OFFENDER_NUMBER);
+        assertThat(offenderImageUpload.getImageId()).isEqualTo(IMAGE_ID);
+        assertThat(offenderImageUpload.getUploadDateTime()).isEqualTo(DATE_TIME);
+        assertThat(offenderImageUpload.getImageUploadBatch()).isEqualTo(batch);
+        assertThat(offenderImageUpload.getUploadErrorReason()).isEqualTo("some reason");
 
-        assertThat(offenderImageUpload.getValue().getFaceId()).isNull();
+        assertThat(offenderImageUpload.getFaceId()).isNull();
 
         assertThat(logger.getUploadCount()).isZero();
     }
-}
\ No newline at end of file
+
+    @Test
+    void isAlreadyUploadedQueriesForOffendersNotPreloaded() {
+
+        when(repository.findByOffenderNoAndImageId(OFFENDER_NUMBER, IMAGE_ID))
+            .thenReturn(Optional.of(OffenderImageUpload.builder().build()));
+
+        assertThat(logger.isAlreadyUploaded(new OffenderNumber(OFFENDER_NUMBER), IMAGE_ID)).isTrue();
+    }
+
+    @Test
+    void isAlreadyUploadedUsesPreloadedImages() {
+
+        when(repository.findUploadedImagesByOffenderNoIn(Set.of(OFFENDER_NUMBER, OTHER_OFFENDER_NUMBER)))
+            .thenReturn(List.of(uploadedImage(OFFENDER_NUMBER, IMAGE_ID)));
+
+        logger.preloadUploadedImages(Set.of(new OffenderNumber(OFFENDER_NUMBER), new OffenderNumber(OTHER_OFFENDER_NUMBER)));
+
+        assertThat(logger.isAlreadyUploaded(new OffenderNumber(OFFENDER_NUMBER), IMAGE_ID)).isTrue();
+        assertThat(logger.isAlreadyUploaded(new OffenderNumber(OFFENDER_NUMBER), OTHER_IMAGE_ID)).isFalse();
+        assertThat(logger.isAlreadyUploaded(new OffenderNumber(OTHER_OFFENDER_NUMBER), IMAGE_ID)).isFalse();
+
+        verify(repository, never()).findByOffenderNoAndImageId(any(), any());
+    }
+
+    @Test
+    void preloadedImagesIncludeThoseLoggedSince() {
+
+        when(repository.findUploadedImagesByOffenderNoIn(Set.of(OFFENDER_NUMBER))).thenReturn(List.of());
+
+        logger.preloadUploadedImages(Set.of(new OffenderNumber(OFFENDER_NUMBER)));
+        logger.log(OffenderImage.builder().offenderNumber(new OffenderNumber(OFFENDER_NUMBER)).imageId(IMAGE_ID).build(), FACE_ID);
+        logger.logUploadError(new OffenderNumber(OFFENDER_NUMBER), OTHER_IMAGE_ID, "some reason");
+
+        assertThat(logger.isAlreadyUploaded(new OffenderNumber(OFFENDER_NUMBER), IMAGE_ID)).isTrue();
+        assertThat(logger.isAlreadyUploaded(new OffenderNumber(OFFENDER_NUMBER), OTHER_IMAGE_ID)).isTrue();
+
+        verify(repository, never()).findByOffenderNoAndImageId(any(), any());
+    }
+
+    @Test
+    void releasedOffendersAreQueriedAgain() {
+
+        when(repository.findUploadedImagesByOffenderNoIn(Set.of(OFFENDER_NUMBER)))
+            .thenReturn(List.of(uploadedImage(OFFENDER_NUMBER, IMAGE_ID)));
+        when(repository.findByOffenderNoAndImageId(OFFENDER_NUMBER, IMAGE_ID)).thenReturn(Optional.empty());
+
+        logger.preloadUploadedImages(Set.of(new OffenderNumber(OFFENDER_NUMBER)));
+        logger.releaseUploadedImages(new OffenderNumber(OFFENDER_NUMBER));
+
+        assertThat(logger.isAlreadyUploaded(new OffenderNumber(OFFENDER_NUMBER), IMAGE_ID)).isFalse();
+    }
+
+    @Test
+    void preloadingNoOffendersDoesNotQuery() {
+
+        logger.preloadUploadedImages(Set.of());
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void uploadsAreBufferedUntilTheBatchSizeIsReached() {
+
+        logger = new OffenderImageUploadLogger(repository, batch, TimeSource.of(DATE_TIME), 2);
+
+        logger.log(image(IMAGE_ID), FACE_ID);
+
+        verifyNoInteractions(repository);
+        assertThat(logger.getUploadCount()).isZero();
+
+        logger.logUploadError(new OffenderNumber(OFFENDER_NUMBER), OTHER_IMAGE_ID, "some reason");
+
+        verify(repository).insertAll(uploads.capture());
+        assertThat(uploads.getValue()).extracting(OffenderImageUpload::getImageId).containsExactly(IMAGE_ID, OTHER_IMAGE_ID);
+        assertThat(logger.getUploadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void closeWritesBufferedUploads() {
+
+        logger = new OffenderImageUploadLogger(repository, batch, TimeSource.of(DATE_TIME), 10);
+
+        logger.log(image(IMAGE_ID), FACE_ID);
+        logger.close();
+
+        verify(repository).insertAll(uploads.capture());
+        assertThat(uploads.getValue()).extracting(OffenderImageUpload::getImageId).containsExactly(IMAGE_ID);
+        assertThat(logger.getUploadCount()).isEqualTo(1);
+        assertThat(logger.isClosed()).isTrue();
+    }
+
+    @Test
+    void bufferedUploadsAreFlushedPeriodically() {
+
+        final var scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+            logger = new OffenderImageUploadLogger(repository, batch, TimeSource.of(DATE_TIME), 10);
+            logger.flushEvery(Duration.ofMillis(10), scheduler);
+
+            logger.log(image(IMAGE_ID), FACE_ID);
+
+            verify(repository, timeout(1000)).insertAll(any());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedBatchIsWrittenIndividually() {
+
+        logger = new OffenderImageUploadLogger(repository, batch, TimeSource.of(DATE_TIME), 10);
+
+        doThrow(new RuntimeException("Batch failed!")).when(repository).insertAll(any());
+        when(repository.save(any())).thenReturn(OffenderImageUpload.builder().build());
+
+        logger.log(image(IMAGE_ID), FACE_ID);
+        logger.log(image(OTHER_IMAGE_ID), FACE_ID);
+        logger.close();
+
+        verify(repository, times(2)).save(any());
+        assertThat(logger.getUploadCount()).isEqualTo(2);
+    }
+
+    @Test
+    void flushFailsAndRetainsUploadsThatCannotBeWritten() {
+
+        logger = new OffenderImageUploadLogger(repository, batch, TimeSource.of(DATE_TIME), 10);
+
+        doThrow(new RuntimeException("Batch failed!")).doNothing().when(repository).insertAll(any());
+        when(repository.save(any()))
+            .thenReturn(OffenderImageUpload.builder().build())
+            .thenThrow(new RuntimeException("Save failed!"));
+
+        logger.log(image(IMAGE_ID), FACE_ID);
+        logger.log(image(OTHER_IMAGE_ID), FACE_ID);
+
+        assertThatThrownBy(() -> logger.flush())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Unable to write 1 of 2 offender image uploads");
+        assertThat(logger.getUploadCount()).isEqualTo(1);
+        assertThat(logger.isAlreadyUploaded(new OffenderNumber(OFFENDER_NUMBER), OTHER_IMAGE_ID)).isTrue();
+
+        logger.flush();
+
+        verify(repository, times(2)).insertAll(uploads.capture());
+        assertThat(uploads.getValue()).extracting(OffenderImageUpload::getImageId).containsExactly(OTHER_IMAGE_ID);
+        assertThat(logger.getUploadCount()).isEqualTo(2);
+    }
+
+    @Test
+    void uploadsCanBeLoggedWhileBatchIsWritten() throws Exception {
+
+        logger = new OffenderImageUploadLogger(repository, batch, TimeSource.of(DATE_TIME), 10);
+
+        final var writing = new CountDownLatch(1);
+        final var finishWriting = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            assertThat(finishWriting.await(1, SECONDS)).isTrue();
+            return null;
+        }).when(repository).insertAll(any());
+
+        logger.log(image(IMAGE_ID), FACE_ID);
+
+        final var flush = CompletableFuture.runAsync(logger::flush);
+
+        try {
+            assertThat(writing.await(1, SECONDS)).isTrue();
+
+            CompletableFuture.runAsync(() -> logger.log(image(OTHER_IMAGE_ID), FACE_ID)).get(1, SECONDS);
+
+            assertThat(logger.isAlreadyUploaded(new OffenderNumber(OFFENDER_NUMBER), IMAGE_ID)).isTrue();
+            assertThat(logger.isAlreadyUploaded(new OffenderNumber(OFFENDER_NUMBER), OTHER_IMAGE_ID)).isTrue();
+        } finally {
+            finishWriting.countDown();
+        }
+
+        flush.get(1, SECONDS);
+        assertThat(logger.getUploadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void periodicFlushCarriesOnAfterFailure() {
+
+        final var scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        doThrow(new RuntimeException("Batch failed!")).doNothing().when(repository).insertAll(any());
+        when(repository.save(any())).thenThrow(new RuntimeException("Save failed!"));
+
+        try {
+            logger = new OffenderImageUploadLogger(repository, batch, TimeSource.of(DATE_TIME), 10);
+            logger.flushEvery(Duration.ofMillis(10), scheduler);
+
+            logger.log(image(IMAGE_ID), FACE_ID);
+
+            verify(repository, timeout(1000).times(2)).insertAll(any());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void bufferedUploadsAreAlreadyUploaded() {
+
+        logger = new OffenderImageUploadLogger(repository, batch, TimeSource.of(DATE_TIME), 10);
+
+        logger.log(image(IMAGE_ID), FACE_ID);
+
+        assertThat(logger.isAlreadyUploaded(new OffenderNumber(OFFENDER_NUMBER), IMAGE_ID)).isTrue();
+        verify(repository, never()).findByOffenderNoAndImageId(any(), any());
+    }
+
+    private OffenderImageUpload writtenUpload() {
+        verify(repository).insertAll(uploads.capture());
+        assertThat(uploads.getValue()).hasSize(1);
+        return uploads.getValue().get(0);
+    }
+
+    private static OffenderImage image(final long imageId) {
+        return OffenderImage.builder()
+            .offenderNumber(new OffenderNumber(OFFENDER_NUMBER))
+            .imageId(imageId)
+            .build();
+    }
+
+    private static UploadedImage uploadedImage(final String offenderNo, final long imageId) {
+        return new UploadedImage() {
+
+            @Override
+            public String getOffenderNo() {
+                return offenderNo;
+            }
+
+            @Override
+            public Long getImageId() {
+                return imageId;
+            }
+        };
+    }
+}
@@ -16,8 +16,10 @@ import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -56,7 +58,8 @@ class OffenderImageUploaderTest {
 
     @BeforeEach
     void setUp() {
-        imageUploader = new OffenderImageUploader(prisonApiClient, imageRecognitionClient, logger, rateLimiter);
+        imageUploader = new OffenderImageUploader(prisonApiClient, imageRecognitionClient, logger, rateLimiter,
+            ConcurrencyLimit.of(1), ConcurrencyLimit.of(1));
     }
 
     @Test
@@ -122,6 +125,40 @@ class OffenderImageUploaderTest {
         verify(logger).logUploadError(OFFENDER_NUMBER, IMAGE_ID, "FACE_NOT_FOUND");
     }
 
+    @Test
+    void preparePreloadsUploadedImages() {
+
+        imageUploader.prepare(Set.of(OFFENDER_NUMBER));
+
+        verify(logger).preloadUploadedImages(Set.of(OFFENDER_NUMBER));
+    }
+
+    @Test
+    void releaseReleasesUploadedImages() {
+
+        imageUploader.release(OFFENDER_NUMBER);
+
+        verify(logger).releaseUploadedImages(OFFENDER_NUMBER);
+    }
+
+    @Test
+    void flushWritesUploadLogAndReturnsUploadCount() {
+
+        when(logger.getUploadCount()).thenReturn(3L);
+
+        assertThat(imageUploader.flush()).isEqualTo(3L);
+
+        verify(logger).flush();
+    }
+
+    @Test
+    void closeClosesUploadLogger() {
+
+        imageUploader.close();
+
+        verify(logger).close();
+    }
+
     private OffenderImageUploaderTest givenFaceImageExistsForOffender(final boolean exists) {
         when(prisonApiClient.getOffenderFaceImagesFor(OFFENDER_NUMBER))
             .thenReturn(exists ? List.of(IMAGE_METADATA) : emptyList());
@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -27,10 +29,13 @@ import static java.lang.Math.min;
 import static java.time.temporal.ChronoUnit.MILLIS;
 import static java.util.Arrays.asList;
 import static java.util.Collections.synchronizedList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toSet;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -109,7 +114,12 @@ class OffenderIteratorTest {
     @Test
     void exhaustedRetriesThrowsAndPreventsFurtherBatchesProcessing() {
 
-        offenderIterator = new OffenderIterator(repository, client, PROPERTIES,
+        offenderIterator = new OffenderIterator(repository, client,
+            DataComplianceProperties.builder()
+                .prisonApiOffenderIdsIterationThreads(1)
+                .prisonApiOffenderIdsLimit(REQUEST_LIMIT)
+                .prisonApiOffenderIdsInitialOffset(0L)
+                .build(),
             RetryConfig.custom().maxAttempts(1).build());
 
         mockOffenderNumbersResponse(OFFENDER_1, OFFENDER_2, OFFENDER_3);
@@ -122,6 +132,131 @@ class OffenderIteratorTest {
         assertThat(processedOffenderNumbers).doesNotContain(OFFENDER_3);
     }
 
+    @Test
+    void slowOffenderDoesNotStallProcessingOfFollowingPages() {
+
+        mockOffenderNumbersResponse(OFFENDER_1, OFFENDER_2, OFFENDER_3, OFFENDER_4);
+
+        final var followingPageProcessed = new CountDownLatch(2);
+        final var processedOffenderNumbers = synchronizedList(new ArrayList<String>());
+
+        offenderIterator.applyForAll(BATCH, offenderNumber -> {
+            if (offenderNumber.getOffenderNumber().equals(OFFENDER_1)) {
+                awaitOrFail(followingPageProcessed);
+            }
+            if (offenderNumber.getOffenderNumber().equals(OFFENDER_3) || offenderNumber.getOffenderNumber().equals(OFFENDER_4)) {
+                followingPageProcessed.countDown();
+            }
+            processedOffenderNumbers.add(offenderNumber.getOffenderNumber());
+        });
+
+        assertThat(processedOffenderNumbers).containsExactlyInAnyOrder(OFFENDER_1, OFFENDER_2, OFFENDER_3, OFFENDER_4);
+        assertThat(processedOffenderNumbers.get(3)).isEqualTo(OFFENDER_1);
+    }
+
+    @Test
+    void applyForAllPreparesEachPageAndReleasesEachOffender() {
+
+        mockOffenderNumbersResponse(OFFENDER_1, OFFENDER_2, OFFENDER_3);
+
+        final var preparedPages = synchronizedList(new ArrayList<Set<String>>());
+        final var releasedOffenderNumbers = synchronizedList(new ArrayList<String>());
+
+        offenderIterator.applyForAll(BATCH, new OffenderAction() {
+
+            @Override
+            public void prepare(final Set<OffenderNumber> offenderNumbers) {
+                preparedPages.add(offenderNumbers.stream().map(OffenderNumber::getOffenderNumber).collect(toSet()));
+            }
+
+            @Override
+            public void accept(final OffenderNumber offenderNumber) {
+                assertThat(releasedOffenderNumbers).doesNotContain(offenderNumber.getOffenderNumber());
+            }
+
+            @Override
+            public void release(final OffenderNumber offenderNumber) {
+                releasedOffenderNumbers.add(offenderNumber.getOffenderNumber());
+            }
+        });
+
+        assertThat(preparedPages).containsExactly(Set.of(OFFENDER_1, OFFENDER_2), Set.of(OFFENDER_3));
+        assertThat(releasedOffenderNumbers).containsExactlyInAnyOrder(OFFENDER_1, OFFENDER_2, OFFENDER_3);
+    }
+
+    @Test
+    void applyForAllRecordsCheckpointAsEachPageCompletes() {
+
+        mockOffenderNumbersResponse(OFFENDER_1, OFFENDER_2, OFFENDER_3);
+
+        final var checkpoints = synchronizedList(new ArrayList<Long>());
+
+        offenderIterator.applyForAll(BATCH, offenderNumber -> {
+        }, checkpoints::add);
+
+        // A page that completes while the previous checkpoint is being recorded is included in the next one:
+        assertThat(checkpoints).isSorted().doesNotHaveDuplicates().endsWith(4L);
+    }
+
+    @Test
+    void recordingCheckpointDoesNotHoldUpOtherWorkers() {
+
+        mockOffenderNumbersResponse(OFFENDER_1, OFFENDER_2, OFFENDER_3, OFFENDER_4);
+
+        final var allProcessed = new CountDownLatch(4);
+        final var checkpoints = synchronizedList(new ArrayList<Long>());
+
+        // The first checkpoint can only be recorded once the other worker has processed the following page:
+        offenderIterator.applyForAll(BATCH, offenderNumber -> allProcessed.countDown(), nextOffset -> {
+            awaitOrFail(allProcessed);
+            checkpoints.add(nextOffset);
+        });
+
+        assertThat(checkpoints).endsWith(4L);
+    }
+
+    @Test
+    void applyForAllDoesNotCheckpointPastAFailedOffender() {
+
+        offenderIterator = new OffenderIterator(repository, client,
+            DataComplianceProperties.builder()
+                .prisonApiOffenderIdsIterationThreads(1)
+                .prisonApiOffenderIdsLimit(REQUEST_LIMIT)
+                .prisonApiOffenderIdsInitialOffset(0L)
+                .build(),
+            RetryConfig.custom().maxAttempts(1).build());
+
+        mockOffenderNumbersResponse(OFFENDER_1, OFFENDER_2, OFFENDER_3, OFFENDER_4);
+
+        final var checkpoints = synchronizedList(new ArrayList<Long>());
+
+        assertThatThrownBy(() -> offenderIterator.applyForAll(BATCH, offenderNumber -> {
+            if (offenderNumber.getOffenderNumber().equals(OFFENDER_3)) {
+                throw new RuntimeException("Failed!");
+            }
+        }, checkpoints::add)).hasMessageContaining("Failed!");
+
+        assertThat(checkpoints).containsExactly(2L);
+    }
+
+    @Test
+    void applyForAllResumesFromCheckpoint() {
+
+        final var interruptedBatch = ImageUploadBatch.builder().batchId(BATCH_ID).checkpointOffset(2L).build();
+
+        mockOffenderNumbersResponse(OFFENDER_1, OFFENDER_2, OFFENDER_3);
+
+        final var processedOffenderNumbers = synchronizedList(new ArrayList<String>());
+        final var checkpoints = synchronizedList(new ArrayList<Long>());
+
+        offenderIterator.applyForAll(interruptedBatch,
+            offenderNumber -> processedOffenderNumbers.add(offenderNumber.getOffenderNumber()), checkpoints::add);
+
+        assertThat(processedOffenderNumbers).containsExactly(OFFENDER_3);
+        assertThat(checkpoints).containsExactly(4L);
+        verify(client, never()).getOffenderNumbers(0, REQUEST_LIMIT);
+    }
+
     @Test
     void canLimitIterationOverAConfigurableSubset() {
 
@@ -183,6 +318,16 @@ class OffenderIteratorTest {
             .build();
     }
 
+    private static void awaitOrFail(final CountDownLatch latch) {
+        try {
+            if (!latch.await(5, SECONDS)) {
+                throw new RuntimeException("Timed out waiting for the following page to be processed");
+            }
+        } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private OffenderAction throwOnFirstAttempt(final OffenderAction action) {
 
         final var failedAttempt = new AtomicBoolean();
@@ -26,7 +26,10 @@ import java.util.Optional;
 
 import static java.time.temporal.ChronoUnit.MILLIS;
 import static java.util.Collections.emptyList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -82,6 +85,7 @@ class OffenderDeletionTest {
 
         when(batchRepository.findFirstByBatchTypeOrderByRequestDateTimeDesc(SCHEDULED)).thenReturn(Optional.empty());
         when(batchRepository.save(expectedBatch)).thenReturn(expectedBatch.withBatchId(BATCH_ID));
+        when(eventPusher.requestReferral(any())).thenReturn(completedFuture(null));
 
         offenderDeletion.run();
 
@@ -101,6 +105,7 @@ class OffenderDeletionTest {
         when(batchRepository.findFirstByBatchTypeOrderByRequestDateTimeDesc(SCHEDULED)).thenReturn(Optional.of(
             completedBatchWith(INITIAL_WINDOW_START.atStartOfDay(), NONE_REMAINING_IN_WINDOW)));
         when(batchRepository.save(expectedBatch)).thenReturn(expectedBatch.withBatchId(BATCH_ID));
+        when(eventPusher.requestReferral(any())).thenReturn(completedFuture(null));
 
         offenderDeletion.run();
 
@@ -120,6 +125,7 @@ class OffenderDeletionTest {
         when(batchRepository.findFirstByBatchTypeOrderByRequestDateTimeDesc(SCHEDULED)).thenReturn(Optional.of(
             completedBatchWith(INITIAL_WINDOW_START.atStartOfDay(), SOME_REMAINING_IN_WINDOW)));
         when(batchRepository.save(expectedBatch)).thenReturn(expectedBatch.withBatchId(BATCH_ID));
+        when(eventPusher.requestReferral(any())).thenReturn(completedFuture(null));
 
         offenderDeletion.run();
 
@@ -131,6 +137,21 @@ class OffenderDeletionTest {
             .build());
     }
 
+    @Test
+    void offenderDeletionRequestFailsIfRequestCannotBeSent() {
+
+        final var expectedBatch = batchWith(INITIAL_WINDOW_START.atStartOfDay());
+
+        when(batchRepository.findFirstByBatchTypeOrderByRequestDateTimeDesc(SCHEDULED)).thenReturn(Optional.empty());
+        when(batchRepository.save(expectedBatch)).thenReturn(expectedBatch.withBatchId(BATCH_ID));
+        when(eventPusher.requestReferral(any()))
+            .thenReturn(failedFuture(new IllegalStateException("Unable to send message")));
+
+        assertThatThrownBy(() -> offenderDeletion.requestBatchReferral())
+            .hasRootCauseInstanceOf(IllegalStateException.class)
+            .hasRootCauseMessage("Unable to send message");
+    }
+
     @Test
     void offenderDeletionRequestFailsIfLastBatchDidNotComplete() {
 
@@ -191,12 +212,31 @@ class OffenderDeletionTest {
         when(properties.isReviewRequired()).thenReturn(true);
         when(offenderDeletionReferralRepository.findByReferralResolutionStatus(PROVISIONAL_DELETION_GRANTED, true, expectedDate, DELETION_LIMIT))
             .thenReturn(List.of(offenderDeletionReferral));
+        when(eventPusher.requestProvisionalDeletionReferral(new OffenderNumber(OFFENDER_NUMBER), REFERRAL_ID))
+            .thenReturn(completedFuture(null));
 
         offenderDeletion.deletePreviouslyIdentifiedOffenderData();
 
         verify(eventPusher).requestProvisionalDeletionReferral(new OffenderNumber(OFFENDER_NUMBER), REFERRAL_ID);
     }
 
+    @Test
+    void deletePreviouslyIdentifiedOffenderDataFailsIfRequestCannotBeSent() {
+        final var offenderDeletionReferral = buildOffenderDeletionReferral();
+        final var expectedDate = NOW.minus(CONFIG.getReviewDuration());
+
+        when(properties.isDeletionGrantEnabled()).thenReturn(true);
+        when(properties.isReviewRequired()).thenReturn(true);
+        when(offenderDeletionReferralRepository.findByReferralResolutionStatus(PROVISIONAL_DELETION_GRANTED, true, expectedDate, DELETION_LIMIT))
+            .thenReturn(List.of(offenderDeletionReferral));
+        when(eventPusher.requestProvisionalDeletionReferral(new OffenderNumber(OFFENDER_NUMBER), REFERRAL_ID))
+            .thenReturn(failedFuture(new IllegalStateException("Unable to send message")));
+
+        assertThatThrownBy(() -> offenderDeletion.deletePreviouslyIdentifiedOffenderData())
+            .hasRootCauseInstanceOf(IllegalStateException.class)
+            .hasRootCauseMessage("Unable to send message");
+    }
+
     @Test
     void deletePreviouslyIdentifiedOffenderDataWhenNoReferralsFound() {
         final var expectedDate = NOW.minus(CONFIG.getReviewDuration());
@@ -3,8 +3,11 @@ package uk.gov.justice.hmpps.datacompliance.services.deletion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DeceasedOffenderDeletionResult;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DeceasedOffenderDeletionResult.DeceasedOffender;
 import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.DeceasedOffenderDeletionResult.OffenderAlias;
@@ -20,10 +23,18 @@ import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -51,13 +62,17 @@ class DeceasedDeletionServiceTest {
     private DeceasedOffenderDeletionBatchRepository batchRepository;
 
     @Mock
-    private DeceasedOffenderDeletionBatch batch;
+    private PlatformTransactionManager transactionManager;
 
     private DeceasedDeletionService deceasedDeletionService;
 
     public static DeceasedOffender buildDeceasedOffender() {
+        return buildDeceasedOffender(OFFENDER_NUMBER);
+    }
+
+    private static DeceasedOffender buildDeceasedOffender(final String offenderNumber) {
         return DeceasedOffender.builder()
-            .offenderIdDisplay(OFFENDER_NUMBER)
+            .offenderIdDisplay(offenderNumber)
             .firstName("someFirstName")
             .middleName("someMiddleName")
             .lastName("someLastName")
@@ -81,22 +96,71 @@ class DeceasedDeletionServiceTest {
         deceasedDeletionService = new DeceasedDeletionService(
             TimeSource.of(NOW),
             batchRepository,
-            referralRepository);
+            referralRepository,
+            transactionManager,
+            DataComplianceProperties.builder().deletionResultChunkSize(2).build());
     }
 
     @Test
     void handleDeceasedOffenderDeletionResult() {
 
         final var deletionResult = buildDeceasedOffenderDeletionResult();
-        var batch = buildOffenderDeletionBatch();
-        final var updatedBatch = updateBatch(batch);
+        final var batch = buildOffenderDeletionBatch();
+
+        when(batchRepository.findById(BATCH_ID)).thenReturn(Optional.of(batch));
+
+        deceasedDeletionService.handleDeceasedOffenderDeletionResult(BATCH_ID, deletionResult.getDeceasedOffenders().stream());
+
+        verify(referralRepository).saveAll(List.of(expectedDeceasedOffenderDeletionReferral(batch, deletionResult)));
+        verify(batchRepository, times(2)).save(batch);
+        assertThat(batch.getReferralsRecorded()).isEqualTo(1);
+        assertThat(batch.getReferralCompletionDateTime()).isEqualTo(NOW);
+    }
+
+    @Test
+    void handleDeceasedOffenderDeletionResultSavesReferralsInChunks() {
+
+        final var batch = buildOffenderDeletionBatch();
+
+        when(batchRepository.findById(BATCH_ID)).thenReturn(Optional.of(batch));
+
+        deceasedDeletionService.handleDeceasedOffenderDeletionResult(BATCH_ID,
+            Stream.of(buildDeceasedOffender("A1234AA"), buildDeceasedOffender("B1234BB"), buildDeceasedOffender("C1234CC")));
+
+        assertThat(savedOffenderNumbers()).containsExactly(List.of("A1234AA", "B1234BB"), List.of("C1234CC"));
+        assertThat(batch.getReferralsRecorded()).isEqualTo(3);
+        assertThat(batch.getReferralCompletionDateTime()).isEqualTo(NOW);
+
+        // One transaction per chunk, plus one to complete the batch:
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void handleDeceasedOffenderDeletionResultResumesAfterReferralsRecorded() {
+
+        final var batch = buildOffenderDeletionBatch().toBuilder().referralsRecorded(2).build();
+
+        when(batchRepository.findById(BATCH_ID)).thenReturn(Optional.of(batch));
+
+        deceasedDeletionService.handleDeceasedOffenderDeletionResult(BATCH_ID,
+            Stream.of(buildDeceasedOffender("A1234AA"), buildDeceasedOffender("B1234BB"), buildDeceasedOffender("C1234CC")));
+
+        assertThat(savedOffenderNumbers()).containsExactly(List.of("C1234CC"));
+        assertThat(batch.getReferralsRecorded()).isEqualTo(3);
+        assertThat(batch.getReferralCompletionDateTime()).isEqualTo(NOW);
+    }
+
+    @Test
+    void handleDeceasedOffenderDeletionResultIgnoresCompletedBatch() {
+
+        final var batch = buildOffenderDeletionBatch().toBuilder().referralCompletionDateTime(REFERRAL_COMPLETION_DATE_TIME).build();
 
         when(batchRepository.findById(BATCH_ID)).thenReturn(Optional.of(batch));
-        when(batchRepository.save(updatedBatch)).thenReturn(updatedBatch);
 
-        deceasedDeletionService.handleDeceasedOffenderDeletionResult(deletionResult);
+        deceasedDeletionService.handleDeceasedOffenderDeletionResult(BATCH_ID, Stream.of(buildDeceasedOffender()));
 
-        verify(referralRepository).save(expectedDeceasedOffenderDeletionReferral(updatedBatch, deletionResult));
+        verifyNoInteractions(referralRepository);
+        verify(batchRepository, never()).save(any());
     }
 
     @Test
@@ -105,13 +169,25 @@ class DeceasedDeletionServiceTest {
         when(batchRepository.findById(BATCH_ID)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() ->
-            deceasedDeletionService.handleDeceasedOffenderDeletionResult(DeceasedOffenderDeletionResult.builder().batchId(BATCH_ID).build()))
+            deceasedDeletionService.handleDeceasedOffenderDeletionResult(BATCH_ID, Stream.empty()))
             .isInstanceOf(IllegalStateException.class)
             .hasMessage("Cannot find batch with id: '1'");
 
         verifyNoInteractions(referralRepository);
     }
 
+    @SuppressWarnings("unchecked")
+    private List<List<String>> savedOffenderNumbers() {
+
+        final ArgumentCaptor<List<DeceasedOffenderDeletionReferral>> captor = ArgumentCaptor.forClass(List.class);
+
+        verify(referralRepository, atLeastOnce()).saveAll(captor.capture());
+
+        return captor.getAllValues().stream()
+            .map(referrals -> referrals.stream().map(DeceasedOffenderDeletionReferral::getOffenderNo).collect(toList()))
+            .collect(toList());
+    }
+
     private DeceasedOffenderDeletionReferral expectedDeceasedOffenderDeletionReferral(DeceasedOffenderDeletionBatch updatedBatch, DeceasedOffenderDeletionResult deletionResult) {
         final var deceasedOffender = deletionResult.getDeceasedOffenders().get(0);
         final var offenderAlias = deceasedOffender.getOffenderAliases().get(0);
@@ -138,12 +214,6 @@ class DeceasedDeletionServiceTest {
         return referral;
     }
 
-    private DeceasedOffenderDeletionBatch updateBatch(DeceasedOffenderDeletionBatch batch) {
-        return batch.toBuilder()
-            .referralCompletionDateTime(NOW)
-            .build();
-    }
-
     private DeceasedOffenderDeletionBatch buildOffenderDeletionBatch() {
         return DeceasedOffenderDeletionBatch.builder()
             .batchId(BATCH_ID)
@@ -25,6 +25,8 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -87,6 +89,8 @@ class DeletionServiceTest {
             .offenderBookId(OFFENDER_BOOK_ID)
             .build());
 
+        when(deletionGrantedEventPusher.grantDeletion(any())).thenReturn(completedFuture(null));
+
         deletionService.grantDeletion(referral);
 
         verify(deletionGrantedEventPusher).grantDeletion(
@@ -108,6 +112,8 @@ class DeletionServiceTest {
 
         referral.addReferredOffenderAlias(ReferredOffenderAlias.builder().offenderId(OFFENDER_ID).build());
 
+        when(deletionGrantedEventPusher.grantDeletion(any())).thenReturn(completedFuture(null));
+
         deletionService.grantDeletion(referral);
 
         verify(deletionGrantedEventPusher).grantDeletion(
@@ -118,6 +124,22 @@ class DeletionServiceTest {
                 .build());
     }
 
+    @Test
+    void grantDeletionFailsIfEventCannotBeSent() {
+
+        final var referral = OffenderDeletionReferral.builder()
+            .referralId(REFERRAL_ID)
+            .offenderNo(OFFENDER_NUMBER)
+            .build();
+
+        when(deletionGrantedEventPusher.grantDeletion(any()))
+            .thenReturn(failedFuture(new IllegalStateException("Unable to send message")));
+
+        assertThatThrownBy(() -> deletionService.grantDeletion(referral))
+            .hasRootCauseInstanceOf(IllegalStateException.class)
+            .hasRootCauseMessage("Unable to send message");
+    }
+
     @Test
     void grantDeletionDisabled() {
         deletionService = new DeletionService(
@@ -0,0 +1,159 @@
+package uk.gov.justice.hmpps.datacompliance.services.deletion;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
+import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderNoBookingDeletionResult.Offender;
+import uk.gov.justice.hmpps.datacompliance.events.listeners.dto.OffenderNoBookingDeletionResult.OffenderAlias;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.offendernobooking.OffenderNoBookingDeletionBatch;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.offendernobooking.OffenderNoBookingDeletionBatch.BatchType;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.offendernobooking.OffenderNoBookingDeletionReferral;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.offendernobooking.OffenderNoBookingDeletionBatchRepository;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.offendernobooking.OffenderNoBookingDeletionReferralRepository;
+import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OffenderNoBookingDeletionServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(MILLIS);
+    private static final long OFFENDER_ID = 456;
+    private static final long BATCH_ID = 1L;
+    private static final LocalDateTime REFERRAL_COMPLETION_DATE_TIME = LocalDateTime.now().minusHours(2);
+
+    @Mock
+    private OffenderNoBookingDeletionReferralRepository referralRepository;
+
+    @Mock
+    private OffenderNoBookingDeletionBatchRepository batchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OffenderNoBookingDeletionService offenderNoBookingDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        offenderNoBookingDeletionService = new OffenderNoBookingDeletionService(
+            TimeSource.of(NOW),
+            batchRepository,
+            referralRepository,
+            transactionManager,
+            DataComplianceProperties.builder().deletionResultChunkSize(2).build());
+    }
+
+    @Test
+    void handleOffenderNoBookingDeletionResultSavesReferralsInChunks() {
+
+        final var batch = buildOffenderNoBookingDeletionBatch();
+
+        when(batchRepository.findById(BATCH_ID)).thenReturn(Optional.of(batch));
+
+        offenderNoBookingDeletionService.handleOffenderNoBookingDeletionResult(BATCH_ID,
+            Stream.of(buildOffender("A1234AA"), buildOffender("B1234BB"), buildOffender("C1234CC")));
+
+        assertThat(savedOffenderNumbers()).containsExactly(List.of("A1234AA", "B1234BB"), List.of("C1234CC"));
+        assertThat(batch.getReferralsRecorded()).isEqualTo(3);
+        assertThat(batch.getReferralCompletionDateTime()).isEqualTo(NOW);
+
+        // One transaction per chunk, plus one to complete the batch:
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void handleOffenderNoBookingDeletionResultResumesAfterReferralsRecorded() {
+
+        final var batch = buildOffenderNoBookingDeletionBatch().toBuilder().referralsRecorded(2).build();
+
+        when(batchRepository.findById(BATCH_ID)).thenReturn(Optional.of(batch));
+
+        offenderNoBookingDeletionService.handleOffenderNoBookingDeletionResult(BATCH_ID,
+            Stream.of(buildOffender("A1234AA"), buildOffender("B1234BB"), buildOffender("C1234CC")));
+
+        assertThat(savedOffenderNumbers()).containsExactly(List.of("C1234CC"));
+        assertThat(batch.getReferralsRecorded()).isEqualTo(3);
+        assertThat(batch.getReferralCompletionDateTime()).isEqualTo(NOW);
+    }
+
+    @Test
+    void handleOffenderNoBookingDeletionResultIgnoresCompletedBatch() {
+
+        final var batch = buildOffenderNoBookingDeletionBatch().toBuilder()
+            .referralCompletionDateTime(REFERRAL_COMPLETION_DATE_TIME)
+            .build();
+
+        when(batchRepository.findById(BATCH_ID)).thenReturn(Optional.of(batch));
+
+        offenderNoBookingDeletionService.handleOffenderNoBookingDeletionResult(BATCH_ID, Stream.of(buildOffender("A1234AA")));
+
+        verifyNoInteractions(referralRepository);
+        verify(batchRepository, never()).save(any());
+    }
+
+    @Test
+    void handleOffenderNoBookingDeletionResultThrowsIfBatchNotFound() {
+
+        when(batchRepository.findById(BATCH_ID)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() ->
+            offenderNoBookingDeletionService.handleOffenderNoBookingDeletionResult(BATCH_ID, Stream.empty()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Cannot find batch with id: '1'");
+
+        verifyNoInteractions(referralRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<String>> savedOffenderNumbers() {
+
+        final ArgumentCaptor<List<OffenderNoBookingDeletionReferral>> captor = ArgumentCaptor.forClass(List.class);
+
+        verify(referralRepository, atLeastOnce()).saveAll(captor.capture());
+
+        return captor.getAllValues().stream()
+            .map(referrals -> referrals.stream().map(OffenderNoBookingDeletionReferral::getOffenderNo).collect(toList()))
+            .collect(toList());
+    }
+
+    private static Offender buildOffender(final String offenderNumber) {
+        return Offender.builder()
+            .offenderIdDisplay(offenderNumber)
+            .firstName("someFirstName")
+            .middleName("someMiddleName")
+            .lastName("someLastName")
+            .birthDate(LocalDate.now().minusYears(30))
+            .deletionDateTime(LocalDateTime.now().minusMinutes(1))
+            .offenderAlias(OffenderAlias.builder().offenderId(OFFENDER_ID).build())
+            .build();
+    }
+
+    private OffenderNoBookingDeletionBatch buildOffenderNoBookingDeletionBatch() {
+        return OffenderNoBookingDeletionBatch.builder()
+            .batchId(BATCH_ID)
+            .batchType(BatchType.SCHEDULED)
+            .requestDateTime(LocalDateTime.now().minusDays(1))
+            .build();
+    }
+}
@@ -21,11 +21,10 @@ import java.util.Set;
 
 import static java.time.temporal.ChronoUnit.MILLIS;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
-import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.ANALYTICAL_PLATFORM;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.ID;
 
 @ExtendWith(MockitoExtension.class)
@@ -76,21 +75,13 @@ class DataDuplicationDetectionServiceTest {
     @Test
     void searchForAnalyticalPlatformDuplicates() {
 
-        final var dataDuplicate = mock(DataDuplicate.class);
-
         when(duplicateDetectionClient.findDuplicatesFor(OFFENDER_NUMBER))
             .thenReturn(Set.of(new DuplicateResult(DUPLICATE_OFFENDER_NUMBER_1, CONFIDENCE)));
 
-        final var dataDuplicateCaptor = ArgumentCaptor.forClass(DataDuplicate.class);
-        when(dataDuplicateRepository.save(dataDuplicateCaptor.capture())).thenReturn(dataDuplicate);
-
-        assertThat(service.searchForAnalyticalPlatformDuplicates(OFFENDER_NUMBER)).contains(dataDuplicate);
+        assertThat(service.searchForAnalyticalPlatformDuplicates(OFFENDER_NUMBER))
+            .containsExactly(new DuplicateResult(DUPLICATE_OFFENDER_NUMBER_1, CONFIDENCE));
 
-        assertThat(dataDuplicateCaptor.getValue().getReferenceOffenderNo()).isEqualTo(OFFENDER_NUMBER.getOffenderNumber());
-        assertThat(dataDuplicateCaptor.getValue().getDuplicateOffenderNo()).isEqualTo(DUPLICATE_OFFENDER_NUMBER_1.getOffenderNumber());
-        assertThat(dataDuplicateCaptor.getValue().getConfidence()).isEqualTo(CONFIDENCE);
-        assertThat(dataDuplicateCaptor.getValue().getMethod()).isEqualTo(ANALYTICAL_PLATFORM);
-        assertThat(dataDuplicateCaptor.getValue().getDetectionDateTime()).isEqualTo(NOW);
+        verifyNoInteractions(dataDuplicateRepository);
     }
 
     @Test
@@ -20,7 +20,9 @@ import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.lang.String.format;
 import static java.time.temporal.ChronoUnit.MILLIS;
@@ -29,9 +31,11 @@ import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toSet;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -82,18 +86,47 @@ class ImageDuplicationDetectionServiceTest {
             .andDuplicateHasNotAlreadyBeenFound(DUPLICATE_2)
             .andCanSuccessfullyPersist(duplicate2);
 
-        assertThat(service.findDuplicatesFor(offenderNo(REFERENCE_ID)))
+        assertThat(findAndPersistDuplicatesFor(offenderNo(REFERENCE_ID)))
             .containsExactlyInAnyOrder(duplicate1, duplicate2);
 
         verifyPersistedDuplicate(DUPLICATE_2);
     }
 
+    @Test
+    void findFaceMatchesDoesNotPersistDuplicates() {
+
+        givenOffenderHasAnUploaded(imageWith(REFERENCE_ID).build())
+            .andImageRecognitionFindsMatchesWith(DUPLICATE_1);
+
+        assertThat(service.findFaceMatchesFor(offenderNo(REFERENCE_ID)))
+            .containsExactly(entry(faceId(REFERENCE_ID), Set.of(new FaceMatch(faceId(DUPLICATE_1), SIMILARITY))));
+
+        verifyNoInteractions(imageDuplicateRepository);
+        verify(offenderImageUploadRepository, never()).findByFaceId(any());
+    }
+
+    @Test
+    void persistDuplicatesDoesNotCallImageRecognition() {
+
+        givenOffenderHasAnUploaded(imageWith(REFERENCE_ID).build())
+            .andUploadedImagesExistForMatches(DUPLICATE_1)
+            .andDuplicateHasNotAlreadyBeenFound(DUPLICATE_1)
+            .andCanSuccessfullyPersist(duplicate1);
+
+        assertThat(service.persistDuplicatesFor(offenderNo(REFERENCE_ID),
+            Map.of(faceId(REFERENCE_ID), Set.of(new FaceMatch(faceId(DUPLICATE_1), SIMILARITY)))))
+            .containsExactly(duplicate1);
+
+        verifyPersistedDuplicate(DUPLICATE_1);
+        verifyNoInteractions(imageRecognitionClient);
+    }
+
     @Test
     void findDuplicatesReturnsEmptyWhenNoImagesForOffender() {
 
         givenOffenderHasNoUploadedImages();
 
-        assertThat(service.findDuplicatesFor(offenderNo(REFERENCE_ID))).isEmpty();
+        assertThat(findAndPersistDuplicatesFor(offenderNo(REFERENCE_ID))).isEmpty();
 
         verifyNoInteractions(imageDuplicateRepository);
     }
@@ -105,7 +138,7 @@ class ImageDuplicationDetectionServiceTest {
             .uploadErrorReason("Upload failed for some reason.")
             .build());
 
-        assertThat(service.findDuplicatesFor(offenderNo(REFERENCE_ID))).isEmpty();
+        assertThat(findAndPersistDuplicatesFor(offenderNo(REFERENCE_ID))).isEmpty();
 
         verifyNoInteractions(imageDuplicateRepository);
     }
@@ -117,13 +150,26 @@ class ImageDuplicationDetectionServiceTest {
             .andImageRecognitionFindsMatchesWith(DUPLICATE_1)
             .andUploadedImagesExistForMatches(false, DUPLICATE_1);
 
-        assertThatThrownBy(() -> service.findDuplicatesFor(offenderNo(REFERENCE_ID)))
+        assertThatThrownBy(() -> findAndPersistDuplicatesFor(offenderNo(REFERENCE_ID)))
             .isInstanceOf(IllegalStateException.class)
             .hasMessageContaining("Cannot find image upload for faceId: 'face1'");
 
         verifyNoInteractions(imageDuplicateRepository);
     }
 
+    @Test
+    void getIndexedFaceIds() {
+
+        when(offenderImageUploadRepository.findByOffenderNo(offenderNo(REFERENCE_ID).getOffenderNumber()))
+            .thenReturn(List.of(
+                imageWith(DUPLICATE_1).build(),
+                imageWith(DUPLICATE_2).uploadStatus(DELETED).build(),
+                imageWith(DUPLICATE_3).faceId(null).build()));
+
+        assertThat(service.getIndexedFaceIds(offenderNo(REFERENCE_ID)))
+            .containsExactly(entry(DUPLICATE_1, faceId(DUPLICATE_1)));
+    }
+
     @Test
     void deleteOffenderImages() {
 
@@ -139,6 +185,10 @@ class ImageDuplicationDetectionServiceTest {
         inOrder.verify(offenderImageUploadRepository).save(imageUpload);
     }
 
+    private List<ImageDuplicate> findAndPersistDuplicatesFor(final OffenderNumber offenderNumber) {
+        return service.persistDuplicatesFor(offenderNumber, service.findFaceMatchesFor(offenderNumber));
+    }
+
     private ImageDuplicationDetectionServiceTest givenOffenderHasAnUploaded(final OffenderImageUpload image) {
         when(offenderImageUploadRepository.findByOffenderNo(offenderNo(REFERENCE_ID).getOffenderNumber()))
             .thenReturn(List.of(image));
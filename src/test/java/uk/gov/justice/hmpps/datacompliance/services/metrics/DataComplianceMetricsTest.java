@@ -0,0 +1,109 @@
+package uk.gov.justice.hmpps.datacompliance.services.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckPathfinder;
+import uk.gov.justice.hmpps.datacompliance.services.retention.ActionableRetentionCheck;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution.ResolutionStatus.RETAINED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_NOT_REQUIRED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_REQUIRED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckPathfinder.PATHFINDER_REFERRAL;
+import static uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics.DUPLICATE_EVENT_COUNTER;
+import static uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics.EVENT_HANDLER_TIMER;
+import static uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics.REFERRAL_RESOLUTION_TIMER;
+import static uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics.RETENTION_CHECK_OUTCOME_COUNTER;
+import static uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics.RETENTION_CHECK_TIMER;
+
+class DataComplianceMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataComplianceMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new DataComplianceMetrics(meterRegistry);
+    }
+
+    @Test
+    void recordCheckTimesAndCountsOutcome() {
+
+        final var check = new ActionableRetentionCheck(new RetentionCheckPathfinder(RETENTION_REQUIRED));
+
+        assertThat(metrics.recordCheck(PATHFINDER_REFERRAL, () -> check)).isSameAs(check);
+
+        assertThat(meterRegistry.get(RETENTION_CHECK_TIMER)
+            .tag("checkType", PATHFINDER_REFERRAL)
+            .tag("outcome", "RETENTION_REQUIRED")
+            .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(RETENTION_CHECK_OUTCOME_COUNTER)
+            .tag("outcome", "RETENTION_REQUIRED")
+            .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordCheckDoesNotCountUninterestingOutcomes() {
+
+        metrics.recordCheck(PATHFINDER_REFERRAL,
+            () -> new ActionableRetentionCheck(new RetentionCheckPathfinder(RETENTION_NOT_REQUIRED)));
+
+        assertThat(meterRegistry.find(RETENTION_CHECK_TIMER).tag("outcome", "RETENTION_NOT_REQUIRED").timer())
+            .isNotNull();
+        assertThat(meterRegistry.find(RETENTION_CHECK_OUTCOME_COUNTER).counter()).isNull();
+    }
+
+    @Test
+    void recordCheckTimesFailures() {
+
+        assertThatThrownBy(() -> metrics.recordCheck(PATHFINDER_REFERRAL, () -> {
+            throw new IllegalStateException("Downstream failure");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(RETENTION_CHECK_TIMER).tag("outcome", "ERROR").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordFalsePositive() {
+
+        metrics.recordFalsePositive("DATA_DUPLICATE_AP");
+
+        assertThat(meterRegistry.get(RETENTION_CHECK_OUTCOME_COUNTER)
+            .tag("checkType", "DATA_DUPLICATE_AP")
+            .tag("outcome", "FALSE_POSITIVE")
+            .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordResolution() {
+
+        assertThat(metrics.recordResolution(() -> RETAINED)).isEqualTo(RETAINED);
+
+        assertThat(meterRegistry.get(REFERRAL_RESOLUTION_TIMER).tag("resolution", "RETAINED").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void recordEventTimesSuccessAndFailure() {
+
+        metrics.recordEvent("SOME_EVENT", () -> {});
+        assertThatThrownBy(() -> metrics.recordEvent("SOME_EVENT", () -> {
+            throw new IllegalStateException("Handler failure");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(EVENT_HANDLER_TIMER).tag("outcome", "SUCCESS").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(EVENT_HANDLER_TIMER).tag("outcome", "ERROR").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordDuplicateEvent() {
+
+        metrics.recordDuplicateEvent("SOME_EVENT");
+
+        assertThat(meterRegistry.get(DUPLICATE_EVENT_COUNTER).tag("eventType", "SOME_EVENT").counter().count())
+            .isEqualTo(1);
+    }
+}
@@ -0,0 +1,66 @@
+package uk.gov.justice.hmpps.datacompliance.services.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.referral.ReferralResolutionRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution.ResolutionStatus.PENDING;
+
+@ExtendWith(MockitoExtension.class)
+class UnresolvedReferralsGaugeTest {
+
+    @Mock
+    private ReferralResolutionRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UnresolvedReferralsGauge gauge;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        gauge = new UnresolvedReferralsGauge(repository);
+        gauge.bindTo(meterRegistry);
+    }
+
+    @Test
+    void scrapeDoesNotQueryDatabase() {
+
+        assertThat(unresolvedReferrals()).isZero();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void refreshUpdatesCount() {
+
+        when(repository.countByResolutionStatus(PENDING)).thenReturn(3L);
+
+        gauge.refresh();
+
+        assertThat(unresolvedReferrals()).isEqualTo(3);
+    }
+
+    @Test
+    void failedRefreshRetainsPreviousCount() {
+
+        when(repository.countByResolutionStatus(PENDING))
+            .thenReturn(3L)
+            .thenThrow(new IllegalStateException("Database unavailable"));
+
+        gauge.refresh();
+        gauge.refresh();
+
+        assertThat(unresolvedReferrals()).isEqualTo(3);
+    }
+
+    private double unresolvedReferrals() {
+        return meterRegistry.get("data_compliance.referrals.unresolved").gauge().value();
+    }
+}
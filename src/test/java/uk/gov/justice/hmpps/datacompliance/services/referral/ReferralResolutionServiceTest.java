@@ -1,6 +1,7 @@
 package uk.gov.justice.hmpps.datacompliance.services.referral;
 
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,6 +9,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.OffenderDeletionReferral;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution;
@@ -20,9 +22,11 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.Retent
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckManual;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.referral.OffenderDeletionReferralRepository;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.referral.ReferralResolutionRepository;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.RetentionCheckRepository;
 import uk.gov.justice.hmpps.datacompliance.services.deletion.DeletionService;
+import uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics;
 import uk.gov.justice.hmpps.datacompliance.services.retention.ActionableRetentionCheck;
-import uk.gov.justice.hmpps.datacompliance.services.retention.FalsePositiveCheckService;
+import uk.gov.justice.hmpps.datacompliance.services.retention.FalsePositiveCheckRequested;
 import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
 
 import java.time.LocalDateTime;
@@ -32,6 +36,8 @@ import java.util.Optional;
 import static java.time.temporal.ChronoUnit.MILLIS;
 import static java.util.Arrays.stream;
 import static java.util.Collections.emptyList;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static javax.persistence.LockModeType.OPTIMISTIC_FORCE_INCREMENT;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -39,6 +45,7 @@ import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -50,6 +57,8 @@ import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.FALSE_POSITIVE;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_NOT_REQUIRED;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_REQUIRED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate.FalsePositiveCheckStatus.COMPLETED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate.FalsePositiveCheckStatus.REQUESTED;
 
 @ExtendWith(MockitoExtension.class)
 class ReferralResolutionServiceTest {
@@ -66,11 +75,14 @@ class ReferralResolutionServiceTest {
     private DeletionService deletionService;
 
     @Mock
-    private FalsePositiveCheckService falsePositiveCheckService;
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private DataComplianceProperties config;
 
+    @Mock
+    private RetentionCheckRepository retentionCheckRepository;
+
     private ReferralResolutionService referralResolutionService;
 
     @BeforeEach
@@ -80,8 +92,10 @@ class ReferralResolutionServiceTest {
             deletionService,
             referralRepository,
             referralResolutionRepository,
-            falsePositiveCheckService,
-            config);
+            eventPublisher,
+            config,
+            new DataComplianceMetrics(new SimpleMeterRegistry()),
+            retentionCheckRepository);
     }
 
     @Test
@@ -124,6 +138,18 @@ class ReferralResolutionServiceTest {
         verify(deletionService, never()).grantDeletion(any());
     }
 
+    @Test
+    void processReferralFailsIfPendingCheckCannotBeRequested() {
+
+        final var referral = mock(OffenderDeletionReferral.class);
+        final var actionableCheck = new ActionableRetentionCheck(new RetentionCheckManual(Status.PENDING))
+            .setPendingCheck(retentionCheck -> failedFuture(new IllegalStateException("Unable to send message")));
+
+        assertThatThrownBy(() -> referralResolutionService.processReferral(referral, List.of(actionableCheck)))
+            .hasRootCauseInstanceOf(IllegalStateException.class)
+            .hasRootCauseMessage("Unable to send message");
+    }
+
     @Test
     void handlePendingDeletionThrowsWhenNoChecksAreReturned() {
 
@@ -177,6 +203,96 @@ class ReferralResolutionServiceTest {
 
         verify(referralResolutionRepository).save(resolution);
         verify(deletionService, never()).grantDeletion(any());
+        verifyNoInteractions(retentionCheckRepository);
+    }
+
+    @Test
+    void processUpdatedRetentionCheckRequestsFalsePositiveCheck() {
+
+        final var updatedRetentionCheck = checkWithStatus(RETENTION_NOT_REQUIRED);
+        final var falsePositiveCheck = new RetentionCheckDatabaseDataDuplicate(RETENTION_REQUIRED);
+        final var resolution = pendingResolution(updatedRetentionCheck, falsePositiveCheck);
+
+        when(config.isFalsePositiveDuplicateCheckEnabled()).thenReturn(true);
+        when(retentionCheckRepository.findByReferralResolutionAndCheckStatus(resolution, RETENTION_REQUIRED))
+            .thenReturn(List.of(falsePositiveCheck));
+
+        referralResolutionService.processUpdatedRetentionCheck(updatedRetentionCheck);
+
+        assertThat(resolution.getResolutionStatus()).isEqualTo(PENDING);
+        assertThat(falsePositiveCheck.getCheckStatus()).isEqualTo(Status.PENDING);
+        assertThat(falsePositiveCheck.isFalsePositiveCheckRequested()).isTrue();
+        assertThat(resolution.getRetentionCheckCounts().count(Status.PENDING)).isEqualTo(1);
+
+        verify(eventPublisher).publishEvent(new FalsePositiveCheckRequested(falsePositiveCheck));
+        verify(deletionService, never()).grantDeletion(any());
+    }
+
+    @Test
+    void processFalsePositiveCheckResultWhenFalsePositive() {
+
+        final var falsePositiveCheck = requestedFalsePositiveCheck();
+        final var resolution = pendingResolution(checkWithStatus(RETENTION_NOT_REQUIRED), falsePositiveCheck);
+
+        referralResolutionService.processFalsePositiveCheckResult(1L, true);
+
+        assertThat(falsePositiveCheck.getCheckStatus()).isEqualTo(FALSE_POSITIVE);
+        assertThat(falsePositiveCheck.getFalsePositiveCheckStatus()).isEqualTo(COMPLETED);
+        assertThat(resolution.getResolutionStatus()).isEqualTo(DELETION_GRANTED);
+
+        verify(retentionCheckRepository).save(falsePositiveCheck);
+        verify(deletionService).grantDeletion(resolution.getOffenderDeletionReferral());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void processFalsePositiveCheckResultWhenNotFalsePositive() {
+
+        final var falsePositiveCheck = requestedFalsePositiveCheck();
+        final var resolution = pendingResolution(checkWithStatus(RETENTION_NOT_REQUIRED), falsePositiveCheck);
+
+        when(retentionCheckRepository.findByReferralResolutionAndCheckStatus(resolution, RETENTION_REQUIRED))
+            .thenReturn(List.of(falsePositiveCheck));
+
+        referralResolutionService.processFalsePositiveCheckResult(1L, false);
+
+        assertThat(falsePositiveCheck.getCheckStatus()).isEqualTo(RETENTION_REQUIRED);
+        assertThat(falsePositiveCheck.getFalsePositiveCheckStatus()).isEqualTo(COMPLETED);
+        assertThat(resolution.getResolutionStatus()).isEqualTo(RETAINED);
+
+        verify(deletionService, never()).grantDeletion(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void processFalsePositiveCheckResultIgnoresResultAlreadyApplied() {
+
+        final var falsePositiveCheck = requestedFalsePositiveCheck();
+        falsePositiveCheck.completeFalsePositiveCheck(true, NOW);
+
+        referralResolutionService.processFalsePositiveCheckResult(1L, false);
+
+        assertThat(falsePositiveCheck.getCheckStatus()).isEqualTo(FALSE_POSITIVE);
+
+        verify(retentionCheckRepository, never()).save(any());
+        verifyNoInteractions(referralResolutionRepository, deletionService);
+    }
+
+    @Test
+    void processUpdatedRetentionCheckUsesCheckCounts() {
+
+        final var updatedRetentionCheck = checkWithStatus(Status.PENDING);
+        final var resolution = pendingResolution(updatedRetentionCheck, checkWithStatus(RETENTION_NOT_REQUIRED));
+
+        updatedRetentionCheck.setCheckStatus(RETENTION_NOT_REQUIRED);
+
+        assertThat(resolution.getRetentionCheckCounts().count(Status.PENDING)).isZero();
+        assertThat(resolution.getRetentionCheckCounts().count(RETENTION_NOT_REQUIRED)).isEqualTo(2);
+
+        referralResolutionService.processUpdatedRetentionCheck(updatedRetentionCheck);
+
+        assertThat(resolution.getResolutionStatus()).isEqualTo(DELETION_GRANTED);
+        verifyNoInteractions(retentionCheckRepository);
     }
 
     @Test
@@ -232,18 +348,48 @@ class ReferralResolutionServiceTest {
     }
 
     @Test
-    void falsePositiveRetentionCheckIdentified() {
+    void processUpdatedRetentionCheckDoesNotGrantDeletionTwice() {
+
+        final var updatedRetentionCheck = checkWithStatus(RETENTION_NOT_REQUIRED);
+        final var resolution = pendingResolution(updatedRetentionCheck, checkWithStatus(RETENTION_NOT_REQUIRED));
+
+        referralResolutionService.processUpdatedRetentionCheck(updatedRetentionCheck);
+        referralResolutionService.processUpdatedRetentionCheck(updatedRetentionCheck);
+
+        assertThat(resolution.getResolutionStatus()).isEqualTo(DELETION_GRANTED);
+
+        verify(referralResolutionRepository, times(2)).lock(resolution, OPTIMISTIC_FORCE_INCREMENT);
+        verify(deletionService).grantDeletion(resolution.getOffenderDeletionReferral());
+    }
+
+    @Test
+    void potentialFalsePositiveRetentionCheckIdentified() {
 
         final var falsePositiveCheck = new RetentionCheckDatabaseDataDuplicate(RETENTION_REQUIRED);
 
-        when(falsePositiveCheckService.isFalsePositive(falsePositiveCheck)).thenReturn(true);
+        when(config.isFalsePositiveDuplicateCheckEnabled()).thenReturn(true);
 
         final var resolution = referralResolutionService.findResolution(List.of(
             checkWithStatus(RETENTION_NOT_REQUIRED),
             falsePositiveCheck), false);
 
-        assertThat(resolution).isEqualTo(DELETION_GRANTED);
-        assertThat(falsePositiveCheck.getCheckStatus()).isEqualTo(FALSE_POSITIVE);
+        assertThat(resolution).isEqualTo(PENDING);
+        assertThat(falsePositiveCheck.getCheckStatus()).isEqualTo(Status.PENDING);
+        assertThat(falsePositiveCheck.getFalsePositiveCheckStatus()).isEqualTo(REQUESTED);
+        assertThat(falsePositiveCheck.getFalsePositiveCheckDateTime()).isEqualTo(NOW);
+
+        verify(eventPublisher).publishEvent(new FalsePositiveCheckRequested(falsePositiveCheck));
+    }
+
+    @Test
+    void potentialFalsePositiveRetentionCheckIgnoredWhenDisabled() {
+
+        assertThat(referralResolutionService.findResolution(List.of(
+            checkWithStatus(RETENTION_NOT_REQUIRED),
+            new RetentionCheckDatabaseDataDuplicate(RETENTION_REQUIRED)), false))
+            .isEqualTo(RETAINED);
+
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -259,7 +405,7 @@ class ReferralResolutionServiceTest {
             new RetentionCheckAnalyticalPlatformDataDuplicate(RETENTION_REQUIRED)), false))
             .isEqualTo(RETAINED);
 
-        verifyNoInteractions(falsePositiveCheckService);
+        verifyNoInteractions(eventPublisher);
     }
 
     private ReferralResolution pendingResolution(final RetentionCheck... checks) {
@@ -276,6 +422,17 @@ class ReferralResolutionServiceTest {
         return resolution;
     }
 
+    private RetentionCheckDatabaseDataDuplicate requestedFalsePositiveCheck() {
+
+        final var check = new RetentionCheckDatabaseDataDuplicate(RETENTION_REQUIRED);
+        check.setRetentionCheckId(1L);
+        check.requestFalsePositiveCheck(NOW);
+
+        when(retentionCheckRepository.findById(1L)).thenReturn(Optional.of(check));
+
+        return check;
+    }
+
     private RetentionCheck checkWithStatus(final Status status) {
         return new RetentionCheckManual(status);
     }
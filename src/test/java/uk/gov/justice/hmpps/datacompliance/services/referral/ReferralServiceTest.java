@@ -32,6 +32,7 @@ import java.util.Optional;
 import java.util.Set;
 
 import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -97,6 +98,8 @@ class ReferralServiceTest {
 
         when(batchRepository.save(batch.capture()))
             .thenReturn(OffenderDeletionBatch.builder().batchId(BATCH_ID).build());
+        when(eventPusher.requestAdHocReferral(new OffenderNumber(OFFENDER_NUMBER), BATCH_ID))
+            .thenReturn(completedFuture(null));
 
         referralService.handleAdHocDeletion(new AdHocOffenderDeletion(OFFENDER_NUMBER, "Some reason"));
 
@@ -104,6 +107,7 @@ class ReferralServiceTest {
         assertThat(batch.getValue().getCommentText()).isEqualTo("Some reason");
         assertThat(batch.getValue().getBatchType()).isEqualTo(AD_HOC);
 
+        verify(retentionService).invalidateCachedChecks(new OffenderNumber(OFFENDER_NUMBER));
         verify(eventPusher).requestAdHocReferral(new OffenderNumber(OFFENDER_NUMBER), BATCH_ID);
     }
 
@@ -231,6 +235,7 @@ class ReferralServiceTest {
             true, AGENCY_LOCATION_ID, OFFENCE_CODES, ALERT_CODES));
 
 
+        verify(retentionService).invalidateCachedChecks(new OffenderNumber(OFFENDER_NUMBER));
         verify(referralResolutionService).updateReferralChangesIdentified(referral);
     }
 
@@ -0,0 +1,147 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDatabaseDataDuplicate;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.RetentionCheckRepository;
+import uk.gov.justice.hmpps.datacompliance.services.referral.ReferralResolutionService;
+import uk.gov.justice.hmpps.datacompliance.utils.TimeSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_REQUIRED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDataDuplicate.FalsePositiveCheckStatus.REQUESTED;
+
+@ExtendWith(MockitoExtension.class)
+class FalsePositiveCheckQueueTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final long RETENTION_CHECK_ID = 1L;
+
+    @Mock
+    private FalsePositiveCheckService falsePositiveCheckService;
+
+    @Mock
+    private ReferralResolutionService referralResolutionService;
+
+    @Mock
+    private RetentionCheckRepository retentionCheckRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FalsePositiveCheckQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new FalsePositiveCheckQueue(
+            falsePositiveCheckService,
+            referralResolutionService,
+            retentionCheckRepository,
+            transactionManager,
+            TimeSource.of(NOW),
+            DataComplianceProperties.builder()
+                .falsePositiveDuplicateCheckThreads(1)
+                .falsePositiveDuplicateCheckTimeout(Duration.ofHours(1))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    @Test
+    void onFalsePositiveCheckRequested() {
+
+        final var check = requestedCheck();
+        when(falsePositiveCheckService.isFalsePositive(check)).thenReturn(true);
+
+        queue.onFalsePositiveCheckRequested(new FalsePositiveCheckRequested(check));
+
+        verify(referralResolutionService, timeout(5000)).processFalsePositiveCheckResult(RETENTION_CHECK_ID, true);
+    }
+
+    @Test
+    void conductRetriesResultOnConflict() {
+
+        final var check = requestedCheck();
+        when(falsePositiveCheckService.isFalsePositive(check)).thenReturn(false);
+        doThrow(new OptimisticLockingFailureException("conflict"))
+            .doNothing()
+            .when(referralResolutionService).processFalsePositiveCheckResult(RETENTION_CHECK_ID, false);
+
+        queue.conduct(RETENTION_CHECK_ID);
+
+        verify(falsePositiveCheckService).isFalsePositive(check);
+        verify(referralResolutionService, times(2)).processFalsePositiveCheckResult(RETENTION_CHECK_ID, false);
+    }
+
+    @Test
+    void conductIgnoresCheckNoLongerRequested() {
+
+        final var check = requestedCheck();
+        check.completeFalsePositiveCheck(false, NOW);
+
+        queue.conduct(RETENTION_CHECK_ID);
+
+        verify(falsePositiveCheckService, never()).isFalsePositive(any());
+        verify(referralResolutionService, never()).processFalsePositiveCheckResult(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void conductHandlesFailure() {
+
+        final var check = requestedCheck();
+        when(falsePositiveCheckService.isFalsePositive(check)).thenThrow(new RuntimeException("Rekognition unavailable"));
+
+        queue.conduct(RETENTION_CHECK_ID);
+
+        verify(referralResolutionService, never()).processFalsePositiveCheckResult(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void resubmitOutstandingChecks() {
+
+        final var check = requestedCheck();
+        when(retentionCheckRepository.findIdsByFalsePositiveCheckStatusBefore(REQUESTED, NOW.minusHours(1)))
+            .thenReturn(List.of(RETENTION_CHECK_ID));
+        when(falsePositiveCheckService.isFalsePositive(check)).thenReturn(false);
+        doNothing().when(referralResolutionService).processFalsePositiveCheckResult(RETENTION_CHECK_ID, false);
+
+        queue.resubmitOutstandingChecks();
+
+        verify(referralResolutionService, timeout(5000)).processFalsePositiveCheckResult(RETENTION_CHECK_ID, false);
+    }
+
+    private RetentionCheckDatabaseDataDuplicate requestedCheck() {
+
+        final var check = new RetentionCheckDatabaseDataDuplicate(RETENTION_REQUIRED);
+        check.setRetentionCheckId(RETENTION_CHECK_ID);
+        check.requestFalsePositiveCheck(NOW);
+
+        when(retentionCheckRepository.findById(RETENTION_CHECK_ID)).thenReturn(Optional.of(check));
+
+        return check;
+    }
+}
@@ -1,10 +1,13 @@
 package uk.gov.justice.hmpps.datacompliance.services.retention;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.hmpps.datacompliance.client.image.recognition.FaceId;
+import uk.gov.justice.hmpps.datacompliance.client.image.recognition.FaceMatch;
 import uk.gov.justice.hmpps.datacompliance.client.image.recognition.OffenderImage;
 import uk.gov.justice.hmpps.datacompliance.client.prisonapi.PrisonApiClient;
 import uk.gov.justice.hmpps.datacompliance.client.prisonapi.dto.OffenderImageMetadata;
@@ -17,14 +20,24 @@ import uk.gov.justice.hmpps.datacompliance.services.duplicate.detection.image.Im
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.util.Arrays.stream;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_REQUIRED;
 
@@ -49,14 +62,12 @@ class FalsePositiveCheckServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new FalsePositiveCheckService(
-            prisonApiClient,
-            imageDuplicationDetectionService,
-            DataComplianceProperties.builder()
-                .falsePositiveDuplicateCheckEnabled(true)
-                .falsePositiveDuplicateRequiredImageCount(2)
-                .falsePositiveDuplicateImageSimilarityThreshold(IMAGE_SIMILARITY_THRESHOLD)
-                .build());
+        service = serviceWithComparisonThreads(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
     }
 
     @Test
@@ -164,6 +175,142 @@ class FalsePositiveCheckServiceTest {
         assertThat(service.isFalsePositive(generateDataDuplicateCheck())).isFalse();
     }
 
+    @Test
+    void stopsComparingOnceSimilarPairFound() {
+
+        // Compare on the calling thread so that the order of the comparisons is known:
+        service = serviceWithComparisonThreads(0);
+
+        final var referenceImages = mockImagesFor(REFERENCE_OFFENDER_NO, REFERENCE_OFFENDER_IMAGE_ID_1, REFERENCE_OFFENDER_IMAGE_ID_2);
+        final var duplicateImages = mockImagesFor(DUPLICATE_OFFENDER_NO, DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2);
+
+        when(imageDuplicationDetectionService.getSimilarity(referenceImages.get(0), duplicateImages.get(0)))
+            .thenReturn(Optional.of(IMAGE_SIMILARITY_THRESHOLD + 1));
+
+        assertThat(service.isFalsePositive(generateDataDuplicateCheck())).isFalse();
+
+        verify(imageDuplicationDetectionService, times(1)).getSimilarity(any(), any());
+        verify(prisonApiClient, never()).getImageData(new OffenderNumber(DUPLICATE_OFFENDER_NO), DUPLICATE_OFFENDER_IMAGE_ID_2);
+    }
+
+    @Test
+    void throwsIfImagesCannotBeRetrieved() {
+
+        mockImagesFor(REFERENCE_OFFENDER_NO, REFERENCE_OFFENDER_IMAGE_ID_1, REFERENCE_OFFENDER_IMAGE_ID_2);
+        mockImagesFor(DUPLICATE_OFFENDER_NO, DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2);
+
+        when(prisonApiClient.getImageData(new OffenderNumber(DUPLICATE_OFFENDER_NO), DUPLICATE_OFFENDER_IMAGE_ID_2))
+            .thenThrow(new IllegalStateException("Prison API unavailable"));
+        lenient().when(imageDuplicationDetectionService.getSimilarity(any(), any()))
+            .thenReturn(Optional.of(IMAGE_SIMILARITY_THRESHOLD - 1));
+
+        assertThatThrownBy(() -> service.isFalsePositive(generateDataDuplicateCheck()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Prison API unavailable");
+    }
+
+    @Test
+    void falsePositiveUsingFaceSearch() {
+
+        service = serviceWithFaceSearch();
+
+        mockImagesFor(REFERENCE_OFFENDER_NO, REFERENCE_OFFENDER_IMAGE_ID_1, REFERENCE_OFFENDER_IMAGE_ID_2);
+        mockImagesFor(DUPLICATE_OFFENDER_NO, DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2);
+        mockIndexedFacesFor(REFERENCE_OFFENDER_NO, REFERENCE_OFFENDER_IMAGE_ID_1, REFERENCE_OFFENDER_IMAGE_ID_2);
+        mockIndexedFacesFor(DUPLICATE_OFFENDER_NO, DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2);
+
+        when(imageDuplicationDetectionService.findMatchesAmong(any(), eq(faceIds(DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2)), eq(IMAGE_SIMILARITY_THRESHOLD)))
+            .thenReturn(Optional.of(emptySet()));
+
+        assertThat(service.isFalsePositive(generateDataDuplicateCheck())).isTrue();
+
+        verify(imageDuplicationDetectionService, times(2)).findMatchesAmong(any(), any(), anyDouble());
+        verify(imageDuplicationDetectionService, never()).getSimilarity(any(), any());
+        verify(prisonApiClient, never()).getImageData(any(), anyLong());
+    }
+
+    @Test
+    void notFalsePositiveIfFaceSearchFindsSimilarFace() {
+
+        service = serviceWithFaceSearch();
+
+        mockImagesFor(REFERENCE_OFFENDER_NO, REFERENCE_OFFENDER_IMAGE_ID_1, REFERENCE_OFFENDER_IMAGE_ID_2);
+        mockImagesFor(DUPLICATE_OFFENDER_NO, DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2);
+        mockIndexedFacesFor(REFERENCE_OFFENDER_NO, REFERENCE_OFFENDER_IMAGE_ID_1, REFERENCE_OFFENDER_IMAGE_ID_2);
+        mockIndexedFacesFor(DUPLICATE_OFFENDER_NO, DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2);
+
+        when(imageDuplicationDetectionService.findMatchesAmong(any(), any(), anyDouble()))
+            .thenReturn(Optional.of(Set.of(new FaceMatch(faceId(DUPLICATE_OFFENDER_IMAGE_ID_2), IMAGE_SIMILARITY_THRESHOLD))));
+
+        assertThat(service.isFalsePositive(generateDataDuplicateCheck())).isFalse();
+
+        verify(imageDuplicationDetectionService, times(1)).findMatchesAmong(any(), any(), anyDouble());
+        verify(prisonApiClient, never()).getImageData(any(), anyLong());
+    }
+
+    @Test
+    void comparesImageDataOfImagesNotIndexed() {
+
+        service = serviceWithFaceSearch();
+
+        final var referenceImages = mockImagesFor(REFERENCE_OFFENDER_NO, REFERENCE_OFFENDER_IMAGE_ID_1, REFERENCE_OFFENDER_IMAGE_ID_2);
+        final var duplicateImages = mockImagesFor(DUPLICATE_OFFENDER_NO, DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2);
+        mockIndexedFacesFor(REFERENCE_OFFENDER_NO, REFERENCE_OFFENDER_IMAGE_ID_1);
+        mockIndexedFacesFor(DUPLICATE_OFFENDER_NO, DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2);
+
+        when(imageDuplicationDetectionService.findMatchesAmong(faceId(REFERENCE_OFFENDER_IMAGE_ID_1), faceIds(DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2), IMAGE_SIMILARITY_THRESHOLD))
+            .thenReturn(Optional.of(emptySet()));
+        when(imageDuplicationDetectionService.getSimilarity(any(), any()))
+            .thenReturn(Optional.of(IMAGE_SIMILARITY_THRESHOLD - 1));
+
+        assertThat(service.isFalsePositive(generateDataDuplicateCheck())).isTrue();
+
+        verify(imageDuplicationDetectionService).getSimilarity(referenceImages.get(1), duplicateImages.get(0));
+        verify(imageDuplicationDetectionService).getSimilarity(referenceImages.get(1), duplicateImages.get(1));
+        verify(imageDuplicationDetectionService, times(2)).getSimilarity(any(), any());
+        verify(prisonApiClient, never()).getImageData(new OffenderNumber(REFERENCE_OFFENDER_NO), REFERENCE_OFFENDER_IMAGE_ID_1);
+    }
+
+    @Test
+    void comparesImageDataIfFacesCannotBeSearched() {
+
+        service = serviceWithFaceSearch();
+
+        mockImagesFor(REFERENCE_OFFENDER_NO, REFERENCE_OFFENDER_IMAGE_ID_1, REFERENCE_OFFENDER_IMAGE_ID_2);
+        mockImagesFor(DUPLICATE_OFFENDER_NO, DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2);
+        mockIndexedFacesFor(REFERENCE_OFFENDER_NO, REFERENCE_OFFENDER_IMAGE_ID_1, REFERENCE_OFFENDER_IMAGE_ID_2);
+        mockIndexedFacesFor(DUPLICATE_OFFENDER_NO, DUPLICATE_OFFENDER_IMAGE_ID_1, DUPLICATE_OFFENDER_IMAGE_ID_2);
+
+        when(imageDuplicationDetectionService.findMatchesAmong(any(), any(), anyDouble())).thenReturn(Optional.empty());
+        when(imageDuplicationDetectionService.getSimilarity(any(), any()))
+            .thenReturn(Optional.of(IMAGE_SIMILARITY_THRESHOLD - 1));
+
+        assertThat(service.isFalsePositive(generateDataDuplicateCheck())).isTrue();
+
+        verify(imageDuplicationDetectionService, times(4)).getSimilarity(any(), any());
+    }
+
+    private FalsePositiveCheckService serviceWithComparisonThreads(final int threads) {
+        return service(threads, false);
+    }
+
+    private FalsePositiveCheckService serviceWithFaceSearch() {
+        return service(4, true);
+    }
+
+    private FalsePositiveCheckService service(final int threads, final boolean faceSearchEnabled) {
+        return new FalsePositiveCheckService(
+            prisonApiClient,
+            imageDuplicationDetectionService,
+            DataComplianceProperties.builder()
+                .falsePositiveDuplicateCheckEnabled(true)
+                .falsePositiveDuplicateRequiredImageCount(2)
+                .falsePositiveDuplicateImageSimilarityThreshold(IMAGE_SIMILARITY_THRESHOLD)
+                .falsePositiveDuplicateComparisonThreads(threads)
+                .falsePositiveDuplicateFaceSearchEnabled(faceSearchEnabled)
+                .build());
+    }
+
     private RetentionCheckDataDuplicate generateDataDuplicateCheck() {
         final var check = new RetentionCheckDatabaseDataDuplicate(RETENTION_REQUIRED);
         check.addDataDuplicates(List.of(DataDuplicate.builder()
@@ -180,9 +327,26 @@ class FalsePositiveCheckServiceTest {
     }
 
     private OffenderImage mockImageDataFor(final String offenderNumber, final long imageId) {
-        final var offenderImage = mock(OffenderImage.class);
+        final var offenderImage = OffenderImage.builder()
+            .offenderNumber(new OffenderNumber(offenderNumber))
+            .imageId(imageId)
+            .imageData(new byte[]{(byte) imageId})
+            .build();
         lenient().when(prisonApiClient.getImageData(new OffenderNumber(offenderNumber), imageId))
             .thenReturn(Optional.of(offenderImage));
         return offenderImage;
     }
+
+    private void mockIndexedFacesFor(final String offenderNo, final Long... imageIds) {
+        when(imageDuplicationDetectionService.getIndexedFaceIds(new OffenderNumber(offenderNo)))
+            .thenReturn(stream(imageIds).collect(toMap(id -> id, this::faceId)));
+    }
+
+    private Set<FaceId> faceIds(final Long... imageIds) {
+        return stream(imageIds).map(this::faceId).collect(toSet());
+    }
+
+    private FaceId faceId(final long imageId) {
+        return new FaceId("face" + imageId);
+    }
 }
@@ -0,0 +1,103 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckMappa.MAPPA_REFERRAL;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckPathfinder.PATHFINDER_REFERRAL;
+
+class GuavaRetentionCheckCacheTest {
+
+    private static final OffenderNumber OFFENDER_NUMBER = new OffenderNumber("A1234AA");
+    private static final OffenderNumber OTHER_OFFENDER_NUMBER = new OffenderNumber("B1234BB");
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private GuavaRetentionCheckCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new GuavaRetentionCheckCache(Duration.ofHours(1), 100, Set.of(MAPPA_REFERRAL), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getCachesAnswer() {
+
+        assertThat(cache.get(OFFENDER_NUMBER, PATHFINDER_REFERRAL, this::lookup)).isTrue();
+        assertThat(cache.get(OFFENDER_NUMBER, PATHFINDER_REFERRAL, this::lookup)).isTrue();
+
+        assertThat(lookups).hasValue(1);
+        assertThat(cache.getStatistics().hitCount()).isEqualTo(1);
+        assertThat(cache.getStatistics().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getBypassesCacheForMustBeFreshChecks() {
+
+        cache.get(OFFENDER_NUMBER, MAPPA_REFERRAL, this::lookup);
+        cache.get(OFFENDER_NUMBER, MAPPA_REFERRAL, this::lookup);
+
+        assertThat(lookups).hasValue(2);
+        assertThat(cache.getStatistics().requestCount()).isZero();
+    }
+
+    @Test
+    void getAsyncCachesAnswerOnceLookupCompletes() {
+
+        assertThat(cache.getAsync(OFFENDER_NUMBER, PATHFINDER_REFERRAL, () -> completedFuture(lookup()))).isCompletedWithValue(true);
+        assertThat(cache.getAsync(OFFENDER_NUMBER, PATHFINDER_REFERRAL, () -> completedFuture(lookup()))).isCompletedWithValue(true);
+        assertThat(cache.get(OFFENDER_NUMBER, PATHFINDER_REFERRAL, this::lookup)).isTrue();
+
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    void getAsyncDoesNotCacheFailedLookup() {
+
+        assertThat(cache.getAsync(OFFENDER_NUMBER, PATHFINDER_REFERRAL, () -> failedFuture(new IllegalStateException("Failed!"))))
+            .isCompletedExceptionally();
+        assertThat(cache.getAsync(OFFENDER_NUMBER, PATHFINDER_REFERRAL, () -> completedFuture(lookup()))).isCompletedWithValue(true);
+
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    void invalidateOffender() {
+
+        cache.get(OFFENDER_NUMBER, PATHFINDER_REFERRAL, this::lookup);
+        cache.get(OTHER_OFFENDER_NUMBER, PATHFINDER_REFERRAL, this::lookup);
+
+        cache.invalidate(OFFENDER_NUMBER);
+
+        cache.get(OFFENDER_NUMBER, PATHFINDER_REFERRAL, this::lookup);
+        cache.get(OTHER_OFFENDER_NUMBER, PATHFINDER_REFERRAL, this::lookup);
+
+        assertThat(lookups).hasValue(3);
+    }
+
+    @Test
+    void invalidateCheckType() {
+
+        cache.get(OFFENDER_NUMBER, PATHFINDER_REFERRAL, this::lookup);
+
+        cache.invalidate(OFFENDER_NUMBER, PATHFINDER_REFERRAL);
+
+        cache.get(OFFENDER_NUMBER, PATHFINDER_REFERRAL, this::lookup);
+
+        assertThat(lookups).hasValue(2);
+    }
+
+    private Boolean lookup() {
+        lookups.incrementAndGet();
+        return true;
+    }
+}
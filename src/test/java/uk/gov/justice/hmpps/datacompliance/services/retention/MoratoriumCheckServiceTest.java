@@ -8,12 +8,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.justice.hmpps.datacompliance.dto.OffenderNumber;
 import uk.gov.justice.hmpps.datacompliance.dto.OffenderToCheck;
 import uk.gov.justice.hmpps.datacompliance.events.publishers.sqs.DataComplianceEventPusher;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode.CodeType;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.MoratoriumCodeRepository;
 
 import java.util.List;
 
 import static java.util.Arrays.stream;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode.CodeType.ALERT;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode.CodeType.OFFENCE;
 import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.CHILD_ABUSE_REGEX;
 import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.CHILD_ABUSE_REGEX_REVERSED;
 import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.PUBLIC_ROLE_ABUSE_REGEX;
@@ -26,15 +32,24 @@ class MoratoriumCheckServiceTest {
     private static final OffenderNumber OFFENDER_NUMBER = new OffenderNumber("A1234AA");
     private static final long RETENTION_CHECK_ID = 1;
     private static final int MAX_REGEX_LENGTH = 512;
+    private static final List<MoratoriumCode> MORATORIUM_CODES = List.of(
+        moratoriumCode("SX56099", OFFENCE),
+        moratoriumCode("SX56050", OFFENCE),
+        moratoriumCode("PC00000-001N", OFFENCE),
+        moratoriumCode("C1", ALERT),
+        moratoriumCode("XTACT", ALERT));
 
     @Mock
     private DataComplianceEventPusher eventPusher;
 
+    @Mock
+    private MoratoriumCodeRepository moratoriumCodeRepository;
+
     private MoratoriumCheckService service;
 
     @BeforeEach
     void setUp() {
-        service = new MoratoriumCheckService(eventPusher);
+        service = new MoratoriumCheckService(eventPusher, new MoratoriumCodeIndex(moratoriumCodeRepository));
     }
 
     @Test
@@ -158,9 +173,13 @@ class MoratoriumCheckServiceTest {
 
     @Test
     void retainDueToOffence() {
+
+        when(moratoriumCodeRepository.findAll()).thenReturn(MORATORIUM_CODES);
+
         assertThat(service.retainDueToOffence(offenderWithOffenceCodes("SX56099"))).isTrue();
         assertThat(service.retainDueToOffence(offenderWithOffenceCodes("SX56100", "SX56050", "NOT A MATCH"))).isTrue();
         assertThat(service.retainDueToOffence(offenderWithOffenceCodes("PC00000-001N"))).isTrue();
+        assertThat(service.retainDueToOffence(offenderWithOffenceCodes("PC00001N"))).isTrue();
 
         assertThat(service.retainDueToOffence(offenderWithOffenceCodes("NOT A MATCH"))).isFalse();
         assertThat(service.retainDueToOffence(offenderWithNoOffenceCode())).isFalse();
@@ -168,6 +187,9 @@ class MoratoriumCheckServiceTest {
 
     @Test
     void retainDueToAlert() {
+
+        when(moratoriumCodeRepository.findAll()).thenReturn(MORATORIUM_CODES);
+
         assertThat(service.retainDueToAlert(offenderWithAlertCodes("C1"))).isTrue();
         assertThat(service.retainDueToAlert(offenderWithAlertCodes("XCSEA", "XTACT", "NOT A MATCH"))).isTrue();
 
@@ -190,4 +212,8 @@ class MoratoriumCheckServiceTest {
     private OffenderToCheck offenderWithNoOffenceCode() {
         return offenderWithOffenceCodes();
     }
+
+    private static MoratoriumCode moratoriumCode(final String code, final CodeType codeType) {
+        return MoratoriumCode.builder().code(code).codeType(codeType).build();
+    }
 }
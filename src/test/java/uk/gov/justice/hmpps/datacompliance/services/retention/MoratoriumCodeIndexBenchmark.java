@@ -0,0 +1,112 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode.CodeType;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.MoratoriumCodeRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the indexed offence code lookup against the previous
+ * approach of checking each code against a static set.
+ *
+ * Run with: ./gradlew testClasses && java -cp <test runtime classpath> \
+ *     uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCodeIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoratoriumCodeIndexBenchmark {
+
+    private static final Pattern CODE_INSERT = Pattern.compile("VALUES \\('([^']+)', '(OFFENCE|ALERT)'\\)");
+
+    private Set<String> staticOffenceCodes;
+    private MoratoriumCodeIndex index;
+
+    private final List<String> nonMatchingOffences = List.of("TH68010", "RT88001", "MD71230", "FI68001", "PU86001");
+    private final List<String> matchingOffences = List.of("TH68010", "RT88001", "MD71230", "SX56099", "PU86001");
+
+    @Setup
+    public void setUp() throws IOException {
+
+        final var moratoriumCodes = loadMoratoriumCodes();
+
+        staticOffenceCodes = moratoriumCodes.stream()
+            .filter(code -> code.getCodeType() == CodeType.OFFENCE)
+            .map(MoratoriumCode::getCode)
+            .collect(toSet());
+
+        final var repository = mock(MoratoriumCodeRepository.class);
+        when(repository.findAll()).thenReturn(moratoriumCodes);
+
+        index = new MoratoriumCodeIndex(repository);
+        index.refresh();
+    }
+
+    @Benchmark
+    public boolean staticSetNoMatch() {
+        return nonMatchingOffences.stream().anyMatch(staticOffenceCodes::contains);
+    }
+
+    @Benchmark
+    public boolean staticSetMatch() {
+        return matchingOffences.stream().anyMatch(staticOffenceCodes::contains);
+    }
+
+    @Benchmark
+    public boolean indexNoMatch() {
+        return index.containsAnyOffenceCode(nonMatchingOffences);
+    }
+
+    @Benchmark
+    public boolean indexMatch() {
+        return index.containsAnyOffenceCode(matchingOffences);
+    }
+
+    private static List<MoratoriumCode> loadMoratoriumCodes() throws IOException {
+        try (final InputStream migration = MoratoriumCodeIndexBenchmark.class
+            .getResourceAsStream("/db/migration/V1_28__moratorium_code.sql")) {
+
+            return CODE_INSERT.matcher(new String(migration.readAllBytes(), UTF_8)).results()
+                .map(insert -> MoratoriumCode.builder()
+                    .code(insert.group(1))
+                    .codeType(CodeType.valueOf(insert.group(2)))
+                    .build())
+                .collect(toList());
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(MoratoriumCodeIndexBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
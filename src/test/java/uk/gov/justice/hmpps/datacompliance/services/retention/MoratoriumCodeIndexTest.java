@@ -0,0 +1,112 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode.CodeType;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.MoratoriumCodeRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode.CodeType.ALERT;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.MoratoriumCode.CodeType.OFFENCE;
+
+@ExtendWith(MockitoExtension.class)
+class MoratoriumCodeIndexTest {
+
+    @Mock
+    private MoratoriumCodeRepository repository;
+
+    private MoratoriumCodeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MoratoriumCodeIndex(repository);
+    }
+
+    @Test
+    void expandRange() {
+        assertThat(MoratoriumCodeIndex.expand("SX03001-004N"))
+            .containsExactlyInAnyOrder("SX03001-004N", "SX03001N", "SX03002N", "SX03003N", "SX03004N");
+        assertThat(MoratoriumCodeIndex.expand("SX56051-052NA"))
+            .containsExactlyInAnyOrder("SX56051-052NA", "SX56051NA", "SX56052NA");
+        assertThat(MoratoriumCodeIndex.expand("SX03062-175N")).hasSize(115).contains("SX03099N", "SX03100N");
+    }
+
+    @Test
+    void expandLeavesPlainAndInvalidCodesUnchanged() {
+        assertThat(MoratoriumCodeIndex.expand("SX56099")).containsExactly("SX56099");
+        assertThat(MoratoriumCodeIndex.expand("SX03004-001N")).containsExactly("SX03004-001N");
+        assertThat(MoratoriumCodeIndex.expand("SX3-1004N")).containsExactly("SX3-1004N");
+    }
+
+    @Test
+    void containsAnyCode() {
+
+        when(repository.findAll()).thenReturn(List.of(
+            moratoriumCode("SX03001-004N", OFFENCE),
+            moratoriumCode("c1 ", ALERT)));
+
+        assertThat(index.containsAnyOffenceCode(List.of("NOT A MATCH", "SX03003N"))).isTrue();
+        assertThat(index.containsAnyOffenceCode(List.of("SX03005N"))).isFalse();
+        assertThat(index.containsAnyOffenceCode(List.of("C1"))).isFalse();
+        assertThat(index.containsAnyAlertCode(List.of("C1"))).isTrue();
+        assertThat(index.containsAnyAlertCode(List.of())).isFalse();
+
+        verify(repository).findAll();
+    }
+
+    @Test
+    void refreshSwapsInNewCodes() {
+
+        when(repository.findAll())
+            .thenReturn(List.of(moratoriumCode("C1", ALERT)))
+            .thenReturn(List.of(moratoriumCode("C2", ALERT)));
+
+        index.refresh();
+        assertThat(index.containsAnyAlertCode(List.of("C1"))).isTrue();
+
+        index.refresh();
+        assertThat(index.containsAnyAlertCode(List.of("C1"))).isFalse();
+        assertThat(index.containsAnyAlertCode(List.of("C2"))).isTrue();
+    }
+
+    @Test
+    void refreshRetainsPreviousCodesIfNoneFound() {
+
+        when(repository.findAll())
+            .thenReturn(List.of(moratoriumCode("C1", ALERT)))
+            .thenReturn(List.of());
+
+        index.refresh();
+        index.refresh();
+
+        assertThat(index.containsAnyAlertCode(List.of("C1"))).isTrue();
+    }
+
+    @Test
+    void failsIfNoCodesLoaded() {
+
+        when(repository.findAll()).thenReturn(List.of());
+
+        assertThatThrownBy(() -> index.containsAnyOffenceCode(List.of("SX03001N")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Moratorium codes have not been loaded");
+        assertThatThrownBy(() -> index.containsAnyAlertCode(List.of("C1")))
+            .isInstanceOf(IllegalStateException.class);
+
+        verify(repository, times(2)).findAll();
+    }
+
+    private static MoratoriumCode moratoriumCode(final String code, final CodeType codeType) {
+        return MoratoriumCode.builder().code(code).codeType(codeType).build();
+    }
+}
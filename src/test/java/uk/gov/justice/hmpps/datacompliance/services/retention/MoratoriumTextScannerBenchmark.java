@@ -0,0 +1,102 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+import static java.util.regex.Pattern.DOTALL;
+import static java.util.stream.Collectors.toList;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.CHILD_ABUSE_REGEX;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.CHILD_ABUSE_REGEX_REVERSED;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.PUBLIC_ROLE_ABUSE_REGEX;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.PUBLIC_ROLE_ABUSE_REGEX_REVERSED;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.RED_FLAGS;
+
+/**
+ * Compares the free text patterns sent with each free text search
+ * against the in-process scanner, on case notes of increasing length.
+ *
+ * Run with: ./gradlew testClasses && java -cp <test runtime classpath> \
+ *     uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScannerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoratoriumTextScannerBenchmark {
+
+    private static final String CASE_NOTE = "Prisoner attended education this morning and was polite to staff. " +
+        "Spoke to his offender manager about his release plans and accommodation on licence. ";
+
+    @Param({"1000", "10000", "100000"})
+    private int textLength;
+
+    private String unflaggedText;
+    private String flaggedText;
+
+    private List<Pattern> patterns;
+    private MoratoriumTextScanner scanner;
+
+    @Setup
+    public void setUp() {
+
+        unflaggedText = CASE_NOTE.repeat(textLength / CASE_NOTE.length() + 1).substring(0, textLength);
+        flaggedText = unflaggedText + " Concerns raised about risk to children.";
+
+        patterns = List.of(RED_FLAGS, CHILD_ABUSE_REGEX, CHILD_ABUSE_REGEX_REVERSED,
+                PUBLIC_ROLE_ABUSE_REGEX, PUBLIC_ROLE_ABUSE_REGEX_REVERSED).stream()
+            .map(regex -> Pattern.compile(regex, CASE_INSENSITIVE | DOTALL))
+            .collect(toList());
+
+        scanner = new MoratoriumTextScanner();
+    }
+
+    @Benchmark
+    public boolean regexUnflagged() {
+        return matchesAnyPattern(unflaggedText);
+    }
+
+    @Benchmark
+    public boolean regexFlagged() {
+        return matchesAnyPattern(flaggedText);
+    }
+
+    @Benchmark
+    public boolean scannerUnflagged() {
+        return scanner.scan(unflaggedText).isMatch();
+    }
+
+    @Benchmark
+    public boolean scannerFlagged() {
+        return scanner.scan(flaggedText).isMatch();
+    }
+
+    private boolean matchesAnyPattern(final String text) {
+        return patterns.stream().anyMatch(pattern -> pattern.matcher(text).matches());
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(MoratoriumTextScannerBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
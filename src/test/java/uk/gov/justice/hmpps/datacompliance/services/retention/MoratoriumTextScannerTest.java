@@ -0,0 +1,101 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumTextScanner.ScanResult;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+import static java.util.regex.Pattern.DOTALL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.CHILD_ABUSE_REGEX;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.CHILD_ABUSE_REGEX_REVERSED;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.PUBLIC_ROLE_ABUSE_REGEX;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.PUBLIC_ROLE_ABUSE_REGEX_REVERSED;
+import static uk.gov.justice.hmpps.datacompliance.services.retention.MoratoriumCheckService.RED_FLAGS;
+
+class MoratoriumTextScannerTest {
+
+    private final MoratoriumTextScanner scanner = new MoratoriumTextScanner();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "Some text flagging offender as a paedophile.",
+        "Some text containing no 'red flags'.",
+        "Some text containing child abuse evidence.",
+        "Some text mentioning abuse of children.",
+        "Some text mentioning schools and abuse.",
+        "Some text mentioning abuse in schools.",
+        "Some text containing unrelated comments.",
+        "Some text containing words risk and son within it",
+        "Some text with words surrounded by non-alphabetic characters:risk... and ...son!",
+        "Some text with risk or reason of accidentally flagging",
+        "Some text with reasonable risk of accidentally flagging",
+        "Some text containing words risk and girlfriend",
+        "Some text containing words boy and risk",
+        "Some text containing words boyfriend risk",
+        "Some text containing words risk and minority",
+        "Some text containing words risk and ...minor;",
+        "Some text containing words risk and schooling",
+        "Some text containing words risk and ...school;",
+        "Some text containing words risk and canteen",
+        "Some text containing words teenager and risk",
+        "Some text containing phrases in touch and child",
+        "Some text containing phrases child and in touch",
+        "Some text containing words child and ...touch;",
+        "touch child",
+        "in touch with his grandson",
+        "Grandson at RISK",
+        "underage\nsex",
+        "under the age of consent, teacher exposed",
+        "boy",
+        "risk boy",
+        "sexboy",
+        "childsex",
+        "sextouch",
+        "SCHOOL SAFEGUARDING"
+    })
+    void matchesPatterns(final String text) {
+
+        final var result = scanner.scan(text);
+
+        assertThat(result.isRedFlags()).isEqualTo(matches(RED_FLAGS, text));
+        assertThat(result.isChildAbuse()).isEqualTo(matches(CHILD_ABUSE_REGEX, text));
+        assertThat(result.isChildAbuseReversed()).isEqualTo(matches(CHILD_ABUSE_REGEX_REVERSED, text));
+        assertThat(result.isPublicRoleAbuse()).isEqualTo(matches(PUBLIC_ROLE_ABUSE_REGEX, text));
+        assertThat(result.isPublicRoleAbuseReversed()).isEqualTo(matches(PUBLIC_ROLE_ABUSE_REGEX_REVERSED, text));
+    }
+
+    @Test
+    void scan() {
+
+        final var result = scanner.scan("Some text mentioning abuse of children.");
+
+        assertThat(result.isMatch()).isTrue();
+        assertThat(result.isChildAbuse()).isFalse();
+        assertThat(result.isChildAbuseReversed()).isTrue();
+        assertThat(scanner.scan("").isMatch()).isFalse();
+    }
+
+    @Test
+    void scanAll() {
+        assertThat(scanner.scanAll(List.of("Some text flagging offender as a paedophile.", "Nothing to see here")))
+            .extracting(ScanResult::isMatch)
+            .containsExactly(true, false);
+    }
+
+    @Test
+    void scanLongText() {
+
+        final var text = "Unrelated case note. ".repeat(50_000) + "Mentions of risk to a child.";
+
+        assertThat(scanner.scan(text).isChildAbuseReversed()).isTrue();
+    }
+
+    private static boolean matches(final String regex, final String text) {
+        return Pattern.compile(regex, CASE_INSENSITIVE | DOTALL).matcher(text).matches();
+    }
+}
@@ -0,0 +1,214 @@
+package uk.gov.justice.hmpps.datacompliance.services.retention;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckPathfinder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_NOT_REQUIRED;
+
+class RetentionCheckExecutorTest {
+
+    private static final ActionableRetentionCheck CHECK =
+        new ActionableRetentionCheck(new RetentionCheckPathfinder(RETENTION_NOT_REQUIRED));
+
+    private RetentionCheckExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void makesLookupsOnCallingThreadWhenNotConcurrent() {
+
+        executor = new RetentionCheckExecutor(DataComplianceProperties.builder().build());
+
+        final var callingThread = Thread.currentThread();
+        final var check = executor.submit(() -> {
+            assertThat(Thread.currentThread()).isSameAs(callingThread);
+            return CHECK;
+        });
+
+        assertThat(check).isDone();
+        assertThat(executor.getAnswer(check)).isSameAs(CHECK);
+    }
+
+    @Test
+    void makesLookupsConcurrently() {
+
+        executor = concurrentExecutor(Duration.ofSeconds(5));
+
+        final var latch = new CountDownLatch(2);
+
+        // Neither lookup can complete unless both are running at the same time:
+        final var check1 = executor.submit(() -> awaitOther(latch));
+        final var check2 = executor.submit(() -> awaitOther(latch));
+
+        assertThat(executor.getAnswer(check1)).isSameAs(CHECK);
+        assertThat(executor.getAnswer(check2)).isSameAs(CHECK);
+    }
+
+    @Test
+    void appliesTimeoutToEachLookup() {
+
+        executor = concurrentExecutor(Duration.ofMillis(200));
+
+        final var check1 = executor.submit(() -> sleep(5000));
+        final var check2 = executor.submit(() -> sleep(150));
+
+        final var started = System.nanoTime();
+
+        assertThatThrownBy(() -> executor.getAnswer(check1))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("did not complete within");
+        assertThat(executor.getAnswer(check2)).isSameAs(CHECK);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void lookupTimeoutStartsWhenItIsSubmitted() throws Exception {
+
+        executor = concurrentExecutor(Duration.ofMillis(200));
+
+        final var check1 = executor.submit(() -> sleep(150));
+        Thread.sleep(100);
+        final var check2 = executor.submit(() -> sleep(150));
+
+        // The second lookup completes after the first one's timeout, but within its own:
+        assertThat(executor.getAnswer(check1)).isSameAs(CHECK);
+        assertThat(executor.getAnswer(check2)).isSameAs(CHECK);
+    }
+
+    @Test
+    void interruptsLookupThatTimesOut() throws Exception {
+
+        executor = concurrentExecutor(Duration.ofMillis(50));
+
+        final var interrupted = new CountDownLatch(1);
+        final var check = executor.submit(() -> {
+            try {
+                Thread.sleep(5000);
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+            }
+            return CHECK;
+        });
+
+        assertThatThrownBy(() -> executor.getAnswer(check))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("did not complete within");
+        assertThat(interrupted.await(1, SECONDS)).isTrue();
+    }
+
+    @Test
+    void propagatesLookupFailureWithoutCancellingOtherLookups() {
+
+        executor = concurrentExecutor(Duration.ofSeconds(5));
+
+        final var check1 = executor.submit(() -> {
+            throw new IllegalArgumentException("Remote call failed");
+        });
+        final var check2 = executor.submit(() -> sleep(100));
+
+        assertThatThrownBy(() -> executor.getAnswer(check1))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Remote call failed");
+        assertThat(executor.getAnswer(check2)).isSameAs(CHECK);
+    }
+
+    @Test
+    void asyncLookupHoldsNoExecutorThread() {
+
+        executor = concurrentExecutor(Duration.ofSeconds(5));
+
+        final var pending = new CompletableFuture<ActionableRetentionCheck>();
+
+        // Both executor threads are free to make other lookups while the async lookup waits:
+        final var asyncCheck = executor.submitAsync(() -> pending);
+        final var latch = new CountDownLatch(2);
+        final var check1 = executor.submit(() -> awaitOther(latch));
+        final var check2 = executor.submit(() -> awaitOther(latch));
+
+        assertThat(executor.getAnswer(check1)).isSameAs(CHECK);
+        assertThat(executor.getAnswer(check2)).isSameAs(CHECK);
+
+        pending.complete(CHECK);
+        assertThat(executor.getAnswer(asyncCheck)).isSameAs(CHECK);
+    }
+
+    @Test
+    void cancelsAsyncLookupThatTimesOut() {
+
+        executor = concurrentExecutor(Duration.ofMillis(50));
+
+        final var pending = new CompletableFuture<ActionableRetentionCheck>();
+        final var check = executor.submitAsync(() -> pending);
+
+        assertThatThrownBy(() -> executor.getAnswer(check))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("did not complete within");
+        assertThat(pending).isCancelled();
+    }
+
+    @Test
+    void propagatesAsyncLookupFailure() {
+
+        executor = concurrentExecutor(Duration.ofSeconds(5));
+
+        final var check = executor.submitAsync(() ->
+            CompletableFuture.<ActionableRetentionCheck>failedFuture(new IllegalArgumentException("Remote call failed")));
+
+        assertThatThrownBy(() -> executor.getAnswer(check))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Remote call failed");
+    }
+
+    @Test
+    void waitsForAsyncLookupWhenNotConcurrent() {
+
+        executor = new RetentionCheckExecutor(DataComplianceProperties.builder().build());
+
+        final var check = executor.submitAsync(() -> CompletableFuture.supplyAsync(() -> CHECK));
+
+        assertThat(check).isDone();
+        assertThat(executor.getAnswer(check)).isSameAs(CHECK);
+    }
+
+    private RetentionCheckExecutor concurrentExecutor(final Duration timeout) {
+        return new RetentionCheckExecutor(DataComplianceProperties.builder()
+            .concurrentRetentionChecksEnabled(true)
+            .retentionCheckThreads(2)
+            .retentionCheckTimeout(timeout)
+            .build());
+    }
+
+    private ActionableRetentionCheck sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return CHECK;
+    }
+
+    private ActionableRetentionCheck awaitOther(final CountDownLatch latch) {
+        latch.countDown();
+        try {
+            if (!latch.await(1, SECONDS)) {
+                throw new IllegalStateException("Other check did not run concurrently");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return CHECK;
+    }
+}
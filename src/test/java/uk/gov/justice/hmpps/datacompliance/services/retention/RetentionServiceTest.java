@@ -1,11 +1,15 @@
 package uk.gov.justice.hmpps.datacompliance.services.retention;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
 import uk.gov.justice.hmpps.datacompliance.client.communityapi.CommunityApiClient;
+import uk.gov.justice.hmpps.datacompliance.client.image.recognition.FaceId;
+import uk.gov.justice.hmpps.datacompliance.client.image.recognition.FaceMatch;
 import uk.gov.justice.hmpps.datacompliance.client.pathfinder.PathfinderApiClient;
 import uk.gov.justice.hmpps.datacompliance.config.DataComplianceProperties;
 import uk.gov.justice.hmpps.datacompliance.dto.DuplicateResult;
@@ -23,33 +27,46 @@ import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.manual
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.RetentionCheckRepository;
 import uk.gov.justice.hmpps.datacompliance.services.duplicate.detection.data.DataDuplicationDetectionService;
 import uk.gov.justice.hmpps.datacompliance.services.duplicate.detection.image.ImageDuplicationDetectionService;
+import uk.gov.justice.hmpps.datacompliance.services.metrics.DataComplianceMetrics;
 import uk.gov.justice.hmpps.datacompliance.services.referral.ReferralResolutionService;
 import uk.gov.justice.hmpps.datacompliance.services.ual.UalService;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 
-import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.ANALYTICAL_PLATFORM;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.DataDuplicate.Method.ID;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.DISABLED;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.PENDING;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_NOT_REQUIRED;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.RETENTION_REQUIRED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheck.Status.SKIPPED;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckAlert.ALERT;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckAnalyticalPlatformDataDuplicate.DATA_DUPLICATE_AP;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckDatabaseDataDuplicate.DATA_DUPLICATE_DB;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckFreeTextSearch.FREE_TEXT_SEARCH;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckIdDataDuplicate.DATA_DUPLICATE_ID;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckImageDuplicate.IMAGE_DUPLICATE;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckManual.MANUAL_RETENTION;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckMappa.MAPPA_REFERRAL;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckOffence.OFFENCE;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckOffenderRestriction.OFFENDER_RESTRICTION;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckPathfinder.PATHFINDER_REFERRAL;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.retention.RetentionCheckUal.UAL;
 
 @ExtendWith(MockitoExtension.class)
 class RetentionServiceTest {
@@ -68,6 +85,14 @@ class RetentionServiceTest {
         .lastName("lastName")
         .bookingNo(BOOKING_NO)
         .build();
+    private static final RetentionCheckExecutor SEQUENTIAL_CHECKS =
+        new RetentionCheckExecutor(DataComplianceProperties.builder().build());
+    private static final DataComplianceMetrics METRICS = new DataComplianceMetrics(new SimpleMeterRegistry());
+    private static final RetentionCheckCache NO_CACHE = new NoOpRetentionCheckCache();
+    private static final Map<FaceId, Set<FaceMatch>> FACE_MATCHES =
+        Map.of(new FaceId("face1"), Set.of(new FaceMatch(new FaceId("face2"), 99.0)));
+    private static final Set<DuplicateResult> AP_DUPLICATE_RESULTS =
+        Set.of(new DuplicateResult(DUPLICATE_OFFENDER_NUMBER, 98.0));
 
     @Mock
     private ManualRetentionService manualRetentionService;
@@ -120,7 +145,10 @@ class RetentionServiceTest {
                 .databaseDataDuplicateCheckEnabled(true)
                 .analyticalPlatformDataDuplicateCheckEnabled(true)
                 .mappaCheckEnabled(true)
-                .build());
+                .build(),
+            SEQUENTIAL_CHECKS,
+            METRICS,
+            NO_CACHE);
     }
 
     @Test
@@ -141,6 +169,154 @@ class RetentionServiceTest {
     }
 
 
+    @Test
+    void conductRetentionChecksConcurrently() {
+
+        final var properties = DataComplianceProperties.builder()
+            .imageDuplicateCheckEnabled(true)
+            .idDataDuplicateCheckEnabled(true)
+            .databaseDataDuplicateCheckEnabled(true)
+            .analyticalPlatformDataDuplicateCheckEnabled(true)
+            .mappaCheckEnabled(true)
+            .concurrentRetentionChecksEnabled(true)
+            .retentionCheckThreads(2)
+            .retentionCheckTimeout(Duration.ofSeconds(5))
+            .build();
+        final var retentionCheckExecutor = new RetentionCheckExecutor(properties);
+
+        service = new RetentionService(
+            pathfinderApiClient,
+            communityApiClient,
+            manualRetentionService,
+            imageDuplicationDetectionService,
+            dataDuplicationDetectionService,
+            retentionCheckRepository,
+            referralResolutionService,
+            moratoriumCheckService,
+            offenderRestrictionCheckService,
+            ualService,
+            properties,
+            retentionCheckExecutor,
+            METRICS,
+            NO_CACHE);
+
+        givenRetentionRequired();
+
+        // Duplicates are only persisted on the calling thread, within its transaction:
+        final var callingThread = Thread.currentThread();
+        final var persistingThreads = new CopyOnWriteArraySet<Thread>();
+        when(imageDuplicationDetectionService.persistDuplicatesFor(OFFENDER_NUMBER, FACE_MATCHES)).thenAnswer(invocation -> {
+            persistingThreads.add(Thread.currentThread());
+            return List.of(mock(ImageDuplicate.class));
+        });
+        when(dataDuplicationDetectionService.persistDataDuplicates(OFFENDER_NUMBER, AP_DUPLICATE_RESULTS, ANALYTICAL_PLATFORM)).thenAnswer(invocation -> {
+            persistingThreads.add(Thread.currentThread());
+            return List.of(mock(DataDuplicate.class));
+        });
+
+        // ...while lookups, including the UAL database's, are made on the executor:
+        final var ualLookupThreads = new CopyOnWriteArraySet<Thread>();
+        when(ualService.isUnlawfullyAtLarge(OFFENDER_TO_CHECK)).thenAnswer(invocation -> {
+            ualLookupThreads.add(Thread.currentThread());
+            return true;
+        });
+
+        try {
+
+            final var retentionChecks = service.conductRetentionChecks(OFFENDER_TO_CHECK);
+
+            assertThat(retentionChecks).hasSize(12);
+            assertThat(retentionChecks).extracting(ActionableRetentionCheck::getRetentionCheck)
+                .allMatch(check -> isExpectedStatusWhenChecksEnabled(check, RETENTION_REQUIRED));
+            assertThat(persistingThreads).containsExactly(callingThread);
+            assertThat(ualLookupThreads).hasSize(1).doesNotContain(callingThread);
+
+        } finally {
+            retentionCheckExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void conductRetentionChecksSkipsRemoteChecksWhenRetentionAlreadyRequired() {
+
+        service = shortCircuitingService();
+
+        when(manualRetentionService.findManualOffenderRetentionWithReasons(OFFENDER_NUMBER)).thenReturn(Optional.empty());
+        when(moratoriumCheckService.retainDueToOffence(OFFENDER_TO_CHECK)).thenReturn(true);
+        when(moratoriumCheckService.retainDueToAlert(OFFENDER_TO_CHECK)).thenReturn(false);
+        when(ualService.isUnlawfullyAtLarge(OFFENDER_TO_CHECK)).thenReturn(false);
+
+        final var retentionChecks = service.conductRetentionChecks(OFFENDER_TO_CHECK);
+
+        assertThat(retentionChecks).hasSize(12);
+        assertThat(retentionChecks).extracting(check -> check.getRetentionCheck().getCheckType())
+            .containsExactly(PATHFINDER_REFERRAL, MANUAL_RETENTION, IMAGE_DUPLICATE, DATA_DUPLICATE_ID,
+                DATA_DUPLICATE_DB, DATA_DUPLICATE_AP, FREE_TEXT_SEARCH, OFFENDER_RESTRICTION, OFFENCE, ALERT, UAL,
+                MAPPA_REFERRAL);
+        assertThat(retentionChecks).extracting(check -> check.getRetentionCheck().getCheckStatus())
+            .containsExactly(SKIPPED, RETENTION_NOT_REQUIRED, SKIPPED, DISABLED,
+                SKIPPED, SKIPPED, SKIPPED, SKIPPED, RETENTION_REQUIRED, RETENTION_NOT_REQUIRED, RETENTION_NOT_REQUIRED,
+                SKIPPED);
+
+        retentionChecks.forEach(ActionableRetentionCheck::triggerPendingCheck);
+        verifyNoInteractions(pathfinderApiClient, communityApiClient, imageDuplicationDetectionService,
+            dataDuplicationDetectionService, offenderRestrictionCheckService);
+    }
+
+    @Test
+    void conductRetentionChecksDoesNotSkipRemoteChecksWhenRetentionNotYetRequired() {
+
+        service = shortCircuitingService();
+
+        givenRetentionNotRequired();
+
+        final var retentionChecks = service.conductRetentionChecks(OFFENDER_TO_CHECK);
+
+        assertThat(retentionChecks).extracting(ActionableRetentionCheck::getRetentionCheck)
+            .noneMatch(check -> check.isStatus(SKIPPED));
+
+        verify(pathfinderApiClient).isReferredToPathfinderAsync(OFFENDER_NUMBER);
+        verify(communityApiClient).isReferredForMappaAsync(OFFENDER_NUMBER);
+        verify(imageDuplicationDetectionService).findFaceMatchesFor(OFFENDER_NUMBER);
+    }
+
+    @Test
+    void conductRetentionChecksCachesRemoteAnswersButPersistsDuplicatesPerReferral() {
+
+        service = new RetentionService(
+            pathfinderApiClient,
+            communityApiClient,
+            manualRetentionService,
+            imageDuplicationDetectionService,
+            dataDuplicationDetectionService,
+            retentionCheckRepository,
+            referralResolutionService,
+            moratoriumCheckService,
+            offenderRestrictionCheckService,
+            ualService,
+            DataComplianceProperties.builder()
+                .imageDuplicateCheckEnabled(true)
+                .analyticalPlatformDataDuplicateCheckEnabled(true)
+                .mappaCheckEnabled(true)
+                .build(),
+            SEQUENTIAL_CHECKS,
+            METRICS,
+            new GuavaRetentionCheckCache(Duration.ofHours(1), 100, Set.of(), new SimpleMeterRegistry()));
+
+        givenRetentionRequired();
+
+        service.conductRetentionChecks(OFFENDER_TO_CHECK);
+        service.conductRetentionChecks(OFFENDER_TO_CHECK);
+
+        verify(pathfinderApiClient).isReferredToPathfinderAsync(OFFENDER_NUMBER);
+        verify(communityApiClient).isReferredForMappaAsync(OFFENDER_NUMBER);
+        verify(imageDuplicationDetectionService).findFaceMatchesFor(OFFENDER_NUMBER);
+        verify(imageDuplicationDetectionService, times(2)).persistDuplicatesFor(OFFENDER_NUMBER, FACE_MATCHES);
+        verify(dataDuplicationDetectionService).searchForAnalyticalPlatformDuplicates(OFFENDER_NUMBER);
+        verify(dataDuplicationDetectionService, times(2))
+            .persistDataDuplicates(OFFENDER_NUMBER, AP_DUPLICATE_RESULTS, ANALYTICAL_PLATFORM);
+    }
+
     @Test
     void conductRetentionChecksRetentionNotRequired() {
 
@@ -178,9 +354,12 @@ class RetentionServiceTest {
                 .databaseDataDuplicateCheckEnabled(false)
                 .analyticalPlatformDataDuplicateCheckEnabled(false)
                 .mappaCheckEnabled(true)
-                .build());
+                .build(),
+            SEQUENTIAL_CHECKS,
+            METRICS,
+            NO_CACHE);
 
-        when(pathfinderApiClient.isReferredToPathfinder(OFFENDER_NUMBER)).thenReturn(false);
+        when(pathfinderApiClient.isReferredToPathfinderAsync(OFFENDER_NUMBER)).thenReturn(Mono.just(false));
         when(manualRetentionService.findManualOffenderRetentionWithReasons(OFFENDER_NUMBER)).thenReturn(Optional.empty());
 
         final var retentionChecks = service.conductRetentionChecks(OFFENDER_TO_CHECK);
@@ -192,7 +371,7 @@ class RetentionServiceTest {
         verify(moratoriumCheckService).requestFreeTextSearch(eq(OFFENDER_NUMBER), any());
         verify(offenderRestrictionCheckService).requestOffenderRestrictionCheck(eq(OFFENDER_NUMBER), any());
         verify(ualService).isUnlawfullyAtLarge(eq(OFFENDER_TO_CHECK));
-        verify(communityApiClient).isReferredForMappa(eq(OFFENDER_NUMBER));
+        verify(communityApiClient).isReferredForMappaAsync(eq(OFFENDER_NUMBER));
         verifyNoInteractions(dataDuplicationDetectionService);
     }
 
@@ -265,33 +444,64 @@ class RetentionServiceTest {
         verify(referralResolutionService).processUpdatedRetentionCheck(freeTextCheck);
     }
 
+    private RetentionService shortCircuitingService() {
+        return new RetentionService(
+            pathfinderApiClient,
+            communityApiClient,
+            manualRetentionService,
+            imageDuplicationDetectionService,
+            dataDuplicationDetectionService,
+            retentionCheckRepository,
+            referralResolutionService,
+            moratoriumCheckService,
+            offenderRestrictionCheckService,
+            ualService,
+            DataComplianceProperties.builder()
+                .imageDuplicateCheckEnabled(true)
+                .idDataDuplicateCheckEnabled(false)
+                .databaseDataDuplicateCheckEnabled(true)
+                .analyticalPlatformDataDuplicateCheckEnabled(true)
+                .mappaCheckEnabled(true)
+                .shortCircuitRetentionChecksEnabled(true)
+                .build(),
+            SEQUENTIAL_CHECKS,
+            METRICS,
+            NO_CACHE);
+    }
+
     private void givenRetentionRequired() {
 
         final var manualRetention = mock(ManualRetention.class);
-        final var imageDuplicate = mock(ImageDuplicate.class);
-        final var dataDuplicate = mock(DataDuplicate.class);
 
-        when(pathfinderApiClient.isReferredToPathfinder(OFFENDER_NUMBER)).thenReturn(true);
+        when(pathfinderApiClient.isReferredToPathfinderAsync(OFFENDER_NUMBER)).thenReturn(Mono.just(true));
         when(manualRetentionService.findManualOffenderRetentionWithReasons(OFFENDER_NUMBER))
             .thenReturn(Optional.of(manualRetention));
-        when(imageDuplicationDetectionService.findDuplicatesFor(OFFENDER_NUMBER)).thenReturn(List.of(imageDuplicate));
-        when(dataDuplicationDetectionService.searchForAnalyticalPlatformDuplicates(OFFENDER_NUMBER))
-            .thenReturn(List.of(dataDuplicate));
+        givenImageAndAnalyticalPlatformDuplicates();
         when(moratoriumCheckService.retainDueToOffence(OFFENDER_TO_CHECK)).thenReturn(true);
         when(moratoriumCheckService.retainDueToAlert(OFFENDER_TO_CHECK)).thenReturn(true);
         when(ualService.isUnlawfullyAtLarge(OFFENDER_TO_CHECK)).thenReturn(true);
-        when(communityApiClient.isReferredForMappa(OFFENDER_NUMBER)).thenReturn(true);
+        when(communityApiClient.isReferredForMappaAsync(OFFENDER_NUMBER)).thenReturn(Mono.just(true));
     }
 
     private void givenRetentionNotRequired() {
-        when(pathfinderApiClient.isReferredToPathfinder(OFFENDER_NUMBER)).thenReturn(false);
+        when(pathfinderApiClient.isReferredToPathfinderAsync(OFFENDER_NUMBER)).thenReturn(Mono.just(false));
         when(manualRetentionService.findManualOffenderRetentionWithReasons(OFFENDER_NUMBER)).thenReturn(Optional.empty());
-        when(imageDuplicationDetectionService.findDuplicatesFor(OFFENDER_NUMBER)).thenReturn(emptyList());
-        when(dataDuplicationDetectionService.searchForAnalyticalPlatformDuplicates(OFFENDER_NUMBER)).thenReturn(emptyList());
+        when(imageDuplicationDetectionService.findFaceMatchesFor(OFFENDER_NUMBER)).thenReturn(Map.of());
+        when(dataDuplicationDetectionService.searchForAnalyticalPlatformDuplicates(OFFENDER_NUMBER)).thenReturn(Set.of());
         when(moratoriumCheckService.retainDueToOffence(OFFENDER_TO_CHECK)).thenReturn(false);
         when(moratoriumCheckService.retainDueToAlert(OFFENDER_TO_CHECK)).thenReturn(false);
         when(ualService.isUnlawfullyAtLarge(OFFENDER_TO_CHECK)).thenReturn(false);
-        when(communityApiClient.isReferredForMappa(OFFENDER_NUMBER)).thenReturn(false);
+        when(communityApiClient.isReferredForMappaAsync(OFFENDER_NUMBER)).thenReturn(Mono.just(false));
+    }
+
+    private void givenImageAndAnalyticalPlatformDuplicates() {
+        when(imageDuplicationDetectionService.findFaceMatchesFor(OFFENDER_NUMBER)).thenReturn(FACE_MATCHES);
+        when(imageDuplicationDetectionService.persistDuplicatesFor(OFFENDER_NUMBER, FACE_MATCHES))
+            .thenReturn(List.of(mock(ImageDuplicate.class)));
+        when(dataDuplicationDetectionService.searchForAnalyticalPlatformDuplicates(OFFENDER_NUMBER))
+            .thenReturn(AP_DUPLICATE_RESULTS);
+        when(dataDuplicationDetectionService.persistDataDuplicates(OFFENDER_NUMBER, AP_DUPLICATE_RESULTS, ANALYTICAL_PLATFORM))
+            .thenReturn(List.of(mock(DataDuplicate.class)));
     }
 
     private RetentionCheckDataDuplicate persistedDataDuplicateCheck() {
@@ -45,12 +45,14 @@ class ImageUploadBatchRepositoryTest extends JpaRepositoryTest {
         final var entityToUpdate = repository.findById(BATCH_ID).orElseThrow();
         entityToUpdate.setUploadCount(123L);
         entityToUpdate.setUploadEndDateTime(DATE_TIME.plusSeconds(1));
+        entityToUpdate.setCheckpointOffset(456L);
 
         repository.save(entityToUpdate);
 
         final var retrievedEntity = repository.findById(BATCH_ID).orElseThrow();
         assertThat(retrievedEntity.getUploadCount()).isEqualTo(123L);
         assertThat(retrievedEntity.getUploadEndDateTime()).isEqualTo(DATE_TIME.plusSeconds(1));
+        assertThat(retrievedEntity.getCheckpointOffset()).contains(456L);
     }
 
     @Test
@@ -58,4 +60,10 @@ class ImageUploadBatchRepositoryTest extends JpaRepositoryTest {
     void findLatestUploadBatch() {
         assertThat(repository.findFirstByBatchIdNotOrderByUploadStartDateTimeDesc(3).get().getBatchId()).isEqualTo(2);
     }
+
+    @Test
+    @Sql("classpath:seed.data/image_upload_batch.sql")
+    void findMostRecentUploadBatch() {
+        assertThat(repository.findFirstByOrderByUploadStartDateTimeDesc().get().getBatchId()).isEqualTo(3);
+    }
 }
@@ -5,12 +5,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.jdbc.Sql;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.OffenderImageUpload;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.JpaRepositoryTest;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.duplication.OffenderImageUploadRepository.UploadedImage;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static java.time.temporal.ChronoUnit.MILLIS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.OffenderImageUpload.ImageUploadStatus.ERROR;
+import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.duplication.OffenderImageUpload.ImageUploadStatus.SUCCESS;
 
 
 @Sql(scripts = {"classpath:seed.data/reset.sql", "classpath:seed.data/image_upload_batch.sql", "classpath:seed.data/offender_image_upload.sql"})
@@ -40,6 +44,25 @@ class OffenderImageUploadRepositoryTest extends JpaRepositoryTest {
         assertThat(retrievedEntity.getUploadErrorReason()).isEqualTo("Some error reason");
     }
 
+    @Test
+    void insertAllOffenderImageUploads() {
+
+        uploadRepository.insertAll(List.of(
+            buildOffenderImageUpload(),
+            OffenderImageUpload.builder()
+                .offenderNo("A1234AA")
+                .imageId(124L)
+                .faceId("321")
+                .uploadDateTime(DATE_TIME)
+                .imageUploadBatch(batchRepository.findById(1L).orElseThrow())
+                .uploadStatus(SUCCESS)
+                .build()));
+
+        assertThat(uploadRepository.findByOffenderNo("A1234AA"))
+            .extracting(OffenderImageUpload::getImageId, OffenderImageUpload::getUploadStatus, OffenderImageUpload::getFaceId)
+            .containsExactlyInAnyOrder(tuple(123L, ERROR, "321"), tuple(124L, SUCCESS, "321"));
+    }
+
     @Test
     void findOffenderImageUploadsByOffenderNo() {
 
@@ -69,6 +92,13 @@ class OffenderImageUploadRepositoryTest extends JpaRepositoryTest {
         assertThat(uploadRepository.findByOffenderNoAndImageId("UNKNOWN", 999L)).isEmpty();
     }
 
+    @Test
+    void findUploadedImagesByOffenderNoIn() {
+        assertThat(uploadRepository.findUploadedImagesByOffenderNoIn(List.of("OFFENDER1", "OFFENDER2", "UNKNOWN")))
+            .extracting(UploadedImage::getOffenderNo, UploadedImage::getImageId)
+            .containsExactlyInAnyOrder(tuple("OFFENDER1", 1L), tuple("OFFENDER1", 2L), tuple("OFFENDER2", 3L));
+    }
+
     @Test
     void findOffenderImageUploadByFaceId() {
         assertThat(uploadRepository.findByFaceId("1").orElseThrow().getUploadId())
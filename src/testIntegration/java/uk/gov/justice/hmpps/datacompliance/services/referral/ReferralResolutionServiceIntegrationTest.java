@@ -4,18 +4,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import uk.gov.justice.hmpps.datacompliance.IntegrationTest;
+import uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.referral.ReferralResolutionRepository;
 import uk.gov.justice.hmpps.datacompliance.repository.jpa.repository.retention.RetentionCheckRepository;
 
-import javax.transaction.Transactional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.concurrent.CompletableFuture.runAsync;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.doAnswer;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution.ResolutionStatus.PENDING;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.ReferralResolution.ResolutionStatus.RETAINED;
@@ -29,9 +32,14 @@ class ReferralResolutionServiceIntegrationTest extends IntegrationTest {
     @Autowired
     private RetentionCheckRepository retentionCheckRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @SpyBean
     private ReferralResolutionService referralResolutionService;
 
+    private final AtomicInteger conflicts = new AtomicInteger();
+
     @Test
     @Sql("classpath:seed.data/offender_deletion_batch.sql")
     @Sql("classpath:seed.data/offender_deletion_referral.sql")
@@ -48,9 +56,9 @@ class ReferralResolutionServiceIntegrationTest extends IntegrationTest {
             .join();
 
         assertThat(referralResolutionRepository.findById(1L).orElseThrow().getResolutionStatus()).isEqualTo(RETAINED);
+        assertThat(conflicts).hasValue(1);
     }
 
-    @Transactional
     void updateAndProcessCheck(final long retentionCheckId) {
 
         // Give the first process a head start:
@@ -58,11 +66,27 @@ class ReferralResolutionServiceIntegrationTest extends IntegrationTest {
             delay(100);
         }
 
-        final var check = retentionCheckRepository.findById(retentionCheckId).orElseThrow();
-        check.setCheckStatus(RETENTION_REQUIRED);
-        retentionCheckRepository.save(check);
+        try {
+            updateAndProcessCheckInTransaction(retentionCheckId);
+        } catch (final OptimisticLockingFailureException e) {
+
+            // The other process resolved the referral first, so this
+            // update is re-applied as the event listener would:
+            conflicts.incrementAndGet();
+            updateAndProcessCheckInTransaction(retentionCheckId);
+        }
+    }
 
-        referralResolutionService.processUpdatedRetentionCheck(check);
+    // The check counts held against the resolution are updated along with
+    // the check, so both must happen in the same transaction (as they do in
+    // the RetentionService):
+    private void updateAndProcessCheckInTransaction(final long retentionCheckId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            final var check = retentionCheckRepository.findById(retentionCheckId).orElseThrow();
+            check.setCheckStatus(RETENTION_REQUIRED);
+            retentionCheckRepository.save(check);
+            referralResolutionService.processUpdatedRetentionCheck(check);
+        });
     }
 
     // The first process has a head start so will call the
@@ -74,7 +98,7 @@ class ReferralResolutionServiceIntegrationTest extends IntegrationTest {
             return result;
         })
             .doAnswer(InvocationOnMock::callRealMethod)
-            .when(referralResolutionService).findResolution(any(), anyBoolean());
+            .when(referralResolutionService).findResolution(any(ReferralResolution.class));
     }
 
     private void delay(final long millis) {
@@ -2,3 +2,12 @@ INSERT INTO retention_check(retention_check_id, resolution_id, check_type, check
 INSERT INTO retention_check(retention_check_id, resolution_id, check_type, check_status) VALUES (2, 1, 'IMAGE_DUPLICATE', 'RETENTION_REQUIRED');
 INSERT INTO retention_check(retention_check_id, resolution_id, check_type, check_status) VALUES (3, 1, 'DATA_DUPLICATE_AP', 'RETENTION_REQUIRED');
 INSERT INTO retention_check(retention_check_id, resolution_id, check_type, check_status) VALUES (4, 1, 'ALERT', 'RETENTION_REQUIRED');
+
+-- Keep the check counts held against the resolutions in step with the checks above:
+UPDATE referral_resolution SET
+  pending_checks = (SELECT COUNT(*) FROM retention_check WHERE retention_check.resolution_id = referral_resolution.resolution_id AND retention_check.check_status = 'PENDING'),
+  retention_required_checks = (SELECT COUNT(*) FROM retention_check WHERE retention_check.resolution_id = referral_resolution.resolution_id AND retention_check.check_status = 'RETENTION_REQUIRED'),
+  retention_not_required_checks = (SELECT COUNT(*) FROM retention_check WHERE retention_check.resolution_id = referral_resolution.resolution_id AND retention_check.check_status = 'RETENTION_NOT_REQUIRED'),
+  false_positive_checks = (SELECT COUNT(*) FROM retention_check WHERE retention_check.resolution_id = referral_resolution.resolution_id AND retention_check.check_status = 'FALSE_POSITIVE'),
+  disabled_checks = (SELECT COUNT(*) FROM retention_check WHERE retention_check.resolution_id = referral_resolution.resolution_id AND retention_check.check_status = 'DISABLED'),
+  skipped_checks = (SELECT COUNT(*) FROM retention_check WHERE retention_check.resolution_id = referral_resolution.resolution_id AND retention_check.check_status = 'SKIPPED');
@@ -44,7 +44,7 @@ import static java.time.temporal.ChronoUnit.MILLIS;
 import static org.awaitility.Awaitility.await;
 import static uk.gov.justice.hmpps.datacompliance.repository.jpa.model.referral.OffenderDeletionBatch.BatchType.SCHEDULED;
 
-@Sql("classpath:seed.data/reset.sql")
+@Sql({"classpath:seed.data/reset.sql", "classpath:seed.data/moratorium_code.sql"})
 @SqlMergeMode(MergeMode.MERGE)
 @ActiveProfiles("message-integration")
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
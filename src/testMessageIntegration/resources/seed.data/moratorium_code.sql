@@ -0,0 +1,3 @@
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX03001-004N', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('SX56099', 'OFFENCE');
+INSERT INTO MORATORIUM_CODE(CODE, CODE_TYPE) VALUES ('C1', 'ALERT');
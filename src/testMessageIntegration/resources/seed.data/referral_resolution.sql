@@ -1 +1 @@
-INSERT INTO referral_resolution(resolution_id, referral_id, resolution_status, provisional_deletion_previously_granted, resolution_date_time) VALUES (1, 1, 'PENDING', FALSE, to_timestamp('2021-02-03 04:05:06', 'YYYY-MM-DD HH:MI:SS'));
+INSERT INTO referral_resolution(resolution_id, referral_id, resolution_status, provisional_deletion_previously_granted, resolution_date_time, version, pending_checks, retention_required_checks, retention_not_required_checks, false_positive_checks, disabled_checks, skipped_checks) VALUES (1, 1, 'PENDING', FALSE, to_timestamp('2021-02-03 04:05:06', 'YYYY-MM-DD HH:MI:SS'), 0, 0, 0, 0, 0, 0, 0);
@@ -9,4 +9,5 @@ DELETE FROM retention_check;
 DELETE FROM referral_resolution;
 DELETE FROM offender_deletion_referral;
 DELETE FROM offender_deletion_batch;
-DELETE FROM offender_ual;
\ No newline at end of file
+DELETE FROM offender_ual;
+DELETE FROM moratorium_code;
\ No newline at end of file